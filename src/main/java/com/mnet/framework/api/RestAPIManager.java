@@ -1,8 +1,20 @@
 package com.mnet.framework.api;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+
+import org.apache.http.HttpStatus;
+
+import com.mnet.framework.reporting.StepTimer;
+
 import io.restassured.RestAssured;
 import io.restassured.filter.log.RequestLoggingFilter;
 import io.restassured.filter.log.ResponseLoggingFilter;
+import io.restassured.response.Response;
 
 /**
  * Utility class to handle Rest API requests.
@@ -16,11 +28,14 @@ public class RestAPIManager {
 	 */
 	public static APIResponse get(APIRequest request) {
 		APIResponse response = null;
+		long startTime = StepTimer.start();
 		
 		try {
 			response = new APIResponse(request, request.getSpecification().get());
 		} catch (Exception e) {
 			return new APIResponse(request, e);
+		} finally {
+			StepTimer.stop(StepTimer.REST, startTime);
 		}
 		
 		return response;
@@ -43,16 +58,49 @@ public class RestAPIManager {
 	 */
 	public static APIResponse post(APIRequest request) {
 		APIResponse response = null;
+		long startTime = StepTimer.start();
 		
 		try {
 			response = new APIResponse(request, request.getSpecification().post());
 		} catch (Exception e) {
 			return new APIResponse(request, e);
+		} finally {
+			StepTimer.stop(StepTimer.REST, startTime);
 		}
 		
 		return response;
 	}
 	
+	/**
+	 * Simulates a POST request on the default host and port and streams the response body to the designated file
+	 * without holding it in memory (e.g. for large CSV / log exports).
+	 * On catastrophic failure of the request, the failure details are written to the file instead.
+	 * @return HTTP status code of the response (SC_NOT_FOUND on catastrophic failure, as for APIResponse).
+	 */
+	public static int post(APIRequest request, Path responseFile) {
+		long startTime = StepTimer.start();
+		
+		try {
+			Response response = request.getSpecification().post();
+			
+			try (InputStream body = response.asInputStream()) {
+				Files.copy(body, responseFile, StandardCopyOption.REPLACE_EXISTING);
+			}
+			
+			return response.getStatusCode();
+		} catch (Exception e) {
+			try {
+				Files.write(responseFile, e.toString().getBytes(StandardCharsets.UTF_8));
+			} catch (IOException ioe) {
+				// Failure is reported through the status code regardless
+			}
+			
+			return HttpStatus.SC_NOT_FOUND;
+		} finally {
+			StepTimer.stop(StepTimer.REST, startTime);
+		}
+	}
+	
 	/**
 	 * Enables verbose console logging for all API requests and responses.
 	 * @apiNote For debugging purposes only.
@@ -4,9 +4,13 @@ import java.io.File;
 import java.io.FileInputStream;
 import java.io.FileNotFoundException;
 import java.io.IOException;
+import java.time.Duration;
+import java.time.format.DateTimeParseException;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.Properties;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
 
 import org.apache.commons.io.FileUtils;
 
@@ -14,6 +18,8 @@ import org.apache.commons.io.FileUtils;
  * Fetches property values from local properties file.
  * Property file to be used is defined in environment.properties or equivalent.
  * Defined path: /src/test/resources/properties/
+ * @implNote Property files are read once per JVM into an immutable snapshot, which is safe to read from tests running in parallel.
+ * Typed values (getIntProperty(), getDurationProperty(), ...) are parsed once. Use reload() to pick up changes to the property files.
  * @version Spring 2023
  * @author Arya Biswas
  */
@@ -23,45 +29,20 @@ public class FrameworkProperties {
 			+ "src" + File.separator + "test" + File.separator
 			+ "resources" + File.separator + "properties" + File.separator;
 	
-	private static Properties defaultProperties;
-	private static Map<String, Properties> allProperties;
+	private static volatile Snapshot snapshot;
+	private static final Map<String, Properties> allProperties = new ConcurrentHashMap<String, Properties>();
 	protected String applicationVersion;
 	
 	/**Intializes propeties collection with default properties.*/
 	protected FrameworkProperties() {
-		Properties envProperties = loadPropertyFile("environment.properties", PROPERTY_DIRECTORY);
-		String propertiesFile = interpretAsProperty(envProperties.getProperty("Env"));
 		applicationVersion = getApplicationVersion();
-		
-		boolean saintsExecution = Boolean.parseBoolean(envProperties.getProperty("SaintsExecution"));
-		if (saintsExecution) {
-			try {
-				FileUtils.copyFileToDirectory(new File(envProperties.getProperty("PropertiesSource")), new File(envProperties.getProperty("PropertiesDestFolder")));
-			} catch (IOException ioe) {
-				ioe.printStackTrace();
-				throw new RuntimeException("Failed to copy file from properties file to " + envProperties.getProperty("PropertiesDestFolder"));
-			}	
-		}
-		
-		defaultProperties = loadPropertyFile(propertiesFile, PROPERTY_DIRECTORY);
-		allProperties = new HashMap<String, Properties>();
-		allProperties.put(propertiesFile, defaultProperties);
 	}
 	
 	/**
 	 * Returns the application version in use during automation execution (e.g. d4 or d3)
 	 */
 	public static String getApplicationVersion() {
-		Properties envProperties = loadPropertyFile("environment.properties", PROPERTY_DIRECTORY);
-		String propertiesFile = interpretAsProperty(envProperties.getProperty("Env"));
-		String applicationVersion = null;
-		if(propertiesFile.contains("d4_settings.properties")) {
-			applicationVersion = "d4" ;
-		}else if(propertiesFile.contains("d3_settings.properties")) {
-			applicationVersion = "d3" ;
-		}
-		
-		return applicationVersion;
+		return getSnapshot().applicationVersion;
 	}
 	
 	/**
@@ -70,7 +51,49 @@ public class FrameworkProperties {
 	 * @return String value of property in properties file
 	 */
 	public static String getProperty(String property) {
-		return defaultProperties.getProperty(property);
+		return getSnapshot().properties.get(property);
+	}
+	
+	/**
+	 * Returns value of specified property in default properties file, or defaultValue if the property is not defined.
+	 * @implNote Not an overload of getProperty() - getProperty(property, fileName) reads another properties file.
+	 */
+	public static String getStringProperty(String property, String defaultValue) {
+		String value = getProperty(property);
+		return (value == null) ? defaultValue : value;
+	}
+	
+	/**
+	 * Returns value of specified integer property in default properties file, or defaultValue if the property is not defined.
+	 */
+	public static int getIntProperty(String property, int defaultValue) {
+		Integer value = getSnapshot().getParsedValue(property, Integer.class, Integer::valueOf);
+		return (value == null) ? defaultValue : value;
+	}
+	
+	/**
+	 * Returns value of specified long property in default properties file, or defaultValue if the property is not defined.
+	 */
+	public static long getLongProperty(String property, long defaultValue) {
+		Long value = getSnapshot().getParsedValue(property, Long.class, Long::valueOf);
+		return (value == null) ? defaultValue : value;
+	}
+	
+	/**
+	 * Returns value of specified boolean property in default properties file, or defaultValue if the property is not defined.
+	 */
+	public static boolean getBooleanProperty(String property, boolean defaultValue) {
+		Boolean value = getSnapshot().getParsedValue(property, Boolean.class, Boolean::valueOf);
+		return (value == null) ? defaultValue : value;
+	}
+	
+	/**
+	 * Returns value of specified duration property in default properties file, or defaultValue if the property is not defined.
+	 * @implNote Values are interpreted as milliseconds (e.g. 30000) or ISO-8601 durations (e.g. PT30S).
+	 */
+	public static Duration getDurationProperty(String property, Duration defaultValue) {
+		Duration value = getSnapshot().getParsedValue(property, Duration.class, FrameworkProperties::parseDuration);
+		return (value == null) ? defaultValue : value;
 	}
 	
 	/**
@@ -82,7 +105,7 @@ public class FrameworkProperties {
 	public static String getProperty(String property, String fileName) {
 		return getProperty(property, fileName, PROPERTY_DIRECTORY);
 	}
-		
+	
 	/**
 	 * Returns value of specified property in properties file at filePath/fileName.
 	 * @param property Property to be searched in properties file
@@ -91,16 +114,9 @@ public class FrameworkProperties {
 	 * @return String value of property in properties file
 	 */
 	public static String getProperty(String property, String fileName, String filePath) {
-		fileName = interpretAsProperty(fileName);
+		String propertiesFile = interpretAsProperty(fileName);
 		
-		Properties properties = allProperties.get(fileName);
-		
-		if (properties == null) {
-			properties = loadPropertyFile(fileName, filePath);
-			allProperties.put(fileName, properties);
-		}
-		
-		return properties.getProperty(property);
+		return allProperties.computeIfAbsent(propertiesFile, file -> loadPropertyFile(file, filePath)).getProperty(property);
 	}
 	
 	/**
@@ -112,10 +128,102 @@ public class FrameworkProperties {
 		return System.getProperty(property);
 	}
 	
+	/**
+	 * Loads default properties if not loaded yet (otherwise loaded on first access).
+	 */
+	public static void load() {
+		getSnapshot();
+	}
+	
+	/**
+	 * Re-reads environment.properties and all property files.
+	 * @implNote Constants already initialized from properties (e.g. timeouts of framework classes) are not updated.
+	 */
+	public static synchronized void reload() {
+		allProperties.clear();
+		snapshot = new Snapshot();
+	}
+	
 	/*
 	 * Local helper functions
 	 */
 	
+	/**Immutable view of the default properties file, loaded once per JVM (or on reload()).*/
+	private static class Snapshot {
+		
+		private final Map<String, String> properties;
+		private final String applicationVersion;
+		/**Typed values parsed on first access, keyed by type and property.*/
+		private final Map<String, Object> parsedValues = new ConcurrentHashMap<String, Object>();
+		
+		private Snapshot() {
+			Properties envProperties = loadPropertyFile("environment.properties", PROPERTY_DIRECTORY);
+			String propertiesFile = interpretAsProperty(envProperties.getProperty("Env"));
+			
+			boolean saintsExecution = Boolean.parseBoolean(envProperties.getProperty("SaintsExecution"));
+			if (saintsExecution) {
+				try {
+					FileUtils.copyFileToDirectory(new File(envProperties.getProperty("PropertiesSource")), new File(envProperties.getProperty("PropertiesDestFolder")));
+				} catch (IOException ioe) {
+					ioe.printStackTrace();
+					throw new RuntimeException("Failed to copy file from properties file to " + envProperties.getProperty("PropertiesDestFolder"));
+				}
+			}
+			
+			Properties defaultProperties = loadPropertyFile(propertiesFile, PROPERTY_DIRECTORY);
+			allProperties.put(propertiesFile, defaultProperties);
+			
+			Map<String, String> values = new HashMap<String, String>();
+			defaultProperties.stringPropertyNames().forEach(property -> values.put(property, defaultProperties.getProperty(property)));
+			properties = Map.copyOf(values);
+			
+			if (propertiesFile.contains("d4_settings.properties")) {
+				applicationVersion = "d4";
+			} else if (propertiesFile.contains("d3_settings.properties")) {
+				applicationVersion = "d3";
+			} else {
+				applicationVersion = null;
+			}
+		}
+		
+		/**@return Parsed value of the property, or null if the property is not defined.*/
+		private <T> T getParsedValue(String property, Class<T> type, Function<String, T> parser) {
+			String value = properties.get(property);
+			
+			if (value == null) {
+				return null;
+			}
+			
+			return type.cast(parsedValues.computeIfAbsent(type.getSimpleName() + ":" + property, key -> {
+				try {
+					return parser.apply(value.trim());
+				} catch (NumberFormatException | DateTimeParseException e) {
+					throw new RuntimeException("Property " + property + " is not a valid " + type.getSimpleName() + ": " + value, e);
+				}
+			}));
+		}
+	}
+	
+	private static Snapshot getSnapshot() {
+		Snapshot current = snapshot;
+		
+		if (current == null) {
+			synchronized (FrameworkProperties.class) {
+				if (snapshot == null) {
+					snapshot = new Snapshot();
+				}
+				
+				current = snapshot;
+			}
+		}
+		
+		return current;
+	}
+	
+	private static Duration parseDuration(String value) {
+		return value.toUpperCase().startsWith("P") ? Duration.parse(value) : Duration.ofMillis(Long.parseLong(value));
+	}
+	
 	private static Properties loadPropertyFile(String fileName, String directory) {
 		FileInputStream input;
 		
@@ -147,5 +255,5 @@ public class FrameworkProperties {
 		
 		return fileName;
 	}
-	
+
 }
@@ -3,6 +3,13 @@ package com.mnet.framework.core;
 import org.testng.ISuite;
 import org.testng.ISuiteListener;
 
+import com.mnet.framework.database.DatabaseConnector;
+import com.mnet.framework.middleware.UnixConnector;
+import com.mnet.framework.reporting.FrameworkLog;
+import com.mnet.framework.reporting.StepTimer;
+import com.mnet.framework.reporting.SuiteReport;
+import com.mnet.framework.utilities.XMLContextRegistry;
+
 /**
  * Handles suite level setup and cleanup.
  * Define this class as a property in TestNG XML file.
@@ -12,10 +19,32 @@ public class MITESuiteListener implements ISuiteListener {
 	
 	/**Suite attribute identifying number of tests in suite.*/
 	public static final String TEST_COUNT = "TEST_COUNT";
+	/**Suite attribute holding List&lt;ConnectionPoolMetrics&gt; for all database pools used in the suite.*/
+	public static final String DATABASE_POOL_METRICS = "DATABASE_POOL_METRICS";
 	
 	@Override
 	public void onStart(ISuite suite) {
+		FrameworkProperties.load();
+		XMLContextRegistry.preloadInBackground();
 		suite.setAttribute(TEST_COUNT, suite.getAllMethods().size());
+		
+		if (suite.getAllMethods().size() > 1) {
+			SuiteReport.start();
+		}
+	}
+	
+	@Override
+	public void onFinish(ISuite suite) {
+		try {
+			suite.setAttribute(DATABASE_POOL_METRICS, DatabaseConnector.getPoolMetrics());
+			DatabaseConnector.getPoolMetrics().forEach(metrics -> FrameworkLog.getFrameworkLogger().info("Database pool - " + metrics));
+			DatabaseConnector.closeAllPools();
+			UnixConnector.closeAllSessions();
+			StepTimer.writeSuiteSummary(SuiteReport.SUITE_DIR);
+		} finally {
+			// Suite report must be written regardless of cleanup failures
+			SuiteReport.finish();
+		}
 	}
 	
 }
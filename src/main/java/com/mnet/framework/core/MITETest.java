@@ -1,6 +1,5 @@
 package com.mnet.framework.core;
 
-import java.io.File;
 import java.nio.file.InvalidPathException;
 import java.nio.file.Paths;
 import java.util.Arrays;
@@ -9,7 +8,6 @@ import java.util.Set;
 
 import org.testng.IHookCallBack;
 import org.testng.IHookable;
-import org.testng.ISuite;
 import org.testng.ITestContext;
 import org.testng.ITestResult;
 import org.testng.annotations.AfterClass;
@@ -35,6 +33,9 @@ import lombok.Getter;
 /**
  * Extend this class and override the annotated functions for all derived test classes.
  * Sample test in com.mnet.sanity.web.LoginTest.
+ * @implNote Test classes may run in parallel (TestNG parallel="classes"), as may tests of a class (parallel="methods" or
+ * TestDataProvider "ParallelTestData") - reporting is tracked per thread and DatabaseConnector uses a connection per thread.
+ * WEBAPP tests share one browser per class and should not run tests of a class in parallel.
  * @version Spring 2023
  * @author Arya Biswas
  */
@@ -118,9 +119,9 @@ public abstract class MITETest implements IHookable {
 		excel = new ExcelParser(log);
 		
 		// Define context for TestNG components
-		context.setAttribute(LOG_CONTEXT, log);
-		context.setAttribute(EXCEL_CONTEXT, excel);
-		context.setAttribute(DATA_CONTEXT, relativeDataDirectory);
+		setContextAttribute(context, LOG_CONTEXT, log);
+		setContextAttribute(context, EXCEL_CONTEXT, excel);
+		setContextAttribute(context, DATA_CONTEXT, relativeDataDirectory);
 		
 		if (usesAttribute(TestAttribute.WEBAPP)) {
 			webDriver = new WebUtilities(log);
@@ -130,7 +131,7 @@ public abstract class MITETest implements IHookable {
 		}
 		
 		if (usesAttribute(TestAttribute.DATABASE)) {
-			database = new DatabaseConnector(log);
+			database = new DatabaseConnector(log, getShortTestName());
 		}
 		
 		if (usesAttribute(TestAttribute.REMOTE_MACHINE)) {
@@ -151,8 +152,7 @@ public abstract class MITETest implements IHookable {
 			azure = new AzureManagedIdentity(log, fileManager);
 		}
 		
-		manualCustomerSetup = Boolean
-				.parseBoolean(FrameworkProperties.getProperty("MANUAL_CUSTOMER_SETUP"));
+		manualCustomerSetup = FrameworkProperties.getBooleanProperty("MANUAL_CUSTOMER_SETUP", false);
 	}
 	
 	/**
@@ -205,10 +205,11 @@ public abstract class MITETest implements IHookable {
 		}
 		
 		report.generateReport();
-		report.generateSAINTSTestResult((context.getFailedTests().size() == 0));
+		// Test classes running in parallel share the context - only consider failures of this class
+		report.generateSAINTSTestResult(context.getFailedTests().getAllResults().stream()
+				.noneMatch(result -> result.getInstance() == this));
 		
 		log.close();
-		copyReportsToSuiteFolder(context);
 	}
 	
 	/**
@@ -237,6 +238,15 @@ public abstract class MITETest implements IHookable {
 		return shortTestName;
 	}
 	
+	/**
+	 * Returns attribute defined by the designated test class in ITestContext.
+	 * Falls back to the attribute defined by the most recently initialized test class.
+	 */
+	static Object getContextAttribute(ITestContext context, String attribute, Class<?> testClass) {
+		Object value = context.getAttribute(attribute + "." + testClass.getName());
+		return (value != null) ? value : context.getAttribute(attribute);
+	}
+	
 	/*
 	 * Helper functions
 	 */
@@ -245,18 +255,10 @@ public abstract class MITETest implements IHookable {
 		return attributes.contains(attribute);
 	}
 	
-	private void copyReportsToSuiteFolder(ITestContext context) {
-		/**Directory where all suite reports are saved.*/
-		String SUITE_DIR = FrameworkProperties.getProperty("LOG_DIR") + File.separator + "MITE_Suite";
-		
-		ISuite testSuite = context.getSuite();
-		Integer testCount = (Integer) testSuite.getAttribute(MITESuiteListener.TEST_COUNT);
-		
-		if (testCount == null || testCount <= 1) {
-			return;
-		}
-		
-		fileManager.copyDirectoryToPath(log.getLogDirectory(), SUITE_DIR, true);
+	/**Test classes running in parallel (parallel="classes") share ITestContext - attributes are also keyed by test class.*/
+	private void setContextAttribute(ITestContext context, String attribute, Object value) {
+		context.setAttribute(attribute, value);
+		context.setAttribute(attribute + "." + getClass().getName(), value);
 	}
 		
 }
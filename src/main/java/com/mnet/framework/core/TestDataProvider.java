@@ -2,7 +2,10 @@ package com.mnet.framework.core;
 
 import java.io.File;
 import java.lang.reflect.Method;
+import java.util.Arrays;
+import java.util.Iterator;
 import java.util.List;
+import java.util.NoSuchElementException;
 
 import org.apache.commons.lang.StringUtils;
 import org.testng.ITestContext;
@@ -23,24 +26,52 @@ public class TestDataProvider {
 		
     @DataProvider(name="TestData")
     public String[][] readTestData(ITestContext context, Method currentMethod) {
-    	String relativeDataPath = (String) context.getAttribute(MITETest.DATA_CONTEXT);
-    	relativeDataPath = (StringUtils.isEmpty(relativeDataPath)) ? "" : relativeDataPath + File.separator;
+    	Class<?> testClass = currentMethod.getDeclaringClass();
     	
-        return parseData(context,
-        			DATA_PATH + relativeDataPath + currentMethod.getDeclaringClass().getSimpleName() + ".xlsx",
-        			currentMethod.getName());
+        return parseData(context, testClass, getDataFile(context, testClass), currentMethod.getName());
     }
     
     /**
-     * Local helper functions
+     * Same data as "TestData" - rows are run in parallel (up to data-provider-thread-count in TestNG XML, default 10).
+     * @implNote Rows share the test class instance - not for WEBAPP tests, which use one browser per class.
+     * DatabaseConnector gives each row thread its own connection (DATABASE_POOL_SIZE should cover data-provider-thread-count).
      */
+    @DataProvider(name="ParallelTestData", parallel=true)
+    public String[][] readParallelTestData(ITestContext context, Method currentMethod) {
+    	return readTestData(context, currentMethod);
+    }
     
-    private static String[][] parseData(ITestContext context, String fileName, String methodName) {
-    	ExcelParser excel = (ExcelParser) context.getAttribute(MITETest.EXCEL_CONTEXT);
+    /**
+     * Same data as "TestData", but rows are read from the data sheet as tests consume them.
+     * Tests start without waiting for the whole sheet to be parsed and memory use does not grow with the sheet size.
+     * @implNote Recommended for data sheets with many rows (e.g. tools).
+     */
+    @DataProvider(name="LazyTestData")
+    public Iterator<Object[]> readLazyTestData(ITestContext context, Method currentMethod) {
+    	Class<?> testClass = currentMethod.getDeclaringClass();
+    	String fileName = getDataFile(context, testClass);
+    	ExcelParser excel = (ExcelParser) MITETest.getContextAttribute(context, MITETest.EXCEL_CONTEXT, testClass);
     	
-    	List<List<String>> rawData = (context.getAllTestMethods()[0].getTestClass().getTestMethods().length > 1) ?
-    			excel.readSheet(fileName, methodName, true) :
-    			excel.readSheet(fileName, null, true);
+    	return new FlaggedRowIterator(excel.iterateSheet(fileName, getSheetName(context, testClass, currentMethod.getName()), true), fileName);
+    }
+    
+    /**
+     * Same data as "LazyTestData" - rows are run in parallel (up to data-provider-thread-count in TestNG XML, default 10).
+     * @implNote Rows share the test class instance - not for WEBAPP tests, which use one browser per class.
+     * DatabaseConnector gives each row thread its own connection (DATABASE_POOL_SIZE should cover data-provider-thread-count).
+     */
+    @DataProvider(name="ParallelLazyTestData", parallel=true)
+    public Iterator<Object[]> readParallelLazyTestData(ITestContext context, Method currentMethod) {
+    	return readLazyTestData(context, currentMethod);
+    }
+    
+    /**
+     * Local helper functions
+     */
+    
+    private static String[][] parseData(ITestContext context, Class<?> testClass, String fileName, String methodName) {
+    	ExcelParser excel = (ExcelParser) MITETest.getContextAttribute(context, MITETest.EXCEL_CONTEXT, testClass);
+    	List<List<String>> rawData = excel.readSheet(fileName, getSheetName(context, testClass, methodName), true);
     	
     	int validRows = 0;
     	
@@ -51,9 +82,7 @@ public class TestDataProvider {
     	}
     	
     	if (validRows == 0) {
-    		throw new RuntimeException("No usable test data found. "
-        			+ "Please ensure all desired test rows are marked with 'y' in the first column of the data sheet: "
-        			+ fileName);
+    		throw noUsableData(fileName);
     	}
     	
     	int columns = rawData.get(0).size();
@@ -65,9 +94,73 @@ public class TestDataProvider {
     			data[index++] = row.subList(1, columns).toArray(new String[columns - 1]);
     		}
     	}
-    	    	
-    	excel.closeWorkbook(fileName);
     	
     	return data;
     }
+    
+    private static String getDataFile(ITestContext context, Class<?> testClass) {
+    	String relativeDataPath = (String) MITETest.getContextAttribute(context, MITETest.DATA_CONTEXT, testClass);
+    	relativeDataPath = (StringUtils.isEmpty(relativeDataPath)) ? "" : relativeDataPath + File.separator;
+    	
+    	return DATA_PATH + relativeDataPath + testClass.getSimpleName() + ".xlsx";
+    }
+    
+    /**Test classes with multiple test methods define a data sheet per method, otherwise data is read from the first sheet.*/
+    private static String getSheetName(ITestContext context, Class<?> testClass, String methodName) {
+    	// Test classes running in parallel share the context - only count methods of the current class
+    	long testMethods = Arrays.stream(context.getAllTestMethods())
+    			.filter(method -> method.getRealClass().equals(testClass))
+    			.count();
+    	
+    	return (testMethods > 1) ? methodName : null;
+    }
+    
+    private static RuntimeException noUsableData(String fileName) {
+    	return new RuntimeException("No usable test data found. "
+    			+ "Please ensure all desired test rows are marked with 'y' in the first column of the data sheet: "
+    			+ fileName);
+    }
+    
+    /**Parameters of rows flagged with 'y' in the first column, read as they are consumed.*/
+    private static class FlaggedRowIterator implements Iterator<Object[]> {
+    	
+    	private final Iterator<List<String>> rows;
+    	private final String fileName;
+    	private Object[] nextParameters;
+    	private boolean anyRows;
+    	
+    	private FlaggedRowIterator(Iterator<List<String>> rows, String fileName) {
+    		this.rows = rows;
+    		this.fileName = fileName;
+    	}
+    	
+    	@Override
+    	public synchronized boolean hasNext() {
+    		while (nextParameters == null && rows.hasNext()) {
+    			List<String> row = rows.next();
+    			
+    			if (!row.isEmpty() && row.get(0).equalsIgnoreCase("y")) {
+    				nextParameters = row.subList(1, row.size()).toArray(new String[row.size() - 1]);
+    				anyRows = true;
+    			}
+    		}
+    		
+    		if (nextParameters == null && !anyRows) {
+    			throw noUsableData(fileName);
+    		}
+    		
+    		return nextParameters != null;
+    	}
+    	
+    	@Override
+    	public synchronized Object[] next() {
+    		if (!hasNext()) {
+    			throw new NoSuchElementException();
+    		}
+    		
+    		Object[] parameters = nextParameters;
+    		nextParameters = null;
+    		return parameters;
+    	}
+    }
 }
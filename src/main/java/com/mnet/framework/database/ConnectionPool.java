@@ -0,0 +1,281 @@
+package com.mnet.framework.database;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.mnet.framework.core.FrameworkProperties;
+import com.mnet.framework.reporting.FrameworkLog;
+
+/**
+ * Suite-scoped pool of physical database connections for a single JDBC url / user combination.
+ * Connections are validated on borrow, evicted when idle and reported when held beyond the leak threshold.
+ * @version Spring 2023
+ * @author Arya Biswas
+ */
+class ConnectionPool {
+
+	/**Maximum number of physical connections per pool.*/
+	private static final int POOL_SIZE = FrameworkProperties.getIntProperty("DATABASE_POOL_SIZE", 10);
+	/**Maximum time (ms) to wait for a free connection before failing.*/
+	private static final long BORROW_TIMEOUT = FrameworkProperties.getLongProperty("DATABASE_POOL_BORROW_TIMEOUT", 30000);
+	/**Time (ms) after which an unused connection is closed.*/
+	private static final long IDLE_TIMEOUT = FrameworkProperties.getLongProperty("DATABASE_POOL_IDLE_TIMEOUT", 300000);
+	/**Time (ms) after which a borrowed connection is reported as a potential leak.*/
+	private static final long LEAK_THRESHOLD = FrameworkProperties.getLongProperty("DATABASE_POOL_LEAK_THRESHOLD", 600000);
+	/**Timeout (seconds) for Connection.isValid() on borrow.*/
+	private static final int VALIDATION_TIMEOUT = 5;
+
+	private static final Map<String, ConnectionPool> pools = new ConcurrentHashMap<String, ConnectionPool>();
+	private static final ScheduledExecutorService housekeeper = Executors.newSingleThreadScheduledExecutor(runnable -> {
+		Thread thread = new Thread(runnable, "mite-db-pool-housekeeper");
+		thread.setDaemon(true);
+		return thread;
+	});
+
+	static {
+		long interval = Math.max(1000, Math.min(IDLE_TIMEOUT, LEAK_THRESHOLD) / 2);
+		housekeeper.scheduleWithFixedDelay(() -> pools.values().forEach(ConnectionPool::housekeeping),
+				interval, interval, TimeUnit.MILLISECONDS);
+	}
+
+	private final String url;
+	private final String username;
+	private final String password;
+
+	private final Semaphore permits = new Semaphore(POOL_SIZE, true);
+	private final Deque<IdleConnection> idle = new ConcurrentLinkedDeque<IdleConnection>();
+	private final Map<Connection, Lease> leases = new ConcurrentHashMap<Connection, Lease>();
+	private final Map<Connection, StatementCache> statementCaches = new ConcurrentHashMap<Connection, StatementCache>();
+
+	private final AtomicLong borrowCount = new AtomicLong();
+	private final AtomicLong totalWaitNanos = new AtomicLong();
+	private final AtomicLong maxWaitNanos = new AtomicLong();
+	private final AtomicLong createdCount = new AtomicLong();
+	private final AtomicLong validationFailures = new AtomicLong();
+	private final AtomicLong evictedCount = new AtomicLong();
+	private final AtomicLong leakCount = new AtomicLong();
+	private final AtomicLong statementCacheHits = new AtomicLong();
+	private final AtomicLong statementCacheMisses = new AtomicLong();
+	private volatile boolean closed;
+
+	private ConnectionPool(String url, String username, String password) {
+		this.url = url;
+		this.username = username;
+		this.password = password;
+	}
+
+	/**Returns the shared pool for the designated connection details, creating it on first use.*/
+	static ConnectionPool forConnection(String url, String username, String password) {
+		return pools.compute(url + "|" + username, (key, existing) ->
+			(existing == null || existing.closed) ? new ConnectionPool(url, username, password) : existing);
+	}
+
+	/**JDBC url of the pooled connections.*/
+	String getUrl() {
+		return url;
+	}
+
+	/**Returns metrics snapshots for all pools created during the current run.*/
+	static List<ConnectionPoolMetrics> getAllMetrics() {
+		List<ConnectionPoolMetrics> metrics = new ArrayList<ConnectionPoolMetrics>();
+		pools.values().forEach(pool -> metrics.add(pool.getMetrics()));
+		return metrics;
+	}
+
+	/**Closes all pooled connections. Intended to be invoked once at suite end.*/
+	static void closeAll() {
+		pools.values().forEach(ConnectionPool::close);
+		pools.clear();
+	}
+
+	/**
+	 * Borrows a validated connection from the pool, waiting up to DATABASE_POOL_BORROW_TIMEOUT if the pool is exhausted.
+	 * @param owner Name of the test holding the connection (used for leak reporting).
+	 * @param log Log of the borrowing test. May be null.
+	 */
+	Connection borrow(String owner, FrameworkLog log) throws SQLException {
+		long waitStart = System.nanoTime();
+
+		try {
+			if (!permits.tryAcquire(BORROW_TIMEOUT, TimeUnit.MILLISECONDS)) {
+				throw new SQLException("Timed out after " + BORROW_TIMEOUT + " ms waiting for pooled connection: " + url
+						+ " (" + leases.size() + " leased)");
+			}
+		} catch (InterruptedException ie) {
+			Thread.currentThread().interrupt();
+			throw new SQLException("Interrupted while waiting for pooled connection: " + url, ie);
+		}
+
+		long waited = System.nanoTime() - waitStart;
+		borrowCount.incrementAndGet();
+		totalWaitNanos.addAndGet(waited);
+		maxWaitNanos.accumulateAndGet(waited, Math::max);
+
+		try {
+			Connection connection = takeIdleConnection();
+
+			if (connection == null) {
+				connection = DriverManager.getConnection(url, username, password);
+				createdCount.incrementAndGet();
+			}
+
+			leases.put(connection, new Lease(owner, log));
+			return connection;
+		} catch (SQLException | RuntimeException e) {
+			permits.release();
+			throw e;
+		}
+	}
+
+	/**Returns a borrowed connection to the pool. Connections in an unusable state are discarded.*/
+	void release(Connection connection) {
+		if (leases.remove(connection) == null) {
+			return;
+		}
+
+		try {
+			if (closed || connection.isClosed()) {
+				closeQuietly(connection);
+				return;
+			}
+
+			if (!connection.getAutoCommit()) {
+				connection.rollback();
+				connection.setAutoCommit(true);
+			}
+
+			idle.offerFirst(new IdleConnection(connection));
+		} catch (SQLException sqe) {
+			closeQuietly(connection);
+		} finally {
+			permits.release();
+		}
+	}
+
+	/**Returns the prepared statement cache associated with a connection borrowed from this pool.*/
+	StatementCache getStatementCache(Connection connection) {
+		return statementCaches.computeIfAbsent(connection,
+				key -> new StatementCache(key, statementCacheHits, statementCacheMisses));
+	}
+	
+	ConnectionPoolMetrics getMetrics() {
+		long borrows = borrowCount.get();
+
+		return new ConnectionPoolMetrics(url, username, POOL_SIZE, leases.size(), idle.size(), borrows, createdCount.get(),
+				(borrows == 0) ? 0 : TimeUnit.NANOSECONDS.toMillis(totalWaitNanos.get() / borrows),
+				TimeUnit.NANOSECONDS.toMillis(maxWaitNanos.get()), validationFailures.get(), evictedCount.get(), leakCount.get(),
+				statementCacheHits.get(), statementCacheMisses.get());
+	}
+
+	/*
+	 * Helper functions
+	 */
+
+	private Connection takeIdleConnection() {
+		IdleConnection candidate;
+
+		while ((candidate = idle.pollFirst()) != null) {
+			try {
+				if (candidate.connection.isValid(VALIDATION_TIMEOUT)) {
+					return candidate.connection;
+				}
+			} catch (SQLException sqe) {
+				// Treated as invalid below
+			}
+
+			validationFailures.incrementAndGet();
+			closeQuietly(candidate.connection);
+		}
+
+		return null;
+	}
+
+	private void housekeeping() {
+		long now = System.currentTimeMillis();
+
+		for (IdleConnection candidate : idle) {
+			if (now - candidate.idleSince > IDLE_TIMEOUT && idle.remove(candidate)) {
+				evictedCount.incrementAndGet();
+				closeQuietly(candidate.connection);
+			}
+		}
+
+		for (Lease lease : leases.values()) {
+			if (!lease.reported && now - lease.borrowedAt > LEAK_THRESHOLD) {
+				lease.reported = true;
+				leakCount.incrementAndGet();
+
+				String warning = "Possible database connection leak: " + url + " held by " + lease.owner
+						+ " (thread " + lease.thread + ") for " + ((now - lease.borrowedAt) / 1000) + " s";
+
+				if (lease.log != null) {
+					lease.log.warn(warning, ConnectionPool.class);
+				} else {
+					FrameworkLog.getFrameworkLogger().warn(warning);
+				}
+			}
+		}
+	}
+
+	private void close() {
+		closed = true;
+
+		IdleConnection candidate;
+		while ((candidate = idle.pollFirst()) != null) {
+			closeQuietly(candidate.connection);
+		}
+
+		for (Connection connection : leases.keySet()) {
+			closeQuietly(connection);
+		}
+		leases.clear();
+	}
+
+	private void closeQuietly(Connection connection) {
+		StatementCache statementCache = statementCaches.remove(connection);
+		
+		if (statementCache != null) {
+			statementCache.close();
+		}
+		
+		try {
+			connection.close();
+		} catch (SQLException sqe) {
+			// Connection is discarded regardless
+		}
+	}
+
+	private static class IdleConnection {
+		private final Connection connection;
+		private final long idleSince = System.currentTimeMillis();
+
+		private IdleConnection(Connection connection) {
+			this.connection = connection;
+		}
+	}
+
+	private static class Lease {
+		private final String owner;
+		private final FrameworkLog log;
+		private final String thread = Thread.currentThread().getName();
+		private final long borrowedAt = System.currentTimeMillis();
+		private volatile boolean reported;
+
+		private Lease(String owner, FrameworkLog log) {
+			this.owner = owner;
+			this.log = log;
+		}
+	}
+}
@@ -0,0 +1,52 @@
+package com.mnet.framework.database;
+
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Point-in-time snapshot of usage statistics for a database connection pool.
+ * @version Spring 2023
+ * @author Arya Biswas
+ */
+@Getter
+@AllArgsConstructor(access = AccessLevel.PACKAGE)
+public class ConnectionPoolMetrics {
+
+	/**JDBC connection string of the pool.*/
+	private String url;
+	private String username;
+	/**Maximum number of physical connections.*/
+	private int maxSize;
+	/**Connections currently borrowed by tests.*/
+	private int leased;
+	/**Connections currently available for reuse.*/
+	private int idle;
+	/**Total number of borrow requests served.*/
+	private long borrows;
+	/**Total number of physical connections opened.*/
+	private long created;
+	/**Average time (ms) spent waiting for a connection.*/
+	private long averageWaitMillis;
+	/**Longest time (ms) spent waiting for a connection.*/
+	private long maxWaitMillis;
+	/**Idle connections discarded because they failed validation on borrow.*/
+	private long validationFailures;
+	/**Idle connections closed after exceeding the idle timeout.*/
+	private long evicted;
+	/**Borrowed connections reported as potential leaks.*/
+	private long leaks;
+	/**Prepared statement executions served from the statement cache.*/
+	private long statementCacheHits;
+	/**Prepared statement executions which required the database to parse the statement.*/
+	private long statementCacheMisses;
+
+	@Override
+	public String toString() {
+		return url + " [" + username + "]: size=" + maxSize + ", leased=" + leased + ", idle=" + idle
+				+ ", borrows=" + borrows + ", created=" + created + ", avgWait=" + averageWaitMillis + "ms, maxWait=" + maxWaitMillis
+				+ "ms, validationFailures=" + validationFailures + ", evicted=" + evicted + ", leaks=" + leaks
+				+ ", statementCacheHits=" + statementCacheHits + ", statementCacheMisses=" + statementCacheMisses;
+	}
+
+}
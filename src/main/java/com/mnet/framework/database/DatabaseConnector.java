@@ -1,19 +1,29 @@
 package com.mnet.framework.database;
 
 import java.sql.Connection;
-import java.sql.DriverManager;
+import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.sql.Statement;
-import java.util.ArrayList;
-import java.util.HashMap;
+import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 import com.mnet.framework.core.FrameworkProperties;
 import com.mnet.framework.reporting.FrameworkLog;
+import com.mnet.framework.reporting.StepTimer;
 
 /**
  * Handles database connections and query execution.
+ * Connections are borrowed from suite-scoped pools (see {@link ConnectionPool}) and returned on closeConnections().
+ * @implNote Each thread using the connector (e.g. rows of parallel data providers) borrows its own connection per database,
+ * so prepared statements, result sets and transaction state are never shared between threads.
  * @version Spring 2023
  * @author Arya Biswas
  **/
@@ -29,19 +39,50 @@ public class DatabaseConnector {
 	private static final String DATABASE_PASSWORD = FrameworkProperties.getProperty("DATABASE_PASSWORD");
 	
 	/**Unique string to identify default connection.*/
-	private static final String DEFAULT_ID = "default";	
+	public static final String DEFAULT_ID = "default";	
+	/**Default number of rows fetched per round trip by streaming queries.*/
+	private static final int DEFAULT_FETCH_SIZE = 1000;
 	private FrameworkLog log;
-	private HashMap<String, Connection> connections = new HashMap<String, Connection>();
-	private List<QueryResult> cachedQueries = new ArrayList<QueryResult>();
+	/**Name of the test borrowing pooled connections - reported on connection leaks.*/
+	private String owner;
+	/**Connections by database id, then by thread id.*/
+	private Map<String, Map<Long, Connection>> connections = new ConcurrentHashMap<String, Map<Long, Connection>>();
+	private Map<String, ConnectionPool> connectionPools = new ConcurrentHashMap<String, ConnectionPool>();
+	private Queue<QueryResult> cachedQueries = new ConcurrentLinkedQueue<QueryResult>();
+	private Queue<Statement> openStatements = new ConcurrentLinkedQueue<Statement>();
+	private Queue<StreamingQuery> openStreams = new ConcurrentLinkedQueue<StreamingQuery>();
 	
 	/**
 	 * Initializes default database connection defined in environment properties file.
 	 * For additional database connections, please invoke openConnection().
 	 */
 	public DatabaseConnector(FrameworkLog frameworkLog) {
+		this(frameworkLog, Thread.currentThread().getName());
+	}
+	
+	/**
+	 * Initializes default database connection defined in environment properties file.
+	 * For additional database connections, please invoke openConnection().
+	 * @param owner Name of the test borrowing pooled connections (e.g. short test name).
+	 */
+	public DatabaseConnector(FrameworkLog frameworkLog, String owner) {
 		log = frameworkLog;
+		this.owner = owner;
 		openConnection(DEFAULT_ID, DATABASE_URL, DATABASE_USERNAME, DATABASE_PASSWORD);
-		
+	}
+	
+	/**
+	 * Returns usage metrics for all connection pools opened during the current run.
+	 */
+	public static List<ConnectionPoolMetrics> getPoolMetrics() {
+		return ConnectionPool.getAllMetrics();
+	}
+	
+	/**
+	 * Closes all pooled connections. Invoked once at suite end by MITESuiteListener.
+	 */
+	public static void closeAllPools() {
+		ConnectionPool.closeAll();
 	}
 	
 	/**
@@ -54,30 +95,48 @@ public class DatabaseConnector {
 	 * @implNote Oracle JDBC connection string: jdbc:oracle:thin:@//host:port/database
 	 */
 	public void openConnection(String id, String url, String username, String password) {	
-		try {
-			connections.put(id, DriverManager.getConnection(url, username, password));
-		} catch (SQLException sqe) {
-			String err = "Database access error for: " + 
-					url + " | " + username + " / " + password;
-			log.error(err);
-			log.printStackTrace(sqe);
-			throw new RuntimeException(err);
+		ConnectionPool pool = ConnectionPool.forConnection(url, username, password);
+		Map<Long, Connection> threadConnections = new ConcurrentHashMap<Long, Connection>();
+		
+		// Connection of the opening thread is borrowed right away, so that connection errors surface here
+		threadConnections.put(Thread.currentThread().getId(), borrow(pool, url + " | " + username + " / " + password));
+		
+		Map<Long, Connection> previous = connections.put(id, threadConnections);
+		ConnectionPool previousPool = connectionPools.put(id, pool);
+		
+		if (previous != null) {
+			previous.values().forEach(previousPool::release);
 		}
 	}
 	
+	/**
+	 * Releases all query resources and returns connections to their pools.
+	 */
 	public void closeConnections() {
-		for (QueryResult result : cachedQueries) {
+		StreamingQuery stream;
+		while ((stream = openStreams.poll()) != null) {
+			stream.close();
+		}
+		
+		QueryResult result;
+		while ((result = cachedQueries.poll()) != null) {
 			result.closeQuery();
 		}
 		
-		for (String key : connections.keySet()) {
+		Statement statement;
+		while ((statement = openStatements.poll()) != null) {
 			try {
-				connections.get(key).close();
+				statement.close();
 			} catch (SQLException sqe) {
-				log.warn("Failed to close database connection: " + DATABASE_URL);
+				log.warn("Failed to close database statement");
 				log.printStackTrace(sqe);
 			}
 		}
+		
+		for (String key : connections.keySet()) {
+			ConnectionPool pool = connectionPools.remove(key);
+			connections.remove(key).values().forEach(pool::release);
+		}
 	}
 	
 	/**
@@ -96,9 +155,11 @@ public class DatabaseConnector {
 	 */
 	public QueryResult executeQuery(String id, String query) {
 		Statement statement;
+		long startTime = StepTimer.start();
 		
 		try {
-			statement = connections.get(id).createStatement(ResultSet.TYPE_SCROLL_INSENSITIVE, ResultSet.CONCUR_READ_ONLY);
+			statement = getConnection(id).createStatement(ResultSet.TYPE_SCROLL_INSENSITIVE, ResultSet.CONCUR_READ_ONLY);
+			openStatements.add(statement);
 			
 			QueryResult result = new QueryResult(statement.executeQuery(query), log);
 			cachedQueries.add(result);
@@ -108,9 +169,101 @@ public class DatabaseConnector {
 			log.error(err);
 			log.printStackTrace(sqe);
 			throw new RuntimeException(err);
+		} finally {
+			StepTimer.stop(StepTimer.DATABASE, startTime);
+		}
+	}
+	
+	/**
+	 * Executes parameterized SQL SELECT query using a cached prepared statement.
+	 * The statement is parsed once per connection and re-bound on subsequent executions with the same SQL text.
+	 * @param id Unique identifier for database used in openConnection(String, String, String, String), or DEFAULT_ID.
+	 * @param query Valid SQL statement with ? placeholders for parameters.
+	 * @param params Values bound to placeholders in order.
+	 * @implNote The returned result remains valid until the same SQL is executed again on this connection.
+	 */
+	public QueryResult executeQuery(String id, String query, Object... params) {
+		long startTime = StepTimer.start();
+		
+		try {
+			PreparedStatement statement = connectionPools.get(id).getStatementCache(getConnection(id)).prepare(query, params);
+			
+			QueryResult result = new QueryResult(statement.executeQuery(), log);
+			cachedQueries.add(result);
+			return result;
+		} catch (SQLException sqe) {
+			String err = "Failed to execute query: " + query + " with parameters: " + Arrays.toString(params);
+			log.error(err);
+			log.printStackTrace(sqe);
+			throw new RuntimeException(err);
+		} finally {
+			StepTimer.stop(StepTimer.DATABASE, startTime);
 		}
 	}
 	
+	/**
+	 * Executes SQL SELECT query on default connection as a forward-only stream of rows.
+	 * Rows are fetched in batches so the full result is never held in memory.
+	 * @param query Valid SQL statement to query database.
+	 * @implNote Close the stream (try-with-resources) if it is not fully consumed.
+	 */
+	public Stream<Row> streamQuery(String query) {
+		return streamQuery(DEFAULT_ID, query, DEFAULT_FETCH_SIZE);
+	}
+	
+	/**
+	 * Executes SQL SELECT query as a forward-only stream of rows.
+	 * @param id Unique identifier for database used in openConnection(String, String, String, String).
+	 * @param query Valid SQL statement to query database.
+	 * @param fetchSize Number of rows fetched from the database per round trip.
+	 * @implNote Close the stream (try-with-resources) if it is not fully consumed.
+	 */
+	public Stream<Row> streamQuery(String id, String query, int fetchSize) {
+		StreamingQuery streamingQuery = new StreamingQuery(getConnection(id), query, fetchSize, log);
+		openStreams.add(streamingQuery);
+		
+		return StreamSupport.stream(streamingQuery, false).onClose(() -> {
+			streamingQuery.close();
+			openStreams.remove(streamingQuery);
+		});
+	}
+	
+	/**
+	 * Executes SQL SELECT query on default connection and invokes rowAction for each row in constant memory.
+	 * @param query Valid SQL statement to query database.
+	 * @param rowAction Callback for each row. Rows are only valid for the duration of the callback.
+	 */
+	public void forEachRow(String query, Consumer<Row> rowAction) {
+		forEachRow(DEFAULT_ID, query, DEFAULT_FETCH_SIZE, rowAction);
+	}
+	
+	/**
+	 * Executes SQL SELECT query and invokes rowAction for each row in constant memory.
+	 * @param id Unique identifier for database used in openConnection(String, String, String, String).
+	 * @param query Valid SQL statement to query database.
+	 * @param fetchSize Number of rows fetched from the database per round trip.
+	 * @param rowAction Callback for each row. Rows are only valid for the duration of the callback.
+	 */
+	public void forEachRow(String id, String query, int fetchSize, Consumer<Row> rowAction) {
+		long startTime = StepTimer.start();
+		
+		try (Stream<Row> rows = streamQuery(id, query, fetchSize)) {
+			rows.forEach(rowAction);
+		} finally {
+			StepTimer.stop(StepTimer.DATABASE, startTime);
+		}
+	}
+	
+	/**
+	 * Subscribes to a notification channel (Postgres LISTEN / NOTIFY) on a dedicated connection to the default database.
+	 * @param channel Name of the notification channel.
+	 * @throws UnsupportedOperationException If the default database does not support notifications.
+	 * @implNote Close the listener (try-with-resources) to return its connection to the pool.
+	 */
+	public DatabaseNotificationListener listen(String channel) {
+		return new DatabaseNotificationListener(connectionPools.get(DEFAULT_ID), owner, channel, log);
+	}
+	
 	/**
 	 * Executes SQL UPDATE/INSERT statement on default connection defined in environment properties.
 	 * @param query Valid SQL statement to update database.
@@ -126,16 +279,40 @@ public class DatabaseConnector {
 	 * @param updateStatement Valid SQL statement to update database.
 	 */
 	public void executeUpdate(String id, String updateStatement) {
-		Statement statement;
+		long startTime = StepTimer.start();
 		
-		try {
-			statement = connections.get(id).createStatement();
+		try (Statement statement = getConnection(id).createStatement()) {
 			statement.executeUpdate(updateStatement);
 		} catch (SQLException sqe) {
 			String err = "Failed to execute statement: " + updateStatement;
 			log.error(err);
 			log.printStackTrace(sqe);
 			throw new RuntimeException(err);
+		} finally {
+			StepTimer.stop(StepTimer.DATABASE, startTime);
+		}
+	}
+	
+	/*
+	 * Helper functions
+	 */
+	
+	/**@return Connection of the current thread to the designated database - borrowed from its pool on first use by the thread.*/
+	private Connection getConnection(String id) {
+		ConnectionPool pool = connectionPools.get(id);
+		
+		return connections.get(id).computeIfAbsent(Thread.currentThread().getId(), 
+				thread -> borrow(pool, pool.getUrl()));
+	}
+	
+	private Connection borrow(ConnectionPool pool, String connectionDetails) {
+		try {
+			return pool.borrow(owner, log);
+		} catch (SQLException sqe) {
+			String err = "Database access error for: " + connectionDetails;
+			log.error(err);
+			log.printStackTrace(sqe);
+			throw new RuntimeException(err);
 		}
 	}
 	
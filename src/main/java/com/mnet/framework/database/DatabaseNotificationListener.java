@@ -0,0 +1,129 @@
+package com.mnet.framework.database;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+
+import com.mnet.framework.reporting.FrameworkLog;
+
+/**
+ * Subscription to a Postgres notification channel (LISTEN / NOTIFY) on a dedicated pooled connection.
+ * Allows tests to block until the database signals a change instead of repeatedly querying for it.
+ * @implNote The Postgres driver is accessed reflectively, so other databases fail with UnsupportedOperationException on subscription.
+ * @version Spring 2023
+ * @author Arya Biswas
+ */
+public class DatabaseNotificationListener implements AutoCloseable {
+
+	private static final String PG_CONNECTION = "org.postgresql.PGConnection";
+	private static final String PG_NOTIFICATION = "org.postgresql.PGNotification";
+
+	private final ConnectionPool pool;
+	private final Connection connection;
+	private final String channel;
+	private final FrameworkLog log;
+
+	private Object pgConnection;
+	private Method getNotifications;
+	private Method getParameter;
+	private boolean closed;
+
+	DatabaseNotificationListener(ConnectionPool connectionPool, String owner, String channel, FrameworkLog frameworkLog) {
+		pool = connectionPool;
+		this.channel = channel;
+		log = frameworkLog;
+
+		if (!channel.matches("[A-Za-z_][A-Za-z0-9_]*")) {
+			String err = "Invalid notification channel name: " + channel;
+			log.error(err);
+			throw new RuntimeException(err);
+		}
+
+		try {
+			connection = pool.borrow(owner, log);
+		} catch (SQLException sqe) {
+			String err = "Failed to borrow connection to listen on channel: " + channel;
+			log.error(err);
+			log.printStackTrace(sqe);
+			throw new RuntimeException(err);
+		}
+
+		try {
+			Class<?> pgConnectionClass = Class.forName(PG_CONNECTION);
+
+			if (!connection.isWrapperFor(pgConnectionClass)) {
+				throw new UnsupportedOperationException("Database does not support LISTEN / NOTIFY: " + 
+						connection.getMetaData().getDatabaseProductName());
+			}
+
+			pgConnection = connection.unwrap(pgConnectionClass);
+			getNotifications = pgConnectionClass.getMethod("getNotifications", int.class);
+			getParameter = Class.forName(PG_NOTIFICATION).getMethod("getParameter");
+
+			try (Statement statement = connection.createStatement()) {
+				statement.execute("LISTEN " + channel);
+			}
+		} catch (ClassNotFoundException | NoSuchMethodException e) {
+			pool.release(connection);
+			throw new UnsupportedOperationException("Postgres driver with notification support is not available", e);
+		} catch (SQLException sqe) {
+			pool.release(connection);
+			String err = "Failed to listen on channel: " + channel;
+			log.error(err);
+			log.printStackTrace(sqe);
+			throw new RuntimeException(err);
+		} catch (UnsupportedOperationException uoe) {
+			pool.release(connection);
+			throw uoe;
+		}
+	}
+
+	/**
+	 * Blocks until at least one notification is received on the channel or the timeout elapses.
+	 * @param timeoutMillis Maximum time to wait (in ms).
+	 * @return Payloads of all notifications received, in order. Empty if the timeout elapsed.
+	 */
+	public List<String> await(long timeoutMillis) {
+		List<String> payloads = new ArrayList<String>();
+
+		try {
+			// A timeout of 0 blocks indefinitely
+			Object[] notifications = (Object[]) getNotifications.invoke(pgConnection, (int) Math.max(1, Math.min(timeoutMillis, Integer.MAX_VALUE)));
+
+			if (notifications != null) {
+				for (Object notification : notifications) {
+					payloads.add((String) getParameter.invoke(notification));
+				}
+			}
+		} catch (InvocationTargetException | IllegalAccessException e) {
+			String err = "Failed to receive notifications on channel: " + channel;
+			log.error(err);
+			log.printStackTrace(e);
+			throw new RuntimeException(err);
+		}
+
+		return payloads;
+	}
+
+	/**Stops listening and returns the connection to its pool. Safe to invoke more than once.*/
+	@Override
+	public void close() {
+		if (closed) {
+			return;
+		}
+		closed = true;
+
+		try (Statement statement = connection.createStatement()) {
+			statement.execute("UNLISTEN " + channel);
+		} catch (SQLException sqe) {
+			log.warn("Failed to stop listening on channel: " + channel);
+			log.printStackTrace(sqe);
+		} finally {
+			pool.release(connection);
+		}
+	}
+}
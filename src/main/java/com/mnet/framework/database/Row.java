@@ -0,0 +1,194 @@
+package com.mnet.framework.database;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.Calendar;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TimeZone;
+
+/**
+ * Current row of a streaming query (see DatabaseConnector.streamQuery / forEachRow).
+ * Values are read directly from the underlying cursor with typed accessors, without converting every cell to String.
+ * @implNote A Row is only valid until the stream advances. Use {@link #toMap()} to retain values.
+ * @version Spring 2023
+ * @author Arya Biswas
+ */
+public class Row {
+
+	/**Timestamps without time zone are interpreted as UTC (consistent with DBUtilities.sqlTimestampToInstant).*/
+	private static final ThreadLocal<Calendar> UTC = ThreadLocal.withInitial(() -> Calendar.getInstance(TimeZone.getTimeZone("UTC")));
+
+	private final StreamingQuery query;
+	private final long rowNumber;
+
+	protected Row(StreamingQuery streamingQuery, long rowNumber) {
+		query = streamingQuery;
+		this.rowNumber = rowNumber;
+	}
+
+	/**
+	 * @return 1-based position of this row in the query result.
+	 */
+	public long getRowNumber() {
+		return rowNumber;
+	}
+
+	/**
+	 * @return List of column names in the query result.
+	 */
+	public List<String> getColumnNames() {
+		return query.getColumnNames();
+	}
+
+	/**
+	 * @return String value of column (1-based index).
+	 */
+	public String getString(int columnIndex) {
+		try {
+			return current().getString(columnIndex);
+		} catch (SQLException sqe) {
+			throw accessError(columnIndex, sqe);
+		}
+	}
+
+	public String getString(String columnName) {
+		return getString(query.getColumnIndex(columnName));
+	}
+
+	/**
+	 * @return Long value of column (1-based index), or 0 if SQL NULL (see {@link #isNull(int)}).
+	 */
+	public long getLong(int columnIndex) {
+		try {
+			return current().getLong(columnIndex);
+		} catch (SQLException sqe) {
+			throw accessError(columnIndex, sqe);
+		}
+	}
+
+	public long getLong(String columnName) {
+		return getLong(query.getColumnIndex(columnName));
+	}
+
+	/**
+	 * @return Integer value of column (1-based index), or 0 if SQL NULL (see {@link #isNull(int)}).
+	 */
+	public int getInt(int columnIndex) {
+		try {
+			return current().getInt(columnIndex);
+		} catch (SQLException sqe) {
+			throw accessError(columnIndex, sqe);
+		}
+	}
+
+	public int getInt(String columnName) {
+		return getInt(query.getColumnIndex(columnName));
+	}
+
+	/**
+	 * @return Double value of column (1-based index), or 0 if SQL NULL (see {@link #isNull(int)}).
+	 */
+	public double getDouble(int columnIndex) {
+		try {
+			return current().getDouble(columnIndex);
+		} catch (SQLException sqe) {
+			throw accessError(columnIndex, sqe);
+		}
+	}
+
+	public double getDouble(String columnName) {
+		return getDouble(query.getColumnIndex(columnName));
+	}
+
+	/**
+	 * @return Boolean value of column (1-based index). Database flags (0 / 1) are interpreted as false / true.
+	 * Returns false if SQL NULL (see {@link #isNull(int)}).
+	 */
+	public boolean getBoolean(int columnIndex) {
+		try {
+			return current().getBoolean(columnIndex);
+		} catch (SQLException sqe) {
+			throw accessError(columnIndex, sqe);
+		}
+	}
+
+	public boolean getBoolean(String columnName) {
+		return getBoolean(query.getColumnIndex(columnName));
+	}
+
+	/**
+	 * @return Timestamp value of column (1-based index) as an Instant, or null if SQL NULL.
+	 */
+	public Instant getInstant(int columnIndex) {
+		try {
+			Timestamp timestamp = current().getTimestamp(columnIndex, UTC.get());
+			return (timestamp == null) ? null : timestamp.toInstant();
+		} catch (SQLException sqe) {
+			throw accessError(columnIndex, sqe);
+		}
+	}
+
+	public Instant getInstant(String columnName) {
+		return getInstant(query.getColumnIndex(columnName));
+	}
+
+	/**
+	 * @return Value of column (1-based index) as the driver's default Java type, or null if SQL NULL.
+	 */
+	public Object getObject(int columnIndex) {
+		try {
+			return current().getObject(columnIndex);
+		} catch (SQLException sqe) {
+			throw accessError(columnIndex, sqe);
+		}
+	}
+
+	public Object getObject(String columnName) {
+		return getObject(query.getColumnIndex(columnName));
+	}
+
+	/**
+	 * @return true if the value of column (1-based index) is SQL NULL.
+	 */
+	public boolean isNull(int columnIndex) {
+		return getObject(columnIndex) == null;
+	}
+
+	public boolean isNull(String columnName) {
+		return isNull(query.getColumnIndex(columnName));
+	}
+
+	/**
+	 * Copies the current row into a map of column name to String value.
+	 * @implNote Equivalent to a single row of DBUtilities.getDBContents().
+	 */
+	public Map<String, String> toMap() {
+		List<String> columnNames = query.getColumnNames();
+		Map<String, String> values = new HashMap<String, String>();
+
+		for (int i = 0; i < columnNames.size(); i++) {
+			values.put(columnNames.get(i), getString(i + 1));
+		}
+
+		return values;
+	}
+
+	/*
+	 * Helper functions
+	 */
+
+	private ResultSet current() {
+		return query.getResultSet(rowNumber);
+	}
+
+	private RuntimeException accessError(int columnIndex, SQLException sqe) {
+		String err = "Failed to read column " + columnIndex + " at row " + rowNumber + " for query: " + query.getQuery();
+		query.getLog().error(err);
+		query.getLog().printStackTrace(sqe);
+		return new RuntimeException(err);
+	}
+}
@@ -0,0 +1,111 @@
+package com.mnet.framework.database;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.mnet.framework.core.FrameworkProperties;
+
+/**
+ * Least-recently-used cache of prepared statements for a single physical connection, keyed by SQL text.
+ * Repeated queries are parsed by the database once and only re-bound on subsequent executions.
+ * @version Spring 2023
+ * @author Arya Biswas
+ */
+class StatementCache {
+
+	/**Maximum number of prepared statements retained per connection.*/
+	private static final int CACHE_SIZE = FrameworkProperties.getIntProperty("DATABASE_STATEMENT_CACHE_SIZE", 100);
+
+	private final Connection connection;
+	private final AtomicLong hits;
+	private final AtomicLong misses;
+	private Boolean postgres;
+
+	private final Map<String, PreparedStatement> statements = new LinkedHashMap<String, PreparedStatement>(16, 0.75f, true) {
+		private static final long serialVersionUID = 1L;
+
+		@Override
+		protected boolean removeEldestEntry(Map.Entry<String, PreparedStatement> eldest) {
+			if (size() > CACHE_SIZE) {
+				closeQuietly(eldest.getValue());
+				return true;
+			}
+
+			return false;
+		}
+	};
+
+	StatementCache(Connection connection, AtomicLong hits, AtomicLong misses) {
+		this.connection = connection;
+		this.hits = hits;
+		this.misses = misses;
+	}
+
+	/**
+	 * Returns a (scrollable, read-only) prepared statement for the SQL text with the designated parameters bound.
+	 * @implNote Executing the same SQL again on this connection closes the previous result of the statement.
+	 */
+	synchronized PreparedStatement prepare(String sql, Object... params) throws SQLException {
+		PreparedStatement statement = statements.get(sql);
+
+		if (statement != null && !statement.isClosed()) {
+			hits.incrementAndGet();
+			statement.clearParameters();
+		} else {
+			misses.incrementAndGet();
+			statement = connection.prepareStatement(sql, ResultSet.TYPE_SCROLL_INSENSITIVE, ResultSet.CONCUR_READ_ONLY);
+			statements.put(sql, statement);
+		}
+
+		for (int i = 0; i < params.length; i++) {
+			bind(statement, i + 1, params[i]);
+		}
+
+		return statement;
+	}
+
+	/**Closes all cached statements.*/
+	synchronized void close() {
+		statements.values().forEach(StatementCache::closeQuietly);
+		statements.clear();
+	}
+
+	/*
+	 * Helper functions
+	 */
+
+	private void bind(PreparedStatement statement, int index, Object param) throws SQLException {
+		if (param == null) {
+			statement.setNull(index, Types.NULL);
+		} else if ((param instanceof String || param instanceof Enum) && isPostgres()) {
+			// Bind as untyped so Postgres infers the column type, as it would for a quoted literal
+			statement.setObject(index, param.toString(), Types.OTHER);
+		} else if (param instanceof Enum) {
+			statement.setString(index, param.toString());
+		} else {
+			statement.setObject(index, param);
+		}
+	}
+
+	private boolean isPostgres() throws SQLException {
+		if (postgres == null) {
+			postgres = connection.getMetaData().getDatabaseProductName().toLowerCase().contains("postgres");
+		}
+
+		return postgres;
+	}
+
+	private static void closeQuietly(PreparedStatement statement) {
+		try {
+			statement.close();
+		} catch (SQLException sqe) {
+			// Statement is discarded regardless
+		}
+	}
+}
@@ -0,0 +1,173 @@
+package com.mnet.framework.database;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Spliterator;
+import java.util.TreeMap;
+import java.util.function.Consumer;
+
+import com.mnet.framework.reporting.FrameworkLog;
+
+/**
+ * Forward-only, read-only cursor over a query result which fetches rows from the database in batches of fetchSize.
+ * Rows are exposed one at a time as {@link Row} views, so memory use is independent of the size of the result.
+ * @version Spring 2023
+ * @author Arya Biswas
+ */
+class StreamingQuery implements Spliterator<Row>, AutoCloseable {
+
+	private final Connection connection;
+	private final String query;
+	private final FrameworkLog log;
+
+	private Statement statement;
+	private ResultSet result;
+	private boolean restoreAutoCommit;
+	private boolean closed;
+
+	private List<String> columnNames;
+	private Map<String, Integer> columnIndex;
+	private long position;
+
+	StreamingQuery(Connection connection, String query, int fetchSize, FrameworkLog frameworkLog) {
+		this.connection = connection;
+		this.query = query;
+		log = frameworkLog;
+
+		try {
+			// Postgres only honours the fetch size for cursors opened inside a transaction
+			if (connection.getAutoCommit()) {
+				connection.setAutoCommit(false);
+				restoreAutoCommit = true;
+			}
+
+			statement = connection.createStatement(ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+			statement.setFetchSize(fetchSize);
+			result = statement.executeQuery(query);
+
+			ResultSetMetaData metadata = result.getMetaData();
+			List<String> names = new ArrayList<String>();
+			Map<String, Integer> indices = new TreeMap<String, Integer>(String.CASE_INSENSITIVE_ORDER);
+
+			for (int i = 1; i <= metadata.getColumnCount(); i++) {
+				names.add(metadata.getColumnName(i));
+				indices.putIfAbsent(metadata.getColumnName(i), i);
+			}
+
+			columnNames = Collections.unmodifiableList(names);
+			columnIndex = Collections.unmodifiableMap(indices);
+		} catch (SQLException sqe) {
+			close();
+			String err = "Failed to execute streaming query: " + query;
+			log.error(err);
+			log.printStackTrace(sqe);
+			throw new RuntimeException(err);
+		}
+	}
+
+	@Override
+	public boolean tryAdvance(Consumer<? super Row> action) {
+		if (closed) {
+			return false;
+		}
+
+		try {
+			if (!result.next()) {
+				close();
+				return false;
+			}
+		} catch (SQLException sqe) {
+			close();
+			String err = "Failed to fetch next row for query: " + query;
+			log.error(err);
+			log.printStackTrace(sqe);
+			throw new RuntimeException(err);
+		}
+
+		action.accept(new Row(this, ++position));
+		return true;
+	}
+
+	@Override
+	public Spliterator<Row> trySplit() {
+		return null;
+	}
+
+	@Override
+	public long estimateSize() {
+		return Long.MAX_VALUE;
+	}
+
+	@Override
+	public int characteristics() {
+		return ORDERED | NONNULL;
+	}
+
+	/**Releases cursor resources and restores the connection's auto-commit mode. Safe to invoke more than once.*/
+	@Override
+	public void close() {
+		if (closed) {
+			return;
+		}
+		closed = true;
+
+		try {
+			if (result != null) {
+				result.close();
+			}
+			if (statement != null) {
+				statement.close();
+			}
+			if (restoreAutoCommit) {
+				connection.setAutoCommit(true);
+			}
+		} catch (SQLException sqe) {
+			log.warn("Failed to release streaming query: " + query);
+			log.printStackTrace(sqe);
+		}
+	}
+
+	/*
+	 * Accessors for Row
+	 */
+
+	ResultSet getResultSet(long rowNumber) {
+		if (closed || rowNumber != position) {
+			throw new IllegalStateException("Row " + rowNumber + " is no longer current for query: " + query
+					+ " - use Row.toMap() to retain values beyond the current row");
+		}
+
+		return result;
+	}
+
+	List<String> getColumnNames() {
+		return columnNames;
+	}
+
+	int getColumnIndex(String columnName) {
+		Integer index = columnIndex.get(columnName);
+
+		if (index == null) {
+			String err = "Failed to find column in query result with name: " + columnName;
+			log.error(err);
+			throw new RuntimeException(err);
+		}
+
+		return index;
+	}
+
+	FrameworkLog getLog() {
+		return log;
+	}
+
+	String getQuery() {
+		return query;
+	}
+}
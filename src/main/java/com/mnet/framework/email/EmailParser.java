@@ -54,23 +54,29 @@ public interface EmailParser {
 		String user_id = EMAIL_USER_ID.substring(0, EMAIL_USER_ID.indexOf("@"));
 		user_id = user_id.indexOf("+") > 0 ? user_id.substring(0, user_id.indexOf("+")) : user_id; 
 		String domain = EMAIL_USER_ID.substring(EMAIL_USER_ID.indexOf("@") + 1);
-		queryResult = database.executeQuery(query.replace("<email_id>", email_id));
 		
-		if (DOMAIN_ALIAS_AVAILABLE) {						
-			while (true) {
-				if (queryResult.getAllRows().isEmpty()) {
-					return email_id;
+		try {
+			queryResult = database.executeQuery(query.replace("<email_id>", email_id));
+			
+			if (DOMAIN_ALIAS_AVAILABLE) {						
+				while (true) {
+					if (queryResult.getAllRows().isEmpty()) {
+						return email_id;
+					}
+					email_id = user_id + "+" + String.valueOf(CommonUtils.getRandomNumber(1, 3000)) + "@" + domain;
+					queryResult = database.executeQuery(query.replace("<email_id>", email_id));
 				}
-				email_id = user_id + "+" + String.valueOf(CommonUtils.getRandomNumber(1, 3000)) + "@" + domain;
-				queryResult = database.executeQuery(query.replace("<email_id>", email_id));
-			}
-		} else {
-			if (!queryResult.getAllRows().isEmpty()) {
-				query = "update users.customer_account set mfa_email_address = '<updatedEmail>' where mfa_email_address = '<oldEmail>'";
-				query = query.replace("<updatedEmail>", temporaryMFA);
-				query = query.replace("<oldEmail>", email_id);				
+			} else {
+				if (!queryResult.getAllRows().isEmpty()) {
+					query = "update users.customer_account set mfa_email_address = '<updatedEmail>' where mfa_email_address = '<oldEmail>'";
+					query = query.replace("<updatedEmail>", temporaryMFA);
+					query = query.replace("<oldEmail>", email_id);				
+				}
+				return email_id;
 			}
-			return email_id;
+		} finally {
+			// Return pooled connection
+			database.closeConnections();
 		}
 	}
 }
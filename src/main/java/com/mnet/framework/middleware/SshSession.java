@@ -0,0 +1,156 @@
+package com.mnet.framework.middleware;
+
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+import com.jcraft.jsch.Channel;
+import com.jcraft.jsch.JSch;
+import com.jcraft.jsch.JSchException;
+import com.jcraft.jsch.Session;
+import com.mnet.framework.core.FrameworkProperties;
+import com.mnet.framework.reporting.FrameworkLog;
+
+/**
+ * Suite-scoped SSH session for a single user / host / port combination, shared by all UnixConnector instances.
+ * Commands and file transfers are multiplexed as concurrent channels over the one authenticated session.
+ * The session is kept alive between tests and transparently reconnected if the server drops it.
+ * @version Spring 2023
+ * @author Arya Biswas
+ */
+class SshSession {
+
+	/**Maximum number of concurrently open channels per session (sshd MaxSessions defaults to 10).*/
+	private static final int MAX_CHANNELS = FrameworkProperties.getIntProperty("UNIX_MAX_CHANNELS", 8);
+	/**Interval (ms) between keepalive messages on an idle session.*/
+	private static final int KEEPALIVE_INTERVAL = FrameworkProperties.getIntProperty("UNIX_KEEPALIVE_INTERVAL", 30000);
+	/**Maximum time (ms) to wait for a free channel before failing.*/
+	private static final long CHANNEL_TIMEOUT = FrameworkProperties.getLongProperty("UNIX_CHANNEL_TIMEOUT", 60000);
+
+	private static final Map<String, SshSession> sessions = new ConcurrentHashMap<String, SshSession>();
+
+	private final String host;
+	private final int port;
+	private final String user;
+	private final String password;
+	private final int timeout;
+
+	private final Semaphore channels = new Semaphore(MAX_CHANNELS, true);
+	private Session session;
+
+	private SshSession(String host, int port, String user, String password, int timeout) {
+		this.host = host;
+		this.port = port;
+		this.user = user;
+		this.password = password;
+		this.timeout = timeout;
+	}
+
+	/**Returns the shared session for the designated connection details, creating it on first use.*/
+	static SshSession forHost(String host, int port, String user, String password, int timeout) {
+		return sessions.computeIfAbsent(user + "@" + host + ":" + port, key -> new SshSession(host, port, user, password, timeout));
+	}
+
+	/**Disconnects all shared sessions. Intended to be invoked once at suite end.*/
+	static void closeAll() {
+		sessions.values().forEach(SshSession::disconnect);
+		sessions.clear();
+	}
+
+	/**
+	 * Opens and connects a channel of the designated type ("exec", "sftp") on the shared session.
+	 * Waits for a free channel if MAX_CHANNELS are already open. Release the channel with closeChannel().
+	 */
+	Channel openChannel(String type, FrameworkLog log) {
+		try {
+			if (!channels.tryAcquire(CHANNEL_TIMEOUT, TimeUnit.MILLISECONDS)) {
+				String err = "Timed out waiting for free SSH channel on: " + user + "@" + host + ":" + port;
+				log.error(err);
+				throw new RuntimeException(err);
+			}
+		} catch (InterruptedException ie) {
+			Thread.currentThread().interrupt();
+			String err = "Interrupted while waiting for SSH channel on: " + user + "@" + host + ":" + port;
+			log.error(err);
+			throw new RuntimeException(err);
+		}
+
+		try {
+			return getSession(log).openChannel(type);
+		} catch (JSchException jse) {
+			channels.release();
+			String err = "Failed to open " + type + " channel on: " + user + "@" + host + ":" + port;
+			log.error(err);
+			log.printStackTrace(jse);
+			throw new RuntimeException(err);
+		} catch (RuntimeException re) {
+			channels.release();
+			throw re;
+		}
+	}
+
+	/**Disconnects a channel opened with openChannel() and frees its slot.*/
+	void closeChannel(Channel channel) {
+		try {
+			channel.disconnect();
+		} finally {
+			channels.release();
+		}
+	}
+
+	/**Verifies the session is connected, reconnecting if required.*/
+	synchronized void ensureConnected(FrameworkLog log) {
+		getSession(log);
+	}
+
+	/*
+	 * Helper functions
+	 */
+
+	private synchronized Session getSession(FrameworkLog log) {
+		if (session != null && session.isConnected()) {
+			return session;
+		}
+
+		if (session != null) {
+			log.warn("SSH session to " + host + ":" + port + " was dropped - reconnecting");
+		}
+
+		try {
+			// jsch.setKnownHosts("~/.ssh/known_hosts");
+			session = new JSch().getSession(user, host, port);
+		} catch (JSchException jse) {
+			log.error("Failed to obtain Unix session for: " + host + ":" + port + " | " + user);
+			log.printStackTrace(jse);
+			throw new RuntimeException(jse);
+		}
+
+		Properties config = new Properties();
+		config.put("StrictHostKeyChecking", "no");
+
+		session.setPassword(password);
+		session.setConfig(config);
+
+		try {
+			session.setTimeout(timeout);
+			session.setServerAliveInterval(KEEPALIVE_INTERVAL);
+			session.setServerAliveCountMax(3);
+			session.connect();
+		} catch (JSchException jse) {
+			log.error("Failed to connect to Unix session: " + host + ":" + port + " | " + user);
+			log.printStackTrace(jse);
+			throw new RuntimeException(jse);
+		}
+
+		return session;
+	}
+
+	private synchronized void disconnect() {
+		if (session != null) {
+			session.disconnect();
+			session = null;
+		}
+	}
+}
@@ -0,0 +1,38 @@
+package com.mnet.framework.middleware;
+
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Outcome of Unix command(s) executed via UnixConnector.execute().
+ * @version Spring 2023
+ * @author Arya Biswas
+ */
+@Getter
+@AllArgsConstructor(access = AccessLevel.PACKAGE)
+public class UnixCommandResult {
+
+	/**Log-safe version of the executed command (passwords redacted).*/
+	private String command;
+	/**Exit status of the last command, or -1 if the command did not finish within UNIX_COMMAND_TIMEOUT.*/
+	private int exitStatus;
+	/**Standard output of the command.*/
+	private String stdout;
+	/**Standard error of the command.*/
+	private String stderr;
+	/**Time (ms) taken to execute the command.*/
+	private long durationMillis;
+
+	/**
+	 * @return true if the command finished with exit status 0.
+	 */
+	public boolean isSuccess() {
+		return exitStatus == 0;
+	}
+
+	@Override
+	public String toString() {
+		return command + " [exit status: " + exitStatus + ", " + durationMillis + " ms]";
+	}
+}
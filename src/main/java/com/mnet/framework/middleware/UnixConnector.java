@@ -1,42 +1,47 @@
 package com.mnet.framework.middleware;
 
-import java.io.BufferedWriter;
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
-import java.io.OutputStreamWriter;
-import java.io.PipedInputStream;
-import java.io.PipedOutputStream;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.List;
-import java.util.Properties;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+import java.util.function.LongConsumer;
 
 import org.apache.commons.io.FilenameUtils;
 import org.apache.commons.lang3.StringUtils;
 
+import com.jcraft.jsch.ChannelExec;
 import com.jcraft.jsch.ChannelSftp;
-import com.jcraft.jsch.ChannelShell;
-import com.jcraft.jsch.JSch;
 import com.jcraft.jsch.JSchException;
-import com.jcraft.jsch.Session;
 import com.jcraft.jsch.SftpException;
 import com.mnet.framework.core.FrameworkProperties;
 import com.mnet.framework.reporting.FrameworkLog;
+import com.mnet.framework.reporting.StepTimer;
 import com.mnet.framework.utilities.CommonUtils;
-import com.mnet.framework.utilities.Timeout;
 
 /**
  * Handles SSH connections and shell commands for virtual machine.
+ * Connections share a suite-scoped SSH session per host (see {@link SshSession}), so commands and file transfers
+ * from different tests run as concurrent channels over a single authenticated connection.
  * @version Spring 2023
  * @author Arya Biswas
  */
 public class UnixConnector {
 	
 	private FrameworkLog log;
-	private Session session;
-	private ChannelShell shell;
-	private ChannelSftp fileTransfer;
-	private PipedInputStream input;
-	private PipedOutputStream output;
-	private BufferedWriter shellCommand;
+	private SshSession session;
 	
 	private List<UnixCommand> queuedCommands;
 	
@@ -50,10 +55,27 @@ public class UnixConnector {
 	/**Maximum command timeout (in ms)*/
 	private static final String UNIX_COMMAND_TIMEOUT = FrameworkProperties.getProperty("UNIX_COMMAND_TIMEOUT");
 	
-	private static final long TIMEOUT_SESSION_L = Long.parseLong(UNIX_SESSION_TIMEOUT);
 	private static final long TIMEOUT_COMMAND_L = Long.parseLong(UNIX_COMMAND_TIMEOUT);
-	/**Thread sleep interval while waiting for command completion*/
-	private static final long TIMEOUT_SLEEP_INTERVAL = 1000L; 
+	/**Marker echoed with the exit status after the last command, signalling completion without waiting for channel teardown*/
+	private static final String EXIT_STATUS_MARKER = "__MITE_EXIT_STATUS__:";
+	/**Markers preceding the output (with exit status) and error output of each command in a batch*/
+	private static final String BATCH_JOB_MARKER = "__MITE_BATCH_JOB__:";
+	private static final String BATCH_ERR_MARKER = "__MITE_BATCH_ERR__:";
+	/**Maximum time (in ms) to wait for the channel to close after the exit status marker, so that all error output is received*/
+	private static final long STDERR_DRAIN_MILLIS = 2000;
+	
+	/**Threads which stream output of running commands*/
+	private static final ExecutorService commandReaders = Executors.newCachedThreadPool(runnable -> {
+		Thread thread = new Thread(runnable, "mite-unix-command");
+		thread.setDaemon(true);
+		return thread;
+	});
+	/**Terminates commands which exceed UNIX_COMMAND_TIMEOUT*/
+	private static final ScheduledExecutorService commandTimeouts = Executors.newSingleThreadScheduledExecutor(runnable -> {
+		Thread thread = new Thread(runnable, "mite-unix-command-timeout");
+		thread.setDaemon(true);
+		return thread;
+	});
 	
 	private static final int TIMEOUT_SESSION_I = Integer.parseInt(UNIX_SESSION_TIMEOUT);
 	private static final int UNIX_PORT = Integer.parseInt(FrameworkProperties.getProperty("UNIX_PORT"));
@@ -76,10 +98,17 @@ public class UnixConnector {
 	}
 	
 	/**
-	 * Disconnects SSH connection. 
+	 * Releases this connector. The shared SSH session remains open for other tests until closeAllSessions().
 	 **/
 	public void closeConnection() {
-		session.disconnect();
+		queuedCommands.clear();
+	}
+	
+	/**
+	 * Disconnects all shared SSH sessions. Invoked once at suite end by MITESuiteListener.
+	 */
+	public static void closeAllSessions() {
+		SshSession.closeAll();
 	}
 	
 	/**
@@ -93,37 +122,106 @@ public class UnixConnector {
 	}
 
 	/**
-	 * Sequentially executes all queued UNIX commands in current instance of shell.
-	 * After execution, the queued commands are purged and the shell state resets.
+	 * Sequentially executes all queued UNIX commands in a single exec channel.
+	 * After execution, the queued commands are purged.
+	 * @return Exit status and output of the executed commands.
 	 **/
-	public void executeShellCommands() {
-		String mergedCommand = getMergedCommand();
+	public UnixCommandResult executeShellCommands() {
+		List<UnixCommand> commands = new ArrayList<UnixCommand>(queuedCommands);
+		queuedCommands.clear();
+		
+		return execute(commands.toArray(new UnixCommand[0]));
+	}
+	
+	/**
+	 * Executes one or more UNIX commands in sequence via an exec channel on the shared session and waits for completion.
+	 * Several commands may be executed concurrently (from different threads / tests) on the same host.
+	 * @return Exit status, standard output and standard error of the commands. Exit status is -1 if UNIX_COMMAND_TIMEOUT elapses.
+	 */
+	public UnixCommandResult execute(UnixCommand... commands) {
+		return executeAsync(null, commands).join();
+	}
+	
+	/**
+	 * Starts one or more UNIX commands in sequence via an exec channel on the shared session without waiting for completion.
+	 * Completion is detected as soon as the exit status of the last command is printed, rather than on channel teardown.
+	 * @param outputConsumer Invoked with each line of standard output as it is received (on a background thread). May be null.
+	 * @return Future completed with exit status, standard output and standard error of the commands. 
+	 * Exit status is -1 if UNIX_COMMAND_TIMEOUT elapses, in which case the channel is closed.
+	 */
+	public CompletableFuture<UnixCommandResult> executeAsync(Consumer<String> outputConsumer, UnixCommand... commands) {
+		String mergedCommand = getMergedCommand(commands);
 		String loggableCommand = mergedCommand.replace(UNIX_PASSWORD, "<userPwd>");
 		
-		openShell();
+		log.info("Running shell commands:");
+		log.info(loggableCommand);
 		
-		try {
-			shellCommand.write(mergedCommand + " ; exit \n");
-			shellCommand.flush();
-			log.info("Running shell commands:");
-			log.info(loggableCommand);
-		} catch (IOException ioe) {
-			log.error("Failed to run commands in shell: " + loggableCommand);
-			log.printStackTrace(ioe);
-			throw new RuntimeException(ioe);
+		return runAsync(mergedCommand, loggableCommand, null, TIMEOUT_COMMAND_L, outputConsumer);
+	}
+	
+	/**
+	 * Executes independent UNIX commands concurrently on the remote machine, with at most maxConcurrency running at once.
+	 * All commands are submitted as a single script over one exec channel (via standard input, so nothing is written to the remote disk).
+	 * @param maxConcurrency Maximum number of commands running simultaneously on the remote machine.
+	 * @return Exit status, standard output and standard error of each command, in the order provided.
+	 * Exit status is -1 for commands which did not finish within UNIX_COMMAND_TIMEOUT per concurrent slot.
+	 * @implNote Requires bash on the remote machine.
+	 */
+	public List<UnixCommandResult> executeBatch(int maxConcurrency, List<UnixCommand> commands) {
+		if (commands.isEmpty()) {
+			return new ArrayList<UnixCommandResult>();
 		}
 		
-		long startTime = System.nanoTime();
-		
-		while(shell.isConnected()) {
-			if (CommonUtils.millisFromTime(startTime) > TIMEOUT_COMMAND_L) {
-				break;
-			}
+		int concurrency = Math.max(1, maxConcurrency);
+		StringBuilder script = new StringBuilder("OUT=$(mktemp -d)\n");
 		
-			Timeout.waitForTimeout(log, TIMEOUT_SLEEP_INTERVAL);
+		for (int i = 0; i < commands.size(); i++) {
+			script.append("{ ( " + commands.get(i).getCommand() + " ) > \"$OUT/" + i + ".out\" 2> \"$OUT/" + i + ".err\" ; echo $? > \"$OUT/" + i + ".status\" ; } &\n");
+			script.append("while [ $(jobs -rp | wc -l) -ge " + concurrency + " ] ; do wait -n 2>/dev/null || sleep 0.1 ; done\n");
 		}
 		
-		closeShell(); // required for shell commands to resolve
+		script.append("wait\n");
+		script.append("for i in $(seq 0 " + (commands.size() - 1) + ") ; do\n");
+		script.append("echo \"" + BATCH_JOB_MARKER + "$i:$(cat \"$OUT/$i.status\" 2>/dev/null || echo -1)\" ; cat \"$OUT/$i.out\"\n");
+		script.append("echo \"" + BATCH_ERR_MARKER + "$i\" ; cat \"$OUT/$i.err\"\n");
+		script.append("done\n");
+		script.append("rm -rf \"$OUT\"\n");
+		
+		String loggableBatch = "Batch of " + commands.size() + " commands (concurrency " + concurrency + ")";
+		log.info("Running " + loggableBatch.toLowerCase() + ":");
+		commands.forEach(command -> log.info(command.getLoggableCommand()));
+		
+		long timeout = TIMEOUT_COMMAND_L * ((commands.size() + concurrency - 1) / concurrency);
+		UnixCommandResult batch = runAsync("bash -s", loggableBatch, 
+				new ByteArrayInputStream(script.toString().getBytes(StandardCharsets.UTF_8)), timeout, null).join();
+		
+		return getBatchResults(commands, batch);
+	}
+	
+	/**
+	 * Copies files from local machine to a remote directory over a single SFTP channel.
+	 * @param localSources Source paths (absolute) of files on local machine.
+	 * @param remoteDest Destination directory (absolute) on remote machine.
+	 */
+	public void copyFilesToRemote(List<String> localSources, String remoteDest) {
+		String unixRemote = FilenameUtils.separatorsToUnix(remoteDest);
+		
+		ChannelSftp fileTransfer = openSFTP();
+		long startTime = StepTimer.start();
+		
+		try {
+			for (String localSource : localSources) {
+				log.info("Transferring file from local: " + localSource + " to remote: " + unixRemote);
+				fileTransfer.put(localSource, unixRemote);
+			}
+		} catch (SftpException sfe) {
+			log.error("Failed to transfer files from local: " + localSources + " to remote: " + remoteDest);
+			log.printStackTrace(sfe);
+			throw new RuntimeException(sfe);
+		} finally {
+			StepTimer.stop(StepTimer.SFTP, startTime);
+			session.closeChannel(fileTransfer);
+		}
 	}
 	
 	/**
@@ -134,7 +232,8 @@ public class UnixConnector {
 	public void copyFileToRemote(String localSource, String remoteDest) {
 		String unixRemote = FilenameUtils.separatorsToUnix(remoteDest);
 		
-		openSFTP();
+		ChannelSftp fileTransfer = openSFTP();
+		long startTime = StepTimer.start();
 	
         try {
 			log.info("Transferring file from local: " + localSource + " to remote: " + unixRemote);
@@ -143,10 +242,10 @@ public class UnixConnector {
 			log.error("Failed to transfer file from local: " + localSource + " to remote: " + remoteDest);
 			log.printStackTrace(sfe);
 			throw new RuntimeException(sfe);
+		} finally {
+			StepTimer.stop(StepTimer.SFTP, startTime);
+			session.closeChannel(fileTransfer);
 		}
-		
-		Timeout.waitForTimeout(log, TIMEOUT_SESSION_L);
-		fileTransfer.disconnect();
 	}
 	
 	/**
@@ -158,7 +257,8 @@ public class UnixConnector {
 		String unixRemote = FilenameUtils.separatorsToUnix(remoteSource);
 		String unixRemotePath = unixRemote.substring(0, unixRemote.lastIndexOf("/"));
 		
-		openSFTP();
+		ChannelSftp fileTransfer = openSFTP();
+		long startTime = StepTimer.start();
 		
 		try {
 			log.info("Transferring file from remote: " + unixRemote + " to local: " + localDest);
@@ -168,15 +268,15 @@ public class UnixConnector {
 			log.error("Failed to transfer file from remote: " + remoteSource + " to local: " + localDest);
 			log.printStackTrace(sfe);
 			throw new RuntimeException(sfe);
+		} finally {
+			StepTimer.stop(StepTimer.SFTP, startTime);
+			session.closeChannel(fileTransfer);
 		}
-		
-		Timeout.waitForTimeout(log, TIMEOUT_SESSION_L);
-		fileTransfer.disconnect();
 	}
 	
 	/** Check file existence */
 	public boolean fileExists(String filePath) {
-		openSFTP();
+		ChannelSftp fileTransfer = openSFTP();
 		
 		try {
 			fileTransfer.lstat(filePath);
@@ -185,6 +285,8 @@ public class UnixConnector {
 			log.error("Failed to verify existence of " + filePath);
 			log.printStackTrace(sfe);
 			throw new RuntimeException(sfe);
+		} finally {
+			session.closeChannel(fileTransfer);
 		}
 	}
 	
@@ -192,106 +294,215 @@ public class UnixConnector {
 	 * Helper functions
 	 */
 	
-	private void openConnection() {
-		JSch jsch = new JSch();
+	/**
+	 * Starts command on an exec channel and streams its output on a background thread until the exit status marker is received.
+	 * The command runs in a bash login shell, so that the environment (PATH, LD_LIBRARY_PATH, ...) set up by .bash_profile / .profile 
+	 * matches an interactive SSH session.
+	 * @param input Standard input of the command. May be null.
+	 */
+	private CompletableFuture<UnixCommandResult> runAsync(String command, String loggableCommand, InputStream input, 
+			long timeoutMillis, Consumer<String> outputConsumer) {
+		ByteArrayOutputStream stderr = new ByteArrayOutputStream();
+		ChannelExec exec = (ChannelExec) session.openChannel("exec", log);
+		BufferedReader stdout;
 		
 		try {
-			// jsch.setKnownHosts("~/.ssh/known_hosts");
-			session = jsch.getSession(user, hostName, UNIX_PORT);
-		} catch (JSchException jse) {
-			log.error("Failed to obtain Unix session for: " + hostName + ":" + UNIX_PORT + " | " + user);
-			log.printStackTrace(jse);
-			throw new RuntimeException(jse);
+			exec.setCommand("bash -lc " + quoteArgument(command + " ; echo " + EXIT_STATUS_MARKER + "$?"));
+			exec.setInputStream(input);
+			exec.setErrStream(stderr);
+			stdout = new BufferedReader(new InputStreamReader(exec.getInputStream(), StandardCharsets.UTF_8));
+			
+			exec.connect(TIMEOUT_SESSION_I);
+		} catch (JSchException | IOException e) {
+			session.closeChannel(exec);
+			String err = "Failed to run commands in shell: " + loggableCommand;
+			log.error(err);
+			log.printStackTrace(e);
+			throw new RuntimeException(err);
 		}
 		
-		Properties config = new Properties();
-		config.put("StrictHostKeyChecking", "no");
+		long startTime = System.nanoTime();
+		LongConsumer sshTimer = StepTimer.recorder(StepTimer.SSH);
+		AtomicBoolean timedOut = new AtomicBoolean();
 		
-		session.setPassword(userPwd);
-		session.setConfig(config);
+		// Closing the channel ends the output stream, which completes the reader below
+		ScheduledFuture<?> timeout = commandTimeouts.schedule(() -> {
+			timedOut.set(true);
+			exec.disconnect();
+		}, timeoutMillis, TimeUnit.MILLISECONDS);
 		
-		try {
-			session.setTimeout(TIMEOUT_SESSION_I);
-			session.connect();
-		} catch (JSchException jse) {
-			log.error("Failed to connect to Unix session: " + hostName + ":" + UNIX_PORT + " | " + user);
-			log.printStackTrace(jse);
-			throw new RuntimeException(jse);
-		}
+		return CompletableFuture.supplyAsync(() -> {
+			StringBuilder output = new StringBuilder();
+			int exitStatus = -1;
+			
+			try {
+				String line;
+				
+				while ((line = stdout.readLine()) != null) {
+					int marker = line.lastIndexOf(EXIT_STATUS_MARKER);
+					Integer markerStatus = (marker >= 0) ? parseStatus(line.substring(marker + EXIT_STATUS_MARKER.length())) : null;
+					
+					if (markerStatus != null) {
+						// Output without trailing newline precedes the marker on the same line
+						String lastLine = line.substring(0, marker);
+						
+						if (!lastLine.isEmpty()) {
+							output.append(lastLine);
+							
+							if (outputConsumer != null) {
+								outputConsumer.accept(lastLine);
+							}
+						}
+						
+						exitStatus = markerStatus;
+						break;
+					}
+					
+					output.append(line).append(System.lineSeparator());
+					
+					if (outputConsumer != null) {
+						outputConsumer.accept(line);
+					}
+				}
+				
+				// Marker is not printed if the commands terminate the shell (e.g exit)
+				if (exitStatus == -1 && !timedOut.get()) {
+					exitStatus = exec.getExitStatus();
+				}
+			} catch (IOException ioe) {
+				if (!timedOut.get()) {
+					log.warn("Failed to read output of shell commands: " + loggableCommand);
+					log.printStackTrace(ioe);
+				}
+			} finally {
+				timeout.cancel(false);
+				
+				if (!timedOut.get()) {
+					awaitChannelClosed(exec);
+				}
+				
+				session.closeChannel(exec);
+			}
+			
+			if (timedOut.get()) {
+				log.warn("Shell commands did not complete within " + timeoutMillis + " ms: " + loggableCommand);
+			}
+			
+			long durationMillis = (long) CommonUtils.millisFromTime(startTime);
+			sshTimer.accept(durationMillis);
+			
+			return new UnixCommandResult(loggableCommand, timedOut.get() ? -1 : exitStatus,
+					output.toString(), stderr.toString(StandardCharsets.UTF_8), durationMillis);
+		}, commandReaders);
 	}
 	
-	/**
-	 * Starts new terminal shell instance. 
-	 **/
-	private void openShell() {
-		try {
-			shell = (ChannelShell)session.openChannel("shell");
-		} catch (JSchException jse) {
-			log.error("Failed to open shell channel");
-			log.printStackTrace(jse);
-			throw new RuntimeException(jse);
+	/**Splits output of a batch script into the results of the individual commands.*/
+	private List<UnixCommandResult> getBatchResults(List<UnixCommand> commands, UnixCommandResult batch) {
+		int[] exitStatus = new int[commands.size()];
+		StringBuilder[] stdout = new StringBuilder[commands.size()];
+		StringBuilder[] stderr = new StringBuilder[commands.size()];
+		
+		for (int i = 0; i < commands.size(); i++) {
+			exitStatus[i] = -1;
+			stdout[i] = new StringBuilder();
+			stderr[i] = new StringBuilder();
 		}
-				
-		input = new PipedInputStream();
-		try {
-			output = new PipedOutputStream(input);
-		} catch (IOException ioe) {
-			log.error("Failed to create output stream for shell");
-			log.printStackTrace(ioe);
-			throw new RuntimeException(ioe);
+		
+		StringBuilder current = null;
+		
+		for (String line : batch.getStdout().split("\\R")) {
+			int jobMarker = line.lastIndexOf(BATCH_JOB_MARKER);
+			int errMarker = line.lastIndexOf(BATCH_ERR_MARKER);
+			int marker = Math.max(jobMarker, errMarker);
+			
+			// Output without trailing newline precedes the marker on the same line
+			if (marker > 0 && current != null) {
+				current.append(line, 0, marker);
+			}
+			
+			if (marker >= 0 && marker == jobMarker) {
+				String[] job = line.substring(marker + BATCH_JOB_MARKER.length()).split(":");
+				int index = Integer.parseInt(job[0]);
+				exitStatus[index] = Integer.parseInt(job[1].trim());
+				current = stdout[index];
+			} else if (marker >= 0) {
+				current = stderr[Integer.parseInt(line.substring(marker + BATCH_ERR_MARKER.length()).trim())];
+			} else if (current != null) {
+				current.append(line).append(System.lineSeparator());
+			}
 		}
 		
-		shell.setPty(false);
-		shell.setInputStream(input);
-		shell.setOutputStream(output);
+		List<UnixCommandResult> results = new ArrayList<UnixCommandResult>();
+		
+		for (int i = 0; i < commands.size(); i++) {
+			results.add(new UnixCommandResult(commands.get(i).getLoggableCommand(), exitStatus[i], 
+					stdout[i].toString(), stderr[i].toString(), batch.getDurationMillis()));
+		}
 		
+		return results;
+	}
+	
+	/**@return Exit status following a marker, or null if the text is not an exit status (i.e. the marker is part of regular output).*/
+	private static Integer parseStatus(String status) {
 		try {
-			shell.connect();
-		} catch (JSchException jse) {
-			log.error("Failed to connect to shell");
-			log.printStackTrace(jse);
-			throw new RuntimeException(jse);
+			return Integer.parseInt(status.trim());
+		} catch (NumberFormatException nfe) {
+			return null;
 		}
+	}
+	
+	/**
+	 * Waits (up to STDERR_DRAIN_MILLIS) for the remote side to close the channel after the exit status marker.
+	 * Error output is received asynchronously - it is only complete once the channel is closed.
+	 */
+	private static void awaitChannelClosed(ChannelExec exec) {
+		long deadline = System.currentTimeMillis() + STDERR_DRAIN_MILLIS;
 		
-		shellCommand = new BufferedWriter(new OutputStreamWriter(output));
+		while (!exec.isClosed() && System.currentTimeMillis() < deadline) {
+			try {
+				Thread.sleep(10);
+			} catch (InterruptedException ie) {
+				Thread.currentThread().interrupt();
+				return;
+			}
+		}
+	}
+	
+	private void openConnection() {
+		session = SshSession.forHost(hostName, UNIX_PORT, user, userPwd, TIMEOUT_SESSION_I);
+		session.ensureConnected(log);
 	}
 	
-	private void openSFTP() {
+	private ChannelSftp openSFTP() {
+		ChannelSftp fileTransfer = (ChannelSftp) session.openChannel("sftp", log);
+		
 		try {
-			fileTransfer = (ChannelSftp)session.openChannel("sftp");
-			fileTransfer.connect();
+			fileTransfer.connect(TIMEOUT_SESSION_I);
 		} catch (JSchException jse) {
+			session.closeChannel(fileTransfer);
 			log.error("Failed to connect to SFTP channel");
 			log.printStackTrace(jse);
 			throw new RuntimeException(jse);
 		}
 		
+		return fileTransfer;
 	}
 	
 	/**
-	 * Closes active shell channel instance and allows result of shell operation to resolve. 
-	 **/
-	private void closeShell() {
-		shell.disconnect();
-		
-		try {
-			shellCommand.close();
-			input.close();
-			output.close();
-		} catch (IOException ioe) {
-			log.warn("Failed to close shell I/O");
-			log.printStackTrace(ioe);
-		}
+	 * Quotes the designated text as a single shell argument.
+	 */
+	private static String quoteArgument(String text) {
+		return "'" + text.replace("'", "'\\''") + "'";
 	}
 	
 	/**
-	 * Concatenates all queued commands with UNIX command separator (;)
-	 * As JSch shells do not retain memory of prior commands, it is necessary to combine dependent commands in a single string.
+	 * Concatenates commands with UNIX command separator (;)
+	 * As each exec channel starts a new shell, it is necessary to combine dependent commands in a single string.
 	 */
-	private String getMergedCommand() {
+	private String getMergedCommand(UnixCommand... commands) {
 		String mergedCommand = "";
 		
-		for (UnixCommand command : queuedCommands) {
+		for (UnixCommand command : commands) {
 			mergedCommand += command.getCommand() + " ; ";
 		}
 		
@@ -0,0 +1,229 @@
+package com.mnet.framework.reporting;
+
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.locks.LockSupport;
+
+import org.apache.log4j.Level;
+
+import com.mnet.framework.core.FrameworkProperties;
+
+/**
+ * Background writer shared by all FrameworkLog instances.
+ * Test threads only enqueue log events into a bounded, lock-free ring buffer (multiple producers, single consumer).
+ * A single daemon thread drains the buffer in batches, writes events to the appenders of each log and flushes them once per batch.
+ * When the buffer is full, LOG_BUFFER_POLICY determines whether INFO / WARN events wait for space (BLOCK, default) or are dropped (DROP).
+ * ERROR events are never dropped.
+ * @version Spring 2023
+ * @author Arya Biswas
+ */
+final class AsyncLogWriter {
+
+	/**Capacity of the ring buffer (rounded up to a power of two).*/
+	private static final int BUFFER_SIZE = Integer.highestOneBit(Math.max(2, FrameworkProperties.getIntProperty("LOG_BUFFER_SIZE", 8192) - 1) << 1);
+	private static final boolean DROP_WHEN_FULL = "DROP".equalsIgnoreCase(FrameworkProperties.getProperty("LOG_BUFFER_POLICY"));
+	/**Maximum number of events written between flushes.*/
+	private static final int BATCH_SIZE = 256;
+	/**Maximum time (ms) to wait for pending events to be written when a log is closed.*/
+	private static final long CLOSE_TIMEOUT = 30000;
+	private static final long IDLE_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(100);
+	private static final long FULL_PARK_NANOS = TimeUnit.MICROSECONDS.toNanos(50);
+
+	private static final AsyncLogWriter instance = new AsyncLogWriter();
+
+	private final AtomicReferenceArray<LogEvent> buffer = new AtomicReferenceArray<LogEvent>(BUFFER_SIZE);
+	private final int mask = BUFFER_SIZE - 1;
+	/**Next sequence to be claimed by a producer.*/
+	private final AtomicLong tail = new AtomicLong();
+	/**Next sequence to be consumed by the writer thread.*/
+	private final AtomicLong head = new AtomicLong();
+	private final AtomicLong dropped = new AtomicLong();
+	private final Thread writer;
+	private volatile boolean idle;
+
+	private AsyncLogWriter() {
+		writer = new Thread(this::drain, "mite-log-writer");
+		writer.setDaemon(true);
+		writer.start();
+
+		Runtime.getRuntime().addShutdownHook(new Thread(() -> awaitPending(null), "mite-log-shutdown"));
+	}
+
+	static AsyncLogWriter getInstance() {
+		return instance;
+	}
+
+	/**
+	 * Enqueues a message for the designated log. Only blocks if the buffer is full and the message may not be dropped.
+	 */
+	void enqueue(FrameworkLog log, Level level, String message) {
+		LogEvent event = new LogEvent(log, level, message, System.currentTimeMillis(), null);
+
+		if (offer(event)) {
+			return;
+		}
+
+		if (DROP_WHEN_FULL && !level.isGreaterOrEqual(Level.ERROR)) {
+			dropped.incrementAndGet();
+			return;
+		}
+
+		put(event);
+	}
+
+	/**
+	 * Waits until all events enqueued before this call have been written, then runs the action (if any) on the writer thread.
+	 * @return false if events were not written within CLOSE_TIMEOUT.
+	 */
+	boolean awaitPending(Runnable action) {
+		CountDownLatch written = new CountDownLatch(1);
+
+		put(new LogEvent(null, null, null, 0, () -> {
+			if (action != null) {
+				action.run();
+			}
+			written.countDown();
+		}));
+
+		try {
+			return written.await(CLOSE_TIMEOUT, TimeUnit.MILLISECONDS);
+		} catch (InterruptedException ie) {
+			Thread.currentThread().interrupt();
+			return false;
+		}
+	}
+
+	/*
+	 * Helper functions
+	 */
+
+	private static class LogEvent {
+
+		private final FrameworkLog log;
+		private final Level level;
+		private final String message;
+		private final long timestamp;
+		/**Action run on the writer thread in place of writing a message.*/
+		private final Runnable action;
+
+		private LogEvent(FrameworkLog log, Level level, String message, long timestamp, Runnable action) {
+			this.log = log;
+			this.level = level;
+			this.message = message;
+			this.timestamp = timestamp;
+			this.action = action;
+		}
+	}
+
+	private boolean offer(LogEvent event) {
+		while (true) {
+			long sequence = tail.get();
+
+			if (sequence - head.get() >= BUFFER_SIZE) {
+				return false;
+			}
+
+			if (tail.compareAndSet(sequence, sequence + 1)) {
+				buffer.set((int) sequence & mask, event);
+
+				if (idle) {
+					LockSupport.unpark(writer);
+				}
+
+				return true;
+			}
+		}
+	}
+
+	/**Enqueues an event, waiting for the writer thread to free space if the buffer is full.*/
+	private void put(LogEvent event) {
+		while (!offer(event)) {
+			LockSupport.unpark(writer);
+			LockSupport.parkNanos(FULL_PARK_NANOS);
+		}
+	}
+
+	/**@return Next published event, or null if none is available.*/
+	private LogEvent poll() {
+		long sequence = head.get();
+
+		if (sequence >= tail.get()) {
+			return null;
+		}
+
+		int index = (int) sequence & mask;
+		LogEvent event = buffer.get(index);
+
+		// Slot is claimed but not yet published by its producer
+		if (event == null) {
+			return null;
+		}
+
+		buffer.set(index, null);
+		head.lazySet(sequence + 1);
+		return event;
+	}
+
+	private void drain() {
+		Set<FrameworkLog> pendingFlush = Collections.newSetFromMap(new IdentityHashMap<FrameworkLog, Boolean>());
+
+		while (true) {
+			LogEvent event;
+			int written = 0;
+
+			while (written < BATCH_SIZE && (event = poll()) != null) {
+				written++;
+
+				try {
+					if (event.action != null) {
+						flush(pendingFlush);
+						event.action.run();
+					} else {
+						event.log.write(event.level, event.message, event.timestamp);
+						pendingFlush.add(event.log);
+					}
+				} catch (RuntimeException re) {
+					// Writer thread must survive failures of individual appenders
+					re.printStackTrace();
+				}
+			}
+
+			long droppedCount = pendingFlush.isEmpty() ? 0 : dropped.getAndSet(0);
+
+			if (droppedCount > 0) {
+				for (FrameworkLog log : pendingFlush) {
+					log.write(Level.WARN, "Dropped " + droppedCount + " log messages (log buffer full)", System.currentTimeMillis());
+				}
+			}
+
+			flush(pendingFlush);
+
+			if (written == 0) {
+				idle = true;
+
+				if (head.get() >= tail.get()) {
+					LockSupport.parkNanos(this, IDLE_PARK_NANOS);
+				}
+
+				idle = false;
+			}
+		}
+	}
+
+	private void flush(Set<FrameworkLog> logs) {
+		for (FrameworkLog log : logs) {
+			try {
+				log.flushAppenders();
+			} catch (RuntimeException re) {
+				re.printStackTrace();
+			}
+		}
+
+		logs.clear();
+	}
+}
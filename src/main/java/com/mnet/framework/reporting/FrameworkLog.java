@@ -4,14 +4,15 @@ import java.io.File;
 import java.io.IOException;
 import java.io.PrintWriter;
 import java.io.StringWriter;
-import java.text.SimpleDateFormat;
-import java.util.Date;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
 
 import org.apache.log4j.ConsoleAppender;
 import org.apache.log4j.Level;
 import org.apache.log4j.Logger;
 import org.apache.log4j.PatternLayout;
 import org.apache.log4j.RollingFileAppender;
+import org.apache.log4j.spi.LoggingEvent;
 
 import com.mnet.framework.core.FrameworkProperties;
 import com.mnet.framework.core.MITETest;
@@ -19,33 +20,39 @@ import com.mnet.framework.core.MITETest;
 /**
  * Framework-level logging functionality.
  * Logs reflect in console output and are stored at the log path defined in environment.properties.
+ * Messages are written asynchronously by AsyncLogWriter - the calling thread only enqueues the message.
  * @version Spring 2023
  * @author Arya Biswas
  */
 public class FrameworkLog
 {
 	private Logger logger;
-	private ConsoleAppender consoleAppender;
-	private RollingFileAppender rollingFileAppender;
+	private BufferedConsoleAppender consoleAppender;
+	private BufferedFileAppender rollingFileAppender;
 	private String timestamp = getCurrentTimestamp();
 	
 	private static PatternLayout layout = new PatternLayout("%d{MM-dd-yyyy HH:mm:ss} %-5p %m%n");
-	private static SimpleDateFormat dateFormat = new SimpleDateFormat("yyyy-MM-dd_HH-mm-ss");
+	/**Immutable (unlike SimpleDateFormat) - shared by logs of tests running in parallel.*/
+	private static final DateTimeFormatter dateFormat = DateTimeFormatter.ofPattern("yyyy-MM-dd_HH-mm-ss");
 	
 	private String logDirectory;
 	private String logFilePath;
 	
 	public static final String LOG_DIR = FrameworkProperties.getProperty("LOG_DIR");
 	
+	private static Logger frameworkLogger;
+	
 	public FrameworkLog(MITETest currentTest) {
 		logger = Logger.getLogger(currentTest.getClass());
 	
-		consoleAppender = new ConsoleAppender(layout, "System.out");
-		logDirectory = LOG_DIR + File.separator + currentTest.getShortTestName() + "_" + timestamp + File.separator;
+		consoleAppender = new BufferedConsoleAppender();
+		// Logs of suites are written directly to the suite directory (see SuiteReport)
+		logDirectory = (SuiteReport.isActive() ? SuiteReport.SUITE_DIR : LOG_DIR) 
+				+ File.separator + currentTest.getShortTestName() + "_" + timestamp + File.separator;
 		logFilePath = logDirectory + timestamp + "_log.log";
 		
 		try {
-			rollingFileAppender = new RollingFileAppender(layout, logFilePath, true);
+			rollingFileAppender = new BufferedFileAppender(logFilePath);
 		} catch (IOException ioe) {
 			ioe.printStackTrace();
 			throw new RuntimeException("Could not configure log4j appender", ioe);
@@ -59,11 +66,33 @@ public class FrameworkLog
 		logger.addAppender(rollingFileAppender);
 	}
 	
+	/**
+	 * Logger for framework components which run outside of a test (e.g. connection pools, suite listeners, background threads).
+	 * Writes to console and to LOG_DIR/mite_framework.log.
+	 */
+	public static synchronized Logger getFrameworkLogger() {
+		if (frameworkLogger == null) {
+			Logger logger = Logger.getLogger("MITE.framework");
+			logger.setAdditivity(false);
+			logger.addAppender(new ConsoleAppender(layout, "System.out"));
+			
+			try {
+				logger.addAppender(new RollingFileAppender(layout, LOG_DIR + File.separator + "mite_framework.log", true));
+			} catch (IOException ioe) {
+				logger.warn("Failed to open framework log file - logging to console only", ioe);
+			}
+			
+			frameworkLogger = logger;
+		}
+		
+		return frameworkLogger;
+	}
+	
 	/**
 	 * @return Current timestamp in the format: yyyy-MM-dd_HH-mm-ss
 	 */
 	public static String getCurrentTimestamp() {
-		return dateFormat.format(new Date());
+		return dateFormat.format(LocalDateTime.now());
 	}
 	
 	/**
@@ -150,11 +179,32 @@ public class FrameworkLog
 	}
 	
 	/**
-	 * Closes logger and stops writing to file / console.
+	 * Waits until all messages logged so far have been written to file / console.
+	 */
+	public void flush() {
+		AsyncLogWriter.getInstance().awaitPending(null);
+	}
+	
+	/**
+	 * Writes pending messages, then closes logger and stops writing to file / console.
 	 **/
 	public void close() {
-		rollingFileAppender.close();
-		consoleAppender.close();
+		if (!AsyncLogWriter.getInstance().awaitPending(this::closeAppenders)) {
+			closeAppenders();
+		}
+	}
+	
+	/*
+	 * Accessors for AsyncLogWriter
+	 */
+	
+	void write(Level logLevel, String message, long timestamp) {
+		logger.callAppenders(new LoggingEvent(Logger.class.getName(), logger, timestamp, logLevel, message, null));
+	}
+	
+	void flushAppenders() {
+		consoleAppender.flush();
+		rollingFileAppender.flush();
 	}
 	
 	/**
@@ -162,20 +212,47 @@ public class FrameworkLog
 	 */
 	
 	private void log(String message, Level logLevel, String callingClass) {
-		logger.setLevel(logLevel);
-		String logMessage = callingClass + " - " + message;
-
-		if (logLevel.equals(Level.ERROR)) {
-			logger.error(logMessage);
-		} else if (logLevel.equals(Level.WARN)) {
-			logger.warn(logMessage);
-		} else {
-			logger.info(logMessage);
-		}
+		AsyncLogWriter.getInstance().enqueue(this, logLevel, callingClass + " - " + message);
 	}
 	
 	private String getCaller() {
-		return Thread.currentThread().getStackTrace()[3].getClassName();
+		return StackWalker.getInstance().walk(frames -> frames.skip(2).findFirst())
+				.map(StackWalker.StackFrame::getClassName).orElse(FrameworkLog.class.getName());
+	}
+	
+	private void closeAppenders() {
+		rollingFileAppender.close();
+		consoleAppender.close();
+	}
+	
+	/**Console appender which is flushed once per batch of messages, rather than per message.*/
+	private static class BufferedConsoleAppender extends ConsoleAppender {
+		
+		private BufferedConsoleAppender() {
+			super(layout, "System.out");
+			setImmediateFlush(false);
+		}
+		
+		private void flush() {
+			if (qw != null) {
+				qw.flush();
+			}
+		}
+	}
+	
+	/**Rolling file appender which is flushed once per batch of messages, rather than per message.*/
+	private static class BufferedFileAppender extends RollingFileAppender {
+		
+		private BufferedFileAppender(String filePath) throws IOException {
+			super(layout, filePath, true);
+			setImmediateFlush(false);
+		}
+		
+		private void flush() {
+			if (qw != null) {
+				qw.flush();
+			}
+		}
 	}
 	
 }
\ No newline at end of file
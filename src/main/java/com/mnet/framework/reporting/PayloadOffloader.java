@@ -0,0 +1,115 @@
+package com.mnet.framework.reporting;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.zip.GZIPOutputStream;
+
+import com.mnet.framework.core.FrameworkProperties;
+import com.mnet.framework.utilities.FileUtilities;
+
+/**
+ * Moves large payloads out of report step messages into gzip-compressed side-car files in the log directory.
+ * Payloads embedded in {@code <textarea>} blocks (or whole messages without one) above REPORT_PAYLOAD_THRESHOLD characters
+ * are replaced by a preview of REPORT_PAYLOAD_PREVIEW characters and a link to the side-car file.
+ * Side-car files are named by content hash, so identical payloads are written once.
+ * @version Spring 2023
+ * @author Arya Biswas
+ */
+class PayloadOffloader {
+
+	private static final int PAYLOAD_THRESHOLD = FrameworkProperties.getIntProperty("REPORT_PAYLOAD_THRESHOLD", 8192);
+	private static final int PAYLOAD_PREVIEW = FrameworkProperties.getIntProperty("REPORT_PAYLOAD_PREVIEW", 1000);
+	private static final String PAYLOAD_DIR = "payloads";
+	private static final Pattern TEXTAREA = Pattern.compile("<textarea>(.*?)</textarea>", Pattern.DOTALL);
+
+	private final FrameworkLog log;
+	private final Path payloadDirectory;
+	/**Path of the log directory relative to the report, including trailing separator.*/
+	private final String reportLinkPrefix;
+	private final Set<String> writtenPayloads = ConcurrentHashMap.newKeySet();
+
+	/**
+	 * @param reportLinkPrefix Path of the log directory relative to the report (empty if the report is located in the log directory).
+	 */
+	PayloadOffloader(FrameworkLog frameworkLog, String reportLinkPrefix) {
+		log = frameworkLog;
+		payloadDirectory = Paths.get(log.getLogDirectory(), PAYLOAD_DIR);
+		this.reportLinkPrefix = reportLinkPrefix;
+	}
+
+	/**
+	 * @return Message with payloads above the threshold replaced by a preview and a link to the side-car file.
+	 * Returns the message unchanged if it does not exceed the threshold.
+	 */
+	String offload(String message) {
+		if (message == null || message.length() <= PAYLOAD_THRESHOLD) {
+			return message;
+		}
+
+		Matcher textarea = TEXTAREA.matcher(message);
+		StringBuffer offloaded = new StringBuffer();
+		boolean found = false;
+
+		while (textarea.find()) {
+			found = true;
+			String payload = textarea.group(1);
+			String replacement = (payload.length() > PAYLOAD_THRESHOLD) ? getPayloadReference(payload) : textarea.group();
+
+			textarea.appendReplacement(offloaded, Matcher.quoteReplacement(replacement));
+		}
+
+		if (!found) {
+			return getPayloadReference(message);
+		}
+
+		textarea.appendTail(offloaded);
+		return offloaded.toString();
+	}
+
+	/*
+	 * Helper functions
+	 */
+
+	private String getPayloadReference(String payload) {
+		String fileName = getContentHash(payload) + ".txt.gz";
+
+		if (writtenPayloads.add(fileName)) {
+			writePayload(payloadDirectory.resolve(fileName), payload);
+		}
+
+		return "<textarea>" + payload.substring(0, Math.min(PAYLOAD_PREVIEW, payload.length())) + "\n...</textarea>"
+				+ "<a href='" + reportLinkPrefix + PAYLOAD_DIR + "/" + fileName + "'>Full payload (" + payload.length() / 1024 + " KB, gzip)</a>";
+	}
+
+	private void writePayload(Path target, String payload) {
+		if (Files.exists(target)) {
+			return;
+		}
+
+		try {
+			Files.createDirectories(target.getParent());
+
+			try (OutputStream output = new GZIPOutputStream(Files.newOutputStream(target))) {
+				output.write(payload.getBytes(StandardCharsets.UTF_8));
+			}
+		} catch (IOException ioe) {
+			String err = "Failed to write report payload to: " + target;
+			log.error(err);
+			log.printStackTrace(ioe);
+			throw new RuntimeException(err);
+		}
+	}
+
+	/**@return First 128 bits of the SHA-256 of the payload (hex) - sufficient to name side-car files uniquely.*/
+	private String getContentHash(String payload) {
+		return FileUtilities.sha256Hex(payload.getBytes(StandardCharsets.UTF_8)).substring(0, 32);
+	}
+}
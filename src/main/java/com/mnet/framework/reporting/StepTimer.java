@@ -0,0 +1,192 @@
+package com.mnet.framework.reporting;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.LongConsumer;
+import java.util.function.Supplier;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mnet.framework.utilities.LatencyHistogram;
+
+/**
+ * Aggregates time spent per category (database, ssh, sftp, rest, web, etl, ...) for the current test and for the whole suite.
+ * Framework connectors time their operations automatically. Tests may time their own categories via TestReporter.time().
+ * @implNote Timings are attributed to the test running on the current thread. Timings of worker threads only count towards the suite.
+ * @version Spring 2023
+ * @author Arya Biswas
+ */
+public class StepTimer {
+
+	public static final String DATABASE = "database";
+	public static final String SSH = "ssh";
+	public static final String SFTP = "sftp";
+	public static final String REST = "rest";
+	public static final String WEB = "web";
+	public static final String ETL = "etl";
+
+	private static final String[] SUMMARY_HEADER = {"Category", "Count", "Total (ms)", "Mean (ms)", "p50 (ms)", "p95 (ms)", "p99 (ms)", "Max (ms)"};
+
+	private static final Map<String, LatencyHistogram> suiteTimings = new ConcurrentHashMap<String, LatencyHistogram>();
+	private static final ThreadLocal<StepTimer> currentTest = new ThreadLocal<StepTimer>();
+
+	private final Map<String, LatencyHistogram> timings = new ConcurrentHashMap<String, LatencyHistogram>();
+
+	/**
+	 * Times an action and records its duration under the designated category.
+	 * @return Result of the action.
+	 */
+	public static <T> T time(String category, Supplier<T> action) {
+		long startTime = start();
+
+		try {
+			return action.get();
+		} finally {
+			stop(category, startTime);
+		}
+	}
+
+	/**
+	 * Times an action and records its duration under the designated category.
+	 */
+	public static void time(String category, Runnable action) {
+		long startTime = start();
+
+		try {
+			action.run();
+		} finally {
+			stop(category, startTime);
+		}
+	}
+
+	/**
+	 * @return Start time to be passed to {@link #stop(String, long)} - for operations which throw checked exceptions.
+	 */
+	public static long start() {
+		return System.nanoTime();
+	}
+
+	/**
+	 * Records the time elapsed since startTime (see {@link #start()}) under the designated category.
+	 */
+	public static void stop(String category, long startTime) {
+		record(category, (System.nanoTime() - startTime) / 1000000);
+	}
+
+	/**
+	 * Records a duration measured elsewhere under the designated category.
+	 */
+	public static void record(String category, long millis) {
+		record(currentTest.get(), category, millis);
+	}
+
+	/**
+	 * Returns a recorder for durations of the designated category, which attributes durations to the test of the calling thread
+	 * even if invoked from another thread (e.g. on completion of an asynchronous operation).
+	 */
+	public static LongConsumer recorder(String category) {
+		StepTimer test = currentTest.get();
+		return millis -> record(test, category, millis);
+	}
+
+	/**
+	 * Writes timings of all categories recorded in the suite to StepTimings.csv and StepTimings.json in the designated directory.
+	 * @implNote Failures are logged as a warning - the summary is not worth failing the suite (or its report) over.
+	 */
+	public static void writeSuiteSummary(String directory) {
+		if (suiteTimings.isEmpty()) {
+			return;
+		}
+
+		String[][] summary = getSummaryTable(suiteTimings);
+		List<Map<String, Object>> json = new ArrayList<Map<String, Object>>();
+		String csv = String.join(",", "category", "count", "totalMillis", "meanMillis", "p50", "p95", "p99", "maxMillis") + System.lineSeparator();
+
+		for (int i = 1; i < summary.length; i++) {
+			csv += String.join(",", summary[i]) + System.lineSeparator();
+
+			Map<String, Object> category = new LinkedHashMap<String, Object>();
+			category.put("category", summary[i][0]);
+			category.put("count", Long.parseLong(summary[i][1]));
+			category.put("totalMillis", Long.parseLong(summary[i][2]));
+			category.put("meanMillis", Double.parseDouble(summary[i][3]));
+			category.put("p50", Long.parseLong(summary[i][4]));
+			category.put("p95", Long.parseLong(summary[i][5]));
+			category.put("p99", Long.parseLong(summary[i][6]));
+			category.put("maxMillis", Long.parseLong(summary[i][7]));
+			json.add(category);
+		}
+
+		Path target = Paths.get(directory);
+
+		try {
+			Files.createDirectories(target);
+			Files.write(target.resolve("StepTimings.csv"), csv.getBytes(StandardCharsets.UTF_8));
+			Files.write(target.resolve("StepTimings.json"),
+					new ObjectMapper().writerWithDefaultPrettyPrinter().writeValueAsBytes(json));
+		} catch (IOException ioe) {
+			FrameworkLog.getFrameworkLogger().warn("Failed to write step timings to: " + directory, ioe);
+		}
+	}
+
+	/*
+	 * Accessors for TestReporter
+	 */
+
+	/**Attributes timings recorded by the current thread to this timer and clears any previous timings.*/
+	void startTest() {
+		timings.clear();
+		currentTest.set(this);
+	}
+
+	/**Stops attributing timings of the current thread to this timer.*/
+	void stopTest() {
+		currentTest.remove();
+	}
+
+	boolean isEmpty() {
+		return timings.isEmpty();
+	}
+
+	/**@return Summary of timings per category (header row first), sorted by category.*/
+	String[][] getSummaryTable() {
+		return getSummaryTable(timings);
+	}
+
+	/*
+	 * Helper functions
+	 */
+
+	private static void record(StepTimer test, String category, long millis) {
+		suiteTimings.computeIfAbsent(category, LatencyHistogram::new).record(millis);
+
+		if (test != null) {
+			test.timings.computeIfAbsent(category, LatencyHistogram::new).record(millis);
+		}
+	}
+
+	private static String[][] getSummaryTable(Map<String, LatencyHistogram> histograms) {
+		Map<String, LatencyHistogram> sorted = new TreeMap<String, LatencyHistogram>(histograms);
+		String[][] table = new String[sorted.size() + 1][];
+		int row = 0;
+
+		table[row++] = SUMMARY_HEADER;
+
+		for (LatencyHistogram histogram : sorted.values()) {
+			table[row++] = new String[] {histogram.getName(), String.valueOf(histogram.getCount()), String.valueOf(histogram.getTotal()),
+					String.format(Locale.ROOT, "%.1f", histogram.getMean()), String.valueOf(histogram.getPercentile(50)),
+					String.valueOf(histogram.getPercentile(95)), String.valueOf(histogram.getPercentile(99)), String.valueOf(histogram.getMax())};
+		}
+
+		return table;
+	}
+}
@@ -0,0 +1,85 @@
+package com.mnet.framework.reporting;
+
+import java.io.File;
+
+import com.aventstack.extentreports.ExtentReports;
+import com.aventstack.extentreports.ExtentTest;
+
+/**
+ * Single ExtentReport shared by all test classes of a suite (started by MITESuiteListener for suites with more than one test).
+ * Test classes add their tests to this report instead of rendering a report of their own, and write logs / artefacts
+ * directly to SUITE_DIR. The report is rendered once when the suite finishes.
+ * @version Spring 2023
+ * @author Arya Biswas
+ */
+public class SuiteReport {
+
+	/**Directory where the suite report and the logs / artefacts of all test classes in the suite are saved.*/
+	public static final String SUITE_DIR = FrameworkLog.LOG_DIR + File.separator + "MITE_Suite";
+
+	private static SuiteReport activeReport;
+
+	private final ExtentReports extentReport;
+
+	private SuiteReport() {
+		extentReport = new ExtentReports();
+		TestReporter.defineReportInfo(extentReport);
+		extentReport.attachReporter(TestReporter.getReportHTML(
+				SUITE_DIR + File.separator + "MITE_Suite_" + FrameworkLog.getCurrentTimestamp() + ".html"));
+	}
+
+	/**
+	 * Starts the suite report. Test classes initialized afterwards report to it.
+	 */
+	public static synchronized void start() {
+		if (activeReport == null) {
+			activeReport = new SuiteReport();
+		}
+	}
+
+	/**
+	 * Renders the suite report with all tests added so far and stops accepting tests.
+	 */
+	public static synchronized void finish() {
+		if (activeReport != null) {
+			activeReport.flush();
+			activeReport = null;
+		}
+	}
+
+	/**
+	 * @return true if a suite report is started.
+	 */
+	public static synchronized boolean isActive() {
+		return activeReport != null;
+	}
+
+	/*
+	 * Accessors for TestReporter
+	 */
+
+	static synchronized SuiteReport getActive() {
+		return activeReport;
+	}
+
+	ExtentReports getExtentReport() {
+		return extentReport;
+	}
+
+	/**Adds a test to the report. Safe to invoke from test classes running in parallel.*/
+	ExtentTest createTest(String name) {
+		synchronized (extentReport) {
+			return extentReport.createTest(name);
+		}
+	}
+
+	/*
+	 * Helper functions
+	 */
+
+	private void flush() {
+		synchronized (extentReport) {
+			extentReport.flush();
+		}
+	}
+}
@@ -7,8 +7,20 @@ import java.awt.Toolkit;
 import java.awt.image.BufferedImage;
 import java.io.File;
 import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
 import java.util.Objects;
+import java.util.Queue;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
 
 import javax.imageio.ImageIO;
 
@@ -18,6 +30,7 @@ import org.testng.asserts.SoftAssert;
 
 import com.aventstack.extentreports.ExtentReports;
 import com.aventstack.extentreports.ExtentTest;
+import com.aventstack.extentreports.markuputils.MarkupHelper;
 import com.aventstack.extentreports.reporter.ExtentHtmlReporter;
 import com.aventstack.extentreports.reporter.configuration.Theme;
 import com.mnet.framework.core.FrameworkProperties;
@@ -36,14 +49,26 @@ public class TestReporter {
 	private FrameworkLog log;
 	private FileUtilities fileManager;
 	private ExtentReports extentReport;
-	private ExtentTest currentTest;
-	private ExtentTest reportTestStep;
+	/**Test (and latest step) reported by each thread - tests of a class may run in parallel.*/
+	private final ThreadLocal<ExtentTest> currentTest = new ThreadLocal<ExtentTest>();
+	private final ThreadLocal<ExtentTest> reportTestStep = new ThreadLocal<ExtentTest>();
 	private ExtentHtmlReporter htmlReporter;
+	/**Report of the current suite, if any (null if this reporter renders its own report).*/
+	private SuiteReport suiteReport;
 	private WebUtilities webDriver;
 	private String testClassName;
 	private String shortTestClassName;
 	
-	private SoftAssert softAssertions;
+	private final ThreadLocal<SoftAssert> softAssertions = new ThreadLocal<SoftAssert>();
+	
+	/**Steps logged by threads which are recording (see {@link #recordSteps()}) rather than reporting directly.*/
+	private final ThreadLocal<List<TestStep>> recordedSteps = new ThreadLocal<List<TestStep>>();
+	/**Time (epoch ms) at which the previous step of each thread was logged - start time of the next step.*/
+	private final ThreadLocal<Long> previousStepTime = new ThreadLocal<Long>();
+	private final ThreadLocal<StepTimer> stepTimer = ThreadLocal.withInitial(StepTimer::new);
+	private PayloadOffloader payloadOffloader;
+	/**Reporting of background tasks started by tests of this class (see {@link #reportWhenComplete(CompletableFuture, Consumer)}).*/
+	private final Queue<CompletableFuture<Void>> deferredReporting = new ConcurrentLinkedQueue<CompletableFuture<Void>>();
 	
 	// Environment properties defined in local properties file
 	private static final String ENV_URL = FrameworkProperties.getProperty("ENV_URL");
@@ -52,6 +77,8 @@ public class TestReporter {
 	private static final String SAINTS_TEST_RUN = FrameworkProperties.getProperty("SAINTS_TEST_RUN");
 	private static final int REPORT_MAX_PARAM_LENGTH = Integer.parseInt(FrameworkProperties.getProperty("REPORT_MAX_PARAM_LENGTH"));	
 	
+	private static final Duration REPORT_DEFERRED_TIMEOUT = FrameworkProperties.getDurationProperty("REPORT_DEFERRED_TIMEOUT", Duration.ofMinutes(10));
+	
 	private static final String TIMESTAMP = FrameworkLog.getCurrentTimestamp();
 	private static final String SAINTS_RESULT = FrameworkProperties.getSystemProperty("user.dir") + File.separator + "TcStatus.txt";
 	
@@ -96,14 +123,22 @@ public class TestReporter {
 	}
 	
 	public TestReporter(MITETest currentTest, FrameworkLog testLogger, FileUtilities fileUtility) {
-		extentReport = new ExtentReports();
 		testClassName = currentTest.getClass().getSimpleName();
 		shortTestClassName = currentTest.getShortTestName();
 		log = testLogger;
 		fileManager = fileUtility;
-				
-		defineReportInfo();
-		htmlReporter = getReportHTML(log.getLogDirectory());
+		suiteReport = SuiteReport.getActive();
+		payloadOffloader = new PayloadOffloader(log, getReportPath(""));
+		
+		// Tests are added to the suite report (if any) rather than rendering a report per test class
+		if (suiteReport != null) {
+			extentReport = suiteReport.getExtentReport();
+			return;
+		}
+		
+		extentReport = new ExtentReports();
+		defineReportInfo(extentReport);
+		htmlReporter = getReportHTML(log.getLogDirectory() + File.separator + shortTestClassName + "_" + TIMESTAMP + ".html");
 		 
 		extentReport.attachReporter(htmlReporter);
 	}
@@ -131,17 +166,29 @@ public class TestReporter {
 		
 		paramList += ")";
 		
-		currentTest = extentReport.createTest(testClassName + paramList);
+		currentTest.set((suiteReport != null) ? suiteReport.createTest(testClassName + paramList) : createTest(testClassName + paramList));
+		
+		reportTestStep.remove();
+		softAssertions.set(new SoftAssert());
 		
-		softAssertions = new SoftAssert();
+		previousStepTime.set(System.currentTimeMillis());
+		stepTimer.get().startTest();
 	}
 	
 	/**
 	 * Outputs ExtentReport to path designated in properties file.
 	 * @implNote Relative path: LOG_PATH/TestName_timestamp
+	 * @implNote If a suite report is active, tests are rendered once when the suite finishes (see {@link SuiteReport}).
+	 * @implNote Waits for deferred reporting of background tasks (up to REPORT_DEFERRED_TIMEOUT, default 10 minutes)
+	 * and for XML files saved in the background (see FileUtilities.saveXML()).
 	 */
 	public void generateReport() {
-		extentReport.flush();
+		fileManager.awaitPendingXML();
+		awaitDeferredReporting();
+		
+		if (suiteReport == null) {
+			extentReport.flush();
+		}
 	}
 	
 	/**
@@ -171,19 +218,19 @@ public class TestReporter {
 		switch (testStep.getReportLevel()) {
 			default:
 			case INFO:
-				currentTest.info(message);
+				currentTest.get().info(message);
 				break;
 			case PASS:
-				currentTest.pass(message);
+				currentTest.get().pass(message);
 				break;
 			case ERROR:
-				currentTest.error(message);
+				currentTest.get().error(message);
 				break;
 			case WARNING:
-				currentTest.warning(message);
+				currentTest.get().warning(message);
 				break;
 			case FAIL:
-				currentTest.fail(message);
+				currentTest.get().fail(message);
 				break;
 		}
 	}
@@ -199,17 +246,19 @@ public class TestReporter {
 	/**
 	 * Marks ExtentReport test result as PASS, FAIL, or SKIP.
 	 */
-	public void setTestResult(ITestResult result, boolean usesWebDriver) {		
+	public void setTestResult(ITestResult result, boolean usesWebDriver) {
+		logTimingSummary();
+		
 		switch (result.getStatus()) {
 			default:
 			case ITestResult.FAILURE:
 				handleTestFailure(result, usesWebDriver);
 				break;
 			case ITestResult.SUCCESS:
-				currentTest.pass(testClassName + " PASS");
+				currentTest.get().pass(testClassName + " PASS");
 				break;
 			case ITestResult.SKIP:
-				currentTest.skip(testClassName + " SKIP");
+				currentTest.get().skip(testClassName + " SKIP");
 				break;
 		}
 	}
@@ -227,7 +276,78 @@ public class TestReporter {
 	 * Asserts all soft assertions at end of test.
 	 */
 	public void assertAll() {
-		softAssertions.assertAll();
+		softAssertions.get().assertAll();
+	}
+	
+	/**
+	 * Starts recording steps logged by the current thread instead of adding them to the report.
+	 * Allows worker threads to share this reporter - recorded steps are merged into the report on the test thread via replaySteps().
+	 * @implNote A HARD assertion failure is recorded and terminates the worker with an AssertionError. The failure is raised again on replay.
+	 */
+	public void recordSteps() {
+		recordedSteps.set(new ArrayList<TestStep>());
+		previousStepTime.set(System.currentTimeMillis());
+	}
+	
+	/**
+	 * Stops recording on the current thread.
+	 * @return Steps logged by the current thread since recordSteps(), in order.
+	 */
+	public List<TestStep> stopRecording() {
+		List<TestStep> steps = recordedSteps.get();
+		recordedSteps.remove();
+		
+		return (steps == null) ? new ArrayList<TestStep>() : steps;
+	}
+	
+	/**
+	 * Adds recorded steps to the report in order. Assertions of the recorded steps are applied on the current thread.
+	 */
+	public void replaySteps(List<TestStep> steps) {
+		for (TestStep testStep : steps) {
+			addStepToReport(testStep);
+		}
+	}
+	
+	/**
+	 * Times an action and records its duration under the designated category (e.g. "etl") in the timing summary of the current test and suite.
+	 * @return Result of the action.
+	 * @see StepTimer
+	 */
+	public <T> T time(String category, Supplier<T> action) {
+		return StepTimer.time(category, action);
+	}
+	
+	/**
+	 * Times an action and records its duration under the designated category in the timing summary of the current test and suite.
+	 * @see StepTimer
+	 */
+	public void time(String category, Runnable action) {
+		StepTimer.time(category, action);
+	}
+	
+	/**
+	 * Reports the result of a background task once it completes, without blocking the current test.
+	 * Headers logged by the reporting action are added to the test current at the time of invocation (e.g. the data row which started the task),
+	 * even if the task completes after that test has finished.
+	 * @implNote generateReport() waits for all deferred reporting. Failures of the task are logged as a warning on the test.
+	 */
+	public <T> void reportWhenComplete(CompletableFuture<T> task, Consumer<T> reporting) {
+		ExtentTest test = currentTest.get();
+		
+		deferredReporting.add(task
+				.thenAccept(result -> reportTo(test, () -> reporting.accept(result)))
+				.exceptionally(failure -> {
+					String err = "Deferred reporting failed: " + failure.getMessage();
+					log.error(err);
+					log.printStackTrace(failure);
+					
+					synchronized (test) {
+						test.warning(err);
+					}
+					
+					return null;
+				}));
 	}
 	
 	// TODO: Remove references to deprecated functions in test classes
@@ -394,19 +514,19 @@ public class TestReporter {
 		switch (level) {
 			default:
 			case INFO:
-				currentTest.info(message);
+				currentTest.get().info(message);
 				break;
 			case PASS:
-				currentTest.pass(message);
+				currentTest.get().pass(message);
 				break;
 			case ERROR:
-				currentTest.error(message);
+				currentTest.get().error(message);
 				break;
 			case WARNING:
-				currentTest.warning(message);
+				currentTest.get().warning(message);
 				break;
 			case FAIL:
-				currentTest.fail(message);
+				currentTest.get().fail(message);
 				break;
 		}
 	}
@@ -464,7 +584,7 @@ public class TestReporter {
 	 * --------------------
 	 */
 	
-	private void defineReportInfo() {
+	static void defineReportInfo(ExtentReports extentReport) {
 		extentReport.setSystemInfo("OS : ", OS_NAME);
 		extentReport.setSystemInfo("Release : ", RELEASE);
 		extentReport.setSystemInfo("Test Run", SAINTS_TEST_RUN);
@@ -476,9 +596,8 @@ public class TestReporter {
 		extentReport.setSystemInfo("Environment : ", ENV_URL);
 	}
 	
-	private ExtentHtmlReporter getReportHTML(String filePath) {
-		ExtentHtmlReporter extentHTML = new ExtentHtmlReporter(
-				filePath + File.separator + shortTestClassName + "_" + TIMESTAMP + ".html");
+	static ExtentHtmlReporter getReportHTML(String reportPath) {
+		ExtentHtmlReporter extentHTML = new ExtentHtmlReporter(reportPath);
 		
 		extentHTML.config().setDocumentTitle("Merlin Automation Report");
 		extentHTML.config().setReportName("Automation Report");
@@ -493,28 +612,28 @@ public class TestReporter {
 	private void logStepByLevel(TestStep testStep) {
 		String message = getMessageByReportLevel(testStep);
 		
-		reportTestStep = currentTest.createNode(message);
+		reportTestStep.set(currentTest.get().createNode(message));
 		
 		switch (testStep.getReportLevel()) {
 			default:
 			case INFO:
-				reportTestStep.info(message);
+				reportTestStep.get().info(message);
 				log.info(message);
 				break;
 			case PASS:
-				reportTestStep.pass(message);
+				reportTestStep.get().pass(message);
 				log.info(message);
 				break;
 			case ERROR:
-				reportTestStep.error(message);
+				reportTestStep.get().error(message);
 				log.error(message);
 				break;
 			case WARNING:
-				reportTestStep.warning(message);
+				reportTestStep.get().warning(message);
 				log.warn(message);
 				break;
 			case FAIL:
-				reportTestStep.fail(message);
+				reportTestStep.get().fail(message);
 				log.error(message);
 				break;
 		}
@@ -522,7 +641,7 @@ public class TestReporter {
 		Set<String> tags = testStep.getTags();
 		
 		if (tags.size() > 0) {
-			reportTestStep.assignCategory(tags.toArray(String[]::new));
+			reportTestStep.get().assignCategory(tags.toArray(String[]::new));
 		}
 	}
 	
@@ -544,7 +663,7 @@ public class TestReporter {
 	private void checkStepFailure(TestStep.AssertionLevel assertLevel, TestStep.ReportLevel reportLevel, String message) {
 		if (reportLevel == TestStep.ReportLevel.FAIL) {
 			if (assertLevel == TestStep.AssertionLevel.SOFT) {
-				softAssertions.assertTrue(false, "Test failure: " + message);
+				softAssertions.get().assertTrue(false, "Test failure: " + message);
 			} else {
 				Assert.fail("Test failure: " + message);
 			}
@@ -570,7 +689,8 @@ public class TestReporter {
 		}
 		
 		try {
-			reportTestStep.addScreenCaptureFromPath(screenshotFile);
+			// Relative to the report, which is located in the log directory or SuiteReport.SUITE_DIR
+			reportTestStep.get().addScreenCaptureFromPath(getReportPath(screenshotFile));
 		} catch (IOException ioe) {
 			log.error("Failed to locate screenshot: " + screenshotFile);
 			log.printStackTrace(ioe);
@@ -578,28 +698,133 @@ public class TestReporter {
 		}
 	}
 	
+	/**
+	 * @return Path of a file in the log directory relative to the report, which is located in the log directory or SuiteReport.SUITE_DIR.
+	 */
+	private String getReportPath(String fileName) {
+		return (suiteReport == null) ? fileName : "../" + log.getRelativeLogDirectory() + fileName;
+	}
+	
 	private void addStepToReport(TestStep testStep) {
+		// Large payloads are moved to side-car files to keep the report and log small
+		testStep = offloadPayloads(testStep);
+		
 		String message = getMessageByReportLevel(testStep);
 		
+		// Replayed steps were already timed by the recording thread
+		if (testStep.getEndTime() == null) {
+			long now = System.currentTimeMillis();
+			Long startTime = (testStep.getStartTime() != null) ? testStep.getStartTime() : previousStepTime.get();
+			
+			testStep = testStep.toBuilder().startTime((startTime != null) ? startTime : now).endTime(now).build();
+			previousStepTime.set(now);
+		}
+		
+		List<TestStep> recording = recordedSteps.get();
+		
+		if (recording != null) {
+			recording.add(testStep);
+			
+			if (testStep.getReportLevel() == TestStep.ReportLevel.FAIL && testStep.getAssertionLevel() == TestStep.AssertionLevel.HARD) {
+				throw new AssertionError("Test failure: " + message);
+			}
+			
+			return;
+		}
+		
 		logStepByLevel(testStep);
 		
+		reportTestStep.get().getModel().setStartTime(new Date(testStep.getStartTime()));
+		reportTestStep.get().getModel().setEndTime(new Date(testStep.getEndTime()));
+		
 		addScreenshotToReport(testStep.getScreenshotType());
 		
 		checkStepFailure(testStep.getAssertionLevel(), testStep.getReportLevel(), message);
 	}
 	
+	private TestStep offloadPayloads(TestStep testStep) {
+		String message = payloadOffloader.offload(testStep.getMessage());
+		
+		if (message != testStep.getMessage()) {
+			testStep = testStep.toBuilder().message(message).build();
+		}
+		
+		// Default fail message is derived from the (offloaded) message
+		String originalFailMessage = testStep.getFailMessage();
+		String failMessage = payloadOffloader.offload(originalFailMessage);
+		
+		if (failMessage != originalFailMessage) {
+			testStep = testStep.toBuilder().failMessage(failMessage).build();
+		}
+		
+		return testStep;
+	}
+	
+	/**Runs the action on the current thread as if the designated test was the current test.*/
+	private void reportTo(ExtentTest test, Runnable action) {
+		ExtentTest previousTest = currentTest.get();
+		ExtentTest previousStep = reportTestStep.get();
+		
+		currentTest.set(test);
+		
+		try {
+			synchronized (test) {
+				action.run();
+			}
+		} finally {
+			currentTest.set(previousTest);
+			reportTestStep.set(previousStep);
+		}
+	}
+	
+	private void awaitDeferredReporting() {
+		if (deferredReporting.isEmpty()) {
+			return;
+		}
+		
+		log.info("Waiting for " + deferredReporting.size() + " deferred report attachment(s)...");
+		
+		try {
+			CompletableFuture.allOf(deferredReporting.toArray(CompletableFuture[]::new))
+					.get(REPORT_DEFERRED_TIMEOUT.toMillis(), TimeUnit.MILLISECONDS);
+		} catch (TimeoutException te) {
+			log.warn("Deferred reporting did not complete within " + REPORT_DEFERRED_TIMEOUT + " - generating report without it");
+		} catch (InterruptedException ie) {
+			Thread.currentThread().interrupt();
+		} catch (ExecutionException ee) {
+			// Failures were already reported on the corresponding test
+		}
+		
+		deferredReporting.clear();
+	}
+	
+	/**Adds a test to this reporter's own report. Safe to invoke from tests running in parallel.*/
+	private ExtentTest createTest(String name) {
+		synchronized (extentReport) {
+			return extentReport.createTest(name);
+		}
+	}
+	
+	private void logTimingSummary() {
+		stepTimer.get().stopTest();
+		
+		if (!stepTimer.get().isEmpty()) {
+			currentTest.get().info(MarkupHelper.createTable(stepTimer.get().getSummaryTable()));
+		}
+	}
+	
 	private void handleTestFailure(ITestResult result, boolean takeScreenshot) {
 		Throwable thrownException = result.getThrowable();
 		
 		if (thrownException == null || thrownException instanceof AssertionError) {
-			currentTest.fail(testClassName + " FAIL");
+			currentTest.get().fail(testClassName + " FAIL");
 		} else {
 			String errorMessageHeader = "Runtime error - see attached logs for stack trace";
 			String errorMessageNode = "Runtime error: " + thrownException.getMessage();
 			
 			String htmlError = "<a href='../" + log.getRelativeLogFilePath() + "'>"; 
 			
-			currentTest.error(htmlError + errorMessageHeader + "</a>");
+			currentTest.get().error(htmlError + errorMessageHeader + "</a>");
 			
 			logStep(TestStep.builder()
 					.reportLevel(TestStep.ReportLevel.ERROR)
@@ -607,7 +832,7 @@ public class TestReporter {
 					.screenshotType(takeScreenshot ? TestStep.ScreenshotType.VIEWPORT : TestStep.ScreenshotType.NONE)
 					.build());
 			
-			reportTestStep.error(htmlError + "Link to logs" + "</a>");
+			reportTestStep.get().error(htmlError + "Link to logs" + "</a>");
 			
 			log.printStackTrace(thrownException);
 		}
@@ -49,6 +49,15 @@ public class TestStep {
 	@Singular
 	private Set<String> tags;
 	
+	/**
+	 * Time (epoch ms) at which the step started.
+	 * If not provided in builder, set when the step is logged to the time the previous step of the same thread was logged (or the test started).
+	 */
+	private Long startTime;
+	
+	/**Time (epoch ms) at which the step was logged. Set automatically when the step is logged.*/
+	private Long endTime;
+	
 	/**Defines reporting / logging behavior for a given test step in ExtentReport.*/
 	public enum ReportLevel {
 		INFO,
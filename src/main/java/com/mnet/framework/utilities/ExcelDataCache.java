@@ -0,0 +1,209 @@
+package com.mnet.framework.utilities;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import com.mnet.framework.core.FrameworkProperties;
+import com.mnet.framework.reporting.FrameworkLog;
+
+/**
+ * Suite-wide cache of parsed Excel workbooks, keyed by file path and invalidated when the file is modified.
+ * Parsed workbooks are also persisted in a compact binary form under DATA_CACHE_DIR (default: java.io.tmpdir/mite-data-cache),
+ * so subsequent runs skip parsing of unchanged workbooks. Set DATA_CACHE=false to disable the persisted cache.
+ * @version Fall 2023
+ * @author Arya Biswas
+ */
+class ExcelDataCache {
+
+	private static final boolean DISK_CACHE_ENABLED = FrameworkProperties.getBooleanProperty("DATA_CACHE", true);
+	private static final Path CACHE_DIR = Paths.get(FrameworkProperties.getStringProperty("DATA_CACHE_DIR",
+			System.getProperty("java.io.tmpdir") + File.separator + "mite-data-cache"));
+	/**Identifies cache files ("MITE") - bump FORMAT_VERSION when the layout changes.*/
+	private static final int MAGIC = 0x4D495445;
+	private static final int FORMAT_VERSION = 1;
+
+	private static final Map<String, CachedWorkbook> workbooks = new ConcurrentHashMap<String, CachedWorkbook>();
+	/**Serializes parsing per workbook - parallel data providers of the same class parse it once.*/
+	private static final Map<String, Object> locks = new ConcurrentHashMap<String, Object>();
+
+	/**
+	 * @return Rows of each sheet by sheet name, in workbook order (see {@link ExcelStreamReader}). Returned lists are unmodifiable.
+	 */
+	static Map<String, List<List<String>>> getWorkbook(File file, FrameworkLog log) {
+		String path = file.getAbsolutePath();
+		long lastModified = file.lastModified();
+		long length = file.length();
+
+		CachedWorkbook cached = workbooks.get(path);
+
+		if (cached != null && cached.matches(lastModified, length)) {
+			return cached.sheets;
+		}
+
+		synchronized (locks.computeIfAbsent(path, key -> new Object())) {
+			cached = workbooks.get(path);
+
+			if (cached == null || !cached.matches(lastModified, length)) {
+				cached = loadWorkbook(file, lastModified, length, log);
+				workbooks.put(path, cached);
+			}
+
+			return cached.sheets;
+		}
+	}
+
+	/**
+	 * @return Workbook if it is cached in memory and unchanged, otherwise null (the workbook is not parsed).
+	 */
+	static Map<String, List<List<String>>> getCachedWorkbook(File file) {
+		CachedWorkbook cached = workbooks.get(file.getAbsolutePath());
+		return (cached != null && cached.matches(file.lastModified(), file.length())) ? cached.sheets : null;
+	}
+
+	/*
+	 * Helper functions
+	 */
+
+	private static class CachedWorkbook {
+
+		private final long lastModified;
+		private final long length;
+		private final Map<String, List<List<String>>> sheets;
+
+		private CachedWorkbook(long lastModified, long length, Map<String, List<List<String>>> sheets) {
+			this.lastModified = lastModified;
+			this.length = length;
+			this.sheets = Collections.unmodifiableMap(sheets);
+		}
+
+		private boolean matches(long lastModified, long length) {
+			return this.lastModified == lastModified && this.length == length;
+		}
+	}
+
+	private static CachedWorkbook loadWorkbook(File file, long lastModified, long length, FrameworkLog log) {
+		Path cacheFile = DISK_CACHE_ENABLED ? CACHE_DIR.resolve(getCacheFileName(file)) : null;
+
+		if (cacheFile != null && Files.exists(cacheFile)) {
+			CachedWorkbook cached = readCacheFile(cacheFile, log);
+
+			if (cached != null && cached.matches(lastModified, length)) {
+				log.info("Loaded cached test data for: " + file);
+				return cached;
+			}
+		}
+
+		CachedWorkbook parsed = new CachedWorkbook(lastModified, length, ExcelStreamReader.readWorkbook(file, log));
+
+		if (cacheFile != null) {
+			writeCacheFile(cacheFile, parsed, log);
+		}
+
+		return parsed;
+	}
+
+	/**@return Cached workbook, or null if the cache file cannot be read (it is then rewritten).*/
+	private static CachedWorkbook readCacheFile(Path cacheFile, FrameworkLog log) {
+		try (DataInputStream input = new DataInputStream(new BufferedInputStream(Files.newInputStream(cacheFile)))) {
+			if (input.readInt() != MAGIC || input.readInt() != FORMAT_VERSION) {
+				return null;
+			}
+
+			long lastModified = input.readLong();
+			long length = input.readLong();
+			int sheetCount = input.readInt();
+			Map<String, List<List<String>>> sheets = new LinkedHashMap<String, List<List<String>>>();
+
+			for (int sheet = 0; sheet < sheetCount; sheet++) {
+				String sheetName = readString(input);
+				int rowCount = input.readInt();
+				int columnCount = input.readInt();
+				List<List<String>> rows = new ArrayList<List<String>>(rowCount);
+
+				for (int row = 0; row < rowCount; row++) {
+					List<String> cells = new ArrayList<String>(columnCount);
+
+					for (int column = 0; column < columnCount; column++) {
+						cells.add(readString(input));
+					}
+
+					rows.add(Collections.unmodifiableList(cells));
+				}
+
+				sheets.put(sheetName, Collections.unmodifiableList(rows));
+			}
+
+			return new CachedWorkbook(lastModified, length, sheets);
+		} catch (IOException ioe) {
+			log.warn("Ignoring unreadable test data cache: " + cacheFile);
+			return null;
+		}
+	}
+
+	private static void writeCacheFile(Path cacheFile, CachedWorkbook workbook, FrameworkLog log) {
+		try {
+			Files.createDirectories(cacheFile.getParent());
+			Path partialFile = Files.createTempFile(cacheFile.getParent(), cacheFile.getFileName().toString(), ".tmp");
+
+			try (DataOutputStream output = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(partialFile)))) {
+				output.writeInt(MAGIC);
+				output.writeInt(FORMAT_VERSION);
+				output.writeLong(workbook.lastModified);
+				output.writeLong(workbook.length);
+				output.writeInt(workbook.sheets.size());
+
+				for (Map.Entry<String, List<List<String>>> sheet : workbook.sheets.entrySet()) {
+					List<List<String>> rows = sheet.getValue();
+
+					writeString(output, sheet.getKey());
+					output.writeInt(rows.size());
+					output.writeInt(rows.isEmpty() ? 0 : rows.get(0).size());
+
+					for (List<String> row : rows) {
+						for (String cell : row) {
+							writeString(output, cell);
+						}
+					}
+				}
+			}
+
+			// Readers in other JVMs never see a partially written cache file
+			Files.move(partialFile, cacheFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+		} catch (IOException ioe) {
+			// Cache is an optimization - test data was parsed regardless
+			log.warn("Failed to write test data cache: " + cacheFile);
+		}
+	}
+
+	private static String readString(DataInputStream input) throws IOException {
+		byte[] value = new byte[input.readInt()];
+		input.readFully(value);
+		return new String(value, StandardCharsets.UTF_8);
+	}
+
+	private static void writeString(DataOutputStream output, String value) throws IOException {
+		byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+		output.writeInt(bytes.length);
+		output.write(bytes);
+	}
+
+	private static String getCacheFileName(File file) {
+		String hash = FileUtilities.sha256Hex(file.getAbsolutePath().getBytes(StandardCharsets.UTF_8));
+		return file.getName() + "_" + hash.substring(0, 32) + ".bin";
+	}
+}
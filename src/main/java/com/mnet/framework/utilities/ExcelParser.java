@@ -1,30 +1,22 @@
 package com.mnet.framework.utilities;
 
-import java.io.IOException;
+import java.io.File;
 import java.util.ArrayList;
-import java.util.HashMap;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
-import java.util.Set;
-
-import org.apache.poi.ss.usermodel.DataFormatter;
-import org.apache.poi.xssf.usermodel.XSSFCell;
-import org.apache.poi.xssf.usermodel.XSSFRow;
-import org.apache.poi.xssf.usermodel.XSSFSheet;
-import org.apache.poi.xssf.usermodel.XSSFWorkbook;
 
 import com.mnet.framework.reporting.FrameworkLog;
 
 /***
  * Utility to read from Excel workbooks.
+ * Workbooks are parsed once per suite with a streaming reader and cached (see ExcelDataCache).
  * 
  * @author Arya Biswas
  * @version Fall 2023
  */
 public class ExcelParser {
 
-	private Map<String, XSSFWorkbook> workbooks = new HashMap<>();
-	
 	private FrameworkLog log;
 	
 	public ExcelParser(FrameworkLog frameworkLog) {
@@ -44,89 +36,88 @@ public class ExcelParser {
 	 * @param excludeHeaderRow If true, excludes the first row of the sheet from the data set.
 	 */
 	public List<List<String>> readSheet(String fileName, String sheetName, boolean excludeHeaderRow) {
-		XSSFWorkbook workbook = getWorkbook(fileName);
-		XSSFSheet sheet;
+		File file = new File(fileName);
 		
-		if (sheetName == null) {
-			sheet = workbook.getSheetAt(0);
-		} else {
-			sheet = workbook.getSheet(sheetName);
+		if (!file.isFile()) {
+			String err = "Failed to read Excel workbook with name: " + fileName;
+			log.error(err);
+			throw new RuntimeException(err);
 		}
 		
-		int rowCount = sheet.getLastRowNum();
-        int columnCount = sheet.getRow(0).getLastCellNum();
-        
-        List<List<String>> rawData = new ArrayList<>(rowCount);
-        
-        for (int rowIndex = excludeHeaderRow ? 1 : 0; rowIndex <= rowCount; rowIndex++) {
-            XSSFRow row = sheet.getRow(rowIndex);
-            List<String> dataRow = new ArrayList<>(columnCount - 1);
-            
-            for (int columnIndex = 0; columnIndex < columnCount; columnIndex++) {
-                XSSFCell cell = row.getCell(columnIndex);
-                DataFormatter formatter = new DataFormatter();
-                
-                dataRow.add(formatter.formatCellValue(cell));
-            }
-            
-            rawData.add(dataRow);
-        }
+		Map<String, List<List<String>>> workbook = ExcelDataCache.getWorkbook(file, log);
+		List<List<String>> sheet = (sheetName == null)
+				? workbook.values().stream().findFirst().orElse(null)
+				: workbook.get(sheetName);
+		
+		if (sheet == null) {
+			String err = "Sheet " + sheetName + " not found in Excel workbook with name: " + fileName;
+			log.error(err);
+			throw new RuntimeException(err);
+		}
+		
+		List<List<String>> rawData = new ArrayList<>(sheet.size());
+		
+		for (int rowIndex = excludeHeaderRow ? 1 : 0; rowIndex < sheet.size(); rowIndex++) {
+			rawData.add(new ArrayList<>(sheet.get(rowIndex)));
+		}
 		
 		return rawData;
 	}
 	
 	/**
-	 * Closes the named workbook.
+	 * Iterates over rows of the named sheet (first sheet if null) without loading the sheet into memory.
+	 * Rows are parsed as they are consumed, unless the workbook was already read (see readSheet()). Rows are read-only.
+	 * @param excludeHeaderRow If true, excludes the first row of the sheet from the data set.
+	 * @implNote Intended for large sheets (e.g. data providers of tools). The iterator should be consumed fully.
 	 */
-	public void closeWorkbook(String fileName) {
-		XSSFWorkbook workbook = workbooks.get(fileName);
+	public Iterator<List<String>> iterateSheet(String fileName, String sheetName, boolean excludeHeaderRow) {
+		File file = new File(fileName);
 		
-		if (workbook == null) {
-			return;
+		if (!file.isFile()) {
+			String err = "Failed to read Excel workbook with name: " + fileName;
+			log.error(err);
+			throw new RuntimeException(err);
 		}
 		
-		try {
-			workbook.close();
-		} catch (IOException ioe) {
-			String err = "Failed to close workbook with name: " + fileName;
-			log.error(err);
-			log.printStackTrace(ioe);
-			throw new RuntimeException(ioe);
+		Map<String, List<List<String>>> workbook = ExcelDataCache.getCachedWorkbook(file);
+		Iterator<List<String>> rows;
+		
+		if (workbook != null) {
+			List<List<String>> sheet = (sheetName == null) ? workbook.values().stream().findFirst().orElse(null) : workbook.get(sheetName);
+			
+			if (sheet == null) {
+				String err = "Sheet " + sheetName + " not found in Excel workbook with name: " + fileName;
+				log.error(err);
+				throw new RuntimeException(err);
+			}
+			
+			rows = sheet.iterator();
+		} else {
+			rows = ExcelStreamReader.iterateSheet(file, sheetName, log);
+		}
+		
+		if (excludeHeaderRow && rows.hasNext()) {
+			rows.next();
 		}
 		
-		workbooks.remove(fileName);
+		return rows;
 	}
 	
 	/**
-	 * Closes all open workbooks.
+	 * Closes the named workbook.
+	 * @deprecated Workbooks are read in a single pass and no longer held open.
 	 */
-	public void closeAllWorkbooks() {
-		Set<String> fileNames = workbooks.keySet();
-		
-		for (String fileName : fileNames) {
-			closeWorkbook(fileName);
-		}
+	@Deprecated
+	public void closeWorkbook(String fileName) {
+		// Workbooks are no longer held open
 	}
 	
-	/*
-	 * Local helper functions
+	/**
+	 * Closes all open workbooks.
+	 * @deprecated Workbooks are read in a single pass and no longer held open.
 	 */
-	
-	private XSSFWorkbook getWorkbook(String fileName) {
-		XSSFWorkbook workbook = workbooks.get(fileName);
-		
-		if (workbook == null) {
-			try {
-				workbook = new XSSFWorkbook(fileName);
-				workbooks.put(fileName, workbook);
-			} catch (IOException ioe) {
-				String err = "Failed to read Excel workbook with name: " + fileName;
-				log.error(err);
-				log.printStackTrace(ioe);
-				throw new RuntimeException(ioe);
-			}
-		}
-		
-		return workbook;
+	@Deprecated
+	public void closeAllWorkbooks() {
+		// Workbooks are no longer held open
 	}
 }
@@ -0,0 +1,310 @@
+package com.mnet.framework.utilities;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import javax.xml.parsers.ParserConfigurationException;
+import javax.xml.parsers.SAXParserFactory;
+
+import org.apache.poi.openxml4j.exceptions.OpenXML4JException;
+import org.apache.poi.openxml4j.opc.OPCPackage;
+import org.apache.poi.openxml4j.opc.PackageAccess;
+import org.apache.poi.ss.usermodel.DataFormatter;
+import org.apache.poi.ss.util.CellReference;
+import org.apache.poi.xssf.eventusermodel.ReadOnlySharedStringsTable;
+import org.apache.poi.xssf.eventusermodel.XSSFReader;
+import org.apache.poi.xssf.eventusermodel.XSSFSheetXMLHandler;
+import org.apache.poi.xssf.eventusermodel.XSSFSheetXMLHandler.SheetContentsHandler;
+import org.apache.poi.xssf.model.StylesTable;
+import org.apache.poi.xssf.usermodel.XSSFComment;
+import org.xml.sax.InputSource;
+import org.xml.sax.SAXException;
+import org.xml.sax.XMLReader;
+
+import com.mnet.framework.reporting.FrameworkLog;
+
+/**
+ * Reads all sheets of an .xlsx workbook with the POI event model (SAX) instead of building the workbook in memory.
+ * Sheets are parsed in parallel, or streamed row by row (iterateSheet()). Cell values are formatted as in ExcelParser (formulas are returned as formula text).
+ * @version Fall 2023
+ * @author Arya Biswas
+ */
+class ExcelStreamReader {
+
+	/**Maximum number of rows parsed ahead of the consumer of iterateSheet().*/
+	private static final int STREAM_BUFFER_ROWS = 256;
+
+	/**
+	 * @return Rows of each sheet by sheet name, in workbook order. Rows are padded (or truncated) to the number of columns of the first row.
+	 */
+	static Map<String, List<List<String>>> readWorkbook(File file, FrameworkLog log) {
+		List<String> sheetNames = new ArrayList<String>();
+		List<byte[]> sheetData = new ArrayList<byte[]>();
+		ReadOnlySharedStringsTable sharedStrings;
+		StylesTable styles;
+		OPCPackage workbook = null;
+
+		try {
+			workbook = OPCPackage.open(file, PackageAccess.READ);
+			sharedStrings = new ReadOnlySharedStringsTable(workbook);
+			XSSFReader reader = new XSSFReader(workbook);
+			styles = reader.getStylesTable();
+
+			XSSFReader.SheetIterator sheets = (XSSFReader.SheetIterator) reader.getSheetsData();
+
+			// Package is read sequentially - sheets are parsed in parallel afterwards
+			while (sheets.hasNext()) {
+				try (InputStream sheet = sheets.next()) {
+					sheetData.add(sheet.readAllBytes());
+					sheetNames.add(sheets.getSheetName());
+				}
+			}
+		} catch (IOException | OpenXML4JException | SAXException e) {
+			String err = "Failed to read Excel workbook with name: " + file;
+			log.error(err);
+			log.printStackTrace(e);
+			throw new RuntimeException(err);
+		} finally {
+			if (workbook != null) {
+				workbook.revert();
+			}
+		}
+
+		List<List<List<String>>> parsedSheets = IntStream.range(0, sheetData.size()).parallel()
+				.mapToObj(index -> parseSheet(file, sheetData.get(index), sharedStrings, styles, log))
+				.collect(Collectors.toList());
+
+		Map<String, List<List<String>>> sheetsByName = new LinkedHashMap<String, List<List<String>>>();
+
+		for (int i = 0; i < sheetNames.size(); i++) {
+			sheetsByName.put(sheetNames.get(i), parsedSheets.get(i));
+		}
+
+		return sheetsByName;
+	}
+
+	/**
+	 * Streams rows of the named sheet (first sheet if null) - rows are parsed on a background thread as they are consumed.
+	 * Rows are padded (or truncated) to the number of columns of the first row.
+	 * @implNote Memory use is bounded by STREAM_BUFFER_ROWS regardless of sheet size. The iterator should be consumed fully.
+	 */
+	static Iterator<List<String>> iterateSheet(File file, String sheetName, FrameworkLog log) {
+		RowIterator rows = new RowIterator(file);
+
+		Thread parser = new Thread(() -> {
+			try {
+				readSheet(file, sheetName, rows::put, log);
+				rows.put(RowIterator.END);
+			} catch (RuntimeException re) {
+				rows.fail(re);
+			}
+		}, "mite-excel-" + file.getName());
+
+		parser.setDaemon(true);
+		parser.start();
+		return rows;
+	}
+
+	/*
+	 * Helper functions
+	 */
+
+	/**Parses the named sheet (first sheet if null) and passes its rows to the consumer in order.*/
+	private static void readSheet(File file, String sheetName, Consumer<List<String>> rowConsumer, FrameworkLog log) {
+		OPCPackage workbook = null;
+
+		try {
+			workbook = OPCPackage.open(file, PackageAccess.READ);
+			ReadOnlySharedStringsTable sharedStrings = new ReadOnlySharedStringsTable(workbook);
+			XSSFReader reader = new XSSFReader(workbook);
+			StylesTable styles = reader.getStylesTable();
+
+			XSSFReader.SheetIterator sheets = (XSSFReader.SheetIterator) reader.getSheetsData();
+
+			while (sheets.hasNext()) {
+				try (InputStream sheet = sheets.next()) {
+					if (sheetName == null || sheetName.equals(sheets.getSheetName())) {
+						parseSheet(file, new InputSource(sheet), sharedStrings, styles, new SheetCollector(rowConsumer), log);
+						return;
+					}
+				}
+			}
+		} catch (IOException | OpenXML4JException | SAXException e) {
+			String err = "Failed to read Excel workbook with name: " + file;
+			log.error(err);
+			log.printStackTrace(e);
+			throw new RuntimeException(err);
+		} finally {
+			if (workbook != null) {
+				workbook.revert();
+			}
+		}
+
+		String err = "Sheet " + sheetName + " not found in Excel workbook with name: " + file;
+		log.error(err);
+		throw new RuntimeException(err);
+	}
+
+	private static List<List<String>> parseSheet(File file, byte[] sheetData, ReadOnlySharedStringsTable sharedStrings, StylesTable styles, FrameworkLog log) {
+		List<List<String>> rows = new ArrayList<List<String>>();
+
+		parseSheet(file, new InputSource(new ByteArrayInputStream(sheetData)), sharedStrings, styles, new SheetCollector(rows::add), log);
+		return Collections.unmodifiableList(rows);
+	}
+
+	private static void parseSheet(File file, InputSource sheet, ReadOnlySharedStringsTable sharedStrings, StylesTable styles,
+			SheetCollector collector, FrameworkLog log) {
+		try {
+			SAXParserFactory factory = SAXParserFactory.newInstance();
+			factory.setNamespaceAware(true);
+			XMLReader parser = factory.newSAXParser().getXMLReader();
+
+			// DataFormatter is not thread-safe - one per sheet
+			parser.setContentHandler(new XSSFSheetXMLHandler(styles, null, sharedStrings, collector, new DataFormatter(), true));
+			parser.parse(sheet);
+		} catch (IOException | SAXException | ParserConfigurationException e) {
+			String err = "Failed to parse sheet of Excel workbook with name: " + file;
+			log.error(err);
+			log.printStackTrace(e);
+			throw new RuntimeException(err);
+		}
+	}
+
+	/**
+	 * Collects formatted cell values row by row, including empty cells and rows.
+	 * Rows are padded (or truncated) to the number of columns of the first row.
+	 */
+	private static class SheetCollector implements SheetContentsHandler {
+
+		private final Consumer<List<String>> rowConsumer;
+		private int nextRow;
+		private int columnCount = -1;
+		private List<String> currentRow;
+
+		private SheetCollector(Consumer<List<String>> rowConsumer) {
+			this.rowConsumer = rowConsumer;
+		}
+
+		@Override
+		public void startRow(int rowNum) {
+			while (nextRow < rowNum) {
+				emit(new ArrayList<String>());
+			}
+
+			currentRow = new ArrayList<String>();
+		}
+
+		@Override
+		public void endRow(int rowNum) {
+			emit(currentRow);
+		}
+
+		@Override
+		public void cell(String cellReference, String formattedValue, XSSFComment comment) {
+			int column = (cellReference == null) ? currentRow.size() : new CellReference(cellReference).getCol();
+
+			while (currentRow.size() < column) {
+				currentRow.add("");
+			}
+
+			currentRow.add((formattedValue == null) ? "" : formattedValue);
+		}
+
+		@Override
+		public void headerFooter(String text, boolean isHeader, String tagName) {
+			// Not part of the data set
+		}
+
+		private void emit(List<String> row) {
+			if (columnCount < 0) {
+				columnCount = row.size();
+			}
+
+			List<String> paddedRow = new ArrayList<String>(row.subList(0, Math.min(row.size(), columnCount)));
+
+			while (paddedRow.size() < columnCount) {
+				paddedRow.add("");
+			}
+
+			nextRow++;
+			rowConsumer.accept(Collections.unmodifiableList(paddedRow));
+		}
+	}
+
+	/**Rows handed over from the parser thread of iterateSheet() to the consumer.*/
+	private static class RowIterator implements Iterator<List<String>> {
+
+		private static final List<String> END = new ArrayList<String>(0);
+
+		private final BlockingQueue<List<String>> rows = new ArrayBlockingQueue<List<String>>(STREAM_BUFFER_ROWS);
+		private final File file;
+		private volatile RuntimeException failure;
+		private List<String> nextRow;
+
+		private RowIterator(File file) {
+			this.file = file;
+		}
+
+		@Override
+		public boolean hasNext() {
+			if (nextRow == null) {
+				nextRow = take();
+			}
+
+			if (nextRow == END && failure != null) {
+				throw failure;
+			}
+
+			return nextRow != END;
+		}
+
+		@Override
+		public List<String> next() {
+			if (!hasNext()) {
+				throw new NoSuchElementException();
+			}
+
+			List<String> row = nextRow;
+			nextRow = null;
+			return row;
+		}
+
+		private void put(List<String> row) {
+			try {
+				rows.put(row);
+			} catch (InterruptedException ie) {
+				Thread.currentThread().interrupt();
+				throw new RuntimeException("Interrupted while reading Excel workbook with name: " + file);
+			}
+		}
+
+		private void fail(RuntimeException re) {
+			failure = re;
+			rows.clear();
+			put(END);
+		}
+
+		private List<String> take() {
+			try {
+				return rows.take();
+			} catch (InterruptedException ie) {
+				Thread.currentThread().interrupt();
+				throw new RuntimeException("Interrupted while reading Excel workbook with name: " + file);
+			}
+		}
+	}
+}
@@ -4,13 +4,23 @@ import java.io.File;
 import java.io.FileNotFoundException;
 import java.io.FileWriter;
 import java.io.IOException;
+import java.io.InputStream;
 import java.io.StringReader;
-import java.io.StringWriter;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.util.Properties;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 import java.util.stream.Collectors;
 
 import javax.xml.transform.OutputKeys;
@@ -23,13 +33,10 @@ import javax.xml.transform.stream.StreamSource;
 
 import org.apache.commons.io.FileUtils;
 
+import com.mnet.framework.core.FrameworkProperties;
 import com.mnet.framework.reporting.FrameworkLog;
 
-import jakarta.xml.bind.JAXBContext;
 import jakarta.xml.bind.JAXBException;
-import jakarta.xml.bind.Marshaller;
-import jakarta.xml.bind.PropertyException;
-import jakarta.xml.bind.Unmarshaller;
 
 /**
  * Utilities for file read / write / parsing operations.
@@ -38,7 +45,36 @@ import jakarta.xml.bind.Unmarshaller;
  */
 public class FileUtilities {
 	
+	/**Set to false to skip saving XML content parsed by extractXMLFromContent() to the target file.*/
+	private static final boolean XML_RESPONSE_FILES = FrameworkProperties.getBooleanProperty("XML_RESPONSE_FILES", true);
+	/**Maximum time (ms) to wait for pending XML files to be written on shutdown or by awaitPendingXML().*/
+	private static final long XML_WRITER_SHUTDOWN_TIMEOUT = 30000;
+	
+	/**Writes parsed XML content to its target file off the test thread - files are artifacts of the test only.*/
+	private static final ExecutorService xmlWriter = Executors.newSingleThreadExecutor(runnable -> {
+		Thread thread = new Thread(runnable, "mite-xml-writer");
+		thread.setDaemon(true);
+		return thread;
+	});
+	/**TransformerFactory lookup and Transformer creation are expensive - Transformer is not thread-safe.*/
+	private static final ThreadLocal<Transformer> transformers = new ThreadLocal<Transformer>();
+	private static final char[] HEX_DIGITS = "0123456789abcdef".toCharArray();
+	
+	static {
+		Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+			xmlWriter.shutdown();
+			
+			try {
+				xmlWriter.awaitTermination(XML_WRITER_SHUTDOWN_TIMEOUT, TimeUnit.MILLISECONDS);
+			} catch (InterruptedException ie) {
+				Thread.currentThread().interrupt();
+			}
+		}, "mite-xml-shutdown"));
+	}
+	
 	private FrameworkLog log;
+	/**XML files saved by this instance which may not be written yet.*/
+	private final Queue<CompletableFuture<Void>> pendingXMLWrites = new ConcurrentLinkedQueue<CompletableFuture<Void>>();
 	
 	public FileUtilities(FrameworkLog frameworkLog) {
 		log = frameworkLog;
@@ -142,13 +178,10 @@ public class FileUtilities {
 	 * Creates XML at logging path (LOG_DIR\testName_timestamp) with the designated attributes.
 	 * @param data JAXB data class with XML representation.
 	 * @param fileName Local XML file name (exclude path).
+	 * @see {@link XMLContextRegistry}
 	 */
 	public void generateXML(XMLData data, String fileName) {
-		JAXBContext context = getXMLContext(data);
-		Marshaller xmlBuilder = defineXMLFormat(context);
-		StringWriter output = buildXMLFromData(xmlBuilder, data);
-		
-		writeStreamToXML(output, fileName);
+		writeStreamToXML(buildXMLFromData(data), fileName);
 	}
 	
 	/**
@@ -208,6 +241,30 @@ public class FileUtilities {
 		}
 	}
 	
+	/**
+	 * @return SHA-256 digest of the content as lowercase hex (64 characters).
+	 */
+	public static String sha256Hex(byte[] content) {
+		MessageDigest digest = getSHA256();
+		return toHex(digest.digest(content));
+	}
+	
+	/**
+	 * Streams the content (until end of stream) through SHA-256. The stream is not closed.
+	 * @return SHA-256 digest of the content as lowercase hex (64 characters).
+	 */
+	public static String sha256Hex(InputStream content) throws IOException {
+		MessageDigest digest = getSHA256();
+		byte[] buffer = new byte[8192];
+		int read;
+		
+		while ((read = content.read(buffer)) != -1) {
+			digest.update(buffer, 0, read);
+		}
+		
+		return toHex(digest.digest());
+	}
+	
 	// TODO: Accept File and return XMLData with raw / parsed fileName
 	// TODO: Refactor relevant functions to XMLParser
 	
@@ -227,6 +284,7 @@ public class FileUtilities {
 	/**
 	 * Takes a string which contains XML content as a substring and writes the content to an XML file.
 	 * Returns XML data representation of context written to XML file. 
+	 * @implNote Content is parsed in memory - the XML file is written in the background (skipped if XML_RESPONSE_FILES=false).
 	 * @param content String block containing XML content as a substring.
 	 * @param targetFile Fully qualified path of target XML file.
 	 * @param startDelimiter Substring designating starting point of XML parsing.
@@ -234,12 +292,58 @@ public class FileUtilities {
 	 * @param responseXMLData Data class representing XML response object
 	 */
 	public XMLData extractXMLFromContent(String content, String targetFile, String startDelimiter, String endDelimiter, Class<? extends XMLData> responseXMLData) {
+		String xmlContent = extractXMLContent(content, startDelimiter, endDelimiter);
+		XMLData xmlData = getXMLDataFromContent(xmlContent, responseXMLData);
+		
+		saveXML(xmlContent, targetFile);
+		
+		return xmlData;
+	}
+	
+	/**
+	 * Extracts XML content (from the first '&lt;' to the last '&gt;') between starting and ending delimiters.
+	 * @param content String block containing XML content as a substring.
+	 * @param startDelimiter Substring designating starting point of XML parsing.
+	 * @param endDelimiter Substring designating end point of XML parsing.
+	 */
+	public String extractXMLContent(String content, String startDelimiter, String endDelimiter) {
 		String xmlSubContent = getContentBetweenBounds(content, startDelimiter, endDelimiter);
-		String xmlContent = xmlSubContent.substring(xmlSubContent.indexOf("<"), xmlSubContent.lastIndexOf(">") + 1);
+		return xmlSubContent.substring(xmlSubContent.indexOf("<"), xmlSubContent.lastIndexOf(">") + 1);
+	}
+	
+	/**
+	 * Writes XML content to the target file in the background (skipped if XML_RESPONSE_FILES=false).
+	 * @implNote Invoke awaitPendingXML() before closing the log of this instance.
+	 * @param xmlContent XML-formatted contents to write to file.
+	 * @param targetFile Fully qualified path of target XML file.
+	 */
+	public void saveXML(String xmlContent, String targetFile) {
+		if (XML_RESPONSE_FILES) {
+			pendingXMLWrites.removeIf(CompletableFuture::isDone);
+			pendingXMLWrites.add(CompletableFuture.runAsync(() -> writeTextToXML(xmlContent, targetFile), xmlWriter));
+		}
+	}
+	
+	/**
+	 * Waits (up to 30 seconds) for XML files saved by this instance to be written, so that files linked in the report exist.
+	 */
+	public void awaitPendingXML() {
+		if (pendingXMLWrites.isEmpty()) {
+			return;
+		}
 		
-		writeTextToXML(xmlContent, targetFile);
+		try {
+			CompletableFuture.allOf(pendingXMLWrites.toArray(CompletableFuture[]::new))
+					.get(XML_WRITER_SHUTDOWN_TIMEOUT, TimeUnit.MILLISECONDS);
+		} catch (TimeoutException te) {
+			log.warn("XML files were not written within " + XML_WRITER_SHUTDOWN_TIMEOUT + " ms - some may be missing from the report");
+		} catch (InterruptedException ie) {
+			Thread.currentThread().interrupt();
+		} catch (ExecutionException ee) {
+			// Failures were already logged by writeTextToXML()
+		}
 		
-		return getXMLDataFromFile(targetFile, responseXMLData);
+		pendingXMLWrites.removeIf(CompletableFuture::isDone);
 	}
 	
 	/**
@@ -397,7 +501,7 @@ public class FileUtilities {
 		}
 	}
 	
-	private void writeStreamToXML(StringWriter output, String filePath) {
+	private void writeStreamToXML(String output, String filePath) {
 		Transformer transformer = getTransformer();
 		transformer.setOutputProperty(OutputKeys.DOCTYPE_PUBLIC, ""); // for header
 		transformer.setOutputProperty(OutputKeys.INDENT, "yes");
@@ -405,7 +509,7 @@ public class FileUtilities {
 		filePath = getFileNameAsXML(filePath);
 		
 		try {
-			transformer.transform(new StreamSource(new StringReader(output.toString())), new StreamResult(new File(filePath)));
+			transformer.transform(new StreamSource(new StringReader(output)), new StreamResult(new File(filePath)));
 		} catch (TransformerException te) {
 			String err = "Failed to generate XML at path: " + filePath;
 			log.error(err);
@@ -438,64 +542,20 @@ public class FileUtilities {
 		}
 	}
 	
-	private JAXBContext getXMLContext(XMLData data) {
-		try {
-			return JAXBContext.newInstance(data.getClass());
-			
-		} catch (JAXBException jaxb){
-			String err = "Failed to instantiate XML data class: " + data.toString();
-			log.error(err);
-			log.printStackTrace(jaxb);
-			throw new RuntimeException(err);
-		}
-	}
-	
-	private Marshaller defineXMLFormat(JAXBContext context) {
-		Marshaller xmlBuilder = null;
-		String err;
-		
+	private String buildXMLFromData(XMLData data) {
 		try {
-			xmlBuilder = context.createMarshaller();
-			xmlBuilder.setProperty(Marshaller.JAXB_FORMATTED_OUTPUT, false);
-			xmlBuilder.setProperty(Marshaller.JAXB_FRAGMENT, false); // remove XML header - defined by Transformer
-		} catch (PropertyException pe) {
-			err = "Failed to define XML properties for marshaller: " + xmlBuilder.toString();
-			log.error(err);
-			log.printStackTrace(pe);
-			throw new RuntimeException(err);
-		} catch (JAXBException je) {
-			err = "Failed to create JAXB marshaller from context: " + context.toString();
-			log.error(err);
-			log.printStackTrace(je);
-			throw new RuntimeException(err);
-		}
-		
-		return xmlBuilder;
-	}
-	
-	private StringWriter buildXMLFromData(Marshaller xmlBuilder, XMLData data) {
-		StringWriter output = new StringWriter();
-		
-		try {
-			xmlBuilder.marshal(data, output);
+			return XMLContextRegistry.marshal(data);
 		} catch (JAXBException jaxb) {
 			String err = "Failed to build XML object for class: " + data.toString();
 			log.error(err);
 			log.printStackTrace(jaxb);
 			throw new RuntimeException(err);
 		}
-		
-		return output;
 	}
 	
-	private XMLData getXMLDataFromFile(String fileName, Class<? extends XMLData> responseXMLData) {
-		JAXBContext context;
-		Unmarshaller parser;
-		
+	private <T extends XMLData> T getXMLDataFromContent(String content, Class<T> responseXMLData) {
 		try {
-			context = JAXBContext.newInstance(responseXMLData);
-			parser = context.createUnmarshaller();
-			return responseXMLData.cast(parser.unmarshal(new File(fileName)));
+			return XMLContextRegistry.unmarshal(new StringReader(content), responseXMLData);
 		} catch (JAXBException jaxb) {
 			String err = "Failed to parse XML data for class: " + responseXMLData.toString();
 			log.error(err);
@@ -505,8 +565,16 @@ public class FileUtilities {
 	}
 	
 	private Transformer getTransformer() {
+		Transformer transformer = transformers.get();
+		
+		if (transformer != null) {
+			return transformer;
+		}
+		
 		try {
-			return TransformerFactory.newInstance().newTransformer();
+			transformer = TransformerFactory.newInstance().newTransformer();
+			transformers.set(transformer);
+			return transformer;
 		} catch (TransformerConfigurationException tce) {
 			String err = "Failed to configure XML transformer";
 			log.error(err);
@@ -514,5 +582,24 @@ public class FileUtilities {
 			throw new RuntimeException(err);
 		}
 	}
+	
+	private static MessageDigest getSHA256() {
+		try {
+			return MessageDigest.getInstance("SHA-256");
+		} catch (NoSuchAlgorithmException nsae) {
+			throw new RuntimeException("SHA-256 is not supported by the JVM", nsae);
+		}
+	}
+	
+	private static String toHex(byte[] bytes) {
+		char[] hex = new char[bytes.length * 2];
+		
+		for (int i = 0; i < bytes.length; i++) {
+			hex[2 * i] = HEX_DIGITS[(bytes[i] >> 4) & 0xF];
+			hex[2 * i + 1] = HEX_DIGITS[bytes[i] & 0xF];
+		}
+		
+		return new String(hex);
+	}
 }
  
\ No newline at end of file
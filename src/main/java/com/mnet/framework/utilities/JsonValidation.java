@@ -29,8 +29,6 @@ public class JsonValidation {
 	
 	private static String JSON_PATH = FrameworkProperties.getSystemProperty("user.dir") + File.separator
 			+ FrameworkProperties.getProperty("JSON_PATH");
-	private static TestReporter report;
-	private static FrameworkLog log;
 	
 	/**
 	 * 
@@ -41,8 +39,9 @@ public class JsonValidation {
 	 */
 	public static boolean validateJsonSchema(MITETest currentTest, String schemaFile, String jsonFileName) {
 		
-		log = currentTest.getLog();
-		report = currentTest.getReport();
+		// Local to the invocation - tests may validate in parallel
+		FrameworkLog log = currentTest.getLog();
+		TestReporter report = currentTest.getReport();
 		FileUtilities fileUtils = new FileUtilities(log);
 		
 		ObjectMapper objectMapper = new ObjectMapper();
@@ -0,0 +1,140 @@
+package com.mnet.framework.utilities;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Thread-safe histogram of latency values (ms) with fixed memory use, in the style of HdrHistogram.
+ * Values below 128 are recorded exactly. Larger values are recorded in 64 buckets per power of two,
+ * so reported percentiles are within ~1.6% of the recorded value.
+ * @version Spring 2023
+ * @author Arya Biswas
+ */
+public class LatencyHistogram {
+
+	private static final int SUB_BUCKET_BITS = 7;
+	private static final int SUB_BUCKET_COUNT = 1 << SUB_BUCKET_BITS;
+	private static final int SUB_BUCKET_HALF = SUB_BUCKET_COUNT / 2;
+	private static final int BUCKET_COUNT = SUB_BUCKET_COUNT + (Long.SIZE - SUB_BUCKET_BITS) * SUB_BUCKET_HALF;
+
+	private final String name;
+	private final AtomicLongArray counts = new AtomicLongArray(BUCKET_COUNT);
+	private final LongAdder count = new LongAdder();
+	private final LongAdder sum = new LongAdder();
+	private final LongAccumulator min = new LongAccumulator(Math::min, Long.MAX_VALUE);
+	private final LongAccumulator max = new LongAccumulator(Math::max, 0);
+
+	public LatencyHistogram(String name) {
+		this.name = name;
+	}
+
+	/**
+	 * Records a single latency value. Negative values are recorded as 0.
+	 * @param millis Latency (in ms).
+	 */
+	public void record(long millis) {
+		long value = Math.max(0, millis);
+
+		counts.incrementAndGet(getBucketIndex(value));
+		count.increment();
+		sum.add(value);
+		min.accumulate(value);
+		max.accumulate(value);
+	}
+
+	public String getName() {
+		return name;
+	}
+
+	/**
+	 * @return Number of recorded values.
+	 */
+	public long getCount() {
+		return count.sum();
+	}
+
+	/**
+	 * @return Smallest recorded value, or 0 if no values were recorded.
+	 */
+	public long getMin() {
+		return (getCount() == 0) ? 0 : min.get();
+	}
+
+	/**
+	 * @return Largest recorded value.
+	 */
+	public long getMax() {
+		return max.get();
+	}
+
+	/**
+	 * @return Sum of recorded values.
+	 */
+	public long getTotal() {
+		return sum.sum();
+	}
+
+	/**
+	 * @return Arithmetic mean of recorded values, or 0 if no values were recorded.
+	 */
+	public double getMean() {
+		long total = getCount();
+		return (total == 0) ? 0 : (double) sum.sum() / total;
+	}
+
+	/**
+	 * Returns the value at the designated percentile (e.g. 99.0), or 0 if no values were recorded.
+	 * @implNote The upper bound of the bucket containing the percentile is returned (capped at the largest recorded value).
+	 */
+	public long getPercentile(double percentile) {
+		long total = getCount();
+
+		if (total == 0) {
+			return 0;
+		}
+
+		long target = Math.max(1, (long) Math.ceil(percentile / 100.0 * total));
+		long cumulative = 0;
+
+		for (int i = 0; i < BUCKET_COUNT; i++) {
+			cumulative += counts.get(i);
+
+			if (cumulative >= target) {
+				return Math.min(getHighestValue(i), getMax());
+			}
+		}
+
+		return getMax();
+	}
+
+	@Override
+	public String toString() {
+		return name + ": count=" + getCount() + ", min=" + getMin() + "ms, p50=" + getPercentile(50) + "ms, p95=" + getPercentile(95)
+				+ "ms, p99=" + getPercentile(99) + "ms, max=" + getMax() + "ms, mean=" + String.format("%.1f", getMean()) + "ms";
+	}
+
+	/*
+	 * Helper functions
+	 */
+
+	private static int getBucketIndex(long value) {
+		if (value < SUB_BUCKET_COUNT) {
+			return (int) value;
+		}
+
+		// Shift value so that it falls within the upper half of the sub-buckets [64, 128)
+		int magnitude = (Long.SIZE - 1 - Long.numberOfLeadingZeros(value)) - (SUB_BUCKET_BITS - 1);
+		return SUB_BUCKET_COUNT + (magnitude - 1) * SUB_BUCKET_HALF + (int) ((value >> magnitude) - SUB_BUCKET_HALF);
+	}
+
+	private static long getHighestValue(int bucketIndex) {
+		if (bucketIndex < SUB_BUCKET_COUNT) {
+			return bucketIndex;
+		}
+
+		int magnitude = (bucketIndex - SUB_BUCKET_COUNT) / SUB_BUCKET_HALF + 1;
+		long subBucket = (bucketIndex - SUB_BUCKET_COUNT) % SUB_BUCKET_HALF + SUB_BUCKET_HALF;
+		return ((subBucket + 1) << magnitude) - 1;
+	}
+}
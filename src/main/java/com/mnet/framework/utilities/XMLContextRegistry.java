@@ -0,0 +1,201 @@
+package com.mnet.framework.utilities;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringWriter;
+import java.lang.reflect.Modifier;
+import java.net.JarURLConnection;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Enumeration;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.jar.JarEntry;
+import java.util.jar.JarFile;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import com.mnet.framework.core.FrameworkProperties;
+import com.mnet.framework.reporting.FrameworkLog;
+
+import jakarta.xml.bind.JAXBContext;
+import jakarta.xml.bind.JAXBException;
+import jakarta.xml.bind.Marshaller;
+import jakarta.xml.bind.Unmarshaller;
+import jakarta.xml.bind.annotation.XmlRootElement;
+
+/**
+ * Process-wide registry of JAXB contexts for XMLData classes, with pooled marshallers and unmarshallers.
+ * Contexts are created once per class (the most expensive JAXB operation) and are safe to share between threads.
+ * Marshallers and unmarshallers are not thread-safe - each is used by one thread at a time and returned to the pool afterwards.
+ * @implNote Contexts for XMLData classes in XML_DATA_PACKAGES (comma-separated, default: com.mnet.pojo.xml) can be created
+ * in the background at suite start via preloadInBackground().
+ * @version Fall 2023
+ * @author Arya Biswas
+ */
+public final class XMLContextRegistry {
+
+	private static final String XML_DATA_PACKAGES = FrameworkProperties.getStringProperty("XML_DATA_PACKAGES", "com.mnet.pojo.xml");
+
+	private static final Map<Class<?>, JAXBContext> contexts = new ConcurrentHashMap<Class<?>, JAXBContext>();
+	private static final Map<Class<?>, Queue<Marshaller>> marshallers = new ConcurrentHashMap<Class<?>, Queue<Marshaller>>();
+	private static final Map<Class<?>, Queue<Unmarshaller>> unmarshallers = new ConcurrentHashMap<Class<?>, Queue<Unmarshaller>>();
+
+	private XMLContextRegistry() {}
+
+	/**
+	 * @return JAXB context of the designated XML data class - created on first access.
+	 */
+	public static JAXBContext getContext(Class<? extends XMLData> dataClass) throws JAXBException {
+		JAXBContext context = contexts.get(dataClass);
+
+		if (context == null) {
+			// computeIfAbsent() does not allow checked exceptions - concurrent creation of the same context is harmless
+			context = JAXBContext.newInstance(dataClass);
+			JAXBContext existing = contexts.putIfAbsent(dataClass, context);
+			context = (existing != null) ? existing : context;
+		}
+
+		return context;
+	}
+
+	/**
+	 * @return Unformatted XML representation of the data (including XML header).
+	 */
+	public static String marshal(XMLData data) throws JAXBException {
+		Class<? extends XMLData> dataClass = data.getClass();
+		Queue<Marshaller> pool = marshallers.computeIfAbsent(dataClass, key -> new ConcurrentLinkedQueue<Marshaller>());
+		Marshaller marshaller = pool.poll();
+
+		if (marshaller == null) {
+			marshaller = getContext(dataClass).createMarshaller();
+			marshaller.setProperty(Marshaller.JAXB_FORMATTED_OUTPUT, false);
+			marshaller.setProperty(Marshaller.JAXB_FRAGMENT, false);
+		}
+
+		try {
+			StringWriter output = new StringWriter();
+			marshaller.marshal(data, output);
+			return output.toString();
+		} finally {
+			pool.offer(marshaller);
+		}
+	}
+
+	/**
+	 * Parses XML content into the designated XML data class.
+	 */
+	public static <T extends XMLData> T unmarshal(Reader content, Class<T> dataClass) throws JAXBException {
+		Queue<Unmarshaller> pool = unmarshallers.computeIfAbsent(dataClass, key -> new ConcurrentLinkedQueue<Unmarshaller>());
+		Unmarshaller unmarshaller = pool.poll();
+
+		if (unmarshaller == null) {
+			unmarshaller = getContext(dataClass).createUnmarshaller();
+		}
+
+		try {
+			return dataClass.cast(unmarshaller.unmarshal(content));
+		} finally {
+			pool.offer(unmarshaller);
+		}
+	}
+
+	/**
+	 * Creates contexts of all XML root element classes extending XMLData in XML_DATA_PACKAGES on a background thread.
+	 * Contexts which are not created yet when first needed are created on demand.
+	 */
+	public static void preloadInBackground() {
+		Thread preloader = new Thread(() -> {
+			List<Class<? extends XMLData>> dataClasses = new ArrayList<Class<? extends XMLData>>();
+
+			for (String packageName : XML_DATA_PACKAGES.split(",")) {
+				dataClasses.addAll(findDataClasses(packageName.trim()));
+			}
+
+			for (Class<? extends XMLData> dataClass : dataClasses) {
+				try {
+					getContext(dataClass);
+				} catch (JAXBException | RuntimeException e) {
+					// Reported again when the context is needed
+					FrameworkLog.getFrameworkLogger().warn("Failed to preload JAXB context for: " + dataClass.getName(), e);
+				}
+			}
+		}, "mite-jaxb-preload");
+
+		preloader.setDaemon(true);
+		preloader.start();
+	}
+
+	/*
+	 * Helper functions
+	 */
+
+	/**@return Concrete XML root element classes extending XMLData in the package (including subpackages) on the class path.*/
+	private static List<Class<? extends XMLData>> findDataClasses(String packageName) {
+		ClassLoader loader = Thread.currentThread().getContextClassLoader();
+		String packagePath = packageName.replace('.', '/');
+		List<String> classNames = new ArrayList<String>();
+
+		try {
+			Enumeration<URL> roots = loader.getResources(packagePath);
+
+			while (roots.hasMoreElements()) {
+				URL root = roots.nextElement();
+
+				if ("file".equals(root.getProtocol())) {
+					classNames.addAll(findClassNames(Paths.get(root.toURI()), packageName));
+				} else if ("jar".equals(root.getProtocol())) {
+					classNames.addAll(findClassNames((JarURLConnection) root.openConnection(), packagePath));
+				}
+			}
+		} catch (IOException | URISyntaxException e) {
+			FrameworkLog.getFrameworkLogger().warn("Failed to scan package for XML data classes: " + packageName, e);
+		}
+
+		List<Class<? extends XMLData>> dataClasses = new ArrayList<Class<? extends XMLData>>();
+
+		for (String className : classNames) {
+			try {
+				Class<?> candidate = Class.forName(className, false, loader);
+
+				if (XMLData.class.isAssignableFrom(candidate) && !Modifier.isAbstract(candidate.getModifiers())
+						&& candidate.isAnnotationPresent(XmlRootElement.class)) {
+					dataClasses.add(candidate.asSubclass(XMLData.class));
+				}
+			} catch (ClassNotFoundException | LinkageError e) {
+				// Not loadable in this context - skipped
+			}
+		}
+
+		return dataClasses;
+	}
+
+	private static List<String> findClassNames(Path packageDirectory, String packageName) throws IOException {
+		try (Stream<Path> files = Files.walk(packageDirectory)) {
+			return files.map(file -> packageDirectory.relativize(file).toString())
+					.filter(file -> file.endsWith(".class") && !file.contains("$"))
+					.map(file -> packageName + "." + file.substring(0, file.length() - ".class".length()).replace(File.separatorChar, '.'))
+					.collect(Collectors.toList());
+		}
+	}
+
+	private static List<String> findClassNames(JarURLConnection connection, String packagePath) throws IOException {
+		connection.setUseCaches(false);
+
+		try (JarFile jar = connection.getJarFile()) {
+			return jar.stream()
+					.map(JarEntry::getName)
+					.filter(entry -> entry.startsWith(packagePath + "/") && entry.endsWith(".class") && !entry.contains("$"))
+					.map(entry -> entry.substring(0, entry.length() - ".class".length()).replace('/', '.'))
+					.collect(Collectors.toList());
+		}
+	}
+}
@@ -26,11 +26,13 @@ import org.openqa.selenium.WebElement;
 import org.openqa.selenium.chrome.ChromeDriver;
 import org.openqa.selenium.edge.EdgeDriver;
 import org.openqa.selenium.interactions.Actions;
+import org.openqa.selenium.support.ui.ExpectedCondition;
 import org.openqa.selenium.support.ui.ExpectedConditions;
 import org.openqa.selenium.support.ui.WebDriverWait;
 
 import com.mnet.framework.core.FrameworkProperties;
 import com.mnet.framework.reporting.FrameworkLog;
+import com.mnet.framework.reporting.StepTimer;
 
 import io.github.bonigarcia.wdm.WebDriverManager;
 import ru.yandex.qatools.ashot.AShot;
@@ -117,6 +119,7 @@ public class WebUtilities {
 	 * @boolean true if page was opened and validated with expected element.
 	 */
 	public boolean loadWebpage(String url, By validationElement) {
+		long startTime = StepTimer.start();
 		
 		try {
 			driver.navigate().to(url);
@@ -124,6 +127,8 @@ public class WebUtilities {
 			log.error("Failed to navigate to URL: " + url);
 			log.printStackTrace(wde);
 			throw new RuntimeException(wde);
+		} finally {
+			StepTimer.stop(StepTimer.WEB, startTime);
 		}
 		
 		return waitTillElementVisible(validationElement);
@@ -136,7 +141,7 @@ public class WebUtilities {
 	 */
 	public boolean waitTillElementVisible(By element) {
 		try {
-			driverWait.until(ExpectedConditions.visibilityOfElementLocated(element));
+			waitUntil(ExpectedConditions.visibilityOfElementLocated(element));
 		} catch (TimeoutException te) {
 			log.warn("Failed to locate web element: " + element.toString());
 			log.printStackTrace(te);
@@ -177,12 +182,16 @@ public class WebUtilities {
 	 * @see BROWSER_MAX_TIMEOUT, BROWSER_MIN_TIMEOUT
 	 */
 	public void staticWait(Long millis) {
+		long startTime = StepTimer.start();
+		
 		try {
 			Thread.sleep(millis);
 		} catch (InterruptedException ie) {
 			log.error("Thread execution interrupted during staticWait()");
 			log.printStackTrace(ie);
 			throw new RuntimeException(ie);
+		} finally {
+			StepTimer.stop(StepTimer.WEB, startTime);
 		}
 	}
 	
@@ -231,7 +240,7 @@ public class WebUtilities {
 		Pattern regexPattern = Pattern.compile(regex);
 		
 		try {
-			driverWait.until(ExpectedConditions.textMatches(element, regexPattern));
+			waitUntil(ExpectedConditions.textMatches(element, regexPattern));
 		} catch (TimeoutException te) {
 			String err = "Text could not be located with regex pattern: " + regex + " in element: " + element.toString();
 			log.error(err);
@@ -676,7 +685,7 @@ public class WebUtilities {
 	 * @author kotwarx2
 	 */
 	public boolean elementClickable(By element) { 
-		WebElement elem = driverWait.until(ExpectedConditions.elementToBeClickable(element));
+		WebElement elem = waitUntil(ExpectedConditions.elementToBeClickable(element));
 		if(elem.isEnabled()) {
 			return true;
 		}
@@ -692,7 +701,7 @@ public class WebUtilities {
 	 * @author kotwarx2
 	 */
 	public void elementInvisible(By element) {
-		driverWait.until(ExpectedConditions.invisibilityOfElementLocated(element));
+		waitUntil(ExpectedConditions.invisibilityOfElementLocated(element));
 	}
 	
 	/**
@@ -866,7 +875,7 @@ public class WebUtilities {
 	 * Get list of all active tabs in the webpage
 	 */
 	public ArrayList<String> getAllWindows(){
-		driverWait.until(ExpectedConditions.numberOfWindowsToBe(2));
+		waitUntil(ExpectedConditions.numberOfWindowsToBe(2));
 		ArrayList<String> handles = new ArrayList<String>(driver.getWindowHandles());
 		log.info(handles.toString());
 		return handles;
@@ -1006,7 +1015,7 @@ public class WebUtilities {
 	
 	private void waitTillElementClickable(By element) {
 		try {
-			driverWait.until(ExpectedConditions.elementToBeClickable(element));
+			waitUntil(ExpectedConditions.elementToBeClickable(element));
 		} catch (TimeoutException te) {
 			log.error("Element could not be idenitified as clickable: " + element.toString());
 			log.printStackTrace(te);
@@ -1014,9 +1023,14 @@ public class WebUtilities {
 		}
 	}
 	
+	/**Waits for the condition (up to BROWSER_MAX_TIMEOUT) and records the time spent waiting.*/
+	private <T> T waitUntil(ExpectedCondition<T> condition) {
+		return StepTimer.time(StepTimer.WEB, () -> driverWait.until(condition));
+	}
+	
 	private void waitTillElementHidden(By element) {
 		try {
-			driverWait.until(ExpectedConditions.invisibilityOfElementLocated(element));
+			waitUntil(ExpectedConditions.invisibilityOfElementLocated(element));
 		} catch (TimeoutException te) {
 			log.error("Element was not hidden: " + element.toString());
 			log.printStackTrace(te);
@@ -0,0 +1,482 @@
+package com.mnet.middleware.tools;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+import org.apache.commons.lang3.StringUtils;
+import org.testng.ITestContext;
+import org.testng.ITestResult;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mnet.framework.core.FrameworkProperties;
+import com.mnet.framework.core.MITETest;
+import com.mnet.framework.core.TestDataProvider;
+import com.mnet.framework.database.DatabaseConnector;
+import com.mnet.framework.middleware.UnixConnector;
+import com.mnet.framework.reporting.FrameworkLog;
+import com.mnet.framework.reporting.TestStep;
+import com.mnet.framework.utilities.LatencyHistogram;
+import com.mnet.framework.utilities.Timeout;
+import com.mnet.framework.utilities.XMLData;
+import com.mnet.middleware.utilities.EtlCompletionWaiter;
+import com.mnet.middleware.utilities.TantoDriver;
+import com.mnet.middleware.utilities.TantoDriver.TantoDriverType;
+import com.mnet.middleware.utilities.TantoDriver.TantoProfileType;
+import com.mnet.middleware.utilities.TantoDriver.TantoTransmissionType;
+import com.mnet.middleware.utilities.TantoTransmissionJob;
+import com.mnet.middleware.utilities.TantoTransmissionResult;
+import com.mnet.pojo.xml.TantoComProfileRequest;
+import com.mnet.pojo.xml.TantoPatientProfileRequest;
+import com.mnet.reporting.utilities.GraylogReporting;
+
+/**
+ * Load-generation tool for the Tanto endpoint.
+ * Replays profile requests (reqresp) or transmissions (sendtelm / sendstat) through TantoDriver from concurrent workers for a fixed duration,
+ * either as fast as possible (requestsPerSecond empty or 0) or at a fixed aggregate rate.
+ * Request latency (time at the Tanto endpoint, i.e. the driver command for transmissions) and, for transmissions with database support,
+ * ETL latency are recorded into histograms. ETL processing is observed off the request path (see EtlTracker), so it does not throttle the workers.
+ * The summary (p50 / p95 / p99, throughput, error rate) is logged to the report, saved as JSON to the log directory
+ * and appended to LOG_DIR/TantoLoadTrend.csv for trend tracking.
+ * @implNote At a fixed rate, latency is measured from the scheduled start of each request, so that time spent queued behind slow requests is included.
+ * @implNote ETL latency is measured from the start of the driver command and sampled every ETL_SAMPLE_INTERVAL (default: 100 ms).
+ * It is only exact if each worker transmits for a distinct device - provide one device serial per worker (comma-separated).
+ * @version Spring 2023
+ * @author Arya Biswas
+ */
+public class TantoLoadTool extends MITETest implements GraylogReporting {
+
+	private static final String TREND_FILE = FrameworkLog.LOG_DIR + File.separator + "TantoLoadTrend.csv";
+	private static final String TREND_HEADER = "timestamp,mode,driverType,type,concurrency,targetRate,durationSeconds,requests,errors,"
+			+ "errorRate,throughput,p50,p95,p99,max,etlP50,etlP95,etlP99,etlMax";
+
+	private enum LoadMode {
+		PROFILE,
+		TELEMETRY
+	}
+
+	@Override
+	@BeforeClass
+	public void initialize(ITestContext context) {
+		attributes.add(TestAttribute.REMOTE_MACHINE);
+		attributes.add(TestAttribute.DATABASE);
+		relativeDataDirectory = "tools";
+		super.initialize(context);
+	}
+
+	@Test(dataProvider = "TestData", dataProviderClass = TestDataProvider.class)
+	public void tantoLoadTool(String loadMode, String useDatabase, String driverType, String concurrency, String requestsPerSecond,
+			String durationSeconds, String profileType, String profileVersion, String transmitterSWVersion, String timeOfFollowup,
+			String transmitterModelExtension, String transmissionType, String deviceModel, String deviceSerials,
+			String transmitterModel, String transmitterSerial, String payloadFileName) {
+
+		LoadMode mode = Enum.valueOf(LoadMode.class, loadMode.toUpperCase());
+		boolean databaseSupport = useDatabase.equalsIgnoreCase("y");
+		TantoDriverType tantoDriverType = (driverType.equalsIgnoreCase("9.x")) ? TantoDriverType.DRIVER_9X : TantoDriverType.DRIVER_8X;
+		int workers = Integer.parseInt(concurrency);
+		double rate = StringUtils.isEmpty(requestsPerSecond) ? 0 : Double.parseDouble(requestsPerSecond);
+		long duration = Long.parseLong(durationSeconds);
+		String[] serials = StringUtils.isEmpty(deviceSerials) ? new String[] {null} : deviceSerials.split("\\s*,\\s*");
+		String requestType = (mode == LoadMode.PROFILE) ? profileType : transmissionType;
+
+		String loadDetails = "\n Mode: " + mode + " (" + requestType + ")" + "\n Driver type: " + driverType
+				+ "\n Concurrency: " + workers + "\n Rate: " + ((rate > 0) ? rate + " requests/s" : "unbounded")
+				+ "\n Duration: " + duration + " s" + "\n Device serials: " + String.join(", ", StringUtils.stripAll(serials));
+
+		report.logStep(TestStep.builder()
+				.message("Starting Tanto load with the following parameters: <textarea>" + loadDetails + " </textarea>").build());
+
+		LoadRun run = new LoadRun(databaseSupport, rate, duration * 1000);
+		EtlTracker etlTracker = (mode == LoadMode.TELEMETRY && databaseSupport) ? new EtlTracker(log, run, getShortTestName() + "-etl") : null;
+		ExecutorService pool = Executors.newFixedThreadPool(workers);
+		List<Future<?>> futures = new ArrayList<Future<?>>();
+
+		for (int worker = 0; worker < workers; worker++) {
+			String deviceSerial = serials[worker % serials.length];
+			String workerName = getShortTestName() + "-load-" + worker;
+
+			futures.add(pool.submit(() -> {
+				if (mode == LoadMode.PROFILE) {
+					XMLData request = getProfileRequest(Enum.valueOf(TantoProfileType.class, profileType), tantoDriverType, profileVersion,
+							transmitterSWVersion, deviceModel, deviceSerial, transmitterModel, transmitterSerial,
+							transmissionType, timeOfFollowup, transmitterModelExtension);
+
+					runWorker(workerName, run, driver -> {
+						XMLData response = StringUtils.isEmpty(deviceModel)
+								? driver.sendProfile(Enum.valueOf(TantoProfileType.class, profileType), tantoDriverType, request,
+										transmitterModel, transmitterSerial)
+								: driver.sendProfile(Enum.valueOf(TantoProfileType.class, profileType), tantoDriverType, request,
+										transmitterModel, transmitterSerial, deviceModel, deviceSerial);
+						return new RequestOutcome(!response.isFailure(), -1);
+					});
+				} else {
+					TantoTransmissionJob job = TantoTransmissionJob.builder().fileName(payloadFileName).driverType(tantoDriverType)
+							.transmissionType(Enum.valueOf(TantoTransmissionType.class, transmissionType))
+							.transmitterModel(StringUtils.defaultIfEmpty(transmitterModel, null))
+							.transmitterSerial(StringUtils.defaultIfEmpty(transmitterSerial, null))
+							.deviceModel(deviceModel).deviceSerial(deviceSerial).build();
+
+					runWorker(workerName, run, driver -> {
+						TantoTransmissionResult result = driver.sendTransmissions(List.of(job), false).get(0);
+
+						if (result.isProcessed() && etlTracker != null) {
+							etlTracker.track(job, result.getInitialCount(), System.currentTimeMillis() - result.getDriverMillis());
+						}
+
+						// Payload copies and database lookups of the driver are not part of the endpoint latency
+						return new RequestOutcome(result.isProcessed(), result.getDriverMillis());
+					});
+				}
+			}));
+		}
+
+		pool.shutdown();
+
+		for (Future<?> future : futures) {
+			try {
+				future.get();
+			} catch (InterruptedException | ExecutionException e) {
+				String err = "Tanto load worker failed";
+				log.error(err);
+				log.printStackTrace(e);
+				throw new RuntimeException(err);
+			}
+		}
+
+		if (etlTracker != null) {
+			etlTracker.finish();
+		}
+
+		Map<String, Object> summary = getSummary(mode, requestType, driverType, workers, rate, duration, run);
+
+		report.logStep(TestStep.builder().message("Tanto load summary: <textarea>\n "
+				+ run.requestLatency + "\n " + run.etlLatency + ((etlTracker != null) ? " (sampled every " + EtlTracker.SAMPLE_INTERVAL + " ms)" : "")
+				+ "\n Throughput: " + summary.get("throughput") + " requests/s"
+				+ "\n Errors: " + summary.get("errors") + " (" + summary.get("errorRate") + "%)" + " </textarea>").build());
+
+		saveSummary(summary);
+
+		report.assertCondition(run.requestLatency.getCount() > 0, true,
+				TestStep.builder().message("Tanto load completed " + run.requestLatency.getCount() + " requests").build());
+	}
+
+	@Override
+	@AfterMethod
+	public void cleanup(ITestResult result) {
+		if (!result.isSuccess()) {
+			fetchGraylogReports(result, report, Microservice.TANTO_ROUTING_SERVICE, Microservice.TANTO_PATIENT_PROFILE_SERVICE,
+					Microservice.TANTO_COMM_PROFILE_SERVICE, Microservice.TRANSMISSION_ROUTING_SERVICE, Microservice.ETL_APP_SERVICE);
+		}
+
+		super.cleanup(result);
+	}
+
+	/*
+	 * Helper functions
+	 */
+
+	/**Shared state of a single load run.*/
+	private static class LoadRun {
+
+		private final boolean databaseSupport;
+		private final long startNanos = System.nanoTime();
+		private final long endNanos;
+		/**Interval between scheduled requests across all workers (0 if rate is unbounded).*/
+		private final long intervalNanos;
+		private final AtomicLong issued = new AtomicLong();
+		private final AtomicLong errors = new AtomicLong();
+		private final LatencyHistogram requestLatency = new LatencyHistogram("Request latency");
+		private final LatencyHistogram etlLatency = new LatencyHistogram("ETL latency");
+
+		private LoadRun(boolean databaseSupport, double rate, long durationMillis) {
+			this.databaseSupport = databaseSupport;
+			endNanos = startNanos + durationMillis * 1000000;
+			intervalNanos = (rate > 0) ? (long) (1000000000 / rate) : 0;
+		}
+	}
+
+	private interface LoadRequest {
+		RequestOutcome send(TantoDriver driver);
+	}
+
+	/**Outcome of a single request.*/
+	private static class RequestOutcome {
+
+		private final boolean success;
+		/**Time (ms) spent at the Tanto endpoint, or -1 if the whole request is attributed to the endpoint.*/
+		private final long endpointMillis;
+
+		private RequestOutcome(boolean success, long endpointMillis) {
+			this.success = success;
+			this.endpointMillis = endpointMillis;
+		}
+	}
+
+	/**
+	 * Observes ETL processing of the transmissions sent by all workers on a separate thread. Outstanding transmissions are checked
+	 * every ETL_SAMPLE_INTERVAL with one grouped count query per transmission table, and ETL latency is recorded from the start of
+	 * the driver command until the first check at which the transmission was processed. Transmissions which are not processed within
+	 * ETL_PROCESSING_TIMEOUT count as errors.
+	 * @implNote Transmissions of a device are assumed to be processed in the order they were sent.
+	 */
+	private static class EtlTracker {
+
+		private static final long SAMPLE_INTERVAL = FrameworkProperties.getLongProperty("ETL_SAMPLE_INTERVAL", 100);
+		private static final long PROCESSING_TIMEOUT = Long.parseLong(FrameworkProperties.getProperty("ETL_PROCESSING_TIMEOUT"));
+
+		private final FrameworkLog log;
+		private final LoadRun run;
+		private final DatabaseConnector database;
+		private final Queue<SentTransmission> outstanding = new ConcurrentLinkedQueue<SentTransmission>();
+		/**Transmission count to be reached for the latest transmission of each device, keyed by table and device key.*/
+		private final Map<String, Integer> targetCounts = new ConcurrentHashMap<String, Integer>();
+		private final ScheduledExecutorService sampler;
+
+		private EtlTracker(FrameworkLog log, LoadRun run, String owner) {
+			this.log = log;
+			this.run = run;
+			database = new DatabaseConnector(log, owner);
+			sampler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+				Thread thread = new Thread(runnable, owner);
+				thread.setDaemon(true);
+				return thread;
+			});
+			sampler.scheduleWithFixedDelay(this::sample, SAMPLE_INTERVAL, SAMPLE_INTERVAL, TimeUnit.MILLISECONDS);
+		}
+
+		/**
+		 * @param initialCount Transmission count of the device prior to upload.
+		 * @param sentTime Start of the driver command (epoch ms).
+		 */
+		private void track(TantoTransmissionJob job, int initialCount, long sentTime) {
+			String table = TantoDriver.getTransmissionTable(job.getTransmissionType());
+			String deviceKey = EtlCompletionWaiter.getDeviceKey(job.getDeviceSerial(), job.getDeviceModel());
+			// Count prior to upload does not include transmissions of the device which are still outstanding
+			int targetCount = targetCounts.merge(table + "|" + deviceKey, initialCount + 1, (previous, next) -> Math.max(previous + 1, next));
+
+			outstanding.add(new SentTransmission(table, deviceKey, targetCount, sentTime));
+		}
+
+		/**Waits until all tracked transmissions are processed or timed out.*/
+		private void finish() {
+			try {
+				while (!outstanding.isEmpty()) {
+					Timeout.waitForTimeout(log, SAMPLE_INTERVAL);
+				}
+			} finally {
+				sampler.shutdownNow();
+				database.closeConnections();
+			}
+		}
+
+		private void sample() {
+			long now = System.currentTimeMillis();
+
+			for (SentTransmission transmission : outstanding) {
+				if (now - transmission.sentTime > PROCESSING_TIMEOUT) {
+					outstanding.remove(transmission);
+					run.errors.incrementAndGet();
+				}
+			}
+
+			Map<String, List<SentTransmission>> byTable = outstanding.stream()
+					.collect(Collectors.groupingBy(transmission -> transmission.table, LinkedHashMap::new, Collectors.toList()));
+
+			try {
+				for (Map.Entry<String, List<SentTransmission>> table : byTable.entrySet()) {
+					List<String[]> devices = table.getValue().stream().map(transmission -> transmission.deviceKey).distinct()
+							.map(EtlCompletionWaiter::getDevice).collect(Collectors.toList());
+					Map<String, Integer> counts = EtlCompletionWaiter.getTransmissionCounts(database, table.getKey(), devices);
+
+					for (SentTransmission transmission : table.getValue()) {
+						if (counts.getOrDefault(transmission.deviceKey, 0) >= transmission.targetCount) {
+							outstanding.remove(transmission);
+							run.etlLatency.record(now - transmission.sentTime);
+						}
+					}
+				}
+			} catch (RuntimeException e) {
+				// Failure is logged by DatabaseConnector - transmissions are checked again on the next sample
+			}
+		}
+	}
+
+	private static class SentTransmission {
+
+		private final String table;
+		private final String deviceKey;
+		private final int targetCount;
+		private final long sentTime;
+
+		private SentTransmission(String table, String deviceKey, int targetCount, long sentTime) {
+			this.table = table;
+			this.deviceKey = deviceKey;
+			this.targetCount = targetCount;
+			this.sentTime = sentTime;
+		}
+	}
+
+	/**
+	 * Sends requests until the end of the run with a dedicated driver, remote channel and database connection.
+	 * Report steps of individual requests are discarded.
+	 */
+	private void runWorker(String workerName, LoadRun run, LoadRequest request) {
+		DatabaseConnector workerDatabase = run.databaseSupport ? new DatabaseConnector(log, workerName) : null;
+		TantoDriver driver = new TantoDriver(log, new UnixConnector(log), fileManager, workerDatabase, report);
+		driver.setDatabaseSupport(run.databaseSupport);
+
+		report.recordSteps();
+
+		try {
+			while (true) {
+				long scheduled;
+
+				if (run.intervalNanos > 0) {
+					scheduled = run.startNanos + run.issued.getAndIncrement() * run.intervalNanos;
+
+					if (scheduled >= run.endNanos) {
+						return;
+					}
+
+					long delayMillis = (scheduled - System.nanoTime()) / 1000000;
+
+					if (delayMillis > 0) {
+						Timeout.waitForTimeout(log, delayMillis);
+					}
+				} else {
+					scheduled = System.nanoTime();
+
+					if (scheduled >= run.endNanos) {
+						return;
+					}
+
+					run.issued.incrementAndGet();
+				}
+
+				long started = System.nanoTime();
+				RequestOutcome outcome;
+
+				try {
+					outcome = request.send(driver);
+				} catch (RuntimeException | AssertionError e) {
+					log.warn(workerName + ": Tanto request failed - " + e.getMessage());
+					outcome = new RequestOutcome(false, -1);
+				}
+
+				long requestMillis = (outcome.endpointMillis >= 0) ? outcome.endpointMillis : (System.nanoTime() - started) / 1000000;
+				run.requestLatency.record(Math.max(0, started - scheduled) / 1000000 + requestMillis);
+
+				if (!outcome.success) {
+					run.errors.incrementAndGet();
+				}
+			}
+		} finally {
+			report.stopRecording();
+
+			if (workerDatabase != null) {
+				workerDatabase.closeConnections();
+			}
+		}
+	}
+
+	private XMLData getProfileRequest(TantoProfileType profileType, TantoDriverType driverType, String profileVersion,
+			String transmitterSWVersion, String deviceModel, String deviceSerial, String transmitterModel, String transmitterSerial,
+			String transmissionType, String timeOfFollowup, String transmitterModelExtension) {
+		if (profileType == TantoProfileType.ComProfile_IMD) {
+			return new TantoComProfileRequest(deviceModel, deviceSerial, transmitterSWVersion, profileVersion);
+		} else if (profileType == TantoProfileType.ComProfile_Transmitter) {
+			return new TantoComProfileRequest(transmitterSWVersion, profileVersion);
+		} else if (driverType == TantoDriverType.DRIVER_9X) {
+			return new TantoPatientProfileRequest(transmitterModel, transmitterSerial,
+					transmissionType, timeOfFollowup, transmitterSWVersion, profileVersion, "1", "0", transmitterModelExtension);
+		}
+
+		return new TantoPatientProfileRequest(transmitterModel, transmitterSerial, transmitterSWVersion, profileVersion);
+	}
+
+	private Map<String, Object> getSummary(LoadMode mode, String requestType, String driverType, int workers,
+			double rate, long duration, LoadRun run) {
+		long requests = run.requestLatency.getCount();
+		double elapsedSeconds = (System.nanoTime() - run.startNanos) / 1e9;
+
+		Map<String, Object> summary = new LinkedHashMap<String, Object>();
+		summary.put("timestamp", FrameworkLog.getCurrentTimestamp());
+		summary.put("mode", mode.toString());
+		summary.put("driverType", driverType);
+		summary.put("type", requestType);
+		summary.put("concurrency", workers);
+		summary.put("targetRate", rate);
+		summary.put("durationSeconds", duration);
+		summary.put("requests", requests);
+		summary.put("errors", run.errors.get());
+		summary.put("errorRate", (requests == 0) ? 0 : Math.round(10000.0 * run.errors.get() / requests) / 100.0);
+		summary.put("throughput", Math.round(100 * requests / elapsedSeconds) / 100.0);
+		putPercentiles(summary, "", run.requestLatency);
+		putPercentiles(summary, "etl", run.etlLatency);
+
+		return summary;
+	}
+
+	private void putPercentiles(Map<String, Object> summary, String prefix, LatencyHistogram histogram) {
+		summary.put(prefix.isEmpty() ? "p50" : prefix + "P50", histogram.getPercentile(50));
+		summary.put(prefix.isEmpty() ? "p95" : prefix + "P95", histogram.getPercentile(95));
+		summary.put(prefix.isEmpty() ? "p99" : prefix + "P99", histogram.getPercentile(99));
+		summary.put(prefix.isEmpty() ? "max" : prefix + "Max", histogram.getMax());
+	}
+
+	/**
+	 * Saves the summary as JSON in the log directory of the current test and appends it to the trend file.
+	 */
+	private void saveSummary(Map<String, Object> summary) {
+		String summaryFile = log.getLogDirectory() + "TantoLoadSummary_" + summary.get("timestamp") + ".json";
+
+		try {
+			fileManager.writeToFile(summaryFile, new ObjectMapper().writerWithDefaultPrettyPrinter().writeValueAsString(summary));
+		} catch (JsonProcessingException jpe) {
+			String err = "Failed to serialize Tanto load summary";
+			log.error(err);
+			log.printStackTrace(jpe);
+			throw new RuntimeException(err);
+		}
+
+		String trendRow = StringUtils.join(summary.values(), ",") + System.lineSeparator();
+
+		try {
+			if (!Files.exists(Paths.get(TREND_FILE))) {
+				trendRow = TREND_HEADER + System.lineSeparator() + trendRow;
+			}
+
+			Files.write(Paths.get(TREND_FILE), trendRow.getBytes(StandardCharsets.UTF_8),
+					StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+		} catch (IOException ioe) {
+			String err = "Failed to append Tanto load summary to: " + TREND_FILE;
+			log.error(err);
+			log.printStackTrace(ioe);
+			throw new RuntimeException(err);
+		}
+
+		report.logStep(TestStep.builder().message("Saved Tanto load summary to: " + summaryFile + " and " + TREND_FILE).build());
+	}
+}
@@ -44,7 +44,7 @@ public class TantoProfileTool extends MITETest implements GraylogReporting {
 		profile = new TantoProfileResponseValidator(log, driver, database, report, true, false);
 	}
 	
-	@Test(dataProvider = "TestData", dataProviderClass = TestDataProvider.class)
+	@Test(dataProvider = "LazyTestData", dataProviderClass = TestDataProvider.class)
 	public void tantoProfileTool(String validateProfile, String driverType, String profileType, String profileVersion,
 			String deviceModel, String deviceSerial, String transmitterModel, String transmitterSerial,
 			String transmitterSWVersion, String transmissionType, String timeOfFollowup, String transmitterModelExtension) {
@@ -114,7 +114,7 @@ public class TantoProfileTool extends MITETest implements GraylogReporting {
 	@AfterMethod
 	public void cleanup(ITestResult result) {
 		if (!result.isSuccess()) {
-			fetchGraylogReports(result, report, 
+			fetchGraylogReportsInBackground(result, report, 
 					Microservice.TANTO_ROUTING_SERVICE, Microservice.TANTO_PATIENT_PROFILE_SERVICE, Microservice.TANTO_COMM_PROFILE_SERVICE);
 		}
 		
@@ -35,7 +35,7 @@ public class TantoTransmissionTool extends MITETest implements GraylogReporting
 		driver = new TantoDriver(log, remoteMachine, fileManager, database, report);
 	}
 	
-	@Test(dataProvider = "TestData", dataProviderClass = TestDataProvider.class)
+	@Test(dataProvider = "LazyTestData", dataProviderClass = TestDataProvider.class)
 	public void tantoTransmissionTool(String useDatabase, String driverType, String transmissionType,
 			String deviceModel, String deviceSerial, String transmitterModel, String transmitterSerial, 
 			String payloadFileName, String segmentSize) {
@@ -80,7 +80,7 @@ public class TantoTransmissionTool extends MITETest implements GraylogReporting
 	@AfterMethod
 	public void cleanup(ITestResult result) {
 		if (!result.isSuccess()) {
-			fetchGraylogReports(result, report, 
+			fetchGraylogReportsInBackground(result, report, 
 					Microservice.TANTO_ROUTING_SERVICE, Microservice.TRANSMISSION_ROUTING_SERVICE, Microservice.ETL_APP_SERVICE);
 		}
 		
@@ -0,0 +1,90 @@
+package com.mnet.middleware.utilities;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.BiConsumer;
+
+import com.mnet.framework.core.FrameworkProperties;
+import com.mnet.framework.database.DatabaseConnector;
+import com.mnet.framework.reporting.FrameworkLog;
+import com.mnet.framework.utilities.Timeout;
+
+/**
+ * Polls the transmission count of a device until ETL processes the transmission.
+ * The interval between queries starts at ETL_BACKOFF_INITIAL_INTERVAL and doubles up to ETL_BACKOFF_MAX_INTERVAL, 
+ * so fast ETL runs are detected quickly while slow runs are not queried excessively.
+ * @version Spring 2023
+ * @author Arya Biswas
+ */
+public class BackoffEtlCompletionWaiter implements EtlCompletionWaiter {
+	
+	/**Initial interval (in ms) between transmission count queries.*/
+	protected static final long INITIAL_INTERVAL = FrameworkProperties.getLongProperty("ETL_BACKOFF_INITIAL_INTERVAL", 250L);
+	/**Maximum interval (in ms) between transmission count queries.*/
+	protected static final long MAX_INTERVAL = FrameworkProperties.getLongProperty("ETL_BACKOFF_MAX_INTERVAL", 4000L);
+	
+	protected FrameworkLog log;
+	protected DatabaseConnector database;
+	
+	public BackoffEtlCompletionWaiter(FrameworkLog frameworkLog, DatabaseConnector databaseConnector) {
+		log = frameworkLog;
+		database = databaseConnector;
+	}
+	
+	@Override
+	public int awaitTransmission(String transmissionTable, String deviceSerial, String deviceModel, int initialCount, long timeoutMillis) {
+		long deadline = System.currentTimeMillis() + timeoutMillis;
+		long interval = INITIAL_INTERVAL;
+		int currentCount = initialCount;
+		
+		while (currentCount <= initialCount) {
+			long remaining = deadline - System.currentTimeMillis();
+			
+			if (remaining <= 0) {
+				break;
+			}
+			
+			Timeout.waitForTimeout(log, Math.min(withJitter(interval), remaining));
+			currentCount = EtlCompletionWaiter.getTransmissionCount(database, transmissionTable, deviceSerial, deviceModel);
+			interval = nextInterval(interval);
+		}
+		
+		return currentCount;
+	}
+	
+	@Override
+	public Map<String, Integer> awaitTransmissions(String transmissionTable, Map<String, Integer> targetCounts, long timeoutMillis, 
+			BiConsumer<String, Integer> countListener) {
+		long deadline = System.currentTimeMillis() + timeoutMillis;
+		long interval = INITIAL_INTERVAL;
+		Map<String, Integer> currentCounts = new HashMap<String, Integer>();
+		
+		while (!EtlCompletionWaiter.isComplete(targetCounts, currentCounts)) {
+			long remaining = deadline - System.currentTimeMillis();
+			
+			if (remaining <= 0) {
+				break;
+			}
+			
+			Timeout.waitForTimeout(log, Math.min(withJitter(interval), remaining));
+			EtlCompletionWaiter.updateTransmissionCounts(database, transmissionTable, targetCounts, currentCounts, countListener);
+			interval = nextInterval(interval);
+		}
+		
+		return currentCounts;
+	}
+	
+	/*
+	 * Helper functions
+	 */
+	
+	protected long nextInterval(long interval) {
+		return Math.min(interval * 2, MAX_INTERVAL);
+	}
+	
+	/**Randomizes interval between 50% and 100% so concurrent tests do not query in lockstep.*/
+	protected long withJitter(long interval) {
+		return (interval / 2) + ThreadLocalRandom.current().nextLong((interval / 2) + 1);
+	}
+}
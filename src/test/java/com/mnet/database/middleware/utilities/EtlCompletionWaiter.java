@@ -0,0 +1,152 @@
+package com.mnet.middleware.utilities;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.BiConsumer;
+import java.util.stream.Collectors;
+
+import com.mnet.framework.core.FrameworkProperties;
+import com.mnet.framework.database.DatabaseConnector;
+import com.mnet.framework.reporting.FrameworkLog;
+
+/**
+ * Strategy for detecting when ETL has processed an uploaded transmission (i.e the transmission count of a device increases).
+ * The strategy used by TantoDriver is selected by ETL_COMPLETION_WAITER in application properties (BACKOFF, NOTIFY, SHARED).
+ * @version Spring 2023
+ * @author Arya Biswas
+ */
+public interface EtlCompletionWaiter {
+
+	/**Available strategies for ETL completion detection.*/
+	public enum EtlCompletionMode {
+		/**Polls the transmission count of the device with exponential backoff and jitter.*/
+		BACKOFF,
+		/**Waits for Postgres notifications on ETL_NOTIFY_CHANNEL. Falls back to BACKOFF if notifications are not supported.*/
+		NOTIFY,
+		/**Registers with a suite-wide poller which checks all devices awaiting ETL with one query per tick.*/
+		SHARED
+	}
+	
+	/**
+	 * Waits until the transmission count of the device exceeds initialCount, or the timeout elapses.
+	 * @param transmissionTable Table in transmissions schema which ETL populates for the transmission type.
+	 * @param timeoutMillis Maximum time to wait (in ms).
+	 * @return Latest transmission count observed for the device.
+	 */
+	int awaitTransmission(String transmissionTable, String deviceSerial, String deviceModel, int initialCount, long timeoutMillis);
+	
+	/**
+	 * Waits until the transmission count of each device reaches its target count, or the timeout elapses.
+	 * @param targetCounts Transmission count to wait for, keyed by {@link #getDeviceKey(String, String)}.
+	 * @param countListener Notified with device key and count whenever a new count is observed for a device (may be null).
+	 * May be invoked from a background thread, but never concurrently for the same call.
+	 * @return Latest transmission count observed for each device. Devices which were never queried are omitted.
+	 */
+	Map<String, Integer> awaitTransmissions(String transmissionTable, Map<String, Integer> targetCounts, long timeoutMillis, 
+			BiConsumer<String, Integer> countListener);
+	
+	/**
+	 * Returns the waiter designated by ETL_COMPLETION_WAITER in application properties (BACKOFF if not defined).
+	 */
+	static EtlCompletionWaiter fromProperties(FrameworkLog log, DatabaseConnector database) {
+		String mode = FrameworkProperties.getProperty("ETL_COMPLETION_WAITER");
+		
+		switch ((mode == null) ? EtlCompletionMode.BACKOFF : EtlCompletionMode.valueOf(mode.trim().toUpperCase())) {
+			default:
+			case BACKOFF:
+				return new BackoffEtlCompletionWaiter(log, database);
+			case NOTIFY:
+				return new NotifyEtlCompletionWaiter(log, database);
+			case SHARED:
+				return new SharedEtlPoller(log);
+		}
+	}
+	
+	/**
+	 * Returns the current number of transmissions for the device in the designated table.
+	 */
+	static int getTransmissionCount(DatabaseConnector database, String transmissionTable, String deviceSerial, String deviceModel) {
+		String countQuery = "select count(*) from transmissions." + transmissionTable +
+				" where device_serial_num = ?" + 
+				" and device_model_num = ?";
+		
+		return Integer.parseInt(database.executeQuery(DatabaseConnector.DEFAULT_ID, countQuery, deviceSerial, deviceModel).getFirstCellValue());
+	}
+	
+	/**
+	 * Returns the current number of transmissions for several devices in the designated table with a single grouped query.
+	 * @param devices Device serial / model pairs.
+	 * @return Transmission count for each device, keyed by {@link #getDeviceKey(String, String)}. Devices without transmissions are omitted.
+	 */
+	static Map<String, Integer> getTransmissionCounts(DatabaseConnector database, String transmissionTable, Collection<String[]> devices) {
+		Map<String, Integer> counts = new HashMap<String, Integer>();
+		
+		if (devices.isEmpty()) {
+			return counts;
+		}
+		
+		List<Object> params = new ArrayList<Object>();
+		
+		for (String[] device : devices) {
+			params.add(device[0]);
+			params.add(device[1]);
+		}
+		
+		String countQuery = "select device_serial_num, device_model_num, count(*) from transmissions." + transmissionTable +
+				" where (device_serial_num, device_model_num) in (" + 
+				devices.stream().map(device -> "(?, ?)").collect(Collectors.joining(", ")) + ")" +
+				" group by device_serial_num, device_model_num";
+		
+		for (List<String> row : database.executeQuery(DatabaseConnector.DEFAULT_ID, countQuery, params.toArray()).getAllRows()) {
+			counts.put(getDeviceKey(row.get(0), row.get(1)), Integer.parseInt(row.get(2)));
+		}
+		
+		return counts;
+	}
+	
+	/**
+	 * Queries the transmission counts of all devices which have not reached their target count with a single grouped query.
+	 * Changed counts are stored in currentCounts and passed to countListener (if not null).
+	 */
+	static void updateTransmissionCounts(DatabaseConnector database, String transmissionTable, Map<String, Integer> targetCounts, 
+			Map<String, Integer> currentCounts, BiConsumer<String, Integer> countListener) {
+		List<String> devices = targetCounts.keySet().stream()
+				.filter(device -> currentCounts.getOrDefault(device, 0) < targetCounts.get(device)).collect(Collectors.toList());
+		Map<String, Integer> counts = getTransmissionCounts(database, transmissionTable, 
+				devices.stream().map(EtlCompletionWaiter::getDevice).collect(Collectors.toList()));
+		
+		for (String device : devices) {
+			int count = counts.getOrDefault(device, 0);
+			Integer previousCount = currentCounts.put(device, count);
+			
+			if (countListener != null && (previousCount == null || previousCount != count)) {
+				countListener.accept(device, count);
+			}
+		}
+	}
+	
+	/**
+	 * Returns true if every device has reached its target count.
+	 */
+	static boolean isComplete(Map<String, Integer> targetCounts, Map<String, Integer> currentCounts) {
+		return targetCounts.entrySet().stream().allMatch(target -> currentCounts.getOrDefault(target.getKey(), 0) >= target.getValue());
+	}
+	
+	/**
+	 * Returns the key identifying a device in {@link #getTransmissionCounts(DatabaseConnector, String, Collection)}.
+	 */
+	static String getDeviceKey(String deviceSerial, String deviceModel) {
+		return deviceSerial + "|" + deviceModel;
+	}
+	
+	/**
+	 * Returns device serial and model of a key created by {@link #getDeviceKey(String, String)}.
+	 */
+	static String[] getDevice(String deviceKey) {
+		return deviceKey.split("\\|", 2);
+	}
+	
+}
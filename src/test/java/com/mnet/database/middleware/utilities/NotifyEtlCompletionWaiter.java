@@ -0,0 +1,130 @@
+package com.mnet.middleware.utilities;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.BiConsumer;
+import java.util.stream.Collectors;
+
+import com.mnet.framework.core.FrameworkProperties;
+import com.mnet.framework.database.DatabaseConnector;
+import com.mnet.framework.database.DatabaseNotificationListener;
+import com.mnet.framework.reporting.FrameworkLog;
+
+/**
+ * Waits for ETL completion via Postgres LISTEN / NOTIFY on ETL_NOTIFY_CHANNEL.
+ * The transmission count is only queried when a notification arrives (payload is the device serial, or empty for any device),
+ * or after a backoff interval as a safeguard against missed notifications.
+ * Falls back to {@link BackoffEtlCompletionWaiter} if the database does not support notifications.
+ * @version Spring 2023
+ * @author Arya Biswas
+ */
+public class NotifyEtlCompletionWaiter extends BackoffEtlCompletionWaiter {
+	
+	/**Channel on which the database signals that ETL has inserted a transmission.*/
+	private static final String ETL_NOTIFY_CHANNEL = FrameworkProperties.getStringProperty("ETL_NOTIFY_CHANNEL", "etl_transmission").trim();
+	
+	private boolean notificationsSupported = true;
+	
+	public NotifyEtlCompletionWaiter(FrameworkLog frameworkLog, DatabaseConnector databaseConnector) {
+		super(frameworkLog, databaseConnector);
+	}
+	
+	@Override
+	public int awaitTransmission(String transmissionTable, String deviceSerial, String deviceModel, int initialCount, long timeoutMillis) {
+		DatabaseNotificationListener listener = subscribe();
+		
+		if (listener == null) {
+			return super.awaitTransmission(transmissionTable, deviceSerial, deviceModel, initialCount, timeoutMillis);
+		}
+		
+		try {
+			long deadline = System.currentTimeMillis() + timeoutMillis;
+			long interval = INITIAL_INTERVAL;
+			
+			// Transmission may have been processed before the subscription started
+			int currentCount = EtlCompletionWaiter.getTransmissionCount(database, transmissionTable, deviceSerial, deviceModel);
+			
+			while (currentCount <= initialCount) {
+				long remaining = deadline - System.currentTimeMillis();
+				
+				if (remaining <= 0) {
+					break;
+				}
+				
+				List<String> notifications = listener.await(Math.min(interval, remaining));
+				
+				if (notifications.isEmpty() || notifications.stream().anyMatch(payload -> payload == null || payload.isEmpty() || payload.equals(deviceSerial))) {
+					currentCount = EtlCompletionWaiter.getTransmissionCount(database, transmissionTable, deviceSerial, deviceModel);
+				}
+				
+				interval = nextInterval(interval);
+			}
+			
+			return currentCount;
+		} finally {
+			listener.close();
+		}
+	}
+	
+	@Override
+	public Map<String, Integer> awaitTransmissions(String transmissionTable, Map<String, Integer> targetCounts, long timeoutMillis, 
+			BiConsumer<String, Integer> countListener) {
+		DatabaseNotificationListener listener = subscribe();
+		
+		if (listener == null) {
+			return super.awaitTransmissions(transmissionTable, targetCounts, timeoutMillis, countListener);
+		}
+		
+		Set<String> deviceSerials = targetCounts.keySet().stream().map(device -> EtlCompletionWaiter.getDevice(device)[0]).collect(Collectors.toSet());
+		
+		try {
+			long deadline = System.currentTimeMillis() + timeoutMillis;
+			long interval = INITIAL_INTERVAL;
+			Map<String, Integer> currentCounts = new HashMap<String, Integer>();
+			
+			// Transmissions may have been processed before the subscription started
+			EtlCompletionWaiter.updateTransmissionCounts(database, transmissionTable, targetCounts, currentCounts, countListener);
+			
+			while (!EtlCompletionWaiter.isComplete(targetCounts, currentCounts)) {
+				long remaining = deadline - System.currentTimeMillis();
+				
+				if (remaining <= 0) {
+					break;
+				}
+				
+				List<String> notifications = listener.await(Math.min(interval, remaining));
+				
+				if (notifications.isEmpty() || notifications.stream().anyMatch(payload -> payload == null || payload.isEmpty() || deviceSerials.contains(payload))) {
+					EtlCompletionWaiter.updateTransmissionCounts(database, transmissionTable, targetCounts, currentCounts, countListener);
+				}
+				
+				interval = nextInterval(interval);
+			}
+			
+			return currentCounts;
+		} finally {
+			listener.close();
+		}
+	}
+	
+	/*
+	 * Helper functions
+	 */
+	
+	/**@return Subscription to ETL_NOTIFY_CHANNEL, or null if the database does not support notifications.*/
+	private DatabaseNotificationListener subscribe() {
+		if (!notificationsSupported) {
+			return null;
+		}
+		
+		try {
+			return database.listen(ETL_NOTIFY_CHANNEL);
+		} catch (UnsupportedOperationException uoe) {
+			log.warn("ETL notifications not available (" + uoe.getMessage() + ") - polling transmission count instead");
+			notificationsSupported = false;
+			return null;
+		}
+	}
+}
@@ -0,0 +1,264 @@
+package com.mnet.middleware.utilities;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+import java.util.zip.ZipOutputStream;
+
+import com.mnet.framework.core.FrameworkProperties;
+import com.mnet.framework.reporting.FrameworkLog;
+import com.mnet.middleware.utilities.PayloadExcelUtilities.PayloadAttribute;
+import com.mnet.middleware.utilities.PayloadSpec.PayloadType;
+
+/**
+ * Builds transmission payloads (zip) in-process from a payload template and a {@link PayloadSpec} - no Excel edits or Python generator involved.
+ * The template of each payload type is a zip at PAYLOAD_TEMPLATE_&lt;type&gt; (e.g. PAYLOAD_TEMPLATE_NGQ, relative to user.dir).
+ * Entry names and text entries (PAYLOAD_TEXT_EXTENSIONS, default: xml,txt,json,csv,hl7) of the template may contain
+ * ${AttributeName} placeholders (e.g. ${DeviceSerialNumber}), which are replaced by the attributes of the spec.
+ * ${PayloadTimestamp} is the generation time (PAYLOAD_TIMESTAMP_FORMAT, default: yyyyMMdd_HHmmss) unless defined by the spec.
+ * Other entries are copied as-is. Payloads are named DeviceSerialNumber_DeviceModelNumber_PayloadTimestamp.zip, with a _&lt;n&gt;
+ * suffix if a payload of that name already exists (the suffix is ignored by PayloadInspector.getPayloadFolder()).
+ * @version Fall 2023
+ * @author Arya Biswas
+ */
+public class PayloadBuilder {
+
+	/**Placeholder for the generation time of the payload.*/
+	public static final String PAYLOAD_TIMESTAMP = "PayloadTimestamp";
+
+	private static final DateTimeFormatter TIMESTAMP_FORMAT = DateTimeFormatter.ofPattern(
+			FrameworkProperties.getStringProperty("PAYLOAD_TIMESTAMP_FORMAT", "yyyyMMdd_HHmmss"));
+	private static final Set<String> TEXT_EXTENSIONS = Arrays.stream(
+			FrameworkProperties.getStringProperty("PAYLOAD_TEXT_EXTENSIONS", "xml,txt,json,csv,hl7").split(","))
+			.map(extension -> extension.trim().toLowerCase())
+			.collect(Collectors.toSet());
+	private static final Pattern PLACEHOLDER = Pattern.compile("\\$\\{([^}]+)\\}");
+
+	/**Parsed templates by path - reloaded if the template file is modified.*/
+	private static final Map<String, PayloadTemplate> templates = new ConcurrentHashMap<String, PayloadTemplate>();
+
+	private FrameworkLog log;
+
+	public PayloadBuilder(FrameworkLog frameworkLog) {
+		log = frameworkLog;
+	}
+
+	/**
+	 * @return true if a payload template is configured for the designated payload type.
+	 */
+	public static boolean hasTemplate(PayloadType payloadType) {
+		String templatePath = getTemplatePath(payloadType);
+		return templatePath != null && new File(templatePath).isFile();
+	}
+
+	/**
+	 * Builds the payload in memory.
+	 * @return Payload (zip) content.
+	 */
+	public byte[] build(PayloadSpec spec) {
+		ByteArrayOutputStream payload = new ByteArrayOutputStream();
+
+		try {
+			writePayload(getTemplate(spec.getPayloadType()), getPlaceholderValues(spec), payload);
+		} catch (IOException ioe) {
+			String err = "Failed to build " + spec.getPayloadType() + " payload";
+			log.error(err);
+			log.printStackTrace(ioe);
+			throw new RuntimeException(err);
+		}
+
+		return payload.toByteArray();
+	}
+
+	/**
+	 * Streams the payload to a file in the designated directory (e.g. TRANSMISSION_PAYLOAD_PATH_NGQ).
+	 * Existing payloads are never overwritten - see class description for naming.
+	 * @return Path of the payload file. The file only appears once it is complete.
+	 */
+	public Path write(PayloadSpec spec, String directory) {
+		PayloadTemplate template = getTemplate(spec.getPayloadType());
+		Map<String, String> values = getPlaceholderValues(spec);
+		Path payloadFile = Paths.get(directory, getFileName(values));
+
+		try {
+			Files.createDirectories(payloadFile.getParent());
+			Path partialFile = Files.createTempFile(payloadFile.getParent(), payloadFile.getFileName().toString(), ".tmp");
+
+			try (OutputStream output = Files.newOutputStream(partialFile)) {
+				writePayload(template, values, output);
+			}
+
+			payloadFile = publish(partialFile, payloadFile);
+		} catch (IOException ioe) {
+			String err = "Failed to write " + spec.getPayloadType() + " payload to: " + payloadFile;
+			log.error(err);
+			log.printStackTrace(ioe);
+			throw new RuntimeException(err);
+		}
+
+		log.info("Generated " + spec.getPayloadType() + " payload: " + payloadFile);
+		return payloadFile;
+	}
+
+	/*
+	 * Helper functions
+	 */
+
+	private static class PayloadTemplate {
+
+		private final long lastModified;
+		private final List<TemplateEntry> entries;
+
+		private PayloadTemplate(long lastModified, List<TemplateEntry> entries) {
+			this.lastModified = lastModified;
+			this.entries = Collections.unmodifiableList(entries);
+		}
+	}
+
+	private static class TemplateEntry {
+
+		private final String name;
+		private final byte[] content;
+		/**Placeholders are only replaced in text entries.*/
+		private final boolean text;
+
+		private TemplateEntry(String name, byte[] content) {
+			this.name = name;
+			this.content = content;
+			text = isTextEntry(name);
+		}
+	}
+
+	/**@return true if the payload entry is text (PAYLOAD_TEXT_EXTENSIONS) - placeholders are only replaced in text entries.*/
+	static boolean isTextEntry(String entryName) {
+		int extension = entryName.lastIndexOf('.');
+		return extension >= 0 && TEXT_EXTENSIONS.contains(entryName.substring(extension + 1).toLowerCase());
+	}
+
+	private static String getTemplatePath(PayloadType payloadType) {
+		String templatePath = FrameworkProperties.getProperty("PAYLOAD_TEMPLATE_" + payloadType);
+		return (templatePath == null) ? null : System.getProperty("user.dir") + File.separator + templatePath;
+	}
+
+	private PayloadTemplate getTemplate(PayloadType payloadType) {
+		String templatePath = getTemplatePath(payloadType);
+
+		if (!hasTemplate(payloadType)) {
+			String err = "No payload template found for " + payloadType + " - define PAYLOAD_TEMPLATE_" + payloadType + " in application properties";
+			log.error(err);
+			throw new RuntimeException(err);
+		}
+
+		long lastModified = new File(templatePath).lastModified();
+
+		return templates.compute(templatePath, (path, cached) ->
+				(cached != null && cached.lastModified == lastModified) ? cached : readTemplate(path, lastModified));
+	}
+
+	private PayloadTemplate readTemplate(String templatePath, long lastModified) {
+		List<TemplateEntry> entries = new ArrayList<TemplateEntry>();
+
+		try (ZipFile template = new ZipFile(templatePath)) {
+			Enumeration<? extends ZipEntry> zipEntries = template.entries();
+
+			while (zipEntries.hasMoreElements()) {
+				ZipEntry entry = zipEntries.nextElement();
+
+				try (InputStream content = template.getInputStream(entry)) {
+					entries.add(new TemplateEntry(entry.getName(), content.readAllBytes()));
+				}
+			}
+		} catch (IOException ioe) {
+			String err = "Failed to read payload template: " + templatePath;
+			log.error(err);
+			log.printStackTrace(ioe);
+			throw new RuntimeException(err);
+		}
+
+		return new PayloadTemplate(lastModified, entries);
+	}
+
+	private Map<String, String> getPlaceholderValues(PayloadSpec spec) {
+		Map<String, String> values = new HashMap<String, String>(spec.getAttributes());
+		values.putIfAbsent(PAYLOAD_TIMESTAMP, LocalDateTime.now().format(TIMESTAMP_FORMAT));
+
+		return values;
+	}
+
+	/**
+	 * Moves the complete payload to the first free name - payloads are picked up as the most recent file of the directory,
+	 * so a partial payload is never exposed. Builds for the same device within the same second (e.g. parallel tests)
+	 * get a _&lt;n&gt; suffix instead of overwriting each other.
+	 */
+	private static synchronized Path publish(Path partialFile, Path payloadFile) throws IOException {
+		String baseName = payloadFile.getFileName().toString().replace(".zip", "");
+		Path target = payloadFile;
+
+		for (int sequence = 2; Files.exists(target); sequence++) {
+			target = payloadFile.resolveSibling(baseName + "_" + sequence + ".zip");
+		}
+
+		return Files.move(partialFile, target, StandardCopyOption.ATOMIC_MOVE);
+	}
+
+	private String getFileName(Map<String, String> values) {
+		return values.get(PayloadAttribute.DEVICESERIAL.getRowName()) + "_" + values.get(PayloadAttribute.DEVICEMODEL.getRowName())
+				+ "_" + values.get(PAYLOAD_TIMESTAMP) + ".zip";
+	}
+
+	private void writePayload(PayloadTemplate template, Map<String, String> values, OutputStream output) throws IOException {
+		try (ZipOutputStream payload = new ZipOutputStream(new BufferedOutputStream(output))) {
+			for (TemplateEntry entry : template.entries) {
+				payload.putNextEntry(new ZipEntry(replacePlaceholders(entry.name, values)));
+
+				if (entry.text) {
+					payload.write(replacePlaceholders(new String(entry.content, StandardCharsets.UTF_8), values).getBytes(StandardCharsets.UTF_8));
+				} else {
+					payload.write(entry.content);
+				}
+
+				payload.closeEntry();
+			}
+		}
+	}
+
+	/**Placeholders without a value are left as-is.*/
+	private String replacePlaceholders(String text, Map<String, String> values) {
+		Matcher placeholders = PLACEHOLDER.matcher(text);
+		StringBuilder result = new StringBuilder();
+		int end = 0;
+
+		while (placeholders.find()) {
+			String value = values.get(placeholders.group(1));
+
+			result.append(text, end, placeholders.start()).append((value != null) ? value : placeholders.group());
+			end = placeholders.end();
+		}
+
+		return (end == 0) ? text : result.append(text, end, text.length()).toString();
+	}
+}
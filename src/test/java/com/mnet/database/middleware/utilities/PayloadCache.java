@@ -0,0 +1,422 @@
+package com.mnet.middleware.utilities;
+
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+import java.util.zip.ZipOutputStream;
+
+import com.mnet.framework.core.FrameworkProperties;
+import com.mnet.framework.reporting.FrameworkLog;
+import com.mnet.framework.utilities.FileUtilities;
+import com.mnet.middleware.utilities.PayloadSpec.PayloadType;
+
+/**
+ * Content-addressed store of generated transmission payloads under PAYLOAD_CACHE_DIR (default: java.io.tmpdir/mite-payload-cache),
+ * shared between runs. Payloads are keyed by a hash of payload type, generator version and payload attributes -
+ * except device-specific attributes (PAYLOAD_DEVICE_ATTRIBUTES, default: DeviceSerialNumber, DeviceModelNumber, TransmitterSerial, Customer ID),
+ * which are re-stamped in the file name, entry names and text entries of a restored payload at the positions recorded when it was stored.
+ * Least recently used payloads are evicted once the store exceeds PAYLOAD_CACHE_MAX_MB (default: 512). Set PAYLOAD_CACHE=false to disable.
+ * @implNote Device-specific values shorter than PAYLOAD_RESTAMP_MIN_LENGTH (default: 5) are part of the key instead,
+ * as they cannot be re-stamped unambiguously. Payloads in which a device-specific value is part of a longer value
+ * (e.g. a serial number within a timestamp) or in a binary entry are not cached, and restores which would leave a cached value
+ * behind are rejected. Binary entries are never re-stamped.
+ * @version Fall 2023
+ * @author Arya Biswas
+ */
+public class PayloadCache {
+
+	private static final boolean CACHE_ENABLED = FrameworkProperties.getBooleanProperty("PAYLOAD_CACHE", true);
+	private static final Path CACHE_DIR = Paths.get(FrameworkProperties.getStringProperty("PAYLOAD_CACHE_DIR",
+			System.getProperty("java.io.tmpdir") + File.separator + "mite-payload-cache"));
+	private static final long CACHE_MAX_BYTES = FrameworkProperties.getLongProperty("PAYLOAD_CACHE_MAX_MB", 512) * 1024 * 1024;
+	private static final List<String> DEVICE_ATTRIBUTES = Arrays.stream(FrameworkProperties.getStringProperty("PAYLOAD_DEVICE_ATTRIBUTES",
+			"DeviceSerialNumber,DeviceModelNumber,TransmitterSerial,Customer ID").split(","))
+			.map(String::trim)
+			.collect(Collectors.toList());
+	private static final int RESTAMP_MIN_LENGTH = FrameworkProperties.getIntProperty("PAYLOAD_RESTAMP_MIN_LENGTH", 5);
+
+	/**Bump when the layout of cache entries changes.*/
+	private static final String FORMAT_VERSION = "2";
+	private static final String FILE_NAME = "payload.fileName";
+	private static final String DEVICE_ATTRIBUTE = "device.";
+	/**Offsets of device-specific values by location (fileName, entry index for text entries, entry index + .name for entry names).*/
+	private static final String POSITIONS = "positions.";
+	private static final String FILE_NAME_LOCATION = "fileName";
+
+	private PayloadCache() {}
+
+	/**
+	 * @return Version of a payload generator script (changes whenever the script is updated), or null if the script does not exist.
+	 */
+	public static String getGeneratorVersion(File generator) {
+		return generator.isFile() ? generator.getName() + ":" + generator.length() + ":" + generator.lastModified() : null;
+	}
+
+	/**
+	 * Restores a payload previously generated with the same attributes (device-specific attributes re-stamped) to the designated directory.
+	 * @param generatorVersion See getGeneratorVersion() - payloads are not cached if null.
+	 * @return File name of the restored payload, or null if no such payload is cached or it cannot be re-stamped.
+	 */
+	public static String restore(PayloadType payloadType, String generatorVersion, Map<String, String> attributes,
+			String directory, FrameworkLog log) {
+		if (!CACHE_ENABLED || generatorVersion == null) {
+			return null;
+		}
+
+		String key = getKey(payloadType, generatorVersion, attributes);
+		Path cachedPayload = CACHE_DIR.resolve(key + ".zip");
+		Path cachedProperties = CACHE_DIR.resolve(key + ".properties");
+
+		if (!Files.isRegularFile(cachedPayload) || !Files.isRegularFile(cachedProperties)) {
+			return null;
+		}
+
+		try {
+			Properties properties = new Properties();
+
+			try (InputStream input = Files.newInputStream(cachedProperties)) {
+				properties.load(input);
+			}
+
+			Map<String, String> restamps = getRestamps(properties, attributes);
+			String fileName = restamp(properties.getProperty(FILE_NAME), FILE_NAME_LOCATION, restamps, properties);
+
+			if (fileName == null) {
+				log.info("Cached " + payloadType + " payload cannot be re-stamped unambiguously - payload is generated instead");
+				return null;
+			}
+
+			Path payloadFile = Paths.get(directory, fileName);
+
+			Files.createDirectories(payloadFile.getParent());
+			Path partialFile = Files.createTempFile(payloadFile.getParent(), payloadFile.getFileName().toString(), ".tmp");
+
+			if (restamps.isEmpty()) {
+				Files.copy(cachedPayload, partialFile, StandardCopyOption.REPLACE_EXISTING);
+			} else {
+				boolean restamped;
+
+				try (OutputStream output = Files.newOutputStream(partialFile)) {
+					restamped = restampPayload(cachedPayload, restamps, properties, output);
+				}
+
+				if (!restamped) {
+					Files.delete(partialFile);
+					log.info("Cached " + payloadType + " payload cannot be re-stamped unambiguously - payload is generated instead");
+					return null;
+				}
+			}
+
+			// Payloads are picked up as the most recent file of the directory - never expose a partial payload
+			Files.move(partialFile, payloadFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+			Files.setLastModifiedTime(cachedPayload, FileTime.fromMillis(System.currentTimeMillis()));
+
+			log.info("Restored cached " + payloadType + " payload: " + payloadFile);
+			return payloadFile.getFileName().toString();
+		} catch (IOException ioe) {
+			// Cache is an optimization - payload is generated instead
+			log.warn("Failed to restore cached payload: " + cachedPayload);
+			return null;
+		}
+	}
+
+	/**
+	 * Adds a generated payload to the cache and evicts least recently used payloads if the cache exceeds PAYLOAD_CACHE_MAX_MB.
+	 * @param generatorVersion See getGeneratorVersion() - payloads are not cached if null.
+	 * @param attributes Attributes the payload was generated with.
+	 */
+	public static void store(PayloadType payloadType, String generatorVersion, Map<String, String> attributes, Path payload,
+			FrameworkLog log) {
+		if (!CACHE_ENABLED || generatorVersion == null) {
+			return;
+		}
+
+		String key = getKey(payloadType, generatorVersion, attributes);
+		Map<String, String> deviceAttributes = getDeviceAttributes(attributes);
+		Properties properties = new Properties();
+		properties.setProperty(FILE_NAME, payload.getFileName().toString());
+		deviceAttributes.forEach((name, value) -> properties.setProperty(DEVICE_ATTRIBUTE + name, value));
+
+		try {
+			if (!recordPositions(payload, deviceAttributes, properties)) {
+				log.info("Payload not cached - device-specific values cannot be re-stamped unambiguously in: " + payload.getFileName());
+				return;
+			}
+
+			Files.createDirectories(CACHE_DIR);
+			Path partialProperties = Files.createTempFile(CACHE_DIR, key, ".tmp");
+			Path partialPayload = Files.createTempFile(CACHE_DIR, key, ".tmp");
+
+			try (OutputStream output = Files.newOutputStream(partialProperties)) {
+				properties.store(output, payloadType + " payload");
+			}
+
+			Files.copy(payload, partialPayload, StandardCopyOption.REPLACE_EXISTING);
+
+			// Entries are complete once the payload is in place - properties are moved first
+			Files.move(partialProperties, CACHE_DIR.resolve(key + ".properties"), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+			Files.move(partialPayload, CACHE_DIR.resolve(key + ".zip"), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+		} catch (IOException ioe) {
+			log.warn("Failed to cache payload: " + payload);
+			return;
+		}
+
+		evict(log);
+	}
+
+	/*
+	 * Helper functions
+	 */
+
+	/**@return Device-specific attributes which can be re-stamped - others are part of the key.*/
+	private static Map<String, String> getDeviceAttributes(Map<String, String> attributes) {
+		Map<String, String> deviceAttributes = new TreeMap<String, String>();
+
+		for (String name : DEVICE_ATTRIBUTES) {
+			String value = attributes.get(name);
+
+			if (value != null && value.length() >= RESTAMP_MIN_LENGTH) {
+				deviceAttributes.put(name, value);
+			}
+		}
+
+		return deviceAttributes;
+	}
+
+	private static String getKey(PayloadType payloadType, String generatorVersion, Map<String, String> attributes) {
+		Map<String, String> keyAttributes = new TreeMap<String, String>(attributes);
+		keyAttributes.keySet().removeAll(getDeviceAttributes(attributes).keySet());
+		// Presence of re-stamped attributes still distinguishes payloads
+		getDeviceAttributes(attributes).keySet().forEach(name -> keyAttributes.put(DEVICE_ATTRIBUTE + name, ""));
+
+		StringBuilder content = new StringBuilder(FORMAT_VERSION + "\n" + payloadType + "\n" + generatorVersion + "\n");
+
+		for (Map.Entry<String, String> attribute : keyAttributes.entrySet()) {
+			content.append(attribute.getKey()).append("=").append(attribute.getValue()).append("\n");
+		}
+
+		return FileUtilities.sha256Hex(content.toString().getBytes(StandardCharsets.UTF_8));
+	}
+
+	/**
+	 * Records offsets of device-specific values in the file name, entry names and text entries of the payload.
+	 * @return false if a value is part of a longer value (e.g. a timestamp) or contained in a binary entry - 
+	 * such payloads cannot be re-stamped unambiguously.
+	 */
+	private static boolean recordPositions(Path payload, Map<String, String> deviceAttributes, Properties properties) throws IOException {
+		if (!recordPositions(payload.getFileName().toString(), FILE_NAME_LOCATION, deviceAttributes, properties)) {
+			return false;
+		}
+
+		try (ZipInputStream input = new ZipInputStream(Files.newInputStream(payload))) {
+			ZipEntry entry;
+
+			for (int index = 0; (entry = input.getNextEntry()) != null; index++) {
+				if (!recordPositions(entry.getName(), index + ".name", deviceAttributes, properties)) {
+					return false;
+				}
+
+				// ISO-8859-1 preserves all bytes - binary entries are only searched, never re-stamped
+				String content = new String(input.readAllBytes(), StandardCharsets.ISO_8859_1);
+
+				if (PayloadBuilder.isTextEntry(entry.getName())) {
+					if (!recordPositions(content, Integer.toString(index), deviceAttributes, properties)) {
+						return false;
+					}
+				} else if (deviceAttributes.values().stream().anyMatch(content::contains)) {
+					return false;
+				}
+			}
+		}
+
+		return true;
+	}
+
+	private static boolean recordPositions(String text, String location, Map<String, String> deviceAttributes, Properties properties) {
+		for (Map.Entry<String, String> attribute : deviceAttributes.entrySet()) {
+			String value = attribute.getValue();
+			List<String> offsets = new ArrayList<String>();
+
+			for (int offset = text.indexOf(value); offset >= 0; offset = text.indexOf(value, offset + 1)) {
+				if (!isDelimited(text, offset, value.length())) {
+					return false;
+				}
+
+				offsets.add(Integer.toString(offset));
+			}
+
+			if (!offsets.isEmpty()) {
+				properties.setProperty(POSITIONS + location + "." + attribute.getKey(), String.join(",", offsets));
+			}
+		}
+
+		return true;
+	}
+
+	/**@return true if the value at offset is not part of a longer value (no adjacent letters or digits).*/
+	private static boolean isDelimited(String text, int offset, int length) {
+		int end = offset + length;
+
+		return (offset == 0 || !Character.isLetterOrDigit(text.charAt(offset - 1)))
+				&& (end == text.length() || !Character.isLetterOrDigit(text.charAt(end)));
+	}
+
+	/**@return Requested values of device-specific attributes which differ from the cached payload, by attribute name.*/
+	private static Map<String, String> getRestamps(Properties properties, Map<String, String> attributes) {
+		Map<String, String> restamps = new TreeMap<String, String>();
+
+		getDeviceAttributes(attributes).forEach((name, value) -> {
+			String cachedValue = properties.getProperty(DEVICE_ATTRIBUTE + name);
+
+			if (cachedValue != null && !cachedValue.equals(value)) {
+				restamps.put(name, value);
+			}
+		});
+
+		return restamps;
+	}
+
+	/**
+	 * Replaces cached device-specific values at the offsets recorded for the location by the requested values.
+	 * @return Re-stamped text, or null if the text does not match the recorded offsets or a cached value remains after re-stamping.
+	 */
+	private static String restamp(String text, String location, Map<String, String> restamps, Properties properties) {
+		Map<Integer, String> replacements = new TreeMap<Integer, String>();
+
+		for (String name : restamps.keySet()) {
+			String offsets = properties.getProperty(POSITIONS + location + "." + name);
+
+			if (offsets == null) {
+				continue;
+			}
+
+			for (String offset : offsets.split(",")) {
+				if (replacements.put(Integer.valueOf(offset), name) != null) {
+					return null;
+				}
+			}
+		}
+
+		StringBuilder result = new StringBuilder();
+		int end = 0;
+
+		for (Map.Entry<Integer, String> replacement : replacements.entrySet()) {
+			String cachedValue = properties.getProperty(DEVICE_ATTRIBUTE + replacement.getValue());
+			int offset = replacement.getKey();
+
+			if (offset < end || !text.startsWith(cachedValue, offset)) {
+				return null;
+			}
+
+			result.append(text, end, offset).append(restamps.get(replacement.getValue()));
+			end = offset + cachedValue.length();
+		}
+
+		String restamped = result.append(text, end, text.length()).toString();
+
+		// Cached values left behind (e.g. contained in a requested value) would be attributed to the wrong device
+		for (String name : restamps.keySet()) {
+			if (restamped.contains(properties.getProperty(DEVICE_ATTRIBUTE + name))) {
+				return null;
+			}
+		}
+
+		return restamped;
+	}
+
+	/**@return false if an entry cannot be re-stamped unambiguously - the output is incomplete in that case.*/
+	private static boolean restampPayload(Path cachedPayload, Map<String, String> restamps, Properties properties,
+			OutputStream output) throws IOException {
+		try (ZipInputStream input = new ZipInputStream(Files.newInputStream(cachedPayload));
+				ZipOutputStream payload = new ZipOutputStream(new BufferedOutputStream(output))) {
+			ZipEntry entry;
+
+			for (int index = 0; (entry = input.getNextEntry()) != null; index++) {
+				String name = restamp(entry.getName(), index + ".name", restamps, properties);
+
+				if (name == null) {
+					return false;
+				}
+
+				payload.putNextEntry(new ZipEntry(name));
+
+				if (PayloadBuilder.isTextEntry(entry.getName())) {
+					// ISO-8859-1 preserves all bytes - text entries of generated payloads may not be UTF-8
+					String content = restamp(new String(input.readAllBytes(), StandardCharsets.ISO_8859_1), Integer.toString(index),
+							restamps, properties);
+
+					if (content == null) {
+						return false;
+					}
+
+					payload.write(content.getBytes(StandardCharsets.ISO_8859_1));
+				} else {
+					input.transferTo(payload);
+				}
+
+				payload.closeEntry();
+			}
+		}
+
+		return true;
+	}
+
+	/**Removes least recently used (restored or stored) payloads until the cache fits PAYLOAD_CACHE_MAX_MB.*/
+	private static synchronized void evict(FrameworkLog log) {
+		List<Path> payloads = new ArrayList<Path>();
+		long cacheSize = 0;
+
+		try (DirectoryStream<Path> entries = Files.newDirectoryStream(CACHE_DIR, "*.zip")) {
+			for (Path entry : entries) {
+				payloads.add(entry);
+				cacheSize += Files.size(entry);
+			}
+
+			if (cacheSize <= CACHE_MAX_BYTES) {
+				return;
+			}
+
+			Map<Path, Long> lastUsed = new LinkedHashMap<Path, Long>();
+
+			for (Path entry : payloads) {
+				lastUsed.put(entry, Files.getLastModifiedTime(entry).toMillis());
+			}
+
+			payloads.sort(Comparator.comparing(lastUsed::get));
+
+			for (Path entry : payloads) {
+				if (cacheSize <= CACHE_MAX_BYTES) {
+					break;
+				}
+
+				cacheSize -= Files.size(entry);
+				Files.deleteIfExists(entry);
+
+				String fileName = entry.getFileName().toString();
+				Files.deleteIfExists(CACHE_DIR.resolve(fileName.substring(0, fileName.length() - ".zip".length()) + ".properties"));
+			}
+		} catch (IOException ioe) {
+			log.warn("Failed to evict payloads from cache: " + CACHE_DIR);
+		}
+	}
+}
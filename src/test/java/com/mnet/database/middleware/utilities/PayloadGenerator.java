@@ -18,6 +18,7 @@ import org.apache.poi.util.SystemOutLogger;
 import com.mnet.framework.core.FrameworkProperties;
 import com.mnet.framework.reporting.FrameworkLog;
 import com.mnet.framework.utilities.FileUtilities;
+import com.mnet.middleware.utilities.PayloadSpec.PayloadType;
 import com.mnet.pojo.patient.Patient.DeviceType;
 
 import net.lingala.zip4j.ZipFile;
@@ -48,17 +49,44 @@ public class PayloadGenerator {
 		this.log = log;
 		this.excelFile = excelFile;
 		this.payloadExcel = payloadExcel;
-		payloadUtils = excelFile == null ? new PayloadExcelUtilities(log) : new PayloadExcelUtilities(excelFile, log);
 		fileUtils = new FileUtilities(log);
 	}
 
+	/**
+	 * Generates NGQ payload with the attributes of the payload excel updated as per payloadExcel.
+	 * @implNote Built in-process by PayloadBuilder if PAYLOAD_TEMPLATE_NGQ is defined (payload excel is left unchanged),
+	 * otherwise through the Python payload generator - unless a payload with the same attributes is cached (see PayloadCache).
+	 * @return File name of the generated payload in TRANSMISSION_PAYLOAD_PATH_NGQ.
+	 */
 	public String generateNGQPayload() {
+		String payloadPath = FrameworkProperties.getProperty("TRANSMISSION_PAYLOAD_PATH_NGQ");
+		String workbook = (excelFile != null) ? excelFile
+				: System.getProperty("user.dir") + FrameworkProperties.getProperty("DEFAULT_EXCEL_LOCATION");
+
+		if (PayloadBuilder.hasTemplate(PayloadType.NGQ)) {
+			PayloadSpec spec = PayloadSpec.fromWorkbook(PayloadType.NGQ, workbook, payloadExcel, log);
+
+			return new PayloadBuilder(log).write(spec, payloadPath).getFileName().toString();
+		}
+
 		getPayloadGenerator(DeviceType.NGQ);
+
+		Map<String, String> attributes = PayloadSpec.fromWorkbook(PayloadType.NGQ, workbook, payloadExcel, log).getAttributes();
+		String generatorVersion = PayloadCache.getGeneratorVersion(new File(LOCAL_NGQ_PAYLOAD_PATH, "PayLoadGeneration.py"));
+		String payloadFileName = PayloadCache.restore(PayloadType.NGQ, generatorVersion, attributes, payloadPath, log);
+
+		if (payloadFileName != null) {
+			return payloadFileName;
+		}
+
 		createPayloadExcel();
 		replaceUpdatedPayload(DeviceType.NGQ, excelFile);
 		payloadGeneration(DeviceType.NGQ);
 
-		return fileUtils.getLastModified(FrameworkProperties.getProperty("TRANSMISSION_PAYLOAD_PATH_NGQ"));
+		payloadFileName = fileUtils.getLastModified(payloadPath);
+		PayloadCache.store(PayloadType.NGQ, generatorVersion, attributes, Paths.get(payloadPath, payloadFileName), log);
+
+		return payloadFileName;
 	}
 
 	/**
@@ -137,6 +165,10 @@ public class PayloadGenerator {
     }
 
 	private void createPayloadExcel() {
+		if (payloadUtils == null) {
+			payloadUtils = excelFile == null ? new PayloadExcelUtilities(log) : new PayloadExcelUtilities(excelFile, log);
+		}
+
 		payloadUtils.editCell(payloadExcel);
 		payloadUtils.writeDataToExcel(excelFile);
 	}
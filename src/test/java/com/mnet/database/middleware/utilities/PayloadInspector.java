@@ -0,0 +1,180 @@
+package com.mnet.middleware.utilities;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+
+import com.mnet.framework.reporting.FrameworkLog;
+import com.mnet.framework.utilities.FileUtilities;
+
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Read-only view of a transmission payload (zip). Entries are listed from the central directory of the archive and
+ * read in place - nothing is extracted to disk. Content hashes (SHA-256) are computed on first access by streaming the entry.
+ * @implNote Close the inspector (try-with-resources) to release the payload file.
+ * @version Fall 2023
+ * @author Arya Biswas
+ */
+public class PayloadInspector implements AutoCloseable {
+
+	private FrameworkLog log;
+	private String payloadPath;
+	private ZipFile payload;
+	private List<PayloadEntry> entries;
+	private Map<String, String> contentHashes = new ConcurrentHashMap<String, String>();
+
+	/**
+	 * Metadata of a payload entry as recorded in the central directory.
+	 */
+	@Getter
+	@AllArgsConstructor(access = AccessLevel.PRIVATE)
+	public static class PayloadEntry {
+
+		/**Path of the entry within the payload (separated by /).*/
+		private String name;
+		private boolean directory;
+		/**Uncompressed size in bytes (-1 if unknown).*/
+		private long size;
+		/**Compressed size in bytes (-1 if unknown).*/
+		private long compressedSize;
+		/**CRC-32 of the uncompressed content (-1 if unknown).*/
+		private long crc;
+		/**Last modification time (epoch ms, -1 if unknown).*/
+		private long lastModified;
+
+		/**
+		 * @return Name of the file (or directory) without its folder path.
+		 */
+		public String getFileName() {
+			String path = directory ? name.substring(0, name.length() - 1) : name;
+			return path.substring(path.lastIndexOf('/') + 1);
+		}
+	}
+
+	public PayloadInspector(String payloadPath, FrameworkLog frameworkLog) {
+		log = frameworkLog;
+		this.payloadPath = payloadPath;
+
+		try {
+			payload = new ZipFile(payloadPath);
+		} catch (IOException ioe) {
+			String err = "Failed to open payload: " + payloadPath;
+			log.error(err);
+			log.printStackTrace(ioe);
+			throw new RuntimeException(err);
+		}
+
+		List<PayloadEntry> payloadEntries = new ArrayList<PayloadEntry>();
+
+		payload.stream().forEach(entry -> payloadEntries.add(new PayloadEntry(entry.getName(), entry.isDirectory(),
+				entry.getSize(), entry.getCompressedSize(), entry.getCrc(), entry.getTime())));
+
+		entries = Collections.unmodifiableList(payloadEntries);
+	}
+
+	/**
+	 * @return Folder of the payload content as extracted by the payload generators (DeviceSerial/DeviceModel/Date_Time/),
+	 * derived from the payload name (DeviceSerial_DeviceModel_Date_Time.zip).
+	 */
+	public static String getPayloadFolder(String payloadName) {
+		String[] deviceInfo = payloadName.replace(".zip", "").split("_");
+		return deviceInfo[0] + "/" + deviceInfo[1] + "/" + deviceInfo[2] + "_" + deviceInfo[3] + "/";
+	}
+
+	/**
+	 * @return All entries of the payload (files and directories) in archive order.
+	 */
+	public List<PayloadEntry> getEntries() {
+		return entries;
+	}
+
+	/**
+	 * @return Entry with the designated path, or null if the payload does not contain it.
+	 */
+	public PayloadEntry getEntry(String name) {
+		return entries.stream().filter(entry -> entry.getName().equals(name)).findFirst().orElse(null);
+	}
+
+	/**
+	 * Lists files of the payload by folder - equivalent to listing the extracted payload with PayloadGenerator.listFiles().
+	 * @param folderPath Only entries in this folder (and its subfolders) are listed, e.g. getPayloadFolder(). Null lists the whole payload.
+	 * @return Names of the files directly in each folder by folder name (last segment of the folder path).
+	 */
+	public Map<String, List<String>> getFilesByFolder(String folderPath) {
+		Map<String, List<String>> filesByFolder = new LinkedHashMap<String, List<String>>();
+		String prefix = (folderPath == null) ? "" : folderPath;
+		int rootDepth = prefix.isEmpty() ? 0 : prefix.split("/").length - 1;
+
+		for (PayloadEntry entry : entries) {
+			if (!entry.getName().startsWith(prefix)) {
+				continue;
+			}
+
+			String[] segments = entry.getName().split("/");
+			int folderCount = entry.isDirectory() ? segments.length : segments.length - 1;
+
+			// Each folder of the listed subtree has a listing, even if it contains no files
+			for (int i = rootDepth; i < folderCount; i++) {
+				filesByFolder.putIfAbsent(segments[i], new ArrayList<String>());
+			}
+
+			if (!entry.isDirectory()) {
+				String folder = (segments.length > 1) ? segments[segments.length - 2] : "";
+				filesByFolder.computeIfAbsent(folder, key -> new ArrayList<String>()).add(entry.getFileName());
+			}
+		}
+
+		return filesByFolder;
+	}
+
+	/**
+	 * @return SHA-256 (hex) of the uncompressed content of the entry - computed once per entry.
+	 */
+	public String getContentHash(PayloadEntry entry) {
+		return contentHashes.computeIfAbsent(entry.getName(), this::computeContentHash);
+	}
+
+	/**
+	 * @return true if the payload contains the entry and its content matches the expected SHA-256 (hex, case-insensitive).
+	 */
+	public boolean hasContent(String name, String expectedHash) {
+		PayloadEntry entry = getEntry(name);
+		return entry != null && !entry.isDirectory() && getContentHash(entry).equalsIgnoreCase(expectedHash);
+	}
+
+	@Override
+	public void close() {
+		try {
+			payload.close();
+		} catch (IOException ioe) {
+			log.warn("Failed to close payload: " + payloadPath);
+		}
+	}
+
+	/*
+	 * Helper functions
+	 */
+
+	private String computeContentHash(String name) {
+		ZipEntry entry = payload.getEntry(name);
+
+		try (InputStream content = payload.getInputStream(entry)) {
+			return FileUtilities.sha256Hex(content);
+		} catch (IOException ioe) {
+			String err = "Failed to read payload entry: " + name + " of " + payloadPath;
+			log.error(err);
+			log.printStackTrace(ioe);
+			throw new RuntimeException(err);
+		}
+	}
+}
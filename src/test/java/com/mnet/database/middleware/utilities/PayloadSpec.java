@@ -0,0 +1,65 @@
+package com.mnet.middleware.utilities;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.mnet.framework.reporting.FrameworkLog;
+import com.mnet.framework.utilities.ExcelParser;
+import com.mnet.middleware.utilities.PayloadExcelUtilities.PayloadAttribute;
+
+import lombok.Builder;
+import lombok.Getter;
+import lombok.Singular;
+
+/**
+ * Typed description of a transmission payload to be generated by {@link PayloadBuilder}.
+ * @implNote Construct a spec: {@code PayloadSpec.builder().payloadType(PayloadType.NGQ).attribute(PayloadAttribute.DEVICESERIAL.getRowName(), "").build()}
+ * or start from the values of a payload test data workbook via fromWorkbook().
+ * @version Fall 2023
+ * @author Arya Biswas
+ */
+@Builder(toBuilder = true)
+@Getter
+public class PayloadSpec {
+
+	/**Telemetry types supported by PayloadBuilder - each has its own payload template.*/
+	public enum PayloadType {
+		UNITY,
+		NGQ
+	}
+
+	private PayloadType payloadType;
+
+	/**Payload attributes by name as in the payload test data workbook (e.g. DeviceSerialNumber - see PayloadAttribute.getRowName()).*/
+	@Singular
+	private Map<String, String> attributes;
+
+	/**
+	 * @return Value of the attribute, or null if it is not defined.
+	 */
+	public String getAttribute(PayloadAttribute attribute) {
+		return attributes.get(attribute.getRowName());
+	}
+
+	/**
+	 * Creates a spec from the attribute rows (name in the first column, value in the second) of a payload test data workbook
+	 * (e.g. DEFAULT_EXCEL_LOCATION), with the designated attributes overridden. The workbook is not modified.
+	 * @param overrides Attribute values by name (see PayloadAttribute.getRowName()) - may be null.
+	 */
+	public static PayloadSpec fromWorkbook(PayloadType payloadType, String excelFile, Map<String, String> overrides, FrameworkLog log) {
+		Map<String, String> attributes = new HashMap<String, String>();
+
+		for (List<String> row : new ExcelParser(log).readSheet(excelFile, false)) {
+			if (row.size() > 1 && !row.get(0).trim().isEmpty()) {
+				attributes.put(row.get(0).trim(), row.get(1));
+			}
+		}
+
+		if (overrides != null) {
+			attributes.putAll(overrides);
+		}
+
+		return PayloadSpec.builder().payloadType(payloadType).attributes(attributes).build();
+	}
+}
@@ -0,0 +1,186 @@
+package com.mnet.middleware.utilities;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.BiConsumer;
+import java.util.stream.Collectors;
+
+import com.mnet.framework.core.FrameworkProperties;
+import com.mnet.framework.database.DatabaseConnector;
+import com.mnet.framework.reporting.FrameworkLog;
+
+/**
+ * Suite-wide poller for ETL completion. Tests awaiting ETL register their device, and a single background thread checks 
+ * all registered devices every ETL_POLL_INTERVAL with one grouped count query per transmission table.
+ * Keeps database load constant regardless of the number of tests running in parallel.
+ * @version Spring 2023
+ * @author Arya Biswas
+ */
+public class SharedEtlPoller implements EtlCompletionWaiter {
+	
+	/**Interval (in ms) between checks of all registered devices.*/
+	private static final long POLL_INTERVAL = FrameworkProperties.getLongProperty("ETL_POLL_INTERVAL", 1000);
+	
+	private static final Queue<PendingTransmission> pending = new ConcurrentLinkedQueue<PendingTransmission>();
+	private static final ScheduledExecutorService poller = Executors.newSingleThreadScheduledExecutor(runnable -> {
+		Thread thread = new Thread(runnable, "etl-poller");
+		thread.setDaemon(true);
+		return thread;
+	});
+	
+	static {
+		poller.scheduleWithFixedDelay(SharedEtlPoller::poll, POLL_INTERVAL, POLL_INTERVAL, TimeUnit.MILLISECONDS);
+	}
+	
+	private FrameworkLog log;
+	
+	public SharedEtlPoller(FrameworkLog frameworkLog) {
+		log = frameworkLog;
+	}
+	
+	@Override
+	public int awaitTransmission(String transmissionTable, String deviceSerial, String deviceModel, int initialCount, long timeoutMillis) {
+		PendingTransmission transmission = new PendingTransmission(log, transmissionTable, deviceSerial, deviceModel, initialCount, null);
+		pending.add(transmission);
+		
+		try {
+			return transmission.completion.get(timeoutMillis, TimeUnit.MILLISECONDS);
+		} catch (TimeoutException te) {
+			return transmission.lastCount;
+		} catch (InterruptedException | ExecutionException e) {
+			String err = "Interrupted while waiting for ETL to process transmission for device: " + deviceSerial;
+			log.error(err);
+			log.printStackTrace(e);
+			throw new RuntimeException(err);
+		} finally {
+			pending.remove(transmission);
+		}
+	}
+	
+	@Override
+	public Map<String, Integer> awaitTransmissions(String transmissionTable, Map<String, Integer> targetCounts, long timeoutMillis, 
+			BiConsumer<String, Integer> countListener) {
+		Map<String, PendingTransmission> transmissions = new LinkedHashMap<String, PendingTransmission>();
+		
+		targetCounts.forEach((deviceKey, targetCount) -> {
+			String[] device = EtlCompletionWaiter.getDevice(deviceKey);
+			transmissions.put(deviceKey, new PendingTransmission(log, transmissionTable, device[0], device[1], targetCount - 1, countListener));
+		});
+		
+		pending.addAll(transmissions.values());
+		
+		try {
+			CompletableFuture.allOf(transmissions.values().stream().map(transmission -> transmission.completion).toArray(CompletableFuture[]::new))
+					.get(timeoutMillis, TimeUnit.MILLISECONDS);
+		} catch (TimeoutException te) {
+			// Latest counts of unprocessed devices are returned
+		} catch (InterruptedException | ExecutionException e) {
+			String err = "Interrupted while waiting for ETL to process transmissions for " + targetCounts.size() + " devices";
+			log.error(err);
+			log.printStackTrace(e);
+			throw new RuntimeException(err);
+		} finally {
+			pending.removeAll(transmissions.values());
+		}
+		
+		Map<String, Integer> currentCounts = new HashMap<String, Integer>();
+		
+		transmissions.forEach((deviceKey, transmission) -> {
+			if (transmission.observedCount >= 0) {
+				currentCounts.put(deviceKey, transmission.observedCount);
+			}
+		});
+		
+		return currentCounts;
+	}
+	
+	/*
+	 * Helper functions
+	 */
+	
+	private static void poll() {
+		List<PendingTransmission> batch = new ArrayList<PendingTransmission>(pending);
+		
+		if (batch.isEmpty()) {
+			return;
+		}
+		
+		// Registered tests are blocked until completion, so the log of any of them is valid for the duration of the poll
+		DatabaseConnector database = null;
+		
+		try {
+			database = new DatabaseConnector(batch.get(0).log, "etl-poller");
+			
+			Map<String, List<PendingTransmission>> byTable = batch.stream()
+					.collect(Collectors.groupingBy(transmission -> transmission.table, LinkedHashMap::new, Collectors.toList()));
+			
+			for (Map.Entry<String, List<PendingTransmission>> table : byTable.entrySet()) {
+				pollTable(database, table.getKey(), table.getValue());
+			}
+		} catch (RuntimeException e) {
+			// Failure is logged by DatabaseConnector - devices are checked again on the next tick
+		} finally {
+			if (database != null) {
+				database.closeConnections();
+			}
+		}
+	}
+	
+	private static void pollTable(DatabaseConnector database, String table, List<PendingTransmission> transmissions) {
+		Map<String, Integer> counts = EtlCompletionWaiter.getTransmissionCounts(database, table, transmissions.stream()
+				.map(transmission -> new String[] {transmission.deviceSerial, transmission.deviceModel})
+				.collect(Collectors.toList()));
+		
+		for (PendingTransmission transmission : transmissions) {
+			String deviceKey = EtlCompletionWaiter.getDeviceKey(transmission.deviceSerial, transmission.deviceModel);
+			int count = counts.getOrDefault(deviceKey, 0);
+			
+			if (transmission.countListener != null && count != transmission.observedCount) {
+				transmission.countListener.accept(deviceKey, count);
+			}
+			
+			transmission.observedCount = count;
+			transmission.lastCount = count;
+			
+			if (transmission.lastCount > transmission.initialCount) {
+				pending.remove(transmission);
+				transmission.completion.complete(transmission.lastCount);
+			}
+		}
+	}
+	
+	private static class PendingTransmission {
+		private final FrameworkLog log;
+		private final String table;
+		private final String deviceSerial;
+		private final String deviceModel;
+		private final int initialCount;
+		private final BiConsumer<String, Integer> countListener;
+		private final CompletableFuture<Integer> completion = new CompletableFuture<Integer>();
+		private volatile int lastCount;
+		/**Latest count queried by the poller (-1 until the first poll).*/
+		private volatile int observedCount = -1;
+		
+		private PendingTransmission(FrameworkLog log, String table, String deviceSerial, String deviceModel, int initialCount,
+				BiConsumer<String, Integer> countListener) {
+			this.log = log;
+			this.table = table;
+			this.deviceSerial = deviceSerial;
+			this.deviceModel = deviceModel;
+			this.initialCount = initialCount;
+			this.countListener = countListener;
+			lastCount = initialCount;
+		}
+	}
+}
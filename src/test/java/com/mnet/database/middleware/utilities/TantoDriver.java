@@ -3,9 +3,20 @@ package com.mnet.middleware.utilities;
 import java.io.File;
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
+import java.util.ArrayList;
 import java.util.Base64;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.stream.Collectors;
+
+import javax.xml.stream.XMLStreamException;
 
 import org.apache.hc.core5.http.HttpStatus;
 
@@ -16,21 +27,21 @@ import com.mnet.framework.api.RestAPIManager;
 import com.mnet.framework.core.FrameworkProperties;
 import com.mnet.framework.database.DatabaseConnector;
 import com.mnet.framework.middleware.UnixCommand;
+import com.mnet.framework.middleware.UnixCommandResult;
 import com.mnet.framework.middleware.UnixConnector;
 import com.mnet.framework.reporting.FrameworkLog;
+import com.mnet.framework.reporting.StepTimer;
 import com.mnet.framework.reporting.TestReporter;
 import com.mnet.framework.reporting.TestStep;
-import com.mnet.framework.utilities.CommonUtils;
 import com.mnet.framework.utilities.FileUtilities;
-import com.mnet.framework.utilities.Timeout;
 import com.mnet.framework.utilities.XMLData;
 import com.mnet.pojo.xml.TantoComProfileError;
 import com.mnet.pojo.xml.TantoComProfileRequest;
 import com.mnet.pojo.xml.TantoComProfileResponse;
 import com.mnet.pojo.xml.TantoPatientProfileError;
+import com.mnet.pojo.xml.TantoPatientProfileIndex;
 import com.mnet.pojo.xml.TantoPatientProfileRequest;
 import com.mnet.pojo.xml.TantoPatientProfileResponse;
-import com.mnet.pojo.xml.tanto.Switch;
 
 import io.restassured.http.ContentType;
 import lombok.AllArgsConstructor;
@@ -54,6 +65,10 @@ public class TantoDriver {
 	/**Set to false to disable ddt_version_id update / database validation*/
 	private boolean databaseSupport;
 	
+	@Setter
+	/**Detects ETL completion after transmission upload. Defaults to the strategy designated by ETL_COMPLETION_WAITER in application properties.*/
+	private EtlCompletionWaiter etlCompletionWaiter;
+	
 	/**Path on remote machine where request file / output of Tanto commands is copied to.*/
 	private static final String TANTO_REMOTE_PATH = FrameworkProperties.getProperty("TANTO_REMOTE_PATH");
 	
@@ -92,6 +107,10 @@ public class TantoDriver {
 	private static final String TANTO_CONF_LOCAL_PATH_8X = FrameworkProperties.getProperty("TANTO_CONF_LOCAL_PATH_8X");
 	/**Local path for tanto.conf template (9.x driver)*/
 	private static final String TANTO_CONF_LOCAL_PATH_9X = FrameworkProperties.getProperty("TANTO_CONF_LOCAL_PATH_9X");
+	/**Maximum number of Tanto driver commands run simultaneously on the remote machine by sendTransmissions()*/
+	private static final int TANTO_BATCH_CONCURRENCY = FrameworkProperties.getIntProperty("TANTO_BATCH_CONCURRENCY", 8);
+	/**Sequence appended to request / response file names (see getFileTimestamp())*/
+	private static final AtomicLong FILE_SEQUENCE = new AtomicLong();
 	/**Minimum allowable segment size for Tanto configuration (~1000 segments)*/
 	private static final Integer TANTO_MIN_SEGMENT_SIZE = Integer.parseInt(FrameworkProperties.getProperty("TANTO_MIN_SEGMENT_SIZE"));
 	/**Placeholder value in tanto.conf template for segment size*/
@@ -99,8 +118,6 @@ public class TantoDriver {
 	
 	/**Timeout (in ms) to wait for ETL to finish processing transmission before querying database.*/
 	private static final long ETL_PROCESSING_TIMEOUT = Long.parseLong(FrameworkProperties.getProperty("ETL_PROCESSING_TIMEOUT"));
-	/**Thread sleep interval while waiting for ETL processing completion*/
-	private static final long ETL_SLEEP_INTERVAL = 4000L;
 	
 	/**String immediately preceding XML content in Tanto driver response*/
 	private static final String TANTO_RESPONSE_START_8X = "resp = [";
@@ -254,6 +271,7 @@ public class TantoDriver {
 		report = testReporter;
 		
 		databaseSupport = true;
+		etlCompletionWaiter = (database == null) ? null : EtlCompletionWaiter.fromProperties(log, database);
 		localPath = log.getLogDirectory() + File.separator;
 		tantoDriverHost = getHost();
 	}
@@ -279,7 +297,7 @@ public class TantoDriver {
 		
 		String driverCommand = "./reqresp " + tantoDriverHost + " " + TANTO_DRIVER_PORT;
 		
-		String timestamp = FrameworkLog.getCurrentTimestamp();
+		String timestamp = getFileTimestamp();
 		String requestXMLFile = "RequestXML_" + timestamp + ".xml";
 		String responseContentFile = "ResponseContent_" + timestamp + ".txt";
 		String responseXMLFile = "ResponseXML_" + timestamp + ".xml";
@@ -293,18 +311,13 @@ public class TantoDriver {
 			topic = getIMDProfileTopic(profileType, driverType, deviceSerial, deviceModel, transmitterSerial, transmitterModel);
 		}
 		
-		// " > " redirect driver output to file
-		driverCommand += " " + topic + " " + TANTO_REMOTE_PATH + requestXMLFile + " " + TANTO_CONF_REMOTE_DIR + TANTO_CONF_DEFAULT_FILE 
-				+ " > " + TANTO_REMOTE_PATH + responseContentFile;
+		driverCommand += " " + topic + " " + TANTO_REMOTE_PATH + requestXMLFile + " " + TANTO_CONF_REMOTE_DIR + TANTO_CONF_DEFAULT_FILE;
 		
 		report.logStep(TestStep.builder().message("Generating Tanto request XML at path: " + localPath + requestXMLFile).build());
 		fileUtility.generateXML(request, localPath + requestXMLFile);
 		
-		copyPayloadAndRunRemoteCommands(localPath, requestXMLFile, 
-				TANTO_REMOTE_PATH, responseContentFile, 
+		String fileContent = copyPayloadAndRunRemoteCommands(localPath, requestXMLFile, responseContentFile, 
 				new UnixCommand(driverCommand, getDriverDirectory(driverType), TANTO_RUN_AS_ROOT));
-		
-		String fileContent = fileUtility.getFileContent(localPath + responseContentFile);
 		String decodedFileContent = fileContent;
 		
 		report.logStep(TestStep.builder().message("Tanto driver response: <textarea>" + fileContent + " </textarea>").build());
@@ -340,16 +353,38 @@ public class TantoDriver {
 		}
 	
 		XMLData profileResponse = null;
+		String responseContent;
+		String startDelimiter = "";
+		String endDelimiter = "";
 		
 		if ((driverType == TantoDriverType.DRIVER_9X) && !isComProfile(profileType)) {
 			report.logStep(TestStep.builder().message("Extracting XML from decoded content to: " + localPath + responseXMLFile).build());
 			
-			profileResponse = fileUtility.extractXMLFromContent(decodedFileContent, localPath + responseXMLFile, profileResponseType);
+			responseContent = decodedFileContent;
 		} else {
 			report.logStep(TestStep.builder().message("Extracting XML from driver response to: " + localPath + responseXMLFile).build());
 			
-			profileResponse = fileUtility.extractXMLFromContent(fileContent, localPath + responseXMLFile, 
-					TANTO_RESPONSE_START_8X, TANTO_RESPONSE_END_8X, profileResponseType);
+			responseContent = fileContent;
+			startDelimiter = TANTO_RESPONSE_START_8X;
+			endDelimiter = TANTO_RESPONSE_END_8X;
+		}
+		
+		if (profileResponseType == TantoPatientProfileResponse.class) {
+			// Switches are looked up via an index built in a single streaming pass - JAXB tree is only built if accessed
+			String xmlContent = fileUtility.extractXMLContent(responseContent, startDelimiter, endDelimiter);
+			fileUtility.saveXML(xmlContent, localPath + responseXMLFile);
+			
+			try {
+				profileResponse = TantoPatientProfileResponse.parse(xmlContent);
+			} catch (XMLStreamException xse) {
+				String err = "Failed to parse Tanto patient profile response: " + localPath + responseXMLFile;
+				log.error(err);
+				log.printStackTrace(xse);
+				throw new RuntimeException(err);
+			}
+		} else {
+			profileResponse = fileUtility.extractXMLFromContent(responseContent, localPath + responseXMLFile, 
+					startDelimiter, endDelimiter, profileResponseType);
 		}
 		
 		if ((profileResponseType == TantoComProfileError.class) || (profileResponseType == TantoPatientProfileError.class)) {
@@ -368,7 +403,7 @@ public class TantoDriver {
 
 		String driverCommand = "./reqresp " + tantoDriverHost + " " + TANTO_DRIVER_PORT;
 
-		String timestamp = FrameworkLog.getCurrentTimestamp();
+		String timestamp = getFileTimestamp();
 		String requestXMLFile = "RequestXML_" + timestamp + ".xml";
 		String responseContentFile = "ResponseContent_" + timestamp + ".txt";
 
@@ -382,18 +417,14 @@ public class TantoDriver {
 					transmitterModel);
 		}
 
-		// " > " redirect driver output to file
-		driverCommand += " " + topic + " " + TANTO_REMOTE_PATH + requestXMLFile + " tanto.conf > " + TANTO_REMOTE_PATH
-				+ responseContentFile;
+		driverCommand += " " + topic + " " + TANTO_REMOTE_PATH + requestXMLFile + " tanto.conf";
 
 		report.logStep(TestStep.builder().message("Generating Tanto request XML at path: " + localPath + requestXMLFile).build());
 		fileUtility.generateXML(request, localPath + requestXMLFile);
 
-		copyPayloadAndRunRemoteCommands(localPath, requestXMLFile, TANTO_REMOTE_PATH, responseContentFile,
+		String fileContent = copyPayloadAndRunRemoteCommands(localPath, requestXMLFile, responseContentFile,
 				new UnixCommand(driverCommand, getDriverDirectory(driverType), TANTO_RUN_AS_ROOT));
 
-		String fileContent = fileUtility.getFileContent(localPath + responseContentFile);
-
 		report.logStep(TestStep.builder().message("Tanto driver response: <textarea>" + fileContent + " </textarea>").build());
 
 		return fileContent;
@@ -435,34 +466,12 @@ public class TantoDriver {
 			setDDTVersion(transmissionType, deviceSerial);
 		}
 		
-		String driverCommand = "";
-		String transmitterExtension = "";
+		String driverCommand = getTransmissionCommand(fileName, driverType, transmissionType, 
+				transmitterModel, transmitterSerial, deviceModel, deviceSerial, segmentSize);
 		
-		if (driverType == TantoDriverType.DRIVER_9X) {
-			transmitterExtension = " " + transmitterModel + " " + transmitterSerial;
-		}
+		String responseContentFile = "ResponseContent_" + getFileTimestamp() + ".txt";
 		
-		String topic = tantoDriverHost + " " + TANTO_DRIVER_PORT
-				+ transmitterExtension + " " + deviceModel + " " + deviceSerial;
-		
-		if (transmissionType == TantoTransmissionType.BVVI || transmissionType == TantoTransmissionType.LOCK) {
-			driverCommand = "./sendstat " + topic + " " + TANTO_CONF_REMOTE_DIR + TANTO_CONF_DEFAULT_FILE + " " + transmissionType + " " + TANTO_REMOTE_PATH + fileName;
-		} else {
-			String telemetryType = (transmissionType == TantoTransmissionType.DevMED) ? "MED" : transmissionType.toString();
-			
-			if (segmentSize == null) {
-				driverCommand = "./sendtelm " + topic + " " + TANTO_REMOTE_PATH + fileName + " " + telemetryType + " " + TANTO_CONF_REMOTE_DIR + TANTO_CONF_DEFAULT_FILE;
-			} else {
-				driverCommand = "./sendtelm " + topic + " " + TANTO_REMOTE_PATH + fileName + " " + telemetryType + " " + getTantoSegmentedConfig(segmentSize, driverType);
-			}
-		}
-		
-		String responseContentFile = "ResponseContent_" + FrameworkLog.getCurrentTimestamp() + ".txt";
-		
-		driverCommand += " > " + TANTO_REMOTE_PATH + responseContentFile; // redirect driver output to file
-		
-		String payloadSource = ((transmissionType == TantoTransmissionType.MED) 
-				? TRANSMISSION_PAYLOAD_PATH_MED : TRANSMISSION_PAYLOAD_PATH_UNITY) + fileName;
+		String payloadSource = getPayloadSource(transmissionType, fileName);
 		
 		report.logStep(TestStep.builder().message("Fetching payload " + payloadSource + " to " + localPath).build());
 		fileUtility.copyFileToPath(payloadSource, localPath);
@@ -474,11 +483,9 @@ public class TantoDriver {
 			report.logStep(TestStep.builder().message("Transmission count prior to upload: " + Integer.toString(initialTransmissionCount)).build());
 		}
 			
-		copyPayloadAndRunRemoteCommands(localPath, fileName, TANTO_REMOTE_PATH, 
+		String fileContent = copyPayloadAndRunRemoteCommands(localPath, fileName, 
 				responseContentFile, new UnixCommand(driverCommand, getDriverDirectory(driverType), TANTO_RUN_AS_ROOT));
 		
-		String fileContent = fileUtility.getFileContent(localPath + responseContentFile);
-		
 		report.logStep(TestStep.builder().message("Tanto driver response: <textarea>" + fileContent + "</textarea>").build());
 		
 		if (databaseSupport) {
@@ -488,6 +495,47 @@ public class TantoDriver {
 		return true;
 	}
 	
+	/**
+	 * Sends a batch of transmissions via Tanto driver (8.x or 9.x requests).
+	 * Payloads are uploaded over a single SFTP channel and all driver commands are run from a single remote script, 
+	 * at most TANTO_BATCH_CONCURRENCY at once. If database processing is enabled, ETL processing is verified for all devices with grouped count queries.
+	 * @implNote MED transmissions require a different clinic ddt_version_id, so they are sent in a separate wave after all other transmissions.
+	 * @return Result of each transmission, in the order provided.
+	 */
+	public List<TantoTransmissionResult> sendTransmissions(List<TantoTransmissionJob> jobs) {
+		return sendTransmissions(jobs, true);
+	}
+	
+	/**
+	 * Sends a batch of transmissions as {@link #sendTransmissions(List)}, optionally without waiting for ETL processing (e.g. to measure the Tanto endpoint only).
+	 * Without awaitEtl, transmission counts prior to upload are still recorded if database processing is enabled, 
+	 * but results are returned once the driver commands finish - processed reflects the driver command and finalCount is -2.
+	 * @implNote Without awaitEtl, MED and other transmissions cannot be sent together - MED transmissions are only sent once ETL processed the others.
+	 * @return Result of each transmission, in the order provided.
+	 */
+	public List<TantoTransmissionResult> sendTransmissions(List<TantoTransmissionJob> jobs, boolean awaitEtl) {
+		Map<TantoTransmissionJob, TantoTransmissionResult> results = new IdentityHashMap<TantoTransmissionJob, TantoTransmissionResult>();
+		
+		List<TantoTransmissionJob> unityWave = jobs.stream()
+				.filter(job -> job.getTransmissionType() != TantoTransmissionType.MED).collect(Collectors.toList());
+		List<TantoTransmissionJob> medWave = jobs.stream()
+				.filter(job -> job.getTransmissionType() == TantoTransmissionType.MED).collect(Collectors.toList());
+		
+		if (databaseSupport && !awaitEtl && !unityWave.isEmpty() && !medWave.isEmpty()) {
+			String err = "Cannot send MED and other transmissions together without waiting for ETL processing - send them separately";
+			log.error(err);
+			throw new RuntimeException(err);
+		}
+		
+		for (List<TantoTransmissionJob> wave : List.of(unityWave, medWave)) {
+			if (!wave.isEmpty()) {
+				sendTransmissionWave(wave, awaitEtl, results);
+			}
+		}
+		
+		return jobs.stream().map(results::get).collect(Collectors.toList());
+	}
+	
 	/**
 	 * Retrieve XML element value (switches) from profile response. Can parse ComProfileError, PatientProfileRequestFailure as well.
 	 * For XML attributes (GS_DateOfEvent, etc), use getAttribute(XMLData, TantoPayloadProfileType, String) instead.
@@ -519,27 +567,13 @@ public class TantoDriver {
 			return null;
 		}
 		
-		TantoPatientProfileResponse patientProfileResponse = (TantoPatientProfileResponse) profileResponse;
-		
-		XMLData parentElement = null;
+		TantoPatientProfileIndex index = ((TantoPatientProfileResponse) profileResponse).getIndex();
 		
-		switch (attributeCategory) {
-			case SYSTEM_INFORMATION:
-				parentElement = patientProfileResponse.getSystemData().getSystemInformation();
-				break;
-			case GENERATE_SCHEDULE:
-				parentElement = patientProfileResponse.getSubprofileOfType(subProfile.toString()).getGenerateSchedule();
-				break;
-			case UPLOAD_SCHEDULE:
-				parentElement = patientProfileResponse.getSubprofileOfType(subProfile.toString()).getUploadSchedule();
-				break;
-		}
+		// SystemInformation belongs to SystemData rather than a PayloadProfile
+		String subprofileType = (attributeCategory == TantoAttributeCategory.SYSTEM_INFORMATION) 
+				? TantoPatientProfileIndex.SYSTEM_DATA : subProfile.toString();
 		
-		if (parentElement == null) {
-			return null;
-		}
-		
-		return findGetterAndInvoke(parentElement, attributeName);
+		return index.getAttribute(subprofileType, attributeCategory.toString(), attributeName);
 	}
 	
 	/*
@@ -549,12 +583,12 @@ public class TantoDriver {
 	/**
 	 * @param payloadPath Path in local where payload / response is copied from / to (payload should already be copied to this path).
 	 * @param payloadFileName Name of payload (with extension) on local.
-	 * @param responsePathOnRemote File path on remote machine where driver response is saved (provided command should redirect output using > or >>)
-	 * @param responseFileName Desired file name (with extension) of driver response (on local and remote).
+	 * @param responseFileName Desired file name (with extension) of driver response on local.
 	 * @param driverCommands List of driver commands to be run on remote machine.
+	 * @return Driver response (standard output of driver commands).
 	 */
-	private void copyPayloadAndRunRemoteCommands(String payloadPath, String payloadFileName, 
-			String responsePathOnRemote, String responseFileName, UnixCommand... driverCommands) {
+	private String copyPayloadAndRunRemoteCommands(String payloadPath, String payloadFileName, 
+			String responseFileName, UnixCommand... driverCommands) {
 		String allCommands = "";
 		
 		for (UnixCommand command : driverCommands) {
@@ -565,11 +599,16 @@ public class TantoDriver {
 		remote.copyFileToRemote(payloadPath + payloadFileName, TANTO_REMOTE_PATH);
 		
 		report.logStep(TestStep.builder().message("Running Tanto driver commands: <textarea>" + allCommands + " </textarea>").build());
-		remote.queueCommands(driverCommands);
-		remote.executeShellCommands();
+		UnixCommandResult result = remote.executeAsync(line -> log.info("[tanto] " + line), driverCommands).join();
+		
+		if (!result.isSuccess()) {
+			log.warn("Tanto driver commands exited with status " + result.getExitStatus() + ": " + result.getStderr());
+		}
 
-		report.logStep(TestStep.builder().message("Copying driver response from remote to: " + payloadPath + responseFileName).build());
-		remote.copyFileToLocal(TANTO_REMOTE_PATH + responseFileName, payloadPath + responseFileName);
+		report.logStep(TestStep.builder().message("Saving driver response to: " + payloadPath + responseFileName).build());
+		fileUtility.writeToFile(payloadPath + responseFileName, result.getStdout());
+		
+		return result.getStdout();
 	}
 	
 	/**
@@ -584,7 +623,7 @@ public class TantoDriver {
 		String fileContent = fileUtility.getFileContent((driverType == TantoDriverType.DRIVER_9X) ? TANTO_CONF_LOCAL_PATH_9X : TANTO_CONF_LOCAL_PATH_8X);
 		fileContent = fileContent.replace(REPLACE_SEGMENT_SIZE, Integer.toString(segmentSize));
 				
-		String fileName = "tanto_seg_" + FrameworkLog.getCurrentTimestamp() + ".conf";
+		String fileName = "tanto_seg_" + getFileTimestamp() + ".conf";
 		String localLogPath = log.getLogDirectory() + fileName;
 		
 		report.logStep(TestStep.builder().message("Setting Tanto segment size to: " + Integer.toString(segmentSize)).build());
@@ -599,6 +638,209 @@ public class TantoDriver {
 		return TANTO_CONF_REMOTE_DIR + fileName;
 	}
 	
+	private String getTransmissionCommand(String fileName, TantoDriverType driverType, TantoTransmissionType transmissionType,
+			String transmitterModel, String transmitterSerial, String deviceModel, String deviceSerial, Integer segmentSize) {
+		String transmitterExtension = "";
+		
+		if (driverType == TantoDriverType.DRIVER_9X) {
+			transmitterExtension = " " + transmitterModel + " " + transmitterSerial;
+		}
+		
+		String topic = tantoDriverHost + " " + TANTO_DRIVER_PORT
+				+ transmitterExtension + " " + deviceModel + " " + deviceSerial;
+		
+		if (transmissionType == TantoTransmissionType.BVVI || transmissionType == TantoTransmissionType.LOCK) {
+			return "./sendstat " + topic + " " + TANTO_CONF_REMOTE_DIR + TANTO_CONF_DEFAULT_FILE + " " + transmissionType + " " + TANTO_REMOTE_PATH + fileName;
+		}
+		
+		String telemetryType = (transmissionType == TantoTransmissionType.DevMED) ? "MED" : transmissionType.toString();
+		
+		if (segmentSize == null) {
+			return "./sendtelm " + topic + " " + TANTO_REMOTE_PATH + fileName + " " + telemetryType + " " + TANTO_CONF_REMOTE_DIR + TANTO_CONF_DEFAULT_FILE;
+		}
+		
+		return "./sendtelm " + topic + " " + TANTO_REMOTE_PATH + fileName + " " + telemetryType + " " + getTantoSegmentedConfig(segmentSize, driverType);
+	}
+	
+	private String getPayloadSource(TantoTransmissionType transmissionType, String fileName) {
+		return ((transmissionType == TantoTransmissionType.MED) 
+				? TRANSMISSION_PAYLOAD_PATH_MED : TRANSMISSION_PAYLOAD_PATH_UNITY) + fileName;
+	}
+	
+	/**
+	 * Sends transmissions which share the same clinic ddt_version_id and records their results.
+	 */
+	private void sendTransmissionWave(List<TantoTransmissionJob> wave, boolean awaitEtl, Map<TantoTransmissionJob, TantoTransmissionResult> results) {
+		if (databaseSupport) {
+			wave.stream()
+				.filter(job -> !isStateTransmission(job.getTransmissionType()))
+				.collect(Collectors.toMap(TantoTransmissionJob::getDeviceSerial, TantoTransmissionJob::getTransmissionType, 
+						(first, second) -> first, LinkedHashMap::new))
+				.forEach((deviceSerial, transmissionType) -> setDDTVersion(transmissionType, deviceSerial));
+		}
+		
+		Set<String> payloads = new LinkedHashSet<String>();
+		
+		for (TantoTransmissionJob job : wave) {
+			if (payloads.add(localPath + job.getFileName())) {
+				fileUtility.copyFileToPath(getPayloadSource(job.getTransmissionType(), job.getFileName()), localPath);
+			}
+		}
+		
+		Map<String, Map<String, Integer>> initialCounts = databaseSupport ? getTransmissionCounts(wave) : Map.of();
+		
+		report.logStep(TestStep.builder().message("Copying " + payloads.size() + " payloads from local: " + localPath + " to remote: " + TANTO_REMOTE_PATH).build());
+		remote.copyFilesToRemote(new ArrayList<String>(payloads), TANTO_REMOTE_PATH);
+		
+		List<UnixCommand> driverCommands = new ArrayList<UnixCommand>();
+		
+		for (TantoTransmissionJob job : wave) {
+			driverCommands.add(new UnixCommand(getTransmissionCommand(job.getFileName(), job.getDriverType(), job.getTransmissionType(), 
+					job.getTransmitterModel(), job.getTransmitterSerial(), job.getDeviceModel(), job.getDeviceSerial(), job.getSegmentSize()), 
+					getDriverDirectory(job.getDriverType()), TANTO_RUN_AS_ROOT));
+		}
+		
+		report.logStep(TestStep.builder().message("Running " + driverCommands.size() + " Tanto driver commands (concurrency: " + TANTO_BATCH_CONCURRENCY + ")").build());
+		List<UnixCommandResult> commandResults = remote.executeBatch(TANTO_BATCH_CONCURRENCY, driverCommands);
+		
+		String responseContentFile = "BatchResponseContent_" + getFileTimestamp() + ".txt";
+		StringBuilder allResponses = new StringBuilder();
+		
+		for (int i = 0; i < wave.size(); i++) {
+			allResponses.append("### ").append(wave.get(i)).append(" [exit status: ").append(commandResults.get(i).getExitStatus()).append("]\n")
+				.append(commandResults.get(i).getStdout()).append("\n");
+		}
+		
+		report.logStep(TestStep.builder().message("Saving driver responses to: " + localPath + responseContentFile).build());
+		fileUtility.writeToFile(localPath + responseContentFile, allResponses.toString());
+		
+		Map<String, Integer> deviceOrdinals = new HashMap<String, Integer>();
+		int[] ordinals = new int[wave.size()];
+		
+		for (int i = 0; i < wave.size(); i++) {
+			TantoTransmissionJob job = wave.get(i);
+			// n-th transmission of the device is processed once its count has increased by at least n
+			ordinals[i] = deviceOrdinals.merge(getTransmissionTable(job.getTransmissionType()) + "|" 
+					+ EtlCompletionWaiter.getDeviceKey(job.getDeviceSerial(), job.getDeviceModel()), 1, Integer::sum);
+		}
+		
+		AtomicLongArray etlMillis = new AtomicLongArray(wave.size());
+		
+		for (int i = 0; i < wave.size(); i++) {
+			etlMillis.set(i, -1);
+		}
+		
+		Map<String, Map<String, Integer>> finalCounts = (databaseSupport && awaitEtl) 
+				? report.time(StepTimer.ETL, () -> awaitTransmissionsProcessed(wave, ordinals, initialCounts, etlMillis)) : Map.of();
+		int processedCount = 0;
+		
+		for (int i = 0; i < wave.size(); i++) {
+			TantoTransmissionJob job = wave.get(i);
+			UnixCommandResult commandResult = commandResults.get(i);
+			TantoTransmissionResult result;
+			
+			if (databaseSupport && awaitEtl) {
+				result = new TantoTransmissionResult(job, commandResult.getExitStatus(), commandResult.getStdout(), 
+						getDeviceCount(initialCounts, job), getDeviceCount(finalCounts, job), etlMillis.get(i) >= 0, 
+						commandResult.getDurationMillis(), etlMillis.get(i));
+			} else {
+				result = new TantoTransmissionResult(job, commandResult.getExitStatus(), commandResult.getStdout(), 
+						databaseSupport ? getDeviceCount(initialCounts, job) : -2, -2, commandResult.isSuccess(), commandResult.getDurationMillis(), -1);
+			}
+			
+			if (!commandResult.isSuccess()) {
+				log.warn("Tanto driver command failed for " + job + " [exit status: " + commandResult.getExitStatus() + "]: " + commandResult.getStderr());
+			}
+			
+			processedCount += result.isProcessed() ? 1 : 0;
+			results.put(job, result);
+		}
+		
+		report.logStep(TestStep.builder().message(((databaseSupport && awaitEtl) ? "ETL processed " : "Tanto driver completed ") 
+				+ processedCount + " of " + wave.size() + " transmissions").build());
+	}
+	
+	/**
+	 * Returns current transmission counts of all devices in the designated jobs, keyed by transmission table and device key.
+	 */
+	private Map<String, Map<String, Integer>> getTransmissionCounts(List<TantoTransmissionJob> jobs) {
+		Map<String, Map<String, String[]>> devicesByTable = new LinkedHashMap<String, Map<String, String[]>>();
+		
+		for (TantoTransmissionJob job : jobs) {
+			devicesByTable.computeIfAbsent(getTransmissionTable(job.getTransmissionType()), table -> new LinkedHashMap<String, String[]>())
+				.putIfAbsent(EtlCompletionWaiter.getDeviceKey(job.getDeviceSerial(), job.getDeviceModel()), 
+						new String[] {job.getDeviceSerial(), job.getDeviceModel()});
+		}
+		
+		Map<String, Map<String, Integer>> counts = new HashMap<String, Map<String, Integer>>();
+		
+		for (Map.Entry<String, Map<String, String[]>> table : devicesByTable.entrySet()) {
+			counts.put(table.getKey(), EtlCompletionWaiter.getTransmissionCounts(database, table.getKey(), table.getValue().values()));
+		}
+		
+		return counts;
+	}
+	
+	private int getDeviceCount(Map<String, Map<String, Integer>> counts, TantoTransmissionJob job) {
+		return counts.get(getTransmissionTable(job.getTransmissionType()))
+				.getOrDefault(EtlCompletionWaiter.getDeviceKey(job.getDeviceSerial(), job.getDeviceModel()), 0);
+	}
+	
+	/**
+	 * Waits with the configured EtlCompletionWaiter until every job is processed, or ETL_PROCESSING_TIMEOUT elapses.
+	 * The time (ms) at which each job was first observed as processed is recorded in etlMillis (unchanged if not processed).
+	 * @implNote Transmission tables are awaited one after another - jobs of later tables are first observed once earlier tables are processed.
+	 * @param ordinals Position (1-based) of each job among the jobs for the same device.
+	 * @return Latest transmission counts, keyed by transmission table and device key.
+	 */
+	private Map<String, Map<String, Integer>> awaitTransmissionsProcessed(List<TantoTransmissionJob> jobs, int[] ordinals, 
+			Map<String, Map<String, Integer>> initialCounts, AtomicLongArray etlMillis) {
+		long startTime = System.currentTimeMillis();
+		long deadline = startTime + ETL_PROCESSING_TIMEOUT;
+		Map<String, Map<String, List<Integer>>> jobsByTable = new LinkedHashMap<String, Map<String, List<Integer>>>();
+		
+		for (int i = 0; i < jobs.size(); i++) {
+			TantoTransmissionJob job = jobs.get(i);
+			jobsByTable.computeIfAbsent(getTransmissionTable(job.getTransmissionType()), table -> new LinkedHashMap<String, List<Integer>>())
+				.computeIfAbsent(EtlCompletionWaiter.getDeviceKey(job.getDeviceSerial(), job.getDeviceModel()), device -> new ArrayList<Integer>())
+				.add(i);
+		}
+		
+		Map<String, Map<String, Integer>> currentCounts = new HashMap<String, Map<String, Integer>>();
+		
+		for (Map.Entry<String, Map<String, List<Integer>>> table : jobsByTable.entrySet()) {
+			Map<String, Integer> tableInitialCounts = initialCounts.get(table.getKey());
+			Map<String, Integer> targetCounts = new LinkedHashMap<String, Integer>();
+			
+			// Device is done once its count has increased by the number of its jobs
+			table.getValue().forEach((device, deviceJobs) -> targetCounts.put(device, tableInitialCounts.getOrDefault(device, 0) + deviceJobs.size()));
+			
+			Map<String, Integer> tableCounts = new HashMap<String, Integer>(tableInitialCounts);
+			tableCounts.putAll(etlCompletionWaiter.awaitTransmissions(table.getKey(), targetCounts, 
+					Math.max(0, deadline - System.currentTimeMillis()), (device, count) -> {
+						long observedMillis = System.currentTimeMillis() - startTime;
+						
+						for (int i : table.getValue().get(device)) {
+							if (count - tableInitialCounts.getOrDefault(device, 0) >= ordinals[i]) {
+								etlMillis.compareAndSet(i, -1, observedMillis);
+							}
+						}
+					}));
+			
+			currentCounts.put(table.getKey(), tableCounts);
+		}
+		
+		return currentCounts;
+	}
+	
+	/**
+	 * Returns a timestamp for naming request / response files, unique within this JVM 
+	 * so that concurrent requests (e.g. TantoLoadTool) do not overwrite each other's files.
+	 */
+	private static String getFileTimestamp() {
+		return FrameworkLog.getCurrentTimestamp() + "_" + FILE_SEQUENCE.incrementAndGet();
+	}
+	
 	private void validateProfile(TantoProfileType profileType, TantoDriverType driverType, XMLData request) {
 		if (profileType == null || driverType == null) {
 			String err = "Cannot process profile request - missing profile type or driver type";
@@ -660,18 +902,8 @@ public class TantoDriver {
 	private boolean isTransmissionProcessed(int initialCount, String deviceSerial, String deviceModel, TantoTransmissionType transmissionType) {
 		validateDatabase();
 		
-		long startTime = System.nanoTime();
-		
-		int currentCount = initialCount;
-				
-		while (currentCount == initialCount) {
-			Timeout.waitForTimeout(log, ETL_SLEEP_INTERVAL);
-			currentCount = getTransmissionCount(deviceSerial, deviceModel, transmissionType);
-			
-			if ((CommonUtils.millisFromTime(startTime)) > ETL_PROCESSING_TIMEOUT) {
-				break;
-			}
-		}
+		int currentCount = report.time(StepTimer.ETL, () -> etlCompletionWaiter.awaitTransmission(getTransmissionTable(transmissionType), 
+				deviceSerial, deviceModel, initialCount, ETL_PROCESSING_TIMEOUT));
 		
 		report.logStep(TestStep.builder().message("Transmission count after upload: " + Integer.toString(currentCount)).build());
 		
@@ -684,21 +916,16 @@ public class TantoDriver {
 	}
 	
 	private int getTransmissionCount(String deviceSerial, String deviceModel, TantoTransmissionType transmissionType) {
-		String countQuery = "select count(*) from transmissions.<table> " +
-				" where device_serial_num = '" + deviceSerial + "'" + 
-				" and device_model_num = '" + deviceModel + "'";
-		
+		return EtlCompletionWaiter.getTransmissionCount(database, getTransmissionTable(transmissionType), deviceSerial, deviceModel);
+	}
+	
+	/**Returns table in transmissions schema which ETL populates for the transmission type.*/
+	public static String getTransmissionTable(TantoTransmissionType transmissionType) {
 		if (transmissionType == TantoTransmissionType.Maintenance) {
-			countQuery = countQuery.replace("<table>", "transmitter_maintenance_blob");
-		} else {
-			if(FrameworkProperties.getApplicationVersion().equals("d4")) {
-				countQuery = countQuery.replace("<table>", "transmission_device");
-			}else {
-				countQuery = countQuery.replace("<table>", "transmission");
-			}
+			return "transmitter_maintenance_blob";
 		}
 		
-		return Integer.parseInt(database.executeQuery(countQuery).getFirstCellValue());
+		return FrameworkProperties.getApplicationVersion().equals("d4") ? "transmission_device" : "transmission";
 	}
 	
 	private void validateDatabase() {
@@ -767,30 +994,16 @@ public class TantoDriver {
 	}
 	
 	private String getTantoProfileSwitchValue(TantoPatientProfileResponse profileResponse, TantoPayloadProfileType subProfile, String elementName) {
-		List<Switch> switches;
+		// SYSTEM_DATA is indexed as TantoPatientProfileIndex.SYSTEM_DATA
+		TantoPatientProfileIndex index = profileResponse.getIndex();
 		
-		switch(subProfile) {
-			case SYSTEM_DATA:
-				switches = profileResponse.getSystemData().getControls().getAllSwitches();
-				break;
-			default:
-				switches = profileResponse.getSubprofileOfType(subProfile.toString()).getControls().getAllSwitches();
-				break;
-		}
-		
-		if (switches == null) {
+		if (!index.hasSubprofile(subProfile.toString())) {
 			String err = "Invalid PayloadProfile for Tanto patient profile: " + subProfile.toString();
 			log.error(err);
 			throw new RuntimeException(err);
 		}
 		
-		for (Switch switchInstance : switches) {
-			if (switchInstance.getName().equalsIgnoreCase(elementName)) {
-				return switchInstance.getValue();
-			}
-		}
-		
-		return null;
+		return index.getSwitchValue(subProfile.toString(), elementName);
 	}
 	
 	/**
@@ -3,11 +3,19 @@ package com.mnet.middleware.utilities;
 import java.lang.reflect.InvocationTargetException;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 import com.mnet.framework.database.DatabaseConnector;
 import com.mnet.framework.reporting.FrameworkLog;
 import com.mnet.framework.reporting.TestReporter;
+import com.mnet.framework.reporting.TestStep;
 import com.mnet.framework.utilities.XMLData;
 import com.mnet.middleware.utilities.tanto.AlertControlsProfile;
 import com.mnet.middleware.utilities.tanto.ComProfile;
@@ -42,6 +50,12 @@ public class TantoProfileResponseValidator {
 	private boolean softAssert;
 	@Setter
 	private boolean reportFailure;
+	/**
+	 * If true, validateSubProfile() validates all designated subprofiles concurrently, each with its own pooled database connection.
+	 * Report steps are merged into the test report in subprofile order once all subprofiles are validated.
+	 */
+	@Setter
+	private boolean parallel;
 	
 	private TantoSubProfile targetSubProfile;
 	
@@ -124,6 +138,10 @@ public class TantoProfileResponseValidator {
 			}
  		}
 		
+		if (parallel && profileList.size() > 1) {
+			return validateConcurrently(profileList, deviceModel, deviceSerial, transmitterSWVersion, profileVersion, profileResponse);
+		}
+		
 		boolean isValidResponse = true;
 		
 		for (TantoSubProfileType subprofile : profileList) {
@@ -156,8 +174,15 @@ public class TantoProfileResponseValidator {
 	 */
 	
 	private void setTargetSubProfile(Class<? extends TantoSubProfile> profileClass, String deviceModel, String deviceSerial, String transmitterSWVersion, String profileVersion, XMLData profileResponse) {		
+		targetSubProfile = createSubProfile(profileClass, database, deviceModel, deviceSerial, transmitterSWVersion, profileVersion, profileResponse);
+	}
+	
+	private TantoSubProfile createSubProfile(Class<? extends TantoSubProfile> profileClass, DatabaseConnector databaseConnector, 
+			String deviceModel, String deviceSerial, String transmitterSWVersion, String profileVersion, XMLData profileResponse) {
+		TantoSubProfile subprofile;
+		
 		try {
-			targetSubProfile = (TantoSubProfile) profileClass.getConstructors()[0].newInstance(driver, database, report, softAssert, reportFailure);
+			subprofile = (TantoSubProfile) profileClass.getConstructors()[0].newInstance(driver, databaseConnector, report, softAssert, reportFailure);
 		} catch (InvocationTargetException | IllegalAccessException | InstantiationException e) {
 			String err = "Failed to construct new instance of subprofile: " + profileClass.toString() 
 							+ " \n Cause: " + e.getMessage();
@@ -165,10 +190,89 @@ public class TantoProfileResponseValidator {
 			throw new RuntimeException(err);
 		}
 		
-		targetSubProfile.setDeviceModel(deviceModel);
-		targetSubProfile.setDeviceSerial(deviceSerial);
-		targetSubProfile.setTransmitterSWVersion(transmitterSWVersion);
-		targetSubProfile.setProfileVersion(profileVersion);
-		targetSubProfile.setProfileResponse(profileResponse);
+		subprofile.setDeviceModel(deviceModel);
+		subprofile.setDeviceSerial(deviceSerial);
+		subprofile.setTransmitterSWVersion(transmitterSWVersion);
+		subprofile.setProfileVersion(profileVersion);
+		subprofile.setProfileResponse(profileResponse);
+		
+		return subprofile;
+	}
+	
+	/**
+	 * Validates each subprofile on a worker thread with its own pooled database connection.
+	 * Worker report steps are recorded and replayed on the test thread in the order of profileList, so the report is identical to serial validation.
+	 */
+	private boolean validateConcurrently(List<TantoSubProfileType> profileList, String deviceModel, String deviceSerial, 
+			String transmitterSWVersion, String profileVersion, XMLData profileResponse) {
+		String owner = Thread.currentThread().getName();
+		ExecutorService executor = Executors.newFixedThreadPool(profileList.size());
+		Map<TantoSubProfileType, Future<Boolean>> results = new LinkedHashMap<TantoSubProfileType, Future<Boolean>>();
+		Map<TantoSubProfileType, List<TestStep>> recordedSteps = new ConcurrentHashMap<TantoSubProfileType, List<TestStep>>();
+		
+		try {
+			for (TantoSubProfileType subprofile : profileList) {
+				results.put(subprofile, executor.submit(() -> {
+					DatabaseConnector workerDatabase = null;
+					report.recordSteps();
+					
+					try {
+						workerDatabase = new DatabaseConnector(log, owner + "-" + subprofile);
+						
+						return createSubProfile(subprofile.getProfileClass(), workerDatabase, 
+								deviceModel, deviceSerial, transmitterSWVersion, profileVersion, profileResponse).validateAllSwitches();
+					} finally {
+						recordedSteps.put(subprofile, report.stopRecording());
+						
+						if (workerDatabase != null) {
+							workerDatabase.closeConnections();
+						}
+					}
+				}));
+			}
+			
+			boolean isValidResponse = true;
+			
+			for (TantoSubProfileType subprofile : profileList) {
+				Throwable failure = null;
+				boolean subprofileValid = false;
+				
+				try {
+					subprofileValid = results.get(subprofile).get();
+				} catch (ExecutionException ee) {
+					failure = ee.getCause();
+				} catch (InterruptedException ie) {
+					Thread.currentThread().interrupt();
+					String err = "Interrupted while validating subprofile: " + subprofile;
+					log.error(err);
+					throw new RuntimeException(err);
+				}
+				
+				report.replaySteps(recordedSteps.get(subprofile));
+				
+				if (failure != null) {
+					rethrowValidationFailure(subprofile, failure);
+				}
+				
+				isValidResponse = subprofileValid ? isValidResponse : false;
+			}
+			
+			return isValidResponse;
+		} finally {
+			executor.shutdownNow();
+		}
+	}
+	
+	private void rethrowValidationFailure(TantoSubProfileType subprofile, Throwable failure) {
+		if (failure instanceof Error) {
+			throw (Error) failure;
+		} else if (failure instanceof RuntimeException) {
+			throw (RuntimeException) failure;
+		}
+		
+		String err = "Failed to validate subprofile: " + subprofile + " \n Cause: " + failure.getMessage();
+		log.error(err);
+		log.printStackTrace(failure);
+		throw new RuntimeException(err);
 	}
 }
@@ -0,0 +1,43 @@
+package com.mnet.middleware.utilities;
+
+import com.mnet.middleware.utilities.TantoDriver.TantoDriverType;
+import com.mnet.middleware.utilities.TantoDriver.TantoTransmissionType;
+
+import lombok.Builder;
+import lombok.Getter;
+
+/**
+ * Represents a single transmission to be sent with {@link TantoDriver#sendTransmissions(java.util.List)}.
+ * @implNote Construct a job: {@code TantoTransmissionJob.builder().fileName("").transmissionType(TantoTransmissionType.FUA).deviceModel("").deviceSerial("").build()}
+ * @version Spring 2023
+ * @author Arya Biswas
+ */
+@Builder(toBuilder = true)
+@Getter
+public class TantoTransmissionJob {
+
+	/**File name (including extension). File should be located at TRANSMISSION_PAYLOAD_PATH_deviceType in application properties.*/
+	private String fileName;
+	
+	/**Tanto driver used to send the transmission. Defaults to 8.x.*/
+	@Builder.Default
+	private TantoDriverType driverType = TantoDriverType.DRIVER_8X;
+	
+	private TantoTransmissionType transmissionType;
+	
+	/**Required for 9.x requests.*/
+	private String transmitterModel;
+	/**Required for 9.x requests.*/
+	private String transmitterSerial;
+	
+	private String deviceModel;
+	private String deviceSerial;
+	
+	/**Segment size in tanto.conf (if null, uses default value).*/
+	private Integer segmentSize;
+	
+	@Override
+	public String toString() {
+		return transmissionType + " " + fileName + " (" + deviceModel + " / " + deviceSerial + ")";
+	}
+}
@@ -0,0 +1,43 @@
+package com.mnet.middleware.utilities;
+
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Outcome of a transmission sent with {@link TantoDriver#sendTransmissions(java.util.List)}.
+ * @version Spring 2023
+ * @author Arya Biswas
+ */
+@Getter
+@AllArgsConstructor(access = AccessLevel.PACKAGE)
+public class TantoTransmissionResult {
+
+	private TantoTransmissionJob job;
+	/**Exit status of the Tanto driver command (-1 if the command timed out).*/
+	private int exitStatus;
+	/**Tanto driver response (standard output of driver command).*/
+	private String driverResponse;
+	/**Transmission count of the device prior to upload (-2 if database processing is disabled).*/
+	private int initialCount;
+	/**Transmission count of the device after ETL processing (-2 if database processing is disabled or ETL processing was not awaited).*/
+	private int finalCount;
+	/**
+	 * If database processing is enabled, true if ETL processed the transmission within ETL_PROCESSING_TIMEOUT.
+	 * If database processing is disabled (or ETL processing was not awaited), true if the Tanto driver command finished successfully.
+	 */
+	private boolean processed;
+	/**Duration (ms) of the Tanto driver command. For batches, the duration of the whole batch script.*/
+	private long driverMillis;
+	/**
+	 * Time (ms) from completion of the Tanto driver command until ETL processing was observed (-1 if not processed or database processing is disabled).
+	 * Processing is only observed when the ETL_COMPLETION_WAITER checks transmission counts, so the resolution is its check interval.
+	 */
+	private long etlMillis;
+	
+	@Override
+	public String toString() {
+		return job + ": exit status " + exitStatus + ", transmission count " + initialCount + " -> " + finalCount 
+				+ (processed ? " (processed)" : " (not processed)");
+	}
+}
@@ -27,11 +27,11 @@ import com.mnet.framework.reporting.TestReporter.ReportLevel;
 import com.mnet.framework.utilities.CommonUtils;
 import com.mnet.framework.utilities.FileUtilities;
 import com.mnet.middleware.utilities.PayloadExcelUtilities.PayloadAttribute;
+import com.mnet.middleware.utilities.PayloadSpec.PayloadType;
 import com.mnet.middleware.utilities.TantoDriver.TantoDriverType;
 import com.mnet.middleware.utilities.TantoDriver.TantoTransmissionType;
 import com.mnet.pojo.customer.Customer;
 import com.mnet.pojo.patient.Patient;
-import com.mnet.pojo.patient.Patient.DeviceType;
 
 public class TransmissionUtilities {
 
@@ -82,13 +82,16 @@ public class TransmissionUtilities {
 		driver = new TantoDriver(log, remoteMachine, fileManager, database, report);
 		custDBUtils = new CustomerDBUtilities(report, database);
 
-		try {
-			log.info("Performing setup - Creating the local folder containing the utility if not exists");
-			getLatestTransmissionFiles(SHARED_FOLDER_PATH, LOCAL_STORAGE_PATH);
-		} catch (Exception e) {
-			log.error("Failed to create folder - " + LOCAL_STORAGE_PATH);
-			log.printStackTrace(e);
-			throw new RuntimeException(e);
+		// Python payload generator is only needed if payloads are not built in-process
+		if (!PayloadBuilder.hasTemplate(PayloadType.UNITY)) {
+			try {
+				log.info("Performing setup - Creating the local folder containing the utility if not exists");
+				getLatestTransmissionFiles(SHARED_FOLDER_PATH, LOCAL_STORAGE_PATH);
+			} catch (Exception e) {
+				log.error("Failed to create folder - " + LOCAL_STORAGE_PATH);
+				log.printStackTrace(e);
+				throw new RuntimeException(e);
+			}
 		}
 
 		if (emailId.contains("@gmail.com")) {
@@ -235,10 +238,17 @@ public class TransmissionUtilities {
 	/**
 	 * Runs the payload Generation Python Script
 	 * 
+	 * @implNote Payload is built in-process by PayloadBuilder from the default
+	 *           payload excel if PAYLOAD_TEMPLATE_UNITY is defined.
 	 * @param localFolderPath
 	 */
 
 	public void payloadGeneration(String localFolderPath) {
+		if (PayloadBuilder.hasTemplate(PayloadType.UNITY)) {
+			buildUnityPayload(null);
+			return;
+		}
+
 		System.out.println(localFolderPath);
 		ProcessBuilder builder = new ProcessBuilder("cmd.exe", "/c",
 				"cd " + localFolderPath + " && python PayLoadGenerationUnity.py");
@@ -272,8 +282,11 @@ public class TransmissionUtilities {
 
 		log.info("Performing Payload Generation");
 		payloadGeneration(LOCAL_STORAGE_PATH);
-		log.info("Deleting the local folder");
-		cleanLocalFolder(LOCAL_STORAGE_PATH);
+
+		if (!PayloadBuilder.hasTemplate(PayloadType.UNITY)) {
+			log.info("Deleting the local folder");
+			cleanLocalFolder(LOCAL_STORAGE_PATH);
+		}
 	}
 
 	/**
@@ -344,12 +357,19 @@ public class TransmissionUtilities {
 	/**
 	 * Perform transmission with user defined values.
 	 * 
+	 * @implNote Payload is built in-process by PayloadBuilder (without editing the
+	 *           default payload excel) if PAYLOAD_TEMPLATE_UNITY is defined.
 	 * @param payloadExcel - Enter user defined data into the excel and send it as a
 	 *                     paramter
 	 */
 	public boolean transmissionWithUserDefinedPayload(Patient patient, String driverType, String transmissionType,
 			String transmitterModel, HashMap<String, String> payloadExcel) {
 
+		if (PayloadBuilder.hasTemplate(PayloadType.UNITY)) {
+			return sendPayload(patient, buildUnityPayload(payloadExcel), "y", driverType, transmissionType,
+					transmitterModel);
+		}
+
 		PayloadExcelUtilities excelEdit = new PayloadExcelUtilities(log);
 		excelEdit.editCell(payloadExcel);
 		excelEdit.writeDataToExcel(defaultExcelLocation);
@@ -364,14 +384,28 @@ public class TransmissionUtilities {
 	public boolean performTransmission(Patient patient, String useDatabase, String driverType, String transmissionType,
 			String transmitterModel) {
 
+		String payloadFileName;
+
+		if (PayloadBuilder.hasTemplate(PayloadType.UNITY)) {
+			payloadFileName = buildUnityPayload(null);
+		} else {
+			payloadFileName = generateUnityPayload();
+		}
+
+		return sendPayload(patient, payloadFileName, useDatabase, driverType, transmissionType, transmitterModel);
+	}
+
+	/**
+	 * Sends the payload (in TRANSMISSION_PAYLOAD_PATH_UNITY) through Tanto - up to
+	 * 3 attempts.
+	 */
+	private boolean sendPayload(Patient patient, String payloadFileName, String useDatabase, String driverType,
+			String transmissionType, String transmitterModel) {
+
 		transmissionType = transmissionType == null ? defaultTransmissionType : transmissionType;
 		transmitterModel = transmitterModel == null ? defaultTransmitterModel : transmitterModel;
 		driverType = driverType == null ? defaultDriverType : driverType;
 
-		replaceWithUpdatedExcel(defaultExcelLocation);
-		payloadGeneration(LOCAL_STORAGE_PATH);
-		log.info("Payload file generated - " + getLastModified(TRANSMISSION_PAYLOAD_PATH_UNITY));
-		String payloadFileName = getLastModified(TRANSMISSION_PAYLOAD_PATH_UNITY).toString();
 		boolean transmissionProcessed = false;
 		String segmentSize = "";
 
@@ -413,29 +447,73 @@ public class TransmissionUtilities {
 
 	}
 
+	/**
+	 * Generates Unity payload from the default payload excel through the Python
+	 * payload generator - unless a payload with the same attributes is cached (see
+	 * PayloadCache).
+	 * 
+	 * @return File name of the payload in TRANSMISSION_PAYLOAD_PATH_UNITY
+	 */
+	private String generateUnityPayload() {
+		Map<String, String> payloadAttributes = PayloadSpec
+				.fromWorkbook(PayloadType.UNITY, defaultExcelLocation, null, log).getAttributes();
+		String generatorVersion = PayloadCache
+				.getGeneratorVersion(new File(LOCAL_STORAGE_PATH, "PayLoadGenerationUnity.py"));
+		String payloadFileName = PayloadCache.restore(PayloadType.UNITY, generatorVersion, payloadAttributes,
+				TRANSMISSION_PAYLOAD_PATH_UNITY, log);
+
+		if (payloadFileName != null) {
+			return payloadFileName;
+		}
+
+		replaceWithUpdatedExcel(defaultExcelLocation);
+		payloadGeneration(LOCAL_STORAGE_PATH);
+		payloadFileName = getLastModified(TRANSMISSION_PAYLOAD_PATH_UNITY);
+		log.info("Payload file generated - " + payloadFileName);
+
+		PayloadCache.store(PayloadType.UNITY, generatorVersion, payloadAttributes,
+				Paths.get(TRANSMISSION_PAYLOAD_PATH_UNITY, payloadFileName), log);
+		return payloadFileName;
+	}
+
+	/**
+	 * Builds Unity payload in-process from the default payload excel with the
+	 * designated attributes overridden (may be null).
+	 * 
+	 * @return File name of the payload in TRANSMISSION_PAYLOAD_PATH_UNITY
+	 */
+	private String buildUnityPayload(Map<String, String> payloadAttributes) {
+		PayloadSpec spec = PayloadSpec.fromWorkbook(PayloadType.UNITY, defaultExcelLocation, payloadAttributes, log);
+		String payloadFileName = new PayloadBuilder(log).write(spec, TRANSMISSION_PAYLOAD_PATH_UNITY).getFileName()
+				.toString();
+
+		log.info("Payload file generated - " + payloadFileName);
+		return payloadFileName;
+	}
+
 	/**
 	 * Method to get the payload content in a map where key is the name of the
 	 * folder and value is the list of files inside that folder.
+	 * 
+	 * @implNote Payload is read in place by PayloadInspector - it is not extracted
+	 *           to PAYLOAD_EXTRACT_PATH.
 	 */
 	public static Map<String, List<String>> getPayloadContent(String payloadLocation, String payloadName,
-			String customPayloadPath) {
-		if (customPayloadPath != null) {
-			PayloadGenerator.extractPayload(customPayloadPath);
-		} else {
-			PayloadGenerator.extractPayload(DeviceType.NGQ, payloadLocation);
+			String customPayloadPath, FrameworkLog log) {
+		String payloadPath = (customPayloadPath != null) ? customPayloadPath
+				: FrameworkProperties.getProperty("TRANSMISSION_PAYLOAD_PATH_NGQ") + payloadLocation;
+
+		try (PayloadInspector payload = new PayloadInspector(payloadPath, log)) {
+			return payload.getFilesByFolder(PayloadInspector.getPayloadFolder(payloadName));
 		}
-		File dir = PayloadGenerator.getExtractedPayloadDirectory(payloadName);
-		Map<String, List<String>> fileMap = new HashMap<>();
-		PayloadGenerator.listFiles(dir, fileMap);
-		return fileMap;
 	}
 
 	/** Method to validate payload content **/
 	public static boolean validatePayloadContent(String payloadLocation, String payloadName, String customPayloadPath,
 			FrameworkLog log) {
-		Map<String, List<String>> fileMap = getPayloadContent(payloadLocation, payloadName, customPayloadPath);
-		List<String> actualPDFs = fileMap.get("pdf");
-		List<String> extFiles = fileMap.get("ext");
+		Map<String, List<String>> fileMap = getPayloadContent(payloadLocation, payloadName, customPayloadPath, log);
+		List<String> actualPDFs = fileMap.getOrDefault("pdf", new ArrayList<String>());
+		List<String> extFiles = fileMap.getOrDefault("ext", new ArrayList<String>());
 		boolean result = false;
 		for (String extFile : extFiles) {
 			if (extFile.contains("gdf")) {
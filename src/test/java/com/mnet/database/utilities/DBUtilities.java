@@ -2,12 +2,10 @@ package com.mnet.database.utilities;
 
 import java.time.Instant;
 import java.util.ArrayList;
-import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
 import com.mnet.framework.database.DatabaseConnector;
-import com.mnet.framework.database.QueryResult;
 import com.mnet.framework.reporting.TestReporter;
 import com.mnet.framework.reporting.TestReporter.ReportLevel;
 
@@ -23,24 +21,14 @@ public abstract class DBUtilities {
 	 */
 	protected static List<Map<String, String>> getDBContents(TestReporter report, DatabaseConnector database, String dbQuery, String filterColumn, String filterValue) {
 		List<Map<String, String>> content = new ArrayList<Map<String, String>>();
-		Map<String, String> row = new HashMap<String, String>();
 		
 		if (filterColumn != null && filterValue != null) {
 			dbQuery = dbQuery + " where " + filterColumn + "='" + filterValue + "'";
 		}
 		report.logStep(ReportLevel.INFO, "Executing database query: " + dbQuery);
-		QueryResult queryResult = database.executeQuery(dbQuery);
-
-		List<List<String>> data = queryResult.getAllRows();
-		List<String> columnNames = queryResult.getColumnNames();
 		
-		for (int rowIndex = 0; rowIndex < data.size(); rowIndex++) {
-			row = new HashMap<String, String>();
-			for (int colIndex= 0; colIndex < columnNames.size(); colIndex++) {
-				row.put(columnNames.get(colIndex), data.get(rowIndex).get(colIndex));
-			}
-			content.add(row);
-		}
+		// Stream rows directly into the result instead of buffering the full result set
+		database.forEachRow(dbQuery, row -> content.add(row.toMap()));
 		
 		return content;
 	}
@@ -236,9 +236,9 @@ public class PatientDBUtilities extends DBUtilities {
 		if (data.size() > 0) {
 			// patient id column index = 1
 			BigInteger id = new BigInteger(data.get("patient_id"));
-			String dbQuery = "select * from patients.customer_application_patient cap2 where patient_id = " + id;
+			String dbQuery = "select * from patients.customer_application_patient cap2 where patient_id = ?";
 
-			QueryResult queryResult = database.executeQuery(dbQuery);
+			QueryResult queryResult = database.executeQuery(DatabaseConnector.DEFAULT_ID, dbQuery, id);
 			if (queryResult.getAllRows().isEmpty()) {
 				report.logStep(TestStep.builder().message("No result when executed the following query: " + dbQuery).build());
 			}
@@ -248,8 +248,8 @@ public class PatientDBUtilities extends DBUtilities {
 			if (output.size() > 0) {
 				// patient_application_status_cd column index - 5
 				id = new BigInteger(output.get(4));
-				dbQuery = "select * from lookup.code where code_qualifier = 'Patient_Status_Cd' and code_id = " + id;
-				output = database.executeQuery(dbQuery).getFirstRow();
+				dbQuery = "select * from lookup.code where code_qualifier = 'Patient_Status_Cd' and code_id = ?";
+				output = database.executeQuery(DatabaseConnector.DEFAULT_ID, dbQuery, id).getFirstRow();
 
 				if (output.size() > 0) {
 					// code_desc column index - 3
@@ -265,11 +265,10 @@ public class PatientDBUtilities extends DBUtilities {
 	 * Verify paired flag based on transmitter's serial number
 	 */
 	public boolean verifyPairedFlag(String transmitterSerialNum) {
-		String dbQuery = "select * from patients.device_transmitter dt where transmitter_serial_num ='<transmitterSerialNum>'";
-		dbQuery = dbQuery.replace("<transmitterSerialNum>", transmitterSerialNum);
+		String dbQuery = "select * from patients.device_transmitter dt where transmitter_serial_num = ?";
 
-		report.logStep(TestStep.builder().message("Executing database query: " + dbQuery).build());
-		QueryResult queryResult = database.executeQuery(dbQuery);
+		report.logStep(TestStep.builder().message("Executing database query: " + dbQuery + " [" + transmitterSerialNum + "]").build());
+		QueryResult queryResult = database.executeQuery(DatabaseConnector.DEFAULT_ID, dbQuery, transmitterSerialNum);
 		if (queryResult.getAllRows().isEmpty()) {
 			report.logStep(TestStep.builder().message("No result when executed the following query: " + dbQuery).build());
 			return false;
@@ -510,13 +509,14 @@ public class PatientDBUtilities extends DBUtilities {
 			dbQuery = "select * from transmissions.transmission t where patient_id is null";
 		} else {
 			dbQuery = FrameworkProperties.getApplicationVersion() == "d3" ? 
-					"select * from transmissions.transmission t where patient_id = '" + patientId + "'" : 
+					"select * from transmissions.transmission t where patient_id = ?" : 
 						"select * from transmissions.transmission t join transmissions.transmission_device td on td.transmission_id = t.transmission_id "
-						+ "join patients.patient_device pd on td.device_serial_num = pd.device_serial_num where pd.patient_id = '" + patientId + "'";
+						+ "join patients.patient_device pd on td.device_serial_num = pd.device_serial_num where pd.patient_id = ?";
 		}
 
-		report.logStep(TestStep.builder().message("Executing database query: " + dbQuery).build());
-		QueryResult queryResult = database.executeQuery(dbQuery);
+		report.logStep(TestStep.builder().message("Executing database query: " + dbQuery + ((patientId == null) ? "" : " [" + patientId + "]")).build());
+		QueryResult queryResult = (patientId == null) ? database.executeQuery(dbQuery)
+				: database.executeQuery(DatabaseConnector.DEFAULT_ID, dbQuery, patientId);
 
 		if (queryResult.getAllRows().isEmpty()) {
 			report.logStep(TestStep.builder().message("No result when executed the following query: " + dbQuery).build());
@@ -545,11 +545,10 @@ public class PatientDBUtilities extends DBUtilities {
 	 */
 	@Deprecated
 	public List<Map<String, String>> getClinicalComments(String patientId) {
-		String dbQuery = "select * from transmissions.programmer_comment pc join (select transmission_id from transmissions.transmission t where patient_id = '<patientId>' order by create_dtm desc limit 1) as recentData on recentData.transmission_id = pc.transmission_id;";
-		dbQuery = dbQuery.replace("<patientId>", patientId);
+		String dbQuery = "select * from transmissions.programmer_comment pc join (select transmission_id from transmissions.transmission t where patient_id = ? order by create_dtm desc limit 1) as recentData on recentData.transmission_id = pc.transmission_id;";
 
-		report.logStep(TestStep.builder().message("Executing database query: " + dbQuery).build());
-		QueryResult queryResult = database.executeQuery(dbQuery);
+		report.logStep(TestStep.builder().message("Executing database query: " + dbQuery + " [" + patientId + "]").build());
+		QueryResult queryResult = database.executeQuery(DatabaseConnector.DEFAULT_ID, dbQuery, patientId);
 
 		if (queryResult.getAllRows().isEmpty()) {
 			report.logStep(TestStep.builder().message("No result when executed the following query: " + dbQuery).build());
@@ -560,11 +559,10 @@ public class PatientDBUtilities extends DBUtilities {
 	}
 	
 	public List<Map<String, String>> getClinicalComment(String deviceSerial) {
-		String dbQuery = "select * from transmissions.programmer_comment pc where transmission_id in ( select transmission_id from transmissions.transmission_device where device_serial_num= '<deviceSerial>');";
-		dbQuery = dbQuery.replace("<deviceSerial>", deviceSerial);
+		String dbQuery = "select * from transmissions.programmer_comment pc where transmission_id in ( select transmission_id from transmissions.transmission_device where device_serial_num= ?);";
 
-		report.logStep(TestStep.builder().message("Executing database query: " + dbQuery).build());
-		QueryResult queryResult = database.executeQuery(dbQuery);
+		report.logStep(TestStep.builder().message("Executing database query: " + dbQuery + " [" + deviceSerial + "]").build());
+		QueryResult queryResult = database.executeQuery(DatabaseConnector.DEFAULT_ID, dbQuery, deviceSerial);
 
 		if (queryResult.getAllRows().isEmpty()) {
 			report.logStep(TestStep.builder().message("No result when executed the following query: " + dbQuery).build());
@@ -803,11 +801,10 @@ public class PatientDBUtilities extends DBUtilities {
 	 * Get Smart schedule details set by patient
 	 */
 	public List<Map<String, String>> getFollowUpSchedules(String patientID) {
-		String dbQuery = "select * from patients.followup_date where Customer_Appl_Patient_id = (select cap.Customer_Appl_Patient_id from patients.customer_application_patient cap where patient_id = <patientID>) order by create_dtm desc";
-		dbQuery = dbQuery.replace("<patientID>", patientID);
+		String dbQuery = "select * from patients.followup_date where Customer_Appl_Patient_id = (select cap.Customer_Appl_Patient_id from patients.customer_application_patient cap where patient_id = ?) order by create_dtm desc";
 
-		report.logStep(TestStep.builder().message("Executing database query: " + dbQuery).build());
-		QueryResult queryResult = database.executeQuery(dbQuery);
+		report.logStep(TestStep.builder().message("Executing database query: " + dbQuery + " [" + patientID + "]").build());
+		QueryResult queryResult = database.executeQuery(DatabaseConnector.DEFAULT_ID, dbQuery, patientID);
 
 		if (queryResult.getAllRows().isEmpty()) {
 			report.logStep(TestStep.builder().message("No result when executed the following query: " + dbQuery).build());
@@ -1062,11 +1059,10 @@ public class PatientDBUtilities extends DBUtilities {
 	 * @return
 	 */
 	public List<Map<String, String>> getAlertServerity(String transmissionId) {
-		String dbQuery = "select * from alerts.website_notification wn where transmission_id = '<transmissionId>'";
-		dbQuery = dbQuery.replace("<transmissionId>", transmissionId);
+		String dbQuery = "select * from alerts.website_notification wn where transmission_id = ?";
 
-		report.logStep(TestStep.builder().message("Executing database query: " + dbQuery).build());
-		QueryResult queryResult = database.executeQuery(dbQuery);
+		report.logStep(TestStep.builder().message("Executing database query: " + dbQuery + " [" + transmissionId + "]").build());
+		QueryResult queryResult = database.executeQuery(DatabaseConnector.DEFAULT_ID, dbQuery, transmissionId);
 
 		if (queryResult.getAllRows().isEmpty()) {
 			report.logStep(TestStep.builder().message("No result when executed the following query: " + dbQuery).build());
@@ -1082,11 +1078,10 @@ public class PatientDBUtilities extends DBUtilities {
 	 * @return
 	 */
 	public List<Map<String, String>> getLookUpCode(String codeId) {
-		String dbQuery = "select * from lookup.code c where code_id = '<codeId>'";
-		dbQuery = dbQuery.replace("<codeId>", codeId);
+		String dbQuery = "select * from lookup.code c where code_id = ?";
 
-		report.logStep(TestStep.builder().message("Executing database query: " + dbQuery).build());
-		QueryResult queryResult = database.executeQuery(dbQuery);
+		report.logStep(TestStep.builder().message("Executing database query: " + dbQuery + " [" + codeId + "]").build());
+		QueryResult queryResult = database.executeQuery(DatabaseConnector.DEFAULT_ID, dbQuery, codeId);
 
 		if (queryResult.getAllRows().isEmpty()) {
 			report.logStep(TestStep.builder().message("No result when executed the following query: " + dbQuery).build());
@@ -1100,11 +1095,10 @@ public class PatientDBUtilities extends DBUtilities {
 	 * This method get transmission report.
 	 */
 	public List<Map<String, String>> getTransmissionReport(String transmission_id) {
-		String dbQuery = "select * from transmissions.report r where transmission_id = '<transmission_id>'";
-		dbQuery = dbQuery.replace("<transmission_id>", transmission_id);
+		String dbQuery = "select * from transmissions.report r where transmission_id = ?";
 
-		report.logStep(TestStep.builder().message("Executing database query: " + dbQuery).build());
-		QueryResult queryResult = database.executeQuery(dbQuery);
+		report.logStep(TestStep.builder().message("Executing database query: " + dbQuery + " [" + transmission_id + "]").build());
+		QueryResult queryResult = database.executeQuery(DatabaseConnector.DEFAULT_ID, dbQuery, transmission_id);
 
 		if (queryResult.getAllRows().isEmpty()) {
 			report.logStep(TestStep.builder().message("No result when executed the following query: " + dbQuery).build());
@@ -1120,11 +1114,10 @@ public class PatientDBUtilities extends DBUtilities {
 	 * @return
 	 */
 	public String getExternalNotificationId(String transmission_id) {
-		String query = "select * from alerts.external_notification en where transmission_id  ='<transmission_id>'";
-		query = query.replace("<transmission_id>", transmission_id);
-		report.logStep(TestStep.builder().message("Executing database query: " + query).build());
+		String query = "select * from alerts.external_notification en where transmission_id  = ?";
+		report.logStep(TestStep.builder().message("Executing database query: " + query + " [" + transmission_id + "]").build());
 
-		return database.executeQuery(query).getFirstCellValue();
+		return database.executeQuery(DatabaseConnector.DEFAULT_ID, query, transmission_id).getFirstCellValue();
 	}
 
 	/**
@@ -1133,11 +1126,10 @@ public class PatientDBUtilities extends DBUtilities {
 	 * @return
 	 */
 	public List<Map<String, String>> getalert(String external_notification_id) {
-		String dbQuery = "select * from alerts.alert_notification an where external_notification_id  = '<external_notification_id>'";
-		dbQuery = dbQuery.replace("<external_notification_id>", external_notification_id);
+		String dbQuery = "select * from alerts.alert_notification an where external_notification_id  = ?";
 
-		report.logStep(TestStep.builder().message("Executing database query: " + dbQuery).build());
-		QueryResult queryResult = database.executeQuery(dbQuery);
+		report.logStep(TestStep.builder().message("Executing database query: " + dbQuery + " [" + external_notification_id + "]").build());
+		QueryResult queryResult = database.executeQuery(DatabaseConnector.DEFAULT_ID, dbQuery, external_notification_id);
 
 		if (queryResult.getAllRows().isEmpty()) {
 			report.logStep(TestStep.builder().message("No result when executed the following query: " + dbQuery).build());
@@ -1154,20 +1146,18 @@ public class PatientDBUtilities extends DBUtilities {
 	 * @return
 	 */
 	public String getOngoingflg(String transmission_id) {
-		String query = "select ongoing_flg from transmissions.episode_and_egm eae where transmission_id  ='<transmission_id>'";
-		query = query.replace("<transmission_id>", transmission_id);
-		report.logStep(TestStep.builder().message("Executing database query: " + query).build());
+		String query = "select ongoing_flg from transmissions.episode_and_egm eae where transmission_id  = ?";
+		report.logStep(TestStep.builder().message("Executing database query: " + query + " [" + transmission_id + "]").build());
 
-		return database.executeQuery(query).getFirstCellValue();
+		return database.executeQuery(DatabaseConnector.DEFAULT_ID, query, transmission_id).getFirstCellValue();
 	}
 
 	/**Fetch data from transmissions.archive_session_file table**/
 	public List<Map<String, String>> getTransmissionArchive(String transmission_id) {
-		String dbQuery = "select * from transmissions.archive_session_file asf where transmission_id = '<transmission_id>'";
-		dbQuery = dbQuery.replace("<transmission_id>", transmission_id);
+		String dbQuery = "select * from transmissions.archive_session_file asf where transmission_id = ?";
 
-		report.logStep(TestStep.builder().message("Executing database query: " + dbQuery).build());
-		QueryResult queryResult = database.executeQuery(dbQuery);
+		report.logStep(TestStep.builder().message("Executing database query: " + dbQuery + " [" + transmission_id + "]").build());
+		QueryResult queryResult = database.executeQuery(DatabaseConnector.DEFAULT_ID, dbQuery, transmission_id);
 
 		if (queryResult.getAllRows().isEmpty()) {
 			report.logStep(TestStep.builder().message("No result when executed the following query: " + dbQuery).build());
@@ -1179,11 +1169,10 @@ public class PatientDBUtilities extends DBUtilities {
 
 	/**Fetch data from transmissions.alert table**/
 	public List<Map<String, String>> getTransmissionAlerts(String transmission_id) {
-		String dbQuery = "select * from transmissions.alert where transmission_id = '<transmission_id>'";
-		dbQuery = dbQuery.replace("<transmission_id>", transmission_id);
+		String dbQuery = "select * from transmissions.alert where transmission_id = ?";
 
-		report.logStep(TestStep.builder().message("Executing database query: " + dbQuery).build());
-		QueryResult queryResult = database.executeQuery(dbQuery);
+		report.logStep(TestStep.builder().message("Executing database query: " + dbQuery + " [" + transmission_id + "]").build());
+		QueryResult queryResult = database.executeQuery(DatabaseConnector.DEFAULT_ID, dbQuery, transmission_id);
 
 		if (queryResult.getAllRows().isEmpty()) {
 			report.logStep(TestStep.builder().message("No result when executed the following query: " + dbQuery).build());
@@ -1195,11 +1184,10 @@ public class PatientDBUtilities extends DBUtilities {
 
 	/**Fetch data from transmissions.episode_and_egm table**/
 	public List<Map<String, String>> getEpisodesAndEGMsData(String transmission_id) {
-		String dbQuery = "select * from transmissions.episode_and_egm eae where transmission_id = '<transmission_id>'";
-		dbQuery = dbQuery.replace("<transmission_id>", transmission_id);
+		String dbQuery = "select * from transmissions.episode_and_egm eae where transmission_id = ?";
 
-		report.logStep(TestStep.builder().message("Executing database query: " + dbQuery).build());
-		QueryResult queryResult = database.executeQuery(dbQuery);
+		report.logStep(TestStep.builder().message("Executing database query: " + dbQuery + " [" + transmission_id + "]").build());
+		QueryResult queryResult = database.executeQuery(DatabaseConnector.DEFAULT_ID, dbQuery, transmission_id);
 
 		if (queryResult.getAllRows().isEmpty()) {
 			report.logStep(TestStep.builder().message("No result when executed the following query: " + dbQuery).build());
@@ -1211,11 +1199,10 @@ public class PatientDBUtilities extends DBUtilities {
 
 	/**Fetch data from transmissions.transfer_log table**/
 	public List<Map<String, String>> getTransferLogData(String transmission_id) {
-		String dbQuery = "select * from transmissions.transfer_log tl where transmission_id = '<transmission_id>'";
-		dbQuery = dbQuery.replace("<transmission_id>", transmission_id);
+		String dbQuery = "select * from transmissions.transfer_log tl where transmission_id = ?";
 
-		report.logStep(TestStep.builder().message("Executing database query: " + dbQuery).build());
-		QueryResult queryResult = database.executeQuery(dbQuery);
+		report.logStep(TestStep.builder().message("Executing database query: " + dbQuery + " [" + transmission_id + "]").build());
+		QueryResult queryResult = database.executeQuery(DatabaseConnector.DEFAULT_ID, dbQuery, transmission_id);
 
 		if (queryResult.getAllRows().isEmpty()) {
 			report.logStep(TestStep.builder().message("No result when executed the following query: " + dbQuery).build());
@@ -1242,11 +1229,10 @@ public class PatientDBUtilities extends DBUtilities {
 	 * @return
 	 */
 	public List<Map<String, String>> getzmDataPoint(String transmission_id) {
-		String dbQuery = "select * from transmissions.zm_average_data_point zadp where transmission_id = '<transmission_id>'";
-		dbQuery = dbQuery.replace("<transmission_id>", transmission_id);
+		String dbQuery = "select * from transmissions.zm_average_data_point zadp where transmission_id = ?";
  
-		report.logStep(TestStep.builder().message("Executing database query: " + dbQuery).build());
-		QueryResult queryResult = database.executeQuery(dbQuery);
+		report.logStep(TestStep.builder().message("Executing database query: " + dbQuery + " [" + transmission_id + "]").build());
+		QueryResult queryResult = database.executeQuery(DatabaseConnector.DEFAULT_ID, dbQuery, transmission_id);
  
 		if (queryResult.getAllRows().isEmpty()) {
 			report.logStep(TestStep.builder().message("No result when executed the following query: " + dbQuery).build());
@@ -1262,11 +1248,10 @@ public class PatientDBUtilities extends DBUtilities {
 	 * @return
 	 */
 	public List<Map<String, String>> getArchiveSessionFiles(String device_serial_num) {
-		String dbQuery = "select  *  from transmissions.transaction_processing tp  where device_serial_num = '<device_serial_num>'";
-		dbQuery = dbQuery.replace("<device_serial_num>", device_serial_num);
+		String dbQuery = "select  *  from transmissions.transaction_processing tp  where device_serial_num = ?";
  
-		report.logStep(TestStep.builder().message("Executing database query: " + dbQuery).build());
-		QueryResult queryResult = database.executeQuery(dbQuery);
+		report.logStep(TestStep.builder().message("Executing database query: " + dbQuery + " [" + device_serial_num + "]").build());
+		QueryResult queryResult = database.executeQuery(DatabaseConnector.DEFAULT_ID, dbQuery, device_serial_num);
  
 		if (queryResult.getAllRows().isEmpty()) {
 			report.logStep(TestStep.builder().message("No result when executed the following query: " + dbQuery).build());
@@ -1282,11 +1267,10 @@ public class PatientDBUtilities extends DBUtilities {
 	 * @return
 	 */
 	public List<Map<String, String>> getProcessingDetails(String transaction_identity) {
-		String dbQuery = "select * from transmissions.transaction_processing_detail tpd where transaction_identity = '<transaction_identity>'";
-		dbQuery = dbQuery.replace("<transaction_identity>", transaction_identity);
+		String dbQuery = "select * from transmissions.transaction_processing_detail tpd where transaction_identity = ?";
  
-		report.logStep(TestStep.builder().message("Executing database query: " + dbQuery).build());
-		QueryResult queryResult = database.executeQuery(dbQuery);
+		report.logStep(TestStep.builder().message("Executing database query: " + dbQuery + " [" + transaction_identity + "]").build());
+		QueryResult queryResult = database.executeQuery(DatabaseConnector.DEFAULT_ID, dbQuery, transaction_identity);
  
 		if (queryResult.getAllRows().isEmpty()) {
 			report.logStep(TestStep.builder().message("No result when executed the following query: " + dbQuery).build());
@@ -1,6 +1,9 @@
 package com.mnet.middleware.utilities.tanto;
 
+import java.util.ArrayList;
+import java.util.EnumMap;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 import org.apache.commons.lang3.StringUtils;
@@ -21,6 +24,12 @@ public class AlertControlsProfile extends TantoPatientSubProfile {
 	private static final String SWITCH_CODE_ON = "1483";
 	private static final String BATTERY_ADVISORY_INDICATION_CODE = "2300";
 	
+	/*Override table layers specific to alert controls*/
+	private static final String ALERT_GROUP_LAYER = "alert_group";
+	private static final String DEVICE_ALERT_LAYER = "device_alert";
+	private static final String PATIENT_ALERT_LAYER = "patient_alert_";
+	private static final String CLINIC_ALERT_LAYER = "clinic_alert_";
+	
 	/**Cached pre Unity 1.6 percent pacing values for Auto2431 / Auto2432*/
 	private Map<AlertControlsSwitch, String> preUnity1_6Controls = new HashMap<AlertControlsSwitch, String>();
 	
@@ -80,6 +89,79 @@ public class AlertControlsProfile extends TantoPatientSubProfile {
 		return interpretIfSpecialPercentPacingControl(currentSwitch, interpretDatabaseCode(currentSwitch, override));
 	}
 	
+	/**
+	 * In addition to the common switch overrides, fetches alert groups, device alert support 
+	 * and patient / clinic alert handling for all alert controls in bulk.
+	 */
+	@Override
+	protected void prefetchSwitches(TantoProfileSwitch[] allSwitches) {
+		super.prefetchSwitches(allSwitches);
+		
+		List<String> switchNames = new ArrayList<String>();
+		Map<DatabaseField, List<String>> switchesByField = new EnumMap<DatabaseField, List<String>>(DatabaseField.class);
+		
+		for (TantoProfileSwitch profileSwitch : allSwitches) {
+			AlertControlsSwitch currentSwitch = getAlertControlsSwitch(profileSwitch);
+			String switchName = interpretIfThresholdOrDuration(currentSwitch).toString();
+			
+			if (!switchNames.contains(switchName)) {
+				switchNames.add(switchName);
+			}
+			
+			if (currentSwitch.getDatabaseField() != null) {
+				List<String> fieldSwitches = switchesByField.computeIfAbsent(currentSwitch.getDatabaseField(), field -> new ArrayList<String>());
+				
+				if (!fieldSwitches.contains(switchName)) {
+					fieldSwitches.add(switchName);
+				}
+			}
+		}
+		
+		Map<String, String> alertGroups = loadOverrides(ALERT_GROUP_LAYER, switchNames, "select switch_name, alert_group_id" +
+				" from extinstruments.transmitter_profile_switch" +
+				" where switch_name in (" + placeholders(switchNames) + ")");
+		
+		List<String> alertGroupIds = new ArrayList<String>();
+		
+		for (String alertGroupId : alertGroups.values()) {
+			if (alertGroupId != null && !alertGroupIds.contains(alertGroupId)) {
+				alertGroupIds.add(alertGroupId);
+			}
+		}
+		
+		loadOverrides(DEVICE_ALERT_LAYER, alertGroupIds, "select da.alert_group_id, da.alert_group_id from alerts.device_alert da" +
+				" join devices.device_product dp on dp.device_product_id = da.device_product_id" +
+				" join patients.patient_device pd on pd.device_product_id = dp.device_product_id" +
+				" where pd.device_serial_num = ?" +
+				" and dp.device_model_num = ?" +
+				" and da.alert_group_id in (" + placeholders(alertGroupIds) + ")", deviceSerial, deviceModel);
+		
+		for (Map.Entry<DatabaseField, List<String>> fieldSwitches : switchesByField.entrySet()) {
+			String databaseField = fieldSwitches.getKey().toString();
+			List<String> fieldSwitchNames = fieldSwitches.getValue();
+			
+			loadOverrides(PATIENT_ALERT_LAYER + databaseField, fieldSwitchNames, "select tps.switch_name, pah." + databaseField + 
+					" from patients.patient_alert_handling pah" +
+					" join extinstruments.transmitter_profile_switch tps on tps.alert_group_id = pah.alert_group_id" +
+					" join patients.customer_application_patient cap on cap.customer_appl_patient_id = pah.customer_appl_patient_id" +
+	                " join patients.patient_device pd on pd.patient_id = cap.patient_id" +
+	                " join devices.device_product dp on dp.device_product_id = pd.device_product_id" +
+	                " where pd.device_serial_num = ?" +
+	                " and dp.device_model_num = ?" +
+	                " and tps.switch_name in (" + placeholders(fieldSwitchNames) + ")", deviceSerial, deviceModel);
+			
+			loadOverrides(CLINIC_ALERT_LAYER + databaseField, fieldSwitchNames, "select tps.switch_name, cah." + databaseField + 
+					" from customers.clinic_alert_handling cah" +
+					" join extinstruments.transmitter_profile_switch tps on tps.alert_group_id = cah.alert_group_id" +
+					" join patients.customer_application_patient cap on cap.customer_application_id = cah.customer_application_id" +
+	                " join patients.patient_device pd on pd.patient_id = cap.patient_id" +
+	                " join devices.device_product dp on dp.device_product_id = pd.device_product_id" +
+	                " where pd.device_serial_num = ?" +
+	                " and dp.device_model_num = ?" +
+	                " and tps.switch_name in (" + placeholders(fieldSwitchNames) + ")", deviceSerial, deviceModel);
+		}
+	}
+	
 	@Override
 	protected String getMODDefault(TantoProfileSwitch profileSwitch) {
 		AlertControlsSwitch currentSwitch = getAlertControlsSwitch(profileSwitch);
@@ -99,16 +181,20 @@ public class AlertControlsProfile extends TantoPatientSubProfile {
 			return null;
 		}
 		
-		QueryResult queryResult = database.executeQuery("select " + databaseField.toString() + " from patients.patient_alert_handling pah" +
-				" join extinstruments.transmitter_profile_switch tps on tps.alert_group_id = pah.alert_group_id" +
-				" join patients.customer_application_patient cap on cap.customer_appl_patient_id = pah.customer_appl_patient_id" +
-                " join patients.patient_device pd on pd.patient_id = cap.patient_id" +
-                " join devices.device_product dp on dp.device_product_id = pd.device_product_id" +
-                " where tps.switch_name = '" + interpretIfThresholdOrDuration(currentSwitch).toString() + "'" + 
-                " and pd.device_serial_num = '" + deviceSerial + "'" +
-                " and dp.device_model_num = '" + deviceModel + "'");
+		String switchName = interpretIfThresholdOrDuration(currentSwitch).toString();
 		
-		return queryResult.getFirstCellValue();
+		return lookup(PATIENT_ALERT_LAYER + databaseField.toString(), switchName, () -> {
+			QueryResult queryResult = database.executeQuery("select " + databaseField.toString() + " from patients.patient_alert_handling pah" +
+					" join extinstruments.transmitter_profile_switch tps on tps.alert_group_id = pah.alert_group_id" +
+					" join patients.customer_application_patient cap on cap.customer_appl_patient_id = pah.customer_appl_patient_id" +
+	                " join patients.patient_device pd on pd.patient_id = cap.patient_id" +
+	                " join devices.device_product dp on dp.device_product_id = pd.device_product_id" +
+	                " where tps.switch_name = '" + switchName + "'" + 
+	                " and pd.device_serial_num = '" + deviceSerial + "'" +
+	                " and dp.device_model_num = '" + deviceModel + "'");
+			
+			return queryResult.getFirstCellValue();
+		});
 	}
 	
 	@Override
@@ -121,16 +207,20 @@ public class AlertControlsProfile extends TantoPatientSubProfile {
 			return null;
 		}
 		
-		QueryResult queryResult = database.executeQuery("select " + databaseField.toString() + " from customers.clinic_alert_handling cah" +
-				" join extinstruments.transmitter_profile_switch tps on tps.alert_group_id = cah.alert_group_id" +
-				" join patients.customer_application_patient cap on cap.customer_application_id = cah.customer_application_id" +
-                " join patients.patient_device pd on pd.patient_id = cap.patient_id" +
-                " join devices.device_product dp on dp.device_product_id = pd.device_product_id" +
-                " where tps.switch_name = '" + interpretIfThresholdOrDuration(currentSwitch).toString() + "'" + 
-                " and pd.device_serial_num = '" + deviceSerial + "'" +
-                " and dp.device_model_num = '" + deviceModel + "'");
+		String switchName = interpretIfThresholdOrDuration(currentSwitch).toString();
 		
-		return queryResult.getFirstCellValue();
+		return lookup(CLINIC_ALERT_LAYER + databaseField.toString(), switchName, () -> {
+			QueryResult queryResult = database.executeQuery("select " + databaseField.toString() + " from customers.clinic_alert_handling cah" +
+					" join extinstruments.transmitter_profile_switch tps on tps.alert_group_id = cah.alert_group_id" +
+					" join patients.customer_application_patient cap on cap.customer_application_id = cah.customer_application_id" +
+	                " join patients.patient_device pd on pd.patient_id = cap.patient_id" +
+	                " join devices.device_product dp on dp.device_product_id = pd.device_product_id" +
+	                " where tps.switch_name = '" + switchName + "'" + 
+	                " and pd.device_serial_num = '" + deviceSerial + "'" +
+	                " and dp.device_model_num = '" + deviceModel + "'");
+			
+			return queryResult.getFirstCellValue();
+		});
 	}
 	
 	/*
@@ -291,19 +381,21 @@ public class AlertControlsProfile extends TantoPatientSubProfile {
 	/**Returns true if the device supports the alert, or the alert has no associated alert group.
 	 * Otherwise, returns false.*/
 	private boolean deviceSupportsAlert(TantoProfileSwitch profileSwitch) {
-		String alertGroupId = database.executeQuery("select alert_group_id from extinstruments.transmitter_profile_switch" +
-				" where switch_name = '" + profileSwitch.toString() + "'").getFirstCellValue();
+		String alertGroupId = lookup(ALERT_GROUP_LAYER, profileSwitch.toString(), 
+				() -> database.executeQuery("select alert_group_id from extinstruments.transmitter_profile_switch" +
+				" where switch_name = '" + profileSwitch.toString() + "'").getFirstCellValue());
 		
 		if (alertGroupId == null) {
 			return true;
 		}
 		
-		String alertSupported = database.executeQuery("select * from alerts.device_alert da" +
+		String alertSupported = lookup(DEVICE_ALERT_LAYER, alertGroupId, 
+				() -> database.executeQuery("select * from alerts.device_alert da" +
 				" join devices.device_product dp on dp.device_product_id = da.device_product_id" +
 				" join patients.patient_device pd on pd.device_product_id = dp.device_product_id" +
 				" where da.alert_group_id = '" + alertGroupId + "'" +
 				" and pd.device_serial_num = '" + deviceSerial + "'" +
-				" and dp.device_model_num = '" + deviceModel + "'").getFirstCellValue();
+				" and dp.device_model_num = '" + deviceModel + "'").getFirstCellValue());
 		
 		return (alertSupported != null) ? true : false;
 	}
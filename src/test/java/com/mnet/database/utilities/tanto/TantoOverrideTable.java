@@ -0,0 +1,59 @@
+package com.mnet.middleware.utilities.tanto;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Supplier;
+
+/**
+ * In-memory table of switch override values for a single device, populated in bulk before a subprofile is validated.
+ * Each layer (MOD, transmitter, device, patient, clinic, default, ...) maps a lookup key (usually the switch name) to its value.
+ * Keys which were looked up but have no database value are recorded as resolved to null.
+ * @version Spring 2023
+ * @author Arya Biswas
+ */
+class TantoOverrideTable {
+
+	private final String deviceSerial;
+	private final String deviceModel;
+	private final String profileVersion;
+
+	private final Map<String, Map<String, String>> layers = new HashMap<String, Map<String, String>>();
+
+	TantoOverrideTable(String deviceSerial, String deviceModel, String profileVersion) {
+		this.deviceSerial = deviceSerial;
+		this.deviceModel = deviceModel;
+		this.profileVersion = profileVersion;
+	}
+
+	/**Returns true if the table was populated for the designated device and profile version.*/
+	boolean appliesTo(String serial, String model, String version) {
+		return Objects.equals(deviceSerial, serial) && Objects.equals(deviceModel, model) && Objects.equals(profileVersion, version);
+	}
+
+	/**
+	 * Records values for all keys of a layer. Keys absent from values are resolved to null.
+	 */
+	void load(String layer, Collection<String> keys, Map<String, String> values) {
+		Map<String, String> layerValues = layers.computeIfAbsent(layer, key -> new HashMap<String, String>());
+
+		for (String key : keys) {
+			layerValues.put(key, values.get(key));
+		}
+	}
+
+	/**
+	 * Returns the value of a key in the designated layer.
+	 * If the key has not been resolved yet, invokes lookup once and caches the result.
+	 */
+	String resolve(String layer, String key, Supplier<String> lookup) {
+		Map<String, String> layerValues = layers.computeIfAbsent(layer, k -> new HashMap<String, String>());
+
+		if (!layerValues.containsKey(key)) {
+			layerValues.put(key, lookup.get());
+		}
+
+		return layerValues.get(key);
+	}
+}
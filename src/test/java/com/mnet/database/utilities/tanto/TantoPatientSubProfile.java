@@ -5,7 +5,13 @@ import java.time.ZoneId;
 import java.time.ZoneOffset;
 import java.time.ZonedDateTime;
 import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
 
 import org.apache.commons.lang3.StringUtils;
 
@@ -31,6 +37,18 @@ public abstract class TantoPatientSubProfile extends TantoSubProfile {
 	
 	private Boolean hasMODTransmitter;
 	
+	/**Override values fetched in bulk for all switches of the subprofile (see prefetchSwitches).*/
+	private TantoOverrideTable overrideTable;
+	
+	/*Override table layers*/
+	protected static final String ATTRIBUTE_LAYER = "attribute";
+	protected static final String MOD_LAYER = "mod";
+	protected static final String TRANSMITTER_LAYER = "transmitter";
+	protected static final String DEVICE_LAYER = "device";
+	protected static final String PATIENT_LAYER = "patient";
+	protected static final String CLINIC_LAYER = "clinic";
+	protected static final String DEFAULT_LAYER = "default";
+	
 	/**Product id for EX1100 transmitter*/
 	private static final String INDUCTIVE_TRANSMITTER_PRODUCT_ID = "100000";
 	private static final String ACTIVE_PATIENT_STATUS_CD = "46";
@@ -61,10 +79,12 @@ public abstract class TantoPatientSubProfile extends TantoSubProfile {
 			return null;
 		}
 		
-		return database.executeQuery("select payload_attr_default_value" +
+		return lookup(ATTRIBUTE_LAYER, profileSwitch.toString(), () -> database.executeQuery(DatabaseConnector.DEFAULT_ID, 
+				"select payload_attr_default_value" +
 				" from extinstruments.transmitter_profile_attribute" +
-				" where profile_payload_type_cd = '" + profilePayloadCode + "'" +
-				" and payload_attribute_name like '%" + profileSwitch.toString() + "%'").getFirstCellValue();
+				" where profile_payload_type_cd = ?" +
+				" and payload_attribute_name like ?",
+				profilePayloadCode, "%" + profileSwitch.toString() + "%").getFirstCellValue());
 	}
 	
 	/**
@@ -75,7 +95,8 @@ public abstract class TantoPatientSubProfile extends TantoSubProfile {
 	}
 	
 	protected String getMODOverride(TantoProfileSwitch profileSwitch) {
-		return database.executeQuery("select cts.switch_value" +
+		return lookup(MOD_LAYER, profileSwitch.toString(), () -> database.executeQuery(DatabaseConnector.DEFAULT_ID, 
+				"select cts.switch_value" +
                 " from customers.customer_transmitter_switch cts" +
 				" join customers.customer_transmitter ct on ct.customer_transmitter_id = cts.customer_transmitter_id" +
                 " join extinstruments.transmitter_profile_switch tps on tps.transmitter_profile_switch_id = cts.transmitter_profile_switch_id" +
@@ -84,33 +105,38 @@ public abstract class TantoPatientSubProfile extends TantoSubProfile {
 				" join patients.patient ptnt on ptnt.patient_id = cap.patient_id" +
 				" join patients.patient_device pd on pd.patient_id = ptnt.patient_id" +
 				" join devices.device_product dp on dp.device_product_id = pd.device_product_id" +
-				" where pd.device_serial_num = '" + deviceSerial + "'" + 
-				" and dp.device_model_num = '" + deviceModel + "'" +
-				" and tps.switch_name = '" + profileSwitch.toString() + "'").getFirstCellValue();
+				" where pd.device_serial_num = ?" + 
+				" and dp.device_model_num = ?" +
+				" and tps.switch_name = ?",
+				deviceSerial, deviceModel, profileSwitch.toString()).getFirstCellValue());
 	}
 	
 	protected String getTransmitterOverride(TantoProfileSwitch profileSwitch) {
-		return database.executeQuery("select pts.switch_value" +
+		return lookup(TRANSMITTER_LAYER, profileSwitch.toString(), () -> database.executeQuery(DatabaseConnector.DEFAULT_ID, 
+				"select pts.switch_value" +
                 " from patients.patient_transmitter_switch pts" +
                 " join extinstruments.transmitter_profile_switch tps on tps.transmitter_profile_switch_id = pts.transmitter_profile_switch_id" +
                 " join patients.patient ptnt on ptnt.patient_id = pts.patient_id" +
                 " join patients.patient_device pd on pd.patient_id = ptnt.patient_id" +
                 " join devices.device_product dp on dp.device_product_id = pd.device_product_id" +
-                " where pd.device_serial_num = '" + deviceSerial + "'" +
-                " and dp.device_model_num = '" + deviceModel + "'" +
-                " and tps.switch_name = '" + profileSwitch.toString() + "'").getFirstCellValue();
+                " where pd.device_serial_num = ?" +
+                " and dp.device_model_num = ?" +
+                " and tps.switch_name = ?",
+                deviceSerial, deviceModel, profileSwitch.toString()).getFirstCellValue());
 	}
 	
 	protected String getDeviceOverride(TantoProfileSwitch profileSwitch) {
-		return database.executeQuery("select dps.device_switch_default_value" +
+		return lookup(DEVICE_LAYER, profileSwitch.toString(), () -> database.executeQuery(DatabaseConnector.DEFAULT_ID, 
+				"select dps.device_switch_default_value" +
                 " from extinstruments.device_product_switch dps" +
                 " join extinstruments.transmitter_profile_switch tps on dps.transmitter_profile_switch_id = tps.transmitter_profile_switch_id" +
                 " join devices.device_product dp on dps.device_product_id = dp.device_product_id" +
                 " join patients.patient_device pd on dp.device_product_id = pd.device_product_id" +
                 " join patients.patient ptnt on pd.patient_id = ptnt.patient_id" +
-                " where pd.device_serial_num = '" + deviceSerial + "'" +
-                " and dp.device_model_num = '" + deviceModel + "'" +
-                " and tps.switch_name = '" + profileSwitch.toString() + "'").getFirstCellValue();
+                " where pd.device_serial_num = ?" +
+                " and dp.device_model_num = ?" +
+                " and tps.switch_name = ?",
+                deviceSerial, deviceModel, profileSwitch.toString()).getFirstCellValue());
 	}
 	
 	/**
@@ -124,12 +150,15 @@ public abstract class TantoPatientSubProfile extends TantoSubProfile {
 			return null;
 		}
 		
-		return database.executeQuery("select ptnt." + databaseField.toString() + 
+		// Patient-level value depends only on the field - resolved once per field
+		return lookup(PATIENT_LAYER, databaseField.toString(), () -> database.executeQuery(DatabaseConnector.DEFAULT_ID, 
+				"select ptnt." + databaseField.toString() + 
                 " from patients.patient ptnt" +
                 " join patients.patient_device pd on pd.patient_id = ptnt.patient_id" +
                 " join devices.device_product dp on dp.device_product_id = pd.device_product_id" +
-                " where pd.device_serial_num = '" + deviceSerial + "'" +
-                " and dp.device_model_num = '" + deviceModel + "'").getFirstCellValue();
+                " where pd.device_serial_num = ?" +
+                " and dp.device_model_num = ?",
+                deviceSerial, deviceModel).getFirstCellValue());
 	}
 	
 	/**
@@ -143,15 +172,18 @@ public abstract class TantoPatientSubProfile extends TantoSubProfile {
 			return null;
 		}
 		
-		return database.executeQuery("select cust." + databaseField.toString() +
+		// Clinic-level value depends only on the field - resolved once per field
+		return lookup(CLINIC_LAYER, databaseField.toString(), () -> database.executeQuery(DatabaseConnector.DEFAULT_ID, 
+				"select cust." + databaseField.toString() +
 				" from customers.customer cust" +
                 " join customers.customer_application ca on cust.customer_id = ca.customer_id" +
                 " join patients.customer_application_patient cap on cap.customer_application_id = ca.customer_application_id" +
                 " join patients.patient ptnt on ptnt.patient_id = cap.patient_id" +
                 " join patients.patient_device pd on pd.patient_id = ptnt.patient_id" +
                 " join devices.device_product dp on dp.device_product_id = pd.device_product_id" +
-                " where pd.device_serial_num = '" + deviceSerial + "'" +
-                " and dp.device_model_num = '" + deviceModel + "'").getFirstCellValue();
+                " where pd.device_serial_num = ?" +
+                " and dp.device_model_num = ?",
+                deviceSerial, deviceModel).getFirstCellValue());
 	}
 	
 	@Override
@@ -202,12 +234,150 @@ public abstract class TantoPatientSubProfile extends TantoSubProfile {
 	
 	@Override
 	protected String getDefaultSwitchValue(TantoProfileSwitch profileSwitch) {
-		return database.executeQuery("select tps.switch_default_value" +
+		return lookup(DEFAULT_LAYER, profileSwitch.toString(), () -> database.executeQuery(DatabaseConnector.DEFAULT_ID, 
+				"select tps.switch_default_value" +
                 " from extinstruments.transmitter_profile_switch tps" +
                 " join extinstruments.transmitter_profile_version tpv on tpv.transmitter_profile_switch_id = tps.transmitter_profile_switch_id" +
                 " join lookup.code cd on tpv.profile_version_cd = cd.code_id" +
-                " and tps.switch_name = '" + profileSwitch.toString() + "'" +
-                " and cd.code = '" + getBaselinedProfileVersion(profileVersion) + "'").getFirstCellValue();
+                " and tps.switch_name = ?" +
+                " and cd.code = ?",
+                profileSwitch.toString(), getBaselinedProfileVersion(profileVersion)).getFirstCellValue());
+	}
+	
+	/**
+	 * Fetches attribute, MOD / transmitter / device override and default values for all switches in a handful of set-based queries.
+	 * The precedence chain in getSwitchOverride() is then evaluated against the in-memory override table.
+	 * Patient / clinic values are resolved once per database field on first use.
+	 */
+	@Override
+	protected void prefetchSwitches(TantoProfileSwitch[] allSwitches) {
+		overrideTable = new TantoOverrideTable(deviceSerial, deviceModel, profileVersion);
+		
+		List<String> switchNames = new ArrayList<String>();
+		List<String> attributeNames = new ArrayList<String>();
+		
+		for (TantoProfileSwitch profileSwitch : allSwitches) {
+			switchNames.add(profileSwitch.toString());
+			
+			if (profileSwitch.isXmlAttribute()) {
+				attributeNames.add(profileSwitch.toString());
+			}
+		}
+		
+		if (!attributeNames.isEmpty()) {
+			List<List<String>> attributes = database.executeQuery(DatabaseConnector.DEFAULT_ID, "select payload_attribute_name, payload_attr_default_value" +
+					" from extinstruments.transmitter_profile_attribute" +
+					" where profile_payload_type_cd = ?", profilePayloadCode).getAllRows();
+			
+			Map<String, String> attributeValues = new HashMap<String, String>();
+			
+			for (String attributeName : attributeNames) {
+				for (List<String> attribute : attributes) {
+					if (attribute.get(0) != null && attribute.get(0).contains(attributeName)) {
+						attributeValues.put(attributeName, attribute.get(1));
+						break;
+					}
+				}
+			}
+			
+			overrideTable.load(ATTRIBUTE_LAYER, attributeNames, attributeValues);
+		}
+		
+		if (switchNames.isEmpty()) {
+			return;
+		}
+		
+		if (hasMODTransmitter()) {
+			loadOverrides(MOD_LAYER, switchNames, "select tps.switch_name, cts.switch_value" +
+	                " from customers.customer_transmitter_switch cts" +
+					" join customers.customer_transmitter ct on ct.customer_transmitter_id = cts.customer_transmitter_id" +
+	                " join extinstruments.transmitter_profile_switch tps on tps.transmitter_profile_switch_id = cts.transmitter_profile_switch_id" +
+	                " join customers.customer_application ca on ca.customer_id = ct.customer_id" +
+					" join patients.customer_application_patient cap on cap.customer_application_id = ca.customer_application_id" +
+					" join patients.patient ptnt on ptnt.patient_id = cap.patient_id" +
+					" join patients.patient_device pd on pd.patient_id = ptnt.patient_id" +
+					" join devices.device_product dp on dp.device_product_id = pd.device_product_id" +
+					" where pd.device_serial_num = ?" + 
+					" and dp.device_model_num = ?" +
+					" and tps.switch_name in (" + placeholders(switchNames) + ")", deviceSerial, deviceModel);
+		} else {
+			loadOverrides(TRANSMITTER_LAYER, switchNames, "select tps.switch_name, pts.switch_value" +
+	                " from patients.patient_transmitter_switch pts" +
+	                " join extinstruments.transmitter_profile_switch tps on tps.transmitter_profile_switch_id = pts.transmitter_profile_switch_id" +
+	                " join patients.patient ptnt on ptnt.patient_id = pts.patient_id" +
+	                " join patients.patient_device pd on pd.patient_id = ptnt.patient_id" +
+	                " join devices.device_product dp on dp.device_product_id = pd.device_product_id" +
+	                " where pd.device_serial_num = ?" +
+	                " and dp.device_model_num = ?" +
+	                " and tps.switch_name in (" + placeholders(switchNames) + ")", deviceSerial, deviceModel);
+			
+			loadOverrides(DEVICE_LAYER, switchNames, "select tps.switch_name, dps.device_switch_default_value" +
+	                " from extinstruments.device_product_switch dps" +
+	                " join extinstruments.transmitter_profile_switch tps on dps.transmitter_profile_switch_id = tps.transmitter_profile_switch_id" +
+	                " join devices.device_product dp on dps.device_product_id = dp.device_product_id" +
+	                " join patients.patient_device pd on dp.device_product_id = pd.device_product_id" +
+	                " join patients.patient ptnt on pd.patient_id = ptnt.patient_id" +
+	                " where pd.device_serial_num = ?" +
+	                " and dp.device_model_num = ?" +
+	                " and tps.switch_name in (" + placeholders(switchNames) + ")", deviceSerial, deviceModel);
+		}
+		
+		if (profileVersion != null) {
+			loadOverrides(DEFAULT_LAYER, switchNames, "select tps.switch_name, tps.switch_default_value" +
+	                " from extinstruments.transmitter_profile_switch tps" +
+	                " join extinstruments.transmitter_profile_version tpv on tpv.transmitter_profile_switch_id = tps.transmitter_profile_switch_id" +
+	                " join lookup.code cd on tpv.profile_version_cd = cd.code_id" +
+	                " and cd.code = ?" +
+	                " and tps.switch_name in (" + placeholders(switchNames) + ")", getBaselinedProfileVersion(profileVersion));
+		}
+	}
+	
+	@Override
+	protected void releasePrefetchedSwitches() {
+		overrideTable = null;
+	}
+	
+	/**
+	 * Returns the value of key in the designated override table layer, resolving it via query if it was not prefetched.
+	 * Without a prefetched override table (single switch validation), query is invoked directly.
+	 */
+	protected String lookup(String layer, String key, Supplier<String> query) {
+		if (overrideTable == null || !overrideTable.appliesTo(deviceSerial, deviceModel, profileVersion)) {
+			return query.get();
+		}
+		
+		return overrideTable.resolve(layer, key, query);
+	}
+	
+	/**
+	 * Loads an override table layer for the designated keys in a single query.
+	 * @param sql Query returning (key, value) rows, with parameter placeholders for leadingParams followed by keys.
+	 * @return Values loaded for the designated keys (keys without a value are omitted).
+	 * @implNote The first row for a given key takes precedence.
+	 */
+	protected Map<String, String> loadOverrides(String layer, List<String> keys, String sql, Object... leadingParams) {
+		Map<String, String> values = new HashMap<String, String>();
+		
+		if (overrideTable == null || keys.isEmpty()) {
+			return values;
+		}
+		
+		List<Object> params = new ArrayList<Object>(Arrays.asList(leadingParams));
+		params.addAll(keys);
+		
+		for (List<String> row : database.executeQuery(DatabaseConnector.DEFAULT_ID, sql, params.toArray()).getAllRows()) {
+			if (!values.containsKey(row.get(0))) {
+				values.put(row.get(0), row.get(1));
+			}
+		}
+		
+		overrideTable.load(layer, keys, values);
+		return values;
+	}
+	
+	/**Returns comma separated bind placeholders for an SQL in (...) clause.*/
+	protected String placeholders(List<?> values) {
+		return String.join(", ", Collections.nCopies(values.size(), "?"));
 	}
 	
 	/**Returns queriable time zone string e.g. US/Central*/
@@ -382,7 +552,7 @@ public abstract class TantoPatientSubProfile extends TantoSubProfile {
 	 */
 	
 	private boolean queryMODTransmitter() {
-		String customerTransmitterUser = database.executeQuery("select ct.create_userid" +
+		String customerTransmitterUser = database.executeQuery(DatabaseConnector.DEFAULT_ID, "select ct.create_userid" +
 				" from customers.customer_transmitter ct" +
 				" join customers.customer_application ca on ca.customer_id = ct.customer_id" +
 				" join patients.customer_application_patient cap on cap.customer_application_id = ca.customer_application_id" +
@@ -391,9 +561,10 @@ public abstract class TantoPatientSubProfile extends TantoSubProfile {
 				" join devices.device_product dp on dp.device_product_id = pd.device_product_id" +
 				" join patients.device_transmitter dt on dt.patient_device_id = pd.patient_device_id" +
 				" where ct.transmitter_serial_num = dt.transmitter_serial_num" +
-				" and pd.device_serial_num = '" + deviceSerial + "'" +
-				" and dp.device_model_num = '" + deviceModel + "'" +
-				" and dt.transmitter_product_id = " + INDUCTIVE_TRANSMITTER_PRODUCT_ID).getFirstCellValue();
+				" and pd.device_serial_num = ?" +
+				" and dp.device_model_num = ?" +
+				" and dt.transmitter_product_id = " + INDUCTIVE_TRANSMITTER_PRODUCT_ID,
+				deviceSerial, deviceModel).getFirstCellValue();
 		
 		return (customerTransmitterUser != null ? true : false);
 	}
@@ -70,13 +70,34 @@ public abstract class TantoSubProfile {
 		
 		boolean subprofileValid = true;
 		
-		for (TantoProfileSwitch currentSwitch : allSwitches) {
-			subprofileValid = validateSwitch(currentSwitch) ? subprofileValid : false;
+		prefetchSwitches(allSwitches);
+		
+		try {
+			for (TantoProfileSwitch currentSwitch : allSwitches) {
+				subprofileValid = validateSwitch(currentSwitch) ? subprofileValid : false;
+			}
+		} finally {
+			releasePrefetchedSwitches();
 		}
 		
 		return subprofileValid;
 	}
 	
+	/**
+	 * Invoked before all switches of the subprofile are validated.
+	 * Override to fetch expected values for all switches in bulk rather than per switch.
+	 */
+	protected void prefetchSwitches(TantoProfileSwitch[] allSwitches) {
+		// No bulk resolution by default
+	}
+	
+	/**
+	 * Invoked after all switches of the subprofile are validated to discard values fetched by prefetchSwitches().
+	 */
+	protected void releasePrefetchedSwitches() {
+		// No bulk resolution by default
+	}
+	
 	/**
 	 * Adds evaluation of switch value to test report.
 	 */
@@ -0,0 +1,197 @@
+package com.mnet.pojo.xml;
+
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+
+/**
+ * Immutable index of a Tanto patient profile response - switch values and attributes (SystemInformation, GenerateSchedule, UploadSchedule)
+ * by subprofile type. Built in a single streaming (StAX) pass over the response XML.
+ * Subprofile types and switch names are case-insensitive (as in {@link TantoPatientProfileResponse#getSubprofileOfType(String)}).
+ * Attribute names are case-sensitive.
+ * @implNote If a switch name occurs more than once in a subprofile, Switch takes precedence over iSwitch, rSwitch and tSwitch (as in Controls.getAllSwitches()).
+ * @author Arya Biswas
+ */
+public final class TantoPatientProfileIndex {
+
+	/**Subprofile type under which switches and SystemInformation of the SystemData element are indexed.*/
+	public static final String SYSTEM_DATA = "SystemData";
+
+	private static final String PAYLOAD_PROFILE = "PayloadProfile";
+	/**Switch elements in order of precedence.*/
+	private static final List<String> SWITCH_ELEMENTS = List.of("Switch", "iSwitch", "rSwitch", "tSwitch");
+	private static final Set<String> ATTRIBUTE_CATEGORIES = Set.of("SystemInformation", "GenerateSchedule", "UploadSchedule");
+
+	/**XMLInputFactory is not guaranteed to be thread-safe.*/
+	private static final ThreadLocal<XMLInputFactory> inputFactory = ThreadLocal.withInitial(() -> {
+		XMLInputFactory factory = XMLInputFactory.newInstance();
+		factory.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+		return factory;
+	});
+
+	private final Map<String, Map<String, String>> switches;
+	private final Map<String, Map<String, Map<String, String>>> attributes;
+
+	private TantoPatientProfileIndex(Map<String, Map<String, String>> switches, Map<String, Map<String, Map<String, String>>> attributes) {
+		this.switches = Collections.unmodifiableMap(switches);
+		this.attributes = Collections.unmodifiableMap(attributes);
+	}
+
+	/**
+	 * Indexes Tanto patient profile response XML in a single pass.
+	 */
+	public static TantoPatientProfileIndex parse(String content) throws XMLStreamException {
+		Builder builder = new Builder();
+		XMLStreamReader reader = inputFactory.get().createXMLStreamReader(new StringReader(content));
+		String subprofile = null;
+
+		try {
+			while (reader.hasNext()) {
+				int event = reader.next();
+
+				if (event == XMLStreamConstants.END_ELEMENT) {
+					if (reader.getLocalName().equals(SYSTEM_DATA) || reader.getLocalName().equals(PAYLOAD_PROFILE)) {
+						subprofile = null;
+					}
+
+					continue;
+				}
+
+				if (event != XMLStreamConstants.START_ELEMENT) {
+					continue;
+				}
+
+				String element = reader.getLocalName();
+
+				if (element.equals(SYSTEM_DATA)) {
+					subprofile = builder.addSubprofile(SYSTEM_DATA) ? SYSTEM_DATA : null;
+				} else if (element.equals(PAYLOAD_PROFILE)) {
+					String type = reader.getAttributeValue(null, "Type");
+					// Only the first subprofile of a type is considered
+					subprofile = (type != null && builder.addSubprofile(type)) ? type : null;
+				} else if (subprofile != null && SWITCH_ELEMENTS.contains(element)) {
+					builder.addSwitch(subprofile, SWITCH_ELEMENTS.indexOf(element),
+							reader.getAttributeValue(null, "name"), reader.getAttributeValue(null, "value"));
+				} else if (subprofile != null && ATTRIBUTE_CATEGORIES.contains(element)) {
+					Map<String, String> values = new HashMap<String, String>();
+
+					for (int i = 0; i < reader.getAttributeCount(); i++) {
+						values.put(reader.getAttributeLocalName(i), reader.getAttributeValue(i));
+					}
+
+					builder.addAttributes(subprofile, element, values);
+				}
+			}
+		} finally {
+			reader.close();
+		}
+
+		return builder.build();
+	}
+
+	/**
+	 * @return true if the response contains the designated subprofile (PayloadProfile type or SYSTEM_DATA).
+	 */
+	public boolean hasSubprofile(String subprofileType) {
+		return switches.containsKey(getKey(subprofileType));
+	}
+
+	/**
+	 * @return Value of the switch in the designated subprofile, or null if the switch (or subprofile) is not in the response.
+	 */
+	public String getSwitchValue(String subprofileType, String switchName) {
+		Map<String, String> subprofileSwitches = switches.get(getKey(subprofileType));
+		return (subprofileSwitches == null) ? null : subprofileSwitches.get(getKey(switchName));
+	}
+
+	/**
+	 * @param attributeCategory SystemInformation (of SYSTEM_DATA), GenerateSchedule or UploadSchedule.
+	 * @return Value of the attribute in the designated subprofile, or null if the attribute (or category / subprofile) is not in the response.
+	 */
+	public String getAttribute(String subprofileType, String attributeCategory, String attributeName) {
+		Map<String, Map<String, String>> categories = attributes.get(getKey(subprofileType));
+		Map<String, String> values = (categories == null) ? null : categories.get(attributeCategory);
+
+		return (values == null) ? null : values.get(attributeName);
+	}
+
+	/*
+	 * Helper functions
+	 */
+
+	private static String getKey(String name) {
+		return name.toLowerCase(Locale.ROOT);
+	}
+
+	private static class Builder {
+
+		/**Switches of each subprofile by switch element (in order of precedence).*/
+		private final Map<String, List<Map<String, String>>> switches = new LinkedHashMap<String, List<Map<String, String>>>();
+		private final Map<String, Map<String, Map<String, String>>> attributes = new HashMap<String, Map<String, Map<String, String>>>();
+
+		/**@return false if the subprofile was already indexed.*/
+		private boolean addSubprofile(String subprofileType) {
+			String key = getKey(subprofileType);
+
+			if (switches.containsKey(key)) {
+				return false;
+			}
+
+			List<Map<String, String>> switchesByElement = new ArrayList<Map<String, String>>();
+
+			for (int i = 0; i < SWITCH_ELEMENTS.size(); i++) {
+				switchesByElement.add(new HashMap<String, String>());
+			}
+
+			switches.put(key, switchesByElement);
+			attributes.put(key, new HashMap<String, Map<String, String>>());
+			return true;
+		}
+
+		private void addSwitch(String subprofileType, int switchElement, String name, String value) {
+			Map<String, String> elementSwitches = switches.get(getKey(subprofileType)).get(switchElement);
+
+			if (name != null && !elementSwitches.containsKey(getKey(name))) {
+				elementSwitches.put(getKey(name), value);
+			}
+		}
+
+		private void addAttributes(String subprofileType, String attributeCategory, Map<String, String> values) {
+			attributes.get(getKey(subprofileType)).putIfAbsent(attributeCategory, Collections.unmodifiableMap(values));
+		}
+
+		private TantoPatientProfileIndex build() {
+			Map<String, Map<String, String>> mergedSwitches = new HashMap<String, Map<String, String>>();
+
+			switches.forEach((subprofile, switchesByElement) -> {
+				Map<String, String> merged = new HashMap<String, String>();
+
+				for (Map<String, String> elementSwitches : switchesByElement) {
+					elementSwitches.forEach((name, value) -> {
+						if (!merged.containsKey(name)) {
+							merged.put(name, value);
+						}
+					});
+				}
+
+				mergedSwitches.put(subprofile, Collections.unmodifiableMap(merged));
+			});
+
+			Map<String, Map<String, Map<String, String>>> indexedAttributes = new HashMap<String, Map<String, Map<String, String>>>();
+			attributes.forEach((subprofile, categories) -> indexedAttributes.put(subprofile, Collections.unmodifiableMap(categories)));
+
+			return new TantoPatientProfileIndex(mergedSwitches, indexedAttributes);
+		}
+	}
+}
@@ -1,37 +1,94 @@
 package com.mnet.pojo.xml;
 
+import java.io.StringReader;
 import java.util.List;
 
+import javax.xml.stream.XMLStreamException;
+
+import com.mnet.framework.utilities.XMLContextRegistry;
 import com.mnet.framework.utilities.XMLData;
 import com.mnet.pojo.xml.tanto.PayloadProfile;
 import com.mnet.pojo.xml.tanto.SystemData;
 
+import jakarta.xml.bind.JAXBException;
 import jakarta.xml.bind.annotation.XmlAccessType;
 import jakarta.xml.bind.annotation.XmlAccessorType;
 import jakarta.xml.bind.annotation.XmlElement;
 import jakarta.xml.bind.annotation.XmlRootElement;
-import lombok.AllArgsConstructor;
+import jakarta.xml.bind.annotation.XmlTransient;
+import lombok.AccessLevel;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 
 /**
  * JAXB data object representing a Tanto patient profile XML request.
- * Constructor taking all possible arguments is auto-generated.
+ * Constructor taking all XML elements is defined explicitly.
+ * @implNote Responses created via parse() are indexed in a single streaming pass - the JAXB tree is only built if accessed.
  * @author Arya Biswas
  */
 @XmlRootElement(name = "ProfileList", namespace = "http://www.merlin.net/PayloadProfile.xsd")
 @XmlAccessorType(XmlAccessType.FIELD)
-@Getter @AllArgsConstructor @NoArgsConstructor
+@Getter @NoArgsConstructor
 public class TantoPatientProfileResponse extends XMLData {
 	
 	private SystemData SystemData;
 	
 	@XmlElement(name = "PayloadProfile")
 	private List<PayloadProfile> subprofiles;
+	
+	/**Raw response XML - set until the JAXB tree is built.*/
+	@XmlTransient @Getter(AccessLevel.NONE)
+	private String content;
+	
+	@XmlTransient @Getter(AccessLevel.NONE)
+	private TantoPatientProfileIndex index;
+	
+	public TantoPatientProfileResponse(SystemData systemData, List<PayloadProfile> subprofiles) {
+		this.SystemData = systemData;
+		this.subprofiles = subprofiles;
+	}
+	
+	/**
+	 * Indexes Tanto patient profile response XML in a single streaming pass (see {@link #getIndex()}).
+	 * JAXB tree (getSystemData(), getSubprofiles()) is built on first access.
+	 */
+	public static TantoPatientProfileResponse parse(String content) throws XMLStreamException {
+		TantoPatientProfileResponse response = new TantoPatientProfileResponse();
+		response.index = TantoPatientProfileIndex.parse(content);
+		response.content = content;
+		
+		return response;
+	}
+	
+	/**
+	 * Returns switches and attributes of this response by subprofile type.
+	 * Built on first access if this response was not created via parse().
+	 */
+	public synchronized TantoPatientProfileIndex getIndex() {
+		if (index == null) {
+			try {
+				index = TantoPatientProfileIndex.parse(XMLContextRegistry.marshal(this));
+			} catch (JAXBException | XMLStreamException e) {
+				throw new RuntimeException("Failed to index Tanto patient profile response", e);
+			}
+		}
+		
+		return index;
+	}
+	
+	public SystemData getSystemData() {
+		buildTree();
+		return SystemData;
+	}
+	
+	public List<PayloadProfile> getSubprofiles() {
+		buildTree();
+		return subprofiles;
+	}
 
 	//**Returns Tanto subprofile with the designated "Type" attribute. */
 	public PayloadProfile getSubprofileOfType(String subprofileType) {
-		for (PayloadProfile profile : subprofiles) {
+		for (PayloadProfile profile : getSubprofiles()) {
 			if (profile.getType().equalsIgnoreCase(subprofileType)) {
 				return profile;
 			}
@@ -40,4 +97,23 @@ public class TantoPatientProfileResponse extends XMLData {
 		return null;
 	}
 	
+	/*
+	 * Helper functions
+	 */
+	
+	private synchronized void buildTree() {
+		if (content == null) {
+			return;
+		}
+		
+		try {
+			TantoPatientProfileResponse parsed = XMLContextRegistry.unmarshal(new StringReader(content), TantoPatientProfileResponse.class);
+			SystemData = parsed.SystemData;
+			subprofiles = parsed.subprofiles;
+			content = null;
+		} catch (JAXBException jaxb) {
+			throw new RuntimeException("Failed to parse Tanto patient profile response", jaxb);
+		}
+	}
+	
 }
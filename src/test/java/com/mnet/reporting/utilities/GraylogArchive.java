@@ -1,17 +1,20 @@
 package com.mnet.reporting.utilities;
 
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.Map;
 import java.util.Set;
 
 import com.mnet.framework.reporting.FrameworkLog;
 import com.mnet.framework.reporting.TestReporter;
 import com.mnet.framework.reporting.TestReporter.ReportLevel;
-import com.mnet.framework.utilities.FileUtilities;
 import com.mnet.reporting.utilities.GraylogReporting.Microservice;
 
 /**
  * Represents a set of logs retrieved from Graylog.
- * Provides capability to save logs to the test logging path.
+ * Logs are saved to the test logging path as they are retrieved (see {@link GraylogCollector}).
  * @author Arya Biswas
  * @version Spring 2023
  */
@@ -19,27 +22,22 @@ public class GraylogArchive {
 
 	private FrameworkLog log;
 	private TestReporter testReport;
-	private FileUtilities fileManager;
-	private Map<Microservice, String> loggedReports;
+	private Map<Microservice, Path> loggedReports;
 	private Set<Microservice> services;
 	
-	protected GraylogArchive(FrameworkLog frameworkLog, TestReporter testReporter, Map<Microservice, String> graylogReports) {
+	protected GraylogArchive(FrameworkLog frameworkLog, TestReporter testReporter, Map<Microservice, Path> graylogReports) {
 		log = frameworkLog;
 		testReport = testReporter;
 		loggedReports = graylogReports;
 		
-		fileManager = new FileUtilities(log);
 		services = graylogReports.keySet();
 	}
 	
 	/**
-	 * Write all Graylog reports retrieved to the test logging path
-	 * and link to them in the test's Extent Report.*/
+	 * Link to all Graylog reports retrieved (saved to the test logging path) in the test's Extent Report.*/
 	public void writeAll() {
 		for (Microservice service : services) {
-			String filename = service.toString() + "_" + FrameworkLog.getCurrentTimestamp() + ".csv";
-
-			fileManager.writeToFile(log.getLogDirectory() + filename, loggedReports.get(service));
+			String filename = loggedReports.get(service).getFileName().toString();
 
 			testReport.logHeader(ReportLevel.INFO, "<a href='../" + log.getRelativeLogDirectory() + filename + "'>"
 					+ "Logs from " + service.toString() + "</a>");
@@ -52,7 +50,20 @@ public class GraylogArchive {
 	 * Returns the raw report text associated with the provided microservice (if it exists).
 	 * If the microservice log is not associated with this archive, returns null.*/
 	public String getReportText(Microservice microservice) {
-		return loggedReports.get(microservice);
+		Path reportFile = loggedReports.get(microservice);
+		
+		if (reportFile == null) {
+			return null;
+		}
+		
+		try {
+			return new String(Files.readAllBytes(reportFile), StandardCharsets.UTF_8);
+		} catch (IOException ioe) {
+			String err = "Failed to read Graylog logs from: " + reportFile;
+			log.error(err);
+			log.printStackTrace(ioe);
+			throw new RuntimeException(err);
+		}
 	}
 	
 	/**
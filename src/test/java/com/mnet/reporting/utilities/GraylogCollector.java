@@ -0,0 +1,276 @@
+package com.mnet.reporting.utilities;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.apache.http.HttpStatus;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.mnet.framework.api.APIRequest;
+import com.mnet.framework.api.APIRequest.APICharset;
+import com.mnet.framework.api.RestAPIManager;
+import com.mnet.framework.core.FrameworkProperties;
+import com.mnet.framework.reporting.FrameworkLog;
+import com.mnet.framework.reporting.TestReporter;
+import com.mnet.reporting.utilities.GraylogReporting.Microservice;
+
+import io.restassured.http.ContentType;
+
+/**
+ * Suite-wide collector of Graylog logs. Tests queue retrieval requests, and a single background thread collects them
+ * until the earliest ingestion time (end time + API_GRAYLOG_TIMEOUT) of the waiting requests. Requests whose logs are
+ * ingested by then are retrieved as a batch - the others wait for a later batch.
+ * Searches of all microservices in the batch are then issued concurrently (up to GRAYLOG_CONCURRENCY, default 8)
+ * for the absolute time range of each request, and responses are streamed directly to the test logging path.
+ * @version Spring 2023
+ * @author Arya Biswas
+ */
+public class GraylogCollector {
+
+	private static final String VPN2_CREDENTIALS = FrameworkProperties.getProperty("VPN2_USERNAME") + ":"
+			+ FrameworkProperties.getProperty("VPN2_PASSWORD");
+	private static final String API_GRAYLOG_URI = FrameworkProperties.getProperty("API_GRAYLOG_URI");
+	private static final String JSON_GRAYLOG_LOOKUP = FrameworkProperties.getSystemProperty("user.dir") + File.separator
+			+ FrameworkProperties.getProperty("JSON_PATH") + FrameworkProperties.getProperty("JSON_GRAYLOG_LOOKUP");
+	/**Time (in ms) for logs to be ingested by Graylog after they are emitted.*/
+	private static final long API_GRAYLOG_TIMEOUT = FrameworkProperties.getLongProperty("API_GRAYLOG_TIMEOUT", 0);
+	private static final int GRAYLOG_CONCURRENCY = FrameworkProperties.getIntProperty("GRAYLOG_CONCURRENCY", 8);
+
+	private static final AtomicLong FILE_SEQUENCE = new AtomicLong();
+	private static final BlockingQueue<Retrieval> pending = new LinkedBlockingQueue<Retrieval>();
+	private static final ExecutorService searches = Executors.newFixedThreadPool(GRAYLOG_CONCURRENCY, runnable -> {
+		Thread thread = new Thread(runnable, "graylog-search");
+		thread.setDaemon(true);
+		return thread;
+	});
+
+	static {
+		Thread dispatcher = new Thread(GraylogCollector::dispatch, "graylog-collector");
+		dispatcher.setDaemon(true);
+		dispatcher.start();
+	}
+
+	private GraylogCollector() {}
+
+	/**
+	 * Queues retrieval of logs of the designated microservices between startTime and endTime (epoch ms).
+	 * @return Archive of the retrieved logs - completes once logs were ingested by Graylog and saved to the test logging path.
+	 */
+	public static CompletableFuture<GraylogArchive> submit(long startTime, long endTime, FrameworkLog log, TestReporter report,
+			Microservice... microservices) {
+		Retrieval retrieval = new Retrieval(startTime, endTime, log, report, microservices);
+
+		log.info("Queued retrieval of Graylog microservice logs...");
+		pending.add(retrieval);
+
+		return retrieval.completion;
+	}
+
+	/*
+	 * Helper functions
+	 */
+
+	private static class Retrieval {
+
+		private final long startTime;
+		private final long endTime;
+		private final FrameworkLog log;
+		private final TestReporter report;
+		private final Microservice[] microservices;
+		private final CompletableFuture<GraylogArchive> completion = new CompletableFuture<GraylogArchive>();
+
+		private Retrieval(long startTime, long endTime, FrameworkLog log, TestReporter report, Microservice[] microservices) {
+			this.startTime = startTime;
+			this.endTime = endTime;
+			this.log = log;
+			this.report = report;
+			this.microservices = microservices;
+		}
+
+		/**Time (epoch ms) at which logs of this retrieval are expected to be ingested.*/
+		private long getIngestionTime() {
+			return endTime + API_GRAYLOG_TIMEOUT;
+		}
+	}
+
+	private static void dispatch() {
+		List<Retrieval> waiting = new ArrayList<Retrieval>();
+
+		while (true) {
+			try {
+				if (waiting.isEmpty()) {
+					waiting.add(pending.take());
+				}
+
+				// Requests queued before the earliest ingestion time join the batch
+				long windowEnd = waiting.stream().mapToLong(Retrieval::getIngestionTime).min().getAsLong();
+				long remaining;
+
+				while ((remaining = windowEnd - System.currentTimeMillis()) > 0) {
+					Retrieval next = pending.poll(remaining, TimeUnit.MILLISECONDS);
+
+					if (next != null) {
+						waiting.add(next);
+						windowEnd = Math.min(windowEnd, next.getIngestionTime());
+					}
+				}
+
+				// Requests whose logs are not ingested yet are kept for the next batch instead of delaying this one
+				long now = System.currentTimeMillis();
+
+				for (Iterator<Retrieval> requests = waiting.iterator(); requests.hasNext();) {
+					Retrieval retrieval = requests.next();
+
+					if (retrieval.getIngestionTime() <= now) {
+						requests.remove();
+						retrieve(retrieval);
+					}
+				}
+			} catch (InterruptedException ie) {
+				Thread.currentThread().interrupt();
+				return;
+			} catch (RuntimeException re) {
+				// Dispatcher must survive failures of individual retrievals
+				re.printStackTrace();
+			}
+		}
+	}
+
+	private static void retrieve(Retrieval retrieval) {
+		Map<Microservice, CompletableFuture<Path>> searchResults = new LinkedHashMap<Microservice, CompletableFuture<Path>>();
+
+		for (Microservice service : retrieval.microservices) {
+			searchResults.put(service, CompletableFuture.supplyAsync(() -> search(retrieval, service), searches));
+		}
+
+		CompletableFuture.allOf(searchResults.values().toArray(CompletableFuture[]::new)).whenComplete((ignored, failure) -> {
+			if (failure != null) {
+				retrieval.completion.completeExceptionally(failure);
+				return;
+			}
+
+			Map<Microservice, Path> logFiles = new LinkedHashMap<Microservice, Path>();
+			searchResults.forEach((service, result) -> logFiles.put(service, result.join()));
+
+			retrieval.completion.complete(new GraylogArchive(retrieval.log, retrieval.report, logFiles));
+		});
+	}
+
+	private static Path search(Retrieval retrieval, Microservice service) {
+		FrameworkLog log = retrieval.log;
+		String serviceName = service.toString();
+		Path logFile = Paths.get(log.getLogDirectory(),
+				serviceName + "_" + FrameworkLog.getCurrentTimestamp() + "_" + FILE_SEQUENCE.incrementAndGet() + ".csv");
+
+		log.info("Fetching microservice logs from " + Instant.ofEpochMilli(retrieval.startTime) + " to "
+				+ Instant.ofEpochMilli(retrieval.getIngestionTime()) + " from " + serviceName + ":");
+
+		APIRequest request = new APIRequest(API_GRAYLOG_URI, getHeaders(), getLookupQuery(retrieval, service), ContentType.JSON, APICharset.NONE);
+		log.info(request.asLoggableString());
+
+		try {
+			Files.createDirectories(logFile.getParent());
+		} catch (IOException ioe) {
+			String err = "Failed to create directory for Graylog logs: " + logFile.getParent();
+			log.error(err);
+			log.printStackTrace(ioe);
+			throw new RuntimeException(err);
+		}
+
+		int statusCode = RestAPIManager.post(request, logFile);
+
+		if (statusCode != HttpStatus.SC_OK) {
+			log.warn("Graylog search for " + serviceName + " returned status " + statusCode + " - see " + logFile.getFileName());
+		}
+
+		return logFile;
+	}
+
+	private static Map<String, Object> getHeaders() {
+		String encodedCredentials = "Basic " + Base64.getEncoder().encodeToString(VPN2_CREDENTIALS.getBytes());
+
+		return Map.of(
+				"Authorization", encodedCredentials,
+				"X-Requested-By", "");
+	}
+
+	/**
+	 * Builds the search query from JSON_GRAYLOG_LOOKUP for the absolute time range of the retrieval.
+	 * Falls back to the relative range of the lookup (&lt;duration_minutes&gt;) if it defines no timerange.
+	 */
+	private static String getLookupQuery(Retrieval retrieval, Microservice service) {
+		double durationMillis = (double) (retrieval.getIngestionTime() - retrieval.startTime);
+		int durationMinutes = 1 + (int) Math.ceil(durationMillis / (60.0 * 1000.0));
+
+		String lookupQuery;
+
+		try {
+			lookupQuery = new String(Files.readAllBytes(Paths.get(JSON_GRAYLOG_LOOKUP)), StandardCharsets.UTF_8);
+		} catch (IOException ioe) {
+			String err = "Failed to read Graylog lookup query: " + JSON_GRAYLOG_LOOKUP;
+			retrieval.log.error(err);
+			retrieval.log.printStackTrace(ioe);
+			throw new RuntimeException(err);
+		}
+
+		lookupQuery = lookupQuery.replace("<duration_minutes>", Integer.toString(durationMinutes));
+
+		if (service == Microservice.ALL_MICROSERVICES) {
+			lookupQuery = lookupQuery.replace("filebeat_kubernetes_container_name: <microservice>", "");
+		} else {
+			lookupQuery = lookupQuery.replace("<microservice>", service.toString());
+		}
+
+		try {
+			ObjectMapper mapper = new ObjectMapper();
+			JsonNode query = mapper.readTree(lookupQuery);
+
+			if (setAbsoluteTimeRange(query, retrieval.startTime, retrieval.getIngestionTime())) {
+				return mapper.writeValueAsString(query);
+			}
+		} catch (IOException ioe) {
+			retrieval.log.warn("Graylog lookup query is not valid JSON - using relative time range");
+		}
+
+		return lookupQuery;
+	}
+
+	/**@return true if any timerange of the query was replaced.*/
+	private static boolean setAbsoluteTimeRange(JsonNode node, long startTime, long endTime) {
+		boolean replaced = false;
+
+		if (node.isObject() && node.has("timerange")) {
+			ObjectNode timeRange = ((ObjectNode) node).putObject("timerange");
+			timeRange.put("type", "absolute");
+			timeRange.put("from", Instant.ofEpochMilli(startTime).toString());
+			timeRange.put("to", Instant.ofEpochMilli(endTime).toString());
+			replaced = true;
+		}
+
+		for (Iterator<JsonNode> children = node.elements(); children.hasNext();) {
+			replaced |= setAbsoluteTimeRange(children.next(), startTime, endTime);
+		}
+
+		return replaced;
+	}
+}
@@ -1,22 +1,10 @@
 package com.mnet.reporting.utilities;
 
-import java.io.File;
-import java.util.Base64;
-import java.util.HashMap;
-import java.util.Map;
-
 import org.testng.ITestResult;
 
-import com.mnet.framework.api.APIRequest;
-import com.mnet.framework.api.APIRequest.APICharset;
-import com.mnet.framework.api.RestAPIManager;
-import com.mnet.framework.core.FrameworkProperties;
+import com.mnet.framework.core.MITETest;
 import com.mnet.framework.reporting.FrameworkLog;
 import com.mnet.framework.reporting.TestReporter;
-import com.mnet.framework.utilities.FileUtilities;
-import com.mnet.framework.utilities.Timeout;
-
-import io.restassured.http.ContentType;
 
 /**
  * Used to add Graylog reporting functionality to reports.
@@ -82,6 +70,24 @@ public interface GraylogReporting {
 			).writeAll();
 	}
 	
+	/**
+	 * Adds Graylog logs to Extent Report and saves them to the test logging path, without blocking the current test.
+	 * Logs are attached to the report of the current test once they are retrieved - the test class only waits for them in @AfterClass reportAndTeardown().
+	 * @param result ITestResult from current test. Obtain from overridden @AfterMethod cleanup() on instance of MITETest.
+	 * @param report TestReporter from current test.
+	 * @param microservices Name of Graylog microservice(s) to fetch logs from.
+	 * @implNote Recommended over {@link #fetchGraylogReports(ITestResult, TestReporter, Microservice...)} for data-driven tests,
+	 * which would otherwise wait for log ingestion (API_GRAYLOG_TIMEOUT) after every data row.
+	 */
+	default void fetchGraylogReportsInBackground(ITestResult result, TestReporter report, Microservice... microservices) {
+		// Test context is shared by test classes running in parallel - use the log of the test instance
+		FrameworkLog log = ((MITETest) result.getInstance()).getLog();
+		
+		report.reportWhenComplete(
+				GraylogCollector.submit(result.getStartMillis(), result.getEndMillis(), log, report, microservices),
+				GraylogArchive::writeAll);
+	}
+	
 	/**
 	 * Get the Graylog content corresponding to the applicable microservices.
 	 * Current system time is used as reference for the end of the logging interval.
@@ -92,61 +98,16 @@ public interface GraylogReporting {
 		return getMicroserviceLogsInInterval(startTime, System.currentTimeMillis(), logger, report, microservices);
 	}
 	
-	// TODO: Update to use Graylog absolute timerange with ISO Instant
-	
 	/**
 	 * Get the Graylog content corresponding to the applicable microservices.
+	 * Blocks until logs were ingested by Graylog (API_GRAYLOG_TIMEOUT after endTime) and retrieved.
 	 * @param startTime - Starting timestamp of retrieved logs in epoch milliseconds
 	 * @param endTime - Ending timestamp of retrieved logs in epoch milliseconds
+	 * @implNote Retrievals of tests running concurrently share a single wait for log ingestion (see {@link GraylogCollector}).
 	 */
 	default GraylogArchive getMicroserviceLogsInInterval(long startTime, long endTime, FrameworkLog log, TestReporter report,
 			Microservice... microservices) {
-		final String VPN2_CREDENTIALS = FrameworkProperties.getProperty("VPN2_USERNAME") + ":"
-				+ FrameworkProperties.getProperty("VPN2_PASSWORD");
-		final String API_GRAYLOG_URI = FrameworkProperties.getProperty("API_GRAYLOG_URI");
-		final String JSON_PATH = 
-				FrameworkProperties.getSystemProperty("user.dir") + File.separator + FrameworkProperties.getProperty("JSON_PATH");
-		final String JSON_GRAYLOG_LOOKUP = JSON_PATH + FrameworkProperties.getProperty("JSON_GRAYLOG_LOOKUP");
-		final long API_GRAYLOG_TIMEOUT = Long.parseLong(FrameworkProperties.getProperty("API_GRAYLOG_TIMEOUT"));
-
-		FileUtilities fileManager = new FileUtilities(log);
-		Map<Microservice, String> microserviceLogs = new HashMap<>();
-		
-		double durationMillis = (double) (endTime - startTime + API_GRAYLOG_TIMEOUT);
-		int durationMinutes = 1 + (int) Math.ceil(durationMillis / (60.0 * 1000.0));
-
-		String lookupQuery = fileManager.getFileContent(JSON_GRAYLOG_LOOKUP);
-		lookupQuery = lookupQuery.replace("<duration_minutes>", Integer.toString(durationMinutes));
-
-		String encodedCredentials = "Basic " + Base64.getEncoder().encodeToString(VPN2_CREDENTIALS.getBytes());
-		
-		Map<String, Object> headers = Map.of(
-				"Authorization", encodedCredentials,
-				"X-Requested-By", "");
-
 		log.info("Waiting for Graylog microservice logs to populate...");
-		Timeout.waitForTimeout(log, API_GRAYLOG_TIMEOUT);
-		
-		for (Microservice service : microservices) {
-			String serviceName = service.toString();
-			log.info("Fetching microservice logs for past " + durationMinutes + " minute(s) from " + serviceName + ":");
-
-			String serviceLookupQuery;
-
-			if (service == Microservice.ALL_MICROSERVICES) {
-				serviceLookupQuery = lookupQuery.replace("filebeat_kubernetes_container_name: <microservice>", "");
-			} else {
-				serviceLookupQuery = lookupQuery.replace("<microservice>", serviceName);
-			}
-
-			APIRequest request = new APIRequest(API_GRAYLOG_URI, headers, serviceLookupQuery, ContentType.JSON, APICharset.NONE);
-			log.info(request.asLoggableString());
-			
-			String apiResponse = RestAPIManager.post(request).toString();
-
-			microserviceLogs.put(service, apiResponse);
-		}
-
-		return new GraylogArchive(log, report, microserviceLogs);
+		return GraylogCollector.submit(startTime, endTime, log, report, microservices).join();
 	}
 }